@@ -7,7 +7,10 @@
  */
 package org.dspace.app.checker;
 
+import java.io.File;
 import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
 import java.sql.SQLException;
 import java.util.ArrayList;
 import java.util.Calendar;
@@ -22,6 +25,7 @@ import org.apache.commons.cli.HelpFormatter;
 import org.apache.commons.cli.Option;
 import org.apache.commons.cli.Options;
 import org.apache.commons.cli.ParseException;
+import org.apache.commons.io.FileUtils;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 import org.dspace.checker.BitstreamDispatcher;
@@ -38,6 +42,8 @@ import org.dspace.content.factory.ContentServiceFactory;
 import org.dspace.content.service.BitstreamService;
 import org.dspace.core.Context;
 import org.dspace.core.Utils;
+import org.dspace.services.ConfigurationService;
+import org.dspace.services.factory.DSpaceServicesFactory;
 
 /**
  * Command line access to the checksum checker. Options are listed in the
@@ -52,6 +58,9 @@ public final class ChecksumChecker {
 
     private static final BitstreamService bitstreamService = ContentServiceFactory.getInstance().getBitstreamService();
 
+    private static final ConfigurationService configurationService
+        = DSpaceServicesFactory.getInstance().getConfigurationService();
+
     /**
      * Blanked off constructor, this class should be used as a command line
      * tool.
@@ -79,6 +88,10 @@ public final class ChecksumChecker {
      * <dd>Report only errors in the logs</dd>
      * <dt>-p</dt>
      * <dd>Don't prune results before running checker</dd>
+     * <dt>-t [threads]</dt>
+     * <dd>number of threads reading the bitstreams</dd>
+     * <dt>-m [MB/s]</dt>
+     * <dd>maximum bandwidth used to read the bitstreams</dd>
      * </dl>
      *
      * @param args the command line arguments given
@@ -100,6 +113,8 @@ public final class ChecksumChecker {
         options.addOption("c", "count", true, "Check count");
         options.addOption("a", "handle", true, "Specify a handle to check");
         options.addOption("v", "verbose", false, "Report all processing");
+        options.addOption("t", "threads", true, "Number of threads reading the bitstreams");
+        options.addOption("m", "max-bandwidth", true, "Maximum bandwidth used to read the bitstreams, in MB/s");
 
         Option option;
 
@@ -155,7 +170,11 @@ public final class ChecksumChecker {
 
             // process should loop infinitely through
             // most_recent_checksum table
-            if (line.hasOption('l')) {
+            boolean resumable = line.hasOption('l');
+            if (resumable) {
+                // an interrupted loop is resumed with its start date, so that the
+                // bitstreams it has already checked are not checked again
+                processStart = startLoop(processStart);
                 dispatcher = new SimpleDispatcher(context, processStart, false);
             } else if (line.hasOption('L')) {
                 dispatcher = new SimpleDispatcher(context, processStart, true);
@@ -206,6 +225,12 @@ public final class ChecksumChecker {
             if (line.hasOption('v')) {
                 checker.setReportVerbose(true);
             }
+            if (line.hasOption('t')) {
+                checker.setThreads(Integer.parseInt(line.getOptionValue('t')));
+            }
+            if (line.hasOption('m')) {
+                checker.setMaxBandwidth(Long.parseLong(line.getOptionValue('m')) * 1024L * 1024L);
+            }
 
             checker.setProcessStartDate(processStart);
             checker.setDispatcher(dispatcher);
@@ -213,6 +238,9 @@ public final class ChecksumChecker {
             checker.process();
             context.complete();
             context = null;
+            if (resumable) {
+                FileUtils.deleteQuietly(getStateFile());
+            }
         } finally {
             if (context != null) {
                 context.abort();
@@ -220,6 +248,39 @@ public final class ChecksumChecker {
         }
     }
 
+    /**
+     * The file recording the start date of the current loop through the bitstreams.
+     *
+     * @return the state file
+     */
+    private static File getStateFile() {
+        return new File(configurationService.getProperty("checker.state-file",
+            configurationService.getProperty("dspace.dir") + File.separator + "var" + File.separator
+                + "checker.state"));
+    }
+
+    /**
+     * Start a loop through the bitstreams, or resume the loop which was interrupted.
+     *
+     * @param now the current date
+     * @return the start date of the loop
+     */
+    private static Date startLoop(Date now) {
+        File stateFile = getStateFile();
+        try {
+            if (stateFile.exists()) {
+                Date start = new Date(Long.parseLong(
+                    FileUtils.readFileToString(stateFile, StandardCharsets.UTF_8).trim()));
+                System.out.println("Resuming the loop started on " + start);
+                return start;
+            }
+            FileUtils.writeStringToFile(stateFile, String.valueOf(now.getTime()), StandardCharsets.UTF_8);
+        } catch (IOException | NumberFormatException e) {
+            LOG.warn("Unable to use the checker state file " + stateFile + ", the loop can't be resumed", e);
+        }
+        return now;
+    }
+
     /**
      * Print the help options for the user
      *
@@ -239,6 +300,8 @@ public final class ChecksumChecker {
         System.out.println("\nLoop continuously through all bitstreams: ChecksumChecker -L");
         System.out.println("\nCheck a defined number of bitstreams: ChecksumChecker -c 10");
         System.out.println("\nReport all processing (verbose)(default reports only errors): ChecksumChecker -v");
+        System.out.println("\nLoop once through all bitstreams with 4 threads reading at most 50 MB/s: "
+                               + "ChecksumChecker -l -t 4 -m 50");
         System.out.println("\nDefault (no arguments) is equivalent to '-c 1'");
         System.exit(0);
     }
@@ -57,6 +57,7 @@ public class MediaFilterScript extends DSpaceRunnable<MediaFilterScriptConfigura
     private boolean isForce = false; // default to not forced
     private String identifier = null; // object scope limiter
     private int max2Process = Integer.MAX_VALUE;
+    private int threads = 0; // number of threads, 0 for the configured number
     private String[] filterNames;
     private String[] skipIds = null;
     private Map<String, List<String>> filterFormats = new HashMap<>();
@@ -97,6 +98,10 @@ public class MediaFilterScript extends DSpaceRunnable<MediaFilterScriptConfigura
             }
         }
 
+        if (commandLine.hasOption('t')) {
+            threads = Integer.parseInt(commandLine.getOptionValue('t'));
+        }
+
         if (commandLine.hasOption('p')) {
             //specified which media filter plugins we are using
             filterNames = commandLine.getOptionValues('p');
@@ -127,6 +132,9 @@ public class MediaFilterScript extends DSpaceRunnable<MediaFilterScriptConfigura
         mediaFilterService.setQuiet(isQuiet);
         mediaFilterService.setVerbose(isVerbose);
         mediaFilterService.setMax2Process(max2Process);
+        if (threads > 0) {
+            mediaFilterService.setThreads(threads);
+        }
 
         //initialize an array of our enabled filters
         List<FormatFilter> filterList = new ArrayList<>();
@@ -54,6 +54,7 @@ public class MediaFilterScriptConfiguration<T extends MediaFilterScript> extends
         options.addOption("f", "force", false, "force all bitstreams to be processed");
         options.addOption("i", "identifier", true, "ONLY process bitstreams belonging to identifier");
         options.addOption("m", "maximum", true, "process no more than maximum items");
+        options.addOption("t", "threads", true, "number of threads filtering the items at once");
         options.addOption("h", "help", false, "help");
 
         Option pluginOption = Option.builder("p")
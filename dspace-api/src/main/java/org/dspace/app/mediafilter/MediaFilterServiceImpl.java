@@ -13,6 +13,18 @@ import java.util.HashMap;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
 
 import org.dspace.app.mediafilter.service.MediaFilterService;
 import org.dspace.authorize.service.AuthorizeService;
@@ -47,6 +59,11 @@ import org.springframework.beans.factory.annotation.Autowired;
  * recreate index after processing bitstreams; -i [identifier] limits processing
  * scope to a community, collection or item; and -m [max] limits processing to a
  * maximum number of items.
+ * <p>
+ * The items can be filtered by several threads at once (filter.threads), each
+ * with its own Context. The number of bitstreams a filter processes at once
+ * (filter.&lt;filter&gt;.max-threads) and the time it may take for a bitstream
+ * (filter.&lt;filter&gt;.timeout) can be limited per filter.
  */
 public class MediaFilterServiceImpl implements MediaFilterService, InitializingBean {
     @Autowired(required = true)
@@ -72,9 +89,26 @@ public class MediaFilterServiceImpl implements MediaFilterService, InitializingB
 
     protected int max2Process = Integer.MAX_VALUE;  // maximum number items to process
 
-    protected int processed = 0;   // number items processed
+    protected volatile int processed = 0;   // number items processed
 
-    protected Item currentItem = null;   // current item being processed
+    // current item being processed, by each thread
+    protected final ThreadLocal<Item> currentItem = new ThreadLocal<>();
+
+    protected int threads = 1;   // number of threads filtering the items
+
+    protected boolean running = false;   // whether the filters are being applied
+
+    protected ItemFilterPool pool = null;   // threads filtering the items, if more than one
+
+    // maximum number of bitstreams processed at once by each filter, if limited
+    protected final Map<String, Semaphore> filterPermits = new ConcurrentHashMap<>();
+
+    // permit of the bitstream being processed by the current thread
+    protected final ThreadLocal<FilterPermit> currentPermit = new ThreadLocal<>();
+
+    protected final Map<String, FilterStatistics> filterStatistics = new ConcurrentHashMap<>();
+
+    protected ExecutorService timeoutExecutor = null;   // runs the filters which have a timeout
 
     protected List<FormatFilter> filterClasses = null;
 
@@ -102,40 +136,89 @@ public class MediaFilterServiceImpl implements MediaFilterService, InitializingB
                 publicFiltersClasses.add(filter.trim());
             }
         }
+
+        threads = configurationService.getIntProperty("filter.threads", threads);
     }
 
-    @Override
-    public void applyFiltersAllItems(Context context) throws Exception {
-        if (skipList != null) {
-            //if a skip-list exists, we need to filter community-by-community
-            //so we can respect what is in the skip-list
-            List<Community> topLevelCommunities = communityService.findAllTop(context);
+    /**
+     * Applies the filters, unless they are already being applied by a caller:
+     * starts the threads filtering the items if needed, waits for them to
+     * filter all the items and logs the statistics of each filter.
+     *
+     * @param run applies the filters
+     * @throws Exception if error
+     */
+    protected void runFilters(FilterRun run) throws Exception {
+        if (running) {
+            run.run();
+            return;
+        }
 
-            for (Community topLevelCommunity : topLevelCommunities) {
-                applyFiltersCommunity(context, topLevelCommunity);
+        running = true;
+        filterStatistics.clear();
+        long start = System.nanoTime();
+        if (threads > 1) {
+            pool = new ItemFilterPool(threads);
+        }
+        try {
+            run.run();
+            if (pool != null) {
+                pool.finish();
             }
-        } else {
-            //otherwise, just find every item and process
-            Iterator<Item> itemIterator = itemService.findAll(context);
-            while (itemIterator.hasNext() && processed < max2Process) {
-                applyFiltersItem(context, itemIterator.next());
+            logStatistics(System.nanoTime() - start);
+        } finally {
+            if (pool != null) {
+                pool.close();
+                pool = null;
             }
+            running = false;
         }
     }
 
+    /**
+     * Applies the filters.
+     */
+    @FunctionalInterface
+    protected interface FilterRun {
+        void run() throws Exception;
+    }
+
+    @Override
+    public void applyFiltersAllItems(Context context) throws Exception {
+        runFilters(() -> {
+            if (skipList != null) {
+                //if a skip-list exists, we need to filter community-by-community
+                //so we can respect what is in the skip-list
+                List<Community> topLevelCommunities = communityService.findAllTop(context);
+
+                for (Community topLevelCommunity : topLevelCommunities) {
+                    applyFiltersCommunity(context, topLevelCommunity);
+                }
+            } else {
+                //otherwise, just find every item and process
+                Iterator<Item> itemIterator = itemService.findAll(context);
+                while (itemIterator.hasNext() && processed < max2Process) {
+                    applyFiltersItem(context, itemIterator.next());
+                }
+            }
+        });
+    }
+
     @Override
     public void applyFiltersCommunity(Context context, Community community)
         throws Exception {   //only apply filters if community not in skip-list
         if (!inSkipList(community.getHandle())) {
-            List<Community> subcommunities = community.getSubcommunities();
-            for (Community subcommunity : subcommunities) {
-                applyFiltersCommunity(context, subcommunity);
-            }
+            runFilters(() -> {
+                List<Community> subcommunities = community.getSubcommunities();
+                for (Community subcommunity : subcommunities) {
+                    applyFiltersCommunity(context, subcommunity);
+                }
 
-            List<Collection> collections = community.getCollections();
-            for (Collection collection : collections) {
-                applyFiltersCollection(context, collection);
-            }
+                List<Collection> collections = community.getCollections();
+                for (Collection collection : collections) {
+                    applyFiltersCollection(context, collection);
+                }
+            });
         }
     }
 
@@ -144,10 +227,12 @@ public class MediaFilterServiceImpl implements MediaFilterService, InitializingB
         throws Exception {
         //only apply filters if collection not in skip-list
         if (!inSkipList(collection.getHandle())) {
-            Iterator<Item> itemIterator = itemService.findAllByCollection(context, collection);
-            while (itemIterator.hasNext() && processed < max2Process) {
-                applyFiltersItem(context, itemIterator.next());
-            }
+            runFilters(() -> {
+                Iterator<Item> itemIterator = itemService.findAllByCollection(context, collection);
+                while (itemIterator.hasNext() && processed < max2Process) {
+                    applyFiltersItem(context, itemIterator.next());
+                }
+            });
         }
     }
 
@@ -155,17 +240,26 @@ public class MediaFilterServiceImpl implements MediaFilterService, InitializingB
     public void applyFiltersItem(Context c, Item item) throws Exception {
         //only apply filters if item not in skip-list
         if (!inSkipList(item.getHandle())) {
-            //cache this item in MediaFilterManager
-            //so it can be accessed by MediaFilters as necessary
-            currentItem = item;
+            runFilters(() -> {
+                if (pool != null) {
+                    // filtered by one of the threads, in its own context
+                    pool.submit(item.getID());
+                    c.uncacheEntity(item);
+                    return;
+                }
 
-            if (filterItem(c, item)) {
-                // increment processed count
-                ++processed;
-            }
-            // clear item objects from context cache and internal cache
-            c.uncacheEntity(currentItem);
-            currentItem = null;
+                //cache this item in MediaFilterManager
+                //so it can be accessed by MediaFilters as necessary
+                currentItem.set(item);
+
+                if (filterItem(c, item)) {
+                    // increment processed count
+                    ++processed;
+                }
+                // clear item objects from context cache and internal cache
+                c.uncacheEntity(item);
+                currentItem.remove();
+            });
         }
     }
 
@@ -215,7 +309,7 @@ public class MediaFilterServiceImpl implements MediaFilterService, InitializingB
             if (fmts.contains(myBitstream.getFormat(context).getShortDescription())) {
                 try {
                     // only update item if bitstream not skipped
-                    if (processBitstream(context, myItem, myBitstream, filterClass)) {
+                    if (applyFilter(context, myItem, myBitstream, filterClass)) {
                         itemService.update(context, myItem); // Make sure new bitstream has a sequence
                         // number
                         filtered = true;
@@ -284,7 +378,7 @@ public class MediaFilterServiceImpl implements MediaFilterService, InitializingB
                 if (applyFilter) {
                     try {
                         // only update item if bitstream not skipped
-                        if (processBitstream(context, myItem, myBitstream, filterClass)) {
+                        if (applyFilter(context, myItem, myBitstream, filterClass)) {
                             itemService.update(context, myItem); // Make sure new bitstream has a sequence
                             // number
                             filtered = true;
@@ -355,7 +449,7 @@ public class MediaFilterServiceImpl implements MediaFilterService, InitializingB
                 InputStream srcStream = bitstreamService.retrieve(context, source);
                 // filter the source stream to produce the destination stream
                 // this is the hard work, check for OutOfMemoryErrors at the end of the try clause.
-                InputStream destStream = formatFilter.getDestinationStream(item, srcStream, isVerbose);
+                InputStream destStream = getDestinationStream(formatFilter, item, srcStream);
         ) {
             if (destStream == null) {
                 if (!isQuiet) {
@@ -422,9 +516,347 @@ public class MediaFilterServiceImpl implements MediaFilterService, InitializingB
         return true;
     }
 
+    /**
+     * Applies a filter to a bitstream, within the limit of bitstreams the filter
+     * may process at once, and records the statistics of the filter.
+     *
+     * @param context      context
+     * @param item         item containing bitstream to process
+     * @param source       source bitstream to process
+     * @param formatFilter FormatFilter to perform filtering
+     * @return true if new rendition is created
+     * @throws Exception if error occurs
+     */
+    protected boolean applyFilter(Context context, Item item, Bitstream source, FormatFilter formatFilter)
+        throws Exception {
+        String filterName = getFilterName(formatFilter);
+        FilterStatistics statistics = filterStatistics.computeIfAbsent(filterName, name -> new FilterStatistics());
+        int timeout = getTimeout(filterName);
+        Semaphore permits = filterPermits.computeIfAbsent(filterName, name -> {
+            int maxThreads = configurationService.getIntProperty("filter." + name + ".max-threads", 0);
+            if (maxThreads <= 0 && timeout > 0) {
+                // the bitstreams which timed out keep their thread until the filter stops, so they are limited too
+                maxThreads = threads;
+            }
+            return new Semaphore(maxThreads > 0 ? maxThreads : Integer.MAX_VALUE);
+        });
+
+        if (timeout <= 0) {
+            permits.acquire();
+        } else if (!permits.tryAcquire(timeout, TimeUnit.SECONDS)) {
+            // the filter is still busy with bitstreams which timed out
+            statistics.timedOut.increment();
+            throw new TimeoutException(filterName + " had no free thread for " + timeout + " seconds");
+        }
+        FilterPermit permit = new FilterPermit(permits);
+        currentPermit.set(permit);
+        long start = System.nanoTime();
+        try {
+            boolean filtered = processBitstream(context, item, source, formatFilter);
+            if (filtered) {
+                statistics.filtered.increment();
+                statistics.bytes.add(source.getSizeBytes());
+            } else {
+                statistics.skipped.increment();
+            }
+            return filtered;
+        } catch (TimeoutException e) {
+            statistics.timedOut.increment();
+            throw e;
+        } catch (Exception e) {
+            statistics.failed.increment();
+            throw e;
+        } finally {
+            statistics.nanos.add(System.nanoTime() - start);
+            currentPermit.remove();
+            permit.release();
+        }
+    }
+
+    /**
+     * Gets the stream produced by a filter, giving up after the timeout of the
+     * filter (if any). A filter which times out is interrupted, but keeps the
+     * permit of the bitstream being filtered until it actually stops.
+     *
+     * @param formatFilter FormatFilter to perform filtering
+     * @param item         item containing bitstream to process
+     * @param source       the source stream
+     * @return the filtered stream
+     * @throws Exception if the filter fails or times out
+     */
+    protected InputStream getDestinationStream(FormatFilter formatFilter, Item item, InputStream source)
+        throws Exception {
+        String filterName = getFilterName(formatFilter);
+        int timeout = getTimeout(filterName);
+        if (timeout <= 0) {
+            return formatFilter.getDestinationStream(item, source, isVerbose);
+        }
+
+        FilterPermit permit = currentPermit.get();
+        if (permit != null) {
+            permit.retain();
+        }
+        AtomicBoolean started = new AtomicBoolean();
+        Future<InputStream> future = getTimeoutExecutor().submit(() -> {
+            if (!started.compareAndSet(false, true)) {
+                // abandoned before it started
+                return null;
+            }
+            try {
+                return formatFilter.getDestinationStream(item, source, isVerbose);
+            } finally {
+                if (permit != null) {
+                    permit.release();
+                }
+            }
+        });
+        boolean ended = false;
+        try {
+            InputStream destination = future.get(timeout, TimeUnit.SECONDS);
+            ended = true;
+            return destination;
+        } catch (TimeoutException e) {
+            throw new TimeoutException(filterName + " timed out after " + timeout + " seconds");
+        } catch (ExecutionException e) {
+            ended = true;
+            if (e.getCause() instanceof Error) {
+                throw (Error) e.getCause();
+            }
+            throw (Exception) e.getCause();
+        } finally {
+            if (!ended) {
+                future.cancel(true);
+                if (started.compareAndSet(false, true) && permit != null) {
+                    // the filter won't run, so it won't give its permit back itself
+                    permit.release();
+                }
+            }
+        }
+    }
+
+    /**
+     * The number of seconds after which the filtering of a bitstream is abandoned.
+     *
+     * @param filterName the name of the filter
+     * @return the timeout of the filter, or 0 if none
+     */
+    protected int getTimeout(String filterName) {
+        return configurationService.getIntProperty("filter." + filterName + ".timeout", 0);
+    }
+
+    protected synchronized ExecutorService getTimeoutExecutor() {
+        if (timeoutExecutor == null) {
+            AtomicInteger threadNumber = new AtomicInteger();
+            timeoutExecutor = Executors.newCachedThreadPool(runnable -> {
+                Thread thread = new Thread(runnable, "media-filter-timeout-" + threadNumber.incrementAndGet());
+                thread.setDaemon(true);
+                return thread;
+            });
+        }
+        return timeoutExecutor;
+    }
+
+    /**
+     * The name of a filter in the configuration: its class name, followed by its
+     * plugin name for SelfNamedPlugins.
+     *
+     * @param formatFilter the filter
+     * @return the name of the filter
+     */
+    protected String getFilterName(FormatFilter formatFilter) {
+        String filterName = formatFilter.getClass().getName();
+        if (formatFilter instanceof SelfNamedPlugin) {
+            filterName += "." + ((SelfNamedPlugin) formatFilter).getPluginInstanceName();
+        }
+        return filterName;
+    }
+
+    /**
+     * Logs the number of bitstreams processed by each filter, and its throughput.
+     *
+     * @param elapsed the duration of the run, in nanoseconds
+     */
+    protected void logStatistics(long elapsed) {
+        if (isQuiet || filterStatistics.isEmpty()) {
+            return;
+        }
+        double seconds = Math.max(elapsed, 1) / 1e9;
+        logInfo(String.format("Filtered %d items in %.1f s", processed, seconds));
+        for (Map.Entry<String, FilterStatistics> entry : filterStatistics.entrySet()) {
+            FilterStatistics statistics = entry.getValue();
+            logInfo(String.format("%s: %d filtered, %d skipped, %d failed, %d timed out, %.1f MB, "
+                                      + "%.2f bitstreams/s, %.1f s in filter", entry.getKey(),
+                                  statistics.filtered.sum(), statistics.skipped.sum(), statistics.failed.sum(),
+                                  statistics.timedOut.sum(), statistics.bytes.sum() / (1024.0 * 1024.0),
+                                  statistics.filtered.sum() / seconds, statistics.nanos.sum() / 1e9));
+        }
+    }
+
+    /**
+     * The permit of a filter to process a bitstream, shared by the thread
+     * processing the bitstream and the thread running the filter if it has a
+     * timeout. It is given back once both have released it, so that a filter
+     * which timed out still counts against the limit of the filter.
+     */
+    protected static class FilterPermit {
+        private final Semaphore permits;
+        private final AtomicInteger holders = new AtomicInteger(1);
+
+        protected FilterPermit(Semaphore permits) {
+            this.permits = permits;
+        }
+
+        protected void retain() {
+            holders.incrementAndGet();
+        }
+
+        protected void release() {
+            if (holders.decrementAndGet() == 0) {
+                permits.release();
+            }
+        }
+    }
+
+    /**
+     * Counts the bitstreams processed by a filter.
+     */
+    protected static class FilterStatistics {
+        protected final LongAdder filtered = new LongAdder();
+        protected final LongAdder skipped = new LongAdder();
+        protected final LongAdder failed = new LongAdder();
+        protected final LongAdder timedOut = new LongAdder();
+        protected final LongAdder bytes = new LongAdder();
+        protected final LongAdder nanos = new LongAdder();
+    }
+
+    /**
+     * Threads filtering the items, each in its own Context. No more items are
+     * filtered at once than could still be processed within max2Process, so
+     * that the limit is respected exactly.
+     */
+    protected class ItemFilterPool implements AutoCloseable {
+        private final int size;
+        private final ExecutorService executor;
+        private final ThreadLocal<Context> context = new ThreadLocal<>();
+        private int inProgress = 0;
+        private Exception error = null;
+
+        protected ItemFilterPool(int size) {
+            this.size = size;
+            AtomicInteger threadNumber = new AtomicInteger();
+            executor = Executors.newFixedThreadPool(size, runnable -> {
+                // the context of a thread is bound to it, so it has to be closed by the thread itself
+                Thread thread = new Thread(() -> {
+                    try {
+                        runnable.run();
+                    } finally {
+                        closeContext();
+                    }
+                }, "media-filter-" + threadNumber.incrementAndGet());
+                thread.setDaemon(true);
+                return thread;
+            });
+        }
+
+        private Context getContext() {
+            Context workerContext = context.get();
+            if (workerContext == null) {
+                workerContext = new Context();
+                // have to be super-user to do the filtering
+                workerContext.turnOffAuthorisationSystem();
+                context.set(workerContext);
+            }
+            return workerContext;
+        }
+
+        private void closeContext() {
+            Context workerContext = context.get();
+            if (workerContext != null && workerContext.isValid()) {
+                workerContext.abort();
+            }
+            context.remove();
+        }
+
+        /**
+         * Filters an item in one of the threads, once one is available.
+         *
+         * @param itemId the item to filter
+         * @throws Exception the error of a thread, if any
+         */
+        protected void submit(UUID itemId) throws Exception {
+            synchronized (this) {
+                while (error == null && processed < max2Process
+                    && (inProgress >= size || (inProgress > 0 && processed + inProgress >= max2Process))) {
+                    wait();
+                }
+                if (error != null) {
+                    throw error;
+                }
+                if (processed >= max2Process) {
+                    return;
+                }
+                inProgress++;
+            }
+            executor.execute(() -> filter(itemId));
+        }
+
+        private void filter(UUID itemId) {
+            Context workerContext = getContext();
+            boolean done = false;
+            Exception failure = null;
+            try {
+                Item item = itemService.find(workerContext, itemId);
+                if (item != null) {
+                    currentItem.set(item);
+                    done = filterItem(workerContext, item);
+                    workerContext.commit();
+                }
+            } catch (Exception e) {
+                // stops the run, whose uncommitted changes are aborted on close
+                failure = e;
+            } finally {
+                currentItem.remove();
+                synchronized (this) {
+                    inProgress--;
+                    if (done) {
+                        processed++;
+                    }
+                    if (failure != null && error == null) {
+                        error = failure;
+                    }
+                    notifyAll();
+                }
+            }
+        }
+
+        /**
+         * Waits for the items being filtered.
+         *
+         * @throws Exception the error of a thread, if any
+         */
+        protected synchronized void finish() throws Exception {
+            while (inProgress > 0) {
+                wait();
+            }
+            if (error != null) {
+                throw error;
+            }
+        }
+
+        @Override
+        public void close() {
+            executor.shutdownNow();
+            try {
+                executor.awaitTermination(1, TimeUnit.MINUTES);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
     @Override
     public Item getCurrentItem() {
-        return currentItem;
+        return currentItem.get();
     }
 
     @Override
@@ -439,21 +871,21 @@ public class MediaFilterServiceImpl implements MediaFilterService, InitializingB
         }
     }
 
-    private void logInfo(String message) {
+    private synchronized void logInfo(String message) {
         if (handler != null) {
             handler.logInfo(message);
         } else {
             System.out.println(message);
         }
     }
-    private void logError(String message) {
+    private synchronized void logError(String message) {
         if (handler != null) {
             handler.logError(message);
         } else {
             System.out.println(message);
         }
     }
-    private void logError(String message, Exception e) {
+    private synchronized void logError(String message, Exception e) {
         if (handler != null) {
             handler.logError(message, e);
         } else {
@@ -481,6 +913,11 @@ public class MediaFilterServiceImpl implements MediaFilterService, InitializingB
         this.max2Process = max2Process;
     }
 
+    @Override
+    public void setThreads(int threads) {
+        this.threads = Math.max(1, threads);
+    }
+
     @Override
     public void setFilterClasses(List<FormatFilter> filterClasses) {
         this.filterClasses = filterClasses;
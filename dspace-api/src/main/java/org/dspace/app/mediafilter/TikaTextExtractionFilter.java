@@ -11,8 +11,14 @@ import java.io.ByteArrayInputStream;
 import java.io.File;
 import java.io.FileInputStream;
 import java.io.FileWriter;
+import java.io.FilterInputStream;
 import java.io.IOException;
 import java.io.InputStream;
+import java.io.OutputStreamWriter;
+import java.io.PipedInputStream;
+import java.io.PipedOutputStream;
+import java.io.PushbackInputStream;
+import java.io.Writer;
 import java.nio.charset.StandardCharsets;
 
 import org.apache.commons.lang.StringUtils;
@@ -20,10 +26,12 @@ import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 import org.apache.tika.Tika;
 import org.apache.tika.exception.TikaException;
+import org.apache.tika.exception.WriteLimitReachedException;
 import org.apache.tika.metadata.Metadata;
 import org.apache.tika.parser.AutoDetectParser;
 import org.apache.tika.sax.BodyContentHandler;
 import org.apache.tika.sax.ContentHandlerDecorator;
+import org.apache.tika.sax.WriteOutContentHandler;
 import org.dspace.content.Item;
 import org.dspace.services.ConfigurationService;
 import org.dspace.services.factory.DSpaceServicesFactory;
@@ -38,6 +46,9 @@ public class TikaTextExtractionFilter
     extends MediaFilter {
     private final static Logger log = LogManager.getLogger();
 
+    // size of the buffer between the extraction and the storage of the text
+    private final static int PIPE_SIZE = 64 * 1024;
+
     @Override
     public String getFilteredName(String oldFilename) {
         return oldFilename + ".txt";
@@ -63,6 +74,14 @@ public class TikaTextExtractionFilter
         throws Exception {
         ConfigurationService configurationService = DSpaceServicesFactory.getInstance().getConfigurationService();
         boolean useTemporaryFile = configurationService.getBooleanProperty("textextractor.use-temp-file", false);
+        boolean useStream = configurationService.getBooleanProperty("textextractor.use-stream", false);
+        // Get maximum characters to extract. Default is 100,000 chars, which is also Tika's default setting.
+        int maxChars = configurationService.getIntProperty("textextractor.max-chars", 100000);
+
+        if (useStream) {
+            // Extract text out of source file while it is being stored, returning results as InputStream
+            return extractUsingStream(currentItem, source, maxChars, verbose);
+        }
 
         if (useTemporaryFile) {
             // Extract text out of source file using a temp file, returning results as InputStream
@@ -70,9 +89,7 @@ public class TikaTextExtractionFilter
         }
 
         // Not using temporary file. We'll use Tika's default in-memory parsing.
-        // Get maximum characters to extract. Default is 100,000 chars, which is also Tika's default setting.
         String extractedText;
-        int maxChars = configurationService.getIntProperty("textextractor.max-chars", 100000);
         try {
             // Use Tika to extract text from input. Tika will automatically detect the file type.
             Tika tika = new Tika();
@@ -105,6 +122,105 @@ public class TikaTextExtractionFilter
         return null;
     }
 
+    /**
+     * Extracts the text out of a given source InputStream while it is being read. The text is extracted by another
+     * thread into a small buffer, so the text is written to the bitstore as it is extracted, and is never held in
+     * memory or in a temporary file as a whole.
+     * @param currentItem item of the source (used for logging)
+     * @param source source InputStream
+     * @param maxChars maximum number of characters to extract, or -1 for no maximum
+     * @param verbose verbose mode enabled/disabled
+     * @return InputStream of the extracted text, or null if no text could be extracted
+     * @throws IOException if the text extraction failed before any text was extracted
+     */
+    private InputStream extractUsingStream(Item currentItem, InputStream source, int maxChars, boolean verbose)
+        throws IOException {
+        PipedInputStream pipe = new PipedInputStream(PIPE_SIZE);
+        ExtractedTextStream extractedText = new ExtractedTextStream(pipe);
+        PipedOutputStream out = new PipedOutputStream(pipe);
+
+        Thread extractor = new Thread(() -> {
+            Writer writer = new OutputStreamWriter(out, StandardCharsets.UTF_8);
+            try {
+                // Mimics Tika().parseToString(), which only extracts text from the body of the file.
+                ContentHandlerDecorator handler = new BodyContentHandler(new WriteOutContentHandler(writer, maxChars));
+                new AutoDetectParser().parse(source, handler, new Metadata());
+                writer.flush();
+            } catch (SAXException e) {
+                if (WriteLimitReachedException.isWriteLimitReached(e)) {
+                    log.debug("Extracted text truncated to {} characters (textextractor.max-chars)", maxChars);
+                } else {
+                    extractedText.error = e;
+                }
+            } catch (Throwable e) {
+                // the error must be set before the end of the stream is reached
+                extractedText.error = e;
+            } finally {
+                try {
+                    writer.close();
+                } catch (IOException e) {
+                    // the reader has stopped reading
+                    log.debug("Extracted text not read entirely", e);
+                }
+            }
+        }, "text-extractor");
+        extractor.setDaemon(true);
+        extractor.start();
+
+        if (verbose) {
+            System.out.println("(Verbose mode) Extracted text is streamed to the bitstore, and not printed.");
+        }
+
+        // Wait for the first extracted character, to skip a bitstream without text
+        int first = extractedText.peek();
+        if (first == -1) {
+            if (extractedText.error != null) {
+                log.error("Unable to extract text from bitstream in Item {}",
+                          currentItem != null ? currentItem.getID().toString() : null, extractedText.error);
+                throw new IOException("Unable to extract text", extractedText.error);
+            }
+            return null;
+        }
+        return extractedText;
+    }
+
+    /**
+     * Text extracted by another thread. An error of the extraction is thrown at the end of the stream, so the text is
+     * not stored as if it were complete.
+     */
+    private static class ExtractedTextStream extends FilterInputStream {
+        private volatile Throwable error;
+
+        private ExtractedTextStream(InputStream in) {
+            super(new PushbackInputStream(in));
+        }
+
+        private int peek() throws IOException {
+            int b = in.read();
+            if (b != -1) {
+                ((PushbackInputStream) in).unread(b);
+            }
+            return b;
+        }
+
+        @Override
+        public int read() throws IOException {
+            return checkEnd(super.read());
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) throws IOException {
+            return checkEnd(super.read(b, off, len));
+        }
+
+        private int checkEnd(int read) throws IOException {
+            if (read == -1 && error != null) {
+                throw new IOException("Unable to extract text", error);
+            }
+            return read;
+        }
+    }
+
     /**
      * Extracts the text out of a given source InputStream, using a temporary file. This decreases the amount of memory
      * necessary for text extraction, but can be slower as it requires writing extracted text to a temporary file.
@@ -120,6 +120,13 @@ public interface MediaFilterService {
 
     public void setMax2Process(int max2Process);
 
+    /**
+     * Set the number of threads filtering the items, each in its own Context.
+     *
+     * @param threads number of threads, 1 to filter the items in the calling thread
+     */
+    public void setThreads(int threads);
+
     public void setFilterClasses(List<FormatFilter> filterClasses);
 
     public void setSkipList(List<String> skipList);
@@ -7,14 +7,26 @@
  */
 package org.dspace.app.sitemap;
 
+import java.io.ByteArrayOutputStream;
 import java.io.File;
-import java.io.FileOutputStream;
 import java.io.IOException;
 import java.io.OutputStream;
 import java.io.PrintStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Date;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
 import java.util.zip.GZIPOutputStream;
 
+import org.apache.commons.lang3.tuple.Pair;
+
 /**
  * Base class for creating sitemaps of various kinds. A sitemap consists of one
  * or more files which list significant URLs on a site for search engines to
@@ -33,10 +45,21 @@ import java.util.zip.GZIPOutputStream;
  *   }
  *   g.finish();
  * </pre>
+ * <P>
+ * Files are prepared in memory and only replace the existing file of the same
+ * name once complete, and only if their content changed, so that the last
+ * modification time of each file tells when its URLs last changed. If an
+ * executor is given, files are written by its threads while the next file is
+ * being filled.
  *
  * @author Robert Tansley
  */
 public abstract class AbstractGenerator {
+    /**
+     * Maximum number of complete files kept in memory until they are written
+     */
+    private static final int MAX_PENDING_WRITES = 16;
+
     /**
      * Number of files written so far
      */
@@ -67,6 +90,26 @@ public abstract class AbstractGenerator {
      */
     private int trailingByteCount;
 
+    /**
+     * Content of current file
+     */
+    private ByteArrayOutputStream currentContent;
+
+    /**
+     * Part of the maximum size and number of URLs files are filled to
+     */
+    private double fillRatio = 1.0;
+
+    /**
+     * Executor writing the files, or null to write them in the calling thread
+     */
+    private ExecutorService writers;
+
+    /**
+     * Files which are being written by the executor
+     */
+    private final List<Future<Void>> pendingWrites = new ArrayList<>();
+
     /**
      * Initialize this generator to write to the given directory. This must be
      * called by any subclass constructor.
@@ -89,14 +132,8 @@ public abstract class AbstractGenerator {
     protected void startNewFile() throws IOException {
         String lbp = getLeadingBoilerPlate();
 
-        OutputStream fo = new FileOutputStream(new File(outputDir,
-                                                        getFilename(fileCount)));
-
-        if (useCompression()) {
-            fo = new GZIPOutputStream(fo);
-        }
-
-        currentOutput = new PrintStream(fo);
+        currentContent = new ByteArrayOutputStream();
+        currentOutput = new PrintStream(currentContent);
         currentOutput.print(lbp);
         bytesWritten = lbp.length();
         urlsWritten = 0;
@@ -118,8 +155,8 @@ public abstract class AbstractGenerator {
 
         String newURLText = getURLText(url, lastMod);
 
-        if (bytesWritten + newURLText.length() + trailingByteCount > getMaxSize()
-            || urlsWritten + 1 > getMaxURLs()) {
+        if (bytesWritten + newURLText.length() + trailingByteCount > getMaxSize() * fillRatio
+            || urlsWritten + 1 > getMaxURLs() * fillRatio) {
             closeCurrentFile();
             startNewFile();
         }
@@ -138,9 +175,88 @@ public abstract class AbstractGenerator {
     protected void closeCurrentFile() throws IOException {
         currentOutput.print(getTrailingBoilerPlate());
         currentOutput.close();
+        writeFile(getFilename(fileCount), currentContent.toByteArray());
+        currentContent = null;
         fileCount++;
     }
 
+    /**
+     * Close the current sitemap file, if any, so that the next URL added
+     * starts a new file.
+     *
+     * @throws IOException if IO error
+     *                     if an error occurs writing
+     */
+    public void endFile() throws IOException {
+        if (null != currentOutput) {
+            closeCurrentFile();
+            currentOutput = null;
+        }
+    }
+
+    /**
+     * Return the number of the file the next URL is added to, unless that
+     * file is full.
+     *
+     * @return the number of the current sitemap file (zero is first)
+     */
+    public int getCurrentFileNumber() {
+        return fileCount;
+    }
+
+    /**
+     * Only fill files up to the given part of their maximum size and number of
+     * URLs, leaving room for URLs added when updating a single file.
+     *
+     * @param fillRatio part of the maximum size and URLs, between 0 and 1
+     */
+    public void setFillRatio(double fillRatio) {
+        this.fillRatio = fillRatio;
+    }
+
+    /**
+     * Write the files using the threads of the given executor.
+     *
+     * @param writers executor to write files with, or null to write them in
+     *                the calling thread
+     */
+    public void setWriters(ExecutorService writers) {
+        this.writers = writers;
+    }
+
+    /**
+     * Replace the sitemap file with the given number by one listing the given
+     * URLs, independently of the files being added to this generator. This
+     * may be called by several threads at once.
+     *
+     * @param number index of the sitemap file (zero is first)
+     * @param urls   URLs with the date they were last modified, or {@code null}
+     * @return {@code false} if the URLs do not fit in a single file, in which
+     * case the file is left unchanged
+     * @throws IOException if IO error
+     *                     if an error occurs writing
+     */
+    public boolean rewriteFile(int number, List<Pair<String, Date>> urls) throws IOException {
+        if (urls.size() > getMaxURLs()) {
+            return false;
+        }
+        StringBuilder text = new StringBuilder(getLeadingBoilerPlate());
+        for (Pair<String, Date> url : urls) {
+            text.append(getURLText(url.getLeft(), url.getRight()));
+        }
+        text.append(getTrailingBoilerPlate());
+        if (text.length() > getMaxSize()) {
+            return false;
+        }
+
+        ByteArrayOutputStream content = new ByteArrayOutputStream();
+        try (PrintStream out = new PrintStream(content)) {
+            out.print(text);
+        }
+        replaceFile(getFilename(number), content.toByteArray());
+        return true;
+    }
+
     /**
      * Complete writing sitemap files and write the index files. This is invoked
      * when all calls to {@link AbstractGenerator#addURL(String, Date)} have
@@ -154,19 +270,98 @@ public abstract class AbstractGenerator {
         if (null != currentOutput) {
             closeCurrentFile();
         }
+        waitForWrites();
 
-        OutputStream fo = new FileOutputStream(new File(outputDir,
-                                                        getIndexFilename()));
+        finishIndex(fileCount);
 
-        if (useCompression()) {
-            fo = new GZIPOutputStream(fo);
+        return fileCount;
+    }
+
+    /**
+     * Write the index file, listing the given number of sitemap files. All
+     * sitemap files must have been written.
+     *
+     * @param sitemapCount number of sitemap files
+     * @throws IOException if IO error
+     *                     if an error occurs writing
+     */
+    public void finishIndex(int sitemapCount) throws IOException {
+        ByteArrayOutputStream content = new ByteArrayOutputStream();
+        try (PrintStream out = new PrintStream(content)) {
+            writeIndex(out, sitemapCount);
         }
+        replaceFile(getIndexFilename(), content.toByteArray());
+    }
 
-        PrintStream out = new PrintStream(fo);
-        writeIndex(out, fileCount);
-        out.close();
+    /**
+     * Write a file, using the executor if there is one.
+     */
+    private void writeFile(String filename, byte[] content) throws IOException {
+        if (writers == null) {
+            replaceFile(filename, content);
+        } else {
+            while (pendingWrites.size() >= MAX_PENDING_WRITES) {
+                waitForWrite(pendingWrites.remove(0));
+            }
+            pendingWrites.add(writers.submit(() -> {
+                replaceFile(filename, content);
+                return null;
+            }));
+        }
+    }
 
-        return fileCount;
+    /**
+     * Wait until all files handed to the executor have been written.
+     */
+    private void waitForWrites() throws IOException {
+        try {
+            for (Future<Void> pendingWrite : pendingWrites) {
+                waitForWrite(pendingWrite);
+            }
+        } finally {
+            pendingWrites.clear();
+        }
+    }
+
+    private static void waitForWrite(Future<Void> pendingWrite) throws IOException {
+        try {
+            pendingWrite.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted while writing sitemap files", e);
+        } catch (ExecutionException e) {
+            throw new IOException("Unable to write sitemap file", e.getCause());
+        }
+    }
+
+    /**
+     * Replace the file of the given name with the given (uncompressed)
+     * content. The file is left untouched if its content is the same, and is
+     * otherwise replaced at once so that it is never read half written. The new
+     * file gets the default permissions, so that the web server can read it.
+     */
+    private void replaceFile(String filename, byte[] content) throws IOException {
+        if (useCompression()) {
+            ByteArrayOutputStream compressed = new ByteArrayOutputStream();
+            try (OutputStream out = new GZIPOutputStream(compressed)) {
+                out.write(content);
+            }
+            content = compressed.toByteArray();
+        }
+
+        Path file = new File(outputDir, filename).toPath();
+        if (Files.isRegularFile(file) && Files.size(file) == content.length
+            && Arrays.equals(Files.readAllBytes(file), content)) {
+            return;
+        }
+        // created like the file itself would be, as temporary files are only readable by their owner
+        Path temp = Files.createFile(outputDir.toPath().resolve(filename + "." + UUID.randomUUID() + ".tmp"));
+        try {
+            Files.write(temp, content);
+            Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } finally {
+            Files.deleteIfExists(temp);
+        }
     }
 
     /**
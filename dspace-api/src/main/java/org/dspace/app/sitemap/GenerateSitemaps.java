@@ -17,9 +17,19 @@ import java.net.MalformedURLException;
 import java.net.URL;
 import java.net.URLEncoder;
 import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.Date;
 import java.util.Iterator;
 import java.util.List;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
 
 import org.apache.commons.cli.CommandLine;
 import org.apache.commons.cli.CommandLineParser;
@@ -27,10 +37,10 @@ import org.apache.commons.cli.DefaultParser;
 import org.apache.commons.cli.HelpFormatter;
 import org.apache.commons.cli.Options;
 import org.apache.commons.cli.ParseException;
-import org.apache.commons.collections4.CollectionUtils;
 import org.apache.commons.io.FileUtils;
 import org.apache.commons.lang3.ArrayUtils;
 import org.apache.commons.lang3.StringUtils;
+import org.apache.commons.lang3.tuple.Pair;
 import org.apache.logging.log4j.Logger;
 import org.dspace.content.Collection;
 import org.dspace.content.Community;
@@ -41,11 +51,6 @@ import org.dspace.content.service.CommunityService;
 import org.dspace.content.service.ItemService;
 import org.dspace.core.Context;
 import org.dspace.core.LogHelper;
-import org.dspace.discovery.DiscoverQuery;
-import org.dspace.discovery.DiscoverResult;
-import org.dspace.discovery.SearchService;
-import org.dspace.discovery.SearchServiceException;
-import org.dspace.discovery.SearchUtils;
 import org.dspace.services.ConfigurationService;
 import org.dspace.services.factory.DSpaceServicesFactory;
 
@@ -67,7 +72,11 @@ public class GenerateSitemaps {
     private static final ItemService itemService = ContentServiceFactory.getInstance().getItemService();
     private static final ConfigurationService configurationService =
         DSpaceServicesFactory.getInstance().getConfigurationService();
-    private static final SearchService searchService = SearchUtils.getSearchService();
+
+    /**
+     * Number of items whose metadata is loaded at once
+     */
+    private static final int BATCH_SIZE = 100;
 
     /**
      * Default constructor
@@ -95,6 +104,8 @@ public class GenerateSitemaps {
         options
             .addOption("d", "delete", false,
                 "delete sitemaps dir and its contents");
+        options.addOption("i", "incremental", false,
+                          "only rewrite the sitemap files listing items modified since the previous run");
 
         CommandLine line = null;
 
@@ -130,7 +141,7 @@ public class GenerateSitemaps {
 
         // Note the negation (CLI options indicate NOT to generate a sitemap)
         if (!line.hasOption('b') || !line.hasOption('s')) {
-            generateSitemaps(!line.hasOption('b'), !line.hasOption('s'));
+            generateSitemaps(!line.hasOption('b'), !line.hasOption('s'), line.hasOption('i'));
         }
 
         if (line.hasOption('d')) {
@@ -161,7 +172,7 @@ public class GenerateSitemaps {
      * @throws IOException  if IO error occurs.
      */
     public static void generateSitemapsScheduled() throws IOException, SQLException {
-        generateSitemaps(true, true);
+        generateSitemaps(true, true, configurationService.getBooleanProperty("sitemap.incremental", false));
     }
 
     /**
@@ -188,6 +199,28 @@ public class GenerateSitemaps {
      *                      if IO error occurs.
      */
     public static void generateSitemaps(boolean makeHTMLMap, boolean makeSitemapOrg) throws SQLException, IOException {
+        generateSitemaps(makeHTMLMap, makeSitemapOrg, false);
+    }
+
+    /**
+     * Generate sitemap.org protocol and/or basic HTML sitemaps. Incrementally,
+     * only the files listing communities and collections and the files listing
+     * items modified since the previous run are rewritten. All files are
+     * generated anyway if there were none, if too many items were added to a
+     * file, or if they were last all generated more than
+     * {@code sitemap.incremental.rebuild.days} days ago (deleted items are only
+     * removed then).
+     *
+     * @param makeHTMLMap    if {@code true}, generate an HTML sitemap.
+     * @param makeSitemapOrg if {@code true}, generate an sitemap.org sitemap.
+     * @param incremental    if {@code true}, only update the files which changed
+     * @throws SQLException if database error
+     *                      if a database error occurs.
+     * @throws IOException  if IO error
+     *                      if IO error occurs.
+     */
+    public static void generateSitemaps(boolean makeHTMLMap, boolean makeSitemapOrg, boolean incremental)
+        throws SQLException, IOException {
         String uiURLStem = configurationService.getProperty("dspace.ui.url");
         String sitemapStem = uiURLStem + "/sitemap";
 
@@ -196,109 +229,286 @@ public class GenerateSitemaps {
             log.error("Unable to create output directory");
         }
 
-        AbstractGenerator html = null;
-        AbstractGenerator sitemapsOrg = null;
-
+        List<Supplier<AbstractGenerator>> generators = new ArrayList<>();
         if (makeHTMLMap) {
-            html = new HTMLSitemapGenerator(outputDir, sitemapStem, ".html");
+            generators.add(() -> new HTMLSitemapGenerator(outputDir, sitemapStem, ".html"));
         }
-
         if (makeSitemapOrg) {
-            sitemapsOrg = new SitemapsOrgGenerator(outputDir, sitemapStem, ".xml");
+            generators.add(() -> new SitemapsOrgGenerator(outputDir, sitemapStem, ".xml"));
+        }
+
+        // leave room in each file for the items added before it is next generated from scratch
+        double fillRatio = incremental
+            ? configurationService.getIntProperty("sitemap.incremental.fill", 80) / 100.0 : 1.0;
+        int threads = Math.max(1, configurationService.getIntProperty("sitemap.threads",
+                                                                     Runtime.getRuntime().availableProcessors()));
+        Date start = new Date();
+        ExecutorService writers = Executors.newFixedThreadPool(threads);
+        try {
+            List<AbstractGenerator> fullGenerators = new ArrayList<>();
+            for (Supplier<AbstractGenerator> generator : generators) {
+                if (!incremental || !updateSitemaps(generator.get(), uiURLStem, start, fillRatio, writers)) {
+                    fullGenerators.add(generator.get());
+                }
+            }
+            if (!fullGenerators.isEmpty()) {
+                generateAllSitemaps(fullGenerators, uiURLStem, start, fillRatio, writers);
+            }
+        } finally {
+            writers.shutdownNow();
         }
+    }
 
+    /**
+     * Generate all files of the given generators, listing the items by UUID,
+     * and save the state needed to update them incrementally. Files filled up
+     * completely (when not generated for incremental updates) leave no room
+     * for new items, so no state is saved for them, and the state of a previous
+     * incremental run is removed.
+     */
+    private static void generateAllSitemaps(List<AbstractGenerator> generators, String uiURLStem, Date start,
+                                            double fillRatio, ExecutorService writers)
+        throws SQLException, IOException {
         Context c = new Context(Context.Mode.READ_ONLY);
 
-        List<Community> comms = communityService.findAll(c);
+        for (AbstractGenerator generator : generators) {
+            generator.setFillRatio(fillRatio);
+            generator.setWriters(writers);
+        }
+        int communityCount = addCommunityURLs(c, uiURLStem, generators);
+        int collectionCount = addCollectionURLs(c, uiURLStem, generators);
+
+        // items start in a new file, so that files listing items can be updated on their own
+        List<SitemapState> states = new ArrayList<>();
+        for (AbstractGenerator generator : generators) {
+            generator.endFile();
+            states.add(new SitemapState(getWatermark(start), start, generator.getCurrentFileNumber()));
+        }
 
-        for (Community comm : comms) {
-            String url = uiURLStem + "/communities/" + comm.getID();
+        Iterator<Item> allItems = itemService.findAllByIdRange(c, null, null);
+        List<Item> batch = new ArrayList<>(BATCH_SIZE);
+        int itemCount = 0;
 
-            if (makeHTMLMap) {
-                html.addURL(url, null);
+        while (allItems.hasNext()) {
+            batch.add(allItems.next());
+            if (batch.size() < BATCH_SIZE && allItems.hasNext()) {
+                continue;
             }
-            if (makeSitemapOrg) {
-                sitemapsOrg.addURL(url, null);
+            itemService.prefetch(c, batch, false);
+            for (Item i : batch) {
+                String url = getItemURL(uiURLStem, i);
+                Date lastMod = i.getLastModified();
+
+                for (int g = 0; g < generators.size(); g++) {
+                    generators.get(g).addURL(url, lastMod);
+                    // record the first item of each file
+                    if (generators.get(g).getCurrentFileNumber() >= states.get(g).getFileCount()) {
+                        states.get(g).addItemFile(i.getID());
+                    }
+                }
+
+                c.uncacheEntity(i);
+
+                itemCount++;
             }
+            batch.clear();
+        }
 
-            c.uncacheEntity(comm);
+        for (int g = 0; g < generators.size(); g++) {
+            AbstractGenerator generator = generators.get(g);
+            int files = generator.finish();
+            File stateFile = getStateFile(generator);
+            if (fillRatio < 1.0) {
+                states.get(g).save(stateFile);
+            } else if (stateFile.exists() && !stateFile.delete()) {
+                log.warn("Unable to delete the outdated sitemap state " + stateFile);
+            }
+            log.info(LogHelper.getHeader(c, "write_sitemap",
+                                          "type=" + getType(generator) + ",num_files=" + files + ",communities="
+                                              + communityCount + ",collections=" + collectionCount
+                                              + ",items=" + itemCount));
         }
 
-        List<Collection> colls = collectionService.findAll(c);
+        c.abort();
+    }
 
-        for (Collection coll : colls) {
-            String url = uiURLStem + "/collections/" + coll.getID();
+    /**
+     * Rewrite the files of the given generator listing communities and
+     * collections, and the files listing items modified since the previous
+     * run, in parallel.
+     *
+     * @return {@code false} if all files need to be generated instead
+     */
+    private static boolean updateSitemaps(AbstractGenerator generator, String uiURLStem, Date start,
+                                          double fillRatio, ExecutorService writers)
+        throws SQLException, IOException {
+        File stateFile = getStateFile(generator);
+        SitemapState state = SitemapState.load(stateFile);
+        if (state == null) {
+            log.info("No previous " + getType(generator) + " sitemaps to update, generating all sitemaps");
+            return false;
+        }
+        int rebuildDays = configurationService.getIntProperty("sitemap.incremental.rebuild.days", 7);
+        if (start.getTime() - state.getLastFullRun().getTime() > TimeUnit.DAYS.toMillis(rebuildDays)) {
+            log.info("The " + getType(generator) + " sitemaps were generated more than " + rebuildDays
+                         + " days ago, generating all sitemaps");
+            return false;
+        }
 
-            if (makeHTMLMap) {
-                html.addURL(url, null);
-            }
-            if (makeSitemapOrg) {
-                sitemapsOrg.addURL(url, null);
+        Set<Integer> itemFiles = new TreeSet<>();
+        Context c = new Context(Context.Mode.READ_ONLY);
+        try {
+            generator.setFillRatio(fillRatio);
+            addCommunityURLs(c, uiURLStem, Collections.singletonList(generator));
+            addCollectionURLs(c, uiURLStem, Collections.singletonList(generator));
+            generator.endFile();
+            if (generator.getCurrentFileNumber() != state.getContainerFiles()) {
+                log.info("The communities and collections no longer fit in the " + getType(generator)
+                             + " sitemap files they were listed in, generating all sitemaps");
+                return false;
             }
 
-            c.uncacheEntity(coll);
+            Iterator<Item> modifiedItems = itemService.findByLastModifiedSince(c, state.getLastRun());
+            while (modifiedItems.hasNext()) {
+                Item i = modifiedItems.next();
+                itemFiles.add(state.getItemFile(i.getID()));
+                c.uncacheEntity(i);
+            }
+        } finally {
+            c.abort();
+        }
+        if (itemFiles.contains(-1)) {
+            log.info("There are no " + getType(generator) + " sitemap files listing items, generating all sitemaps");
+            return false;
         }
 
-        Iterator<Item> allItems = itemService.findAll(c);
-        int itemCount = 0;
-
-        while (allItems.hasNext()) {
-            Item i = allItems.next();
+        List<Future<Boolean>> rewrites = new ArrayList<>();
+        for (int itemFile : itemFiles) {
+            rewrites.add(writers.submit(() -> rewriteItemFile(generator, uiURLStem, state, itemFile)));
+        }
+        boolean fits = true;
+        try {
+            for (Future<Boolean> rewrite : rewrites) {
+                fits &= rewrite.get();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted while updating sitemap files", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof SQLException) {
+                throw (SQLException) e.getCause();
+            }
+            throw new IOException("Unable to update sitemap file", e.getCause());
+        }
+        if (!fits) {
+            log.info("Too many items were added to a " + getType(generator) + " sitemap file, generating all "
+                         + "sitemaps");
+            return false;
+        }
 
-            DiscoverQuery entityQuery = new DiscoverQuery();
-            entityQuery.setQuery("search.uniqueid:\"Item-" + i.getID() + "\" and entityType:*");
-            entityQuery.addSearchField("entityType");
+        generator.finishIndex(state.getFileCount());
+        state.setLastRun(getWatermark(start));
+        state.save(stateFile);
+        log.info("Updated " + itemFiles.size() + " of " + state.getFileCount() + " " + getType(generator)
+                     + " sitemap files listing items");
+        return true;
+    }
 
-            try {
-                DiscoverResult discoverResult = searchService.search(c, entityQuery);
-
-                String url;
-                if (CollectionUtils.isNotEmpty(discoverResult.getIndexableObjects())
-                    && CollectionUtils.isNotEmpty(discoverResult.getSearchDocument(
-                        discoverResult.getIndexableObjects().get(0)).get(0).getSearchFieldValues("entityType"))
-                    && StringUtils.isNotBlank(discoverResult.getSearchDocument(
-                        discoverResult.getIndexableObjects().get(0)).get(0).getSearchFieldValues("entityType").get(0))
-                ) {
-                    url = uiURLStem + "/entities/" + StringUtils.lowerCase(discoverResult.getSearchDocument(
-                            discoverResult.getIndexableObjects().get(0))
-                        .get(0).getSearchFieldValues("entityType").get(0)) + "/" + i.getID();
-                } else {
-                    url = uiURLStem + "/items/" + i.getID();
+    /**
+     * Rewrite a file listing items, using a dedicated read-only Context.
+     *
+     * @return {@code false} if the items no longer fit in the file
+     */
+    private static boolean rewriteItemFile(AbstractGenerator generator, String uiURLStem, SitemapState state,
+                                           int itemFile) throws SQLException, IOException {
+        Context c = new Context(Context.Mode.READ_ONLY);
+        try {
+            List<Pair<String, Date>> urls = new ArrayList<>();
+            List<Item> batch = new ArrayList<>(BATCH_SIZE);
+            Iterator<Item> items = itemService.findAllByIdRange(c, state.getLowerId(itemFile),
+                                                                state.getUpperId(itemFile));
+            while (items.hasNext()) {
+                batch.add(items.next());
+                if (batch.size() < BATCH_SIZE && items.hasNext()) {
+                    continue;
                 }
-                Date lastMod = i.getLastModified();
-
-                if (makeHTMLMap) {
-                    html.addURL(url, lastMod);
+                itemService.prefetch(c, batch, false);
+                for (Item i : batch) {
+                    urls.add(Pair.of(getItemURL(uiURLStem, i), i.getLastModified()));
+                    c.uncacheEntity(i);
                 }
-                if (makeSitemapOrg) {
-                    sitemapsOrg.addURL(url, lastMod);
+                batch.clear();
+                if (urls.size() > generator.getMaxURLs()) {
+                    return false;
                 }
-            } catch (SearchServiceException e) {
-                log.error("Failed getting entitytype through solr for item " + i.getID() + ": " + e.getMessage());
             }
+            return generator.rewriteFile(itemFile, urls);
+        } finally {
+            c.abort();
+        }
+    }
+
+    private static int addCommunityURLs(Context c, String uiURLStem, List<AbstractGenerator> generators)
+        throws SQLException, IOException {
+        List<Community> comms = communityService.findAll(c);
 
-            c.uncacheEntity(i);
+        for (Community comm : comms) {
+            String url = uiURLStem + "/communities/" + comm.getID();
+
+            for (AbstractGenerator generator : generators) {
+                generator.addURL(url, null);
+            }
 
-            itemCount++;
+            c.uncacheEntity(comm);
         }
+        return comms.size();
+    }
 
-        if (makeHTMLMap) {
-            int files = html.finish();
-            log.info(LogHelper.getHeader(c, "write_sitemap",
-                                          "type=html,num_files=" + files + ",communities="
-                                              + comms.size() + ",collections=" + colls.size()
-                                              + ",items=" + itemCount));
+    private static int addCollectionURLs(Context c, String uiURLStem, List<AbstractGenerator> generators)
+        throws SQLException, IOException {
+        List<Collection> colls = collectionService.findAll(c);
+
+        for (Collection coll : colls) {
+            String url = uiURLStem + "/collections/" + coll.getID();
+
+            for (AbstractGenerator generator : generators) {
+                generator.addURL(url, null);
+            }
+
+            c.uncacheEntity(coll);
         }
+        return colls.size();
+    }
 
-        if (makeSitemapOrg) {
-            int files = sitemapsOrg.finish();
-            log.info(LogHelper.getHeader(c, "write_sitemap",
-                                          "type=html,num_files=" + files + ",communities="
-                                              + comms.size() + ",collections=" + colls.size()
-                                              + ",items=" + itemCount));
+    /**
+     * Items with an entity type are shown as entities of that type.
+     */
+    private static String getItemURL(String uiURLStem, Item i) {
+        String entityType = itemService.getMetadataFirstValue(i, "dspace", "entity", "type", Item.ANY);
+        if (StringUtils.isNotBlank(entityType)) {
+            return uiURLStem + "/entities/" + StringUtils.lowerCase(entityType) + "/" + i.getID();
         }
+        return uiURLStem + "/items/" + i.getID();
+    }
 
-        c.abort();
+    /**
+     * The date from which modified items are looked up by the next incremental
+     * run: the start of this run, minus {@code sitemap.incremental.overlap}
+     * seconds, so that the items of transactions which were still running at
+     * the start of this run, and only committed later with an earlier last
+     * modified date, aren't missed.
+     */
+    private static Date getWatermark(Date start) {
+        long overlap = configurationService.getLongProperty("sitemap.incremental.overlap", 600);
+        return new Date(start.getTime() - TimeUnit.SECONDS.toMillis(Math.max(0, overlap)));
+    }
+
+    private static File getStateFile(AbstractGenerator generator) {
+        return new File(generator.outputDir, generator.getIndexFilename() + ".state");
+    }
+
+    private static String getType(AbstractGenerator generator) {
+        return generator instanceof HTMLSitemapGenerator ? "html" : "sitemaps.org";
     }
 
     /**
@@ -0,0 +1,183 @@
+/**
+ * The contents of this file are subject to the license and copyright
+ * detailed in the LICENSE and NOTICE files at the root of the source
+ * tree and available online at
+ *
+ * http://www.dspace.org/license/
+ */
+package org.dspace.app.sitemap;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.Properties;
+import java.util.UUID;
+
+import org.apache.commons.lang3.StringUtils;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+/**
+ * What {@link GenerateSitemaps} needs to know to update the sitemap files of
+ * a generator incrementally: since when modified items have to be updated,
+ * when they were last generated from scratch, how many files list the
+ * communities and collections, and the UUID of the first item of each of the
+ * following files. Items are listed by UUID, so that each of these files lists
+ * the items of a range of UUIDs.
+ * <P>
+ * UUIDs are compared the way the database compares them, as unsigned numbers.
+ */
+public class SitemapState {
+
+    private static final Logger log = LogManager.getLogger(SitemapState.class);
+
+    private static final String LAST_RUN = "lastrun";
+    private static final String LAST_FULL_RUN = "lastfullrun";
+    private static final String CONTAINER_FILES = "containerfiles";
+    private static final String ITEM_FILES = "itemfiles";
+
+    private Date lastRun;
+    private final Date lastFullRun;
+    private final int containerFiles;
+    private final List<UUID> firstItemIds = new ArrayList<>();
+
+    /**
+     * @param lastRun        date since which modified items are updated by the next run (the start of the last
+     *                       run, minus a safety margin)
+     * @param lastFullRun    start of the last run which generated all files
+     * @param containerFiles number of files listing communities and collections
+     */
+    public SitemapState(Date lastRun, Date lastFullRun, int containerFiles) {
+        this.lastRun = lastRun;
+        this.lastFullRun = lastFullRun;
+        this.containerFiles = containerFiles;
+    }
+
+    /**
+     * Read the state saved in the given file.
+     *
+     * @param file the state file
+     * @return the state, or null if there is none or it cannot be read
+     */
+    public static SitemapState load(File file) {
+        if (!file.isFile()) {
+            return null;
+        }
+        Properties properties = new Properties();
+        try (InputStream in = Files.newInputStream(file.toPath())) {
+            properties.load(in);
+            SitemapState state = new SitemapState(new Date(Long.parseLong(properties.getProperty(LAST_RUN))),
+                                                  new Date(Long.parseLong(properties.getProperty(LAST_FULL_RUN))),
+                                                  Integer.parseInt(properties.getProperty(CONTAINER_FILES)));
+            for (String id : StringUtils.split(properties.getProperty(ITEM_FILES, ""), ',')) {
+                state.addItemFile(UUID.fromString(id));
+            }
+            return state;
+        } catch (IOException | IllegalArgumentException e) {
+            log.warn("Unable to read sitemap state from " + file + ": " + e.getMessage());
+            return null;
+        }
+    }
+
+    /**
+     * Save this state to the given file.
+     *
+     * @param file the state file
+     * @throws IOException if an error occurs writing
+     */
+    public void save(File file) throws IOException {
+        Properties properties = new Properties();
+        properties.setProperty(LAST_RUN, String.valueOf(lastRun.getTime()));
+        properties.setProperty(LAST_FULL_RUN, String.valueOf(lastFullRun.getTime()));
+        properties.setProperty(CONTAINER_FILES, String.valueOf(containerFiles));
+        properties.setProperty(ITEM_FILES, StringUtils.join(firstItemIds, ','));
+        try (OutputStream out = Files.newOutputStream(file.toPath())) {
+            properties.store(out, "Sitemap files, used to update them incrementally");
+        }
+    }
+
+    /**
+     * Record the next file listing items, starting with the given item.
+     *
+     * @param firstItemId UUID of the first item of the file, greater than the
+     *                    first items of all previous files
+     */
+    public void addItemFile(UUID firstItemId) {
+        firstItemIds.add(firstItemId);
+    }
+
+    /**
+     * Return the file which lists the given item, if it is in the archive.
+     * Items before the first file are listed in the first file.
+     *
+     * @param itemId UUID of the item
+     * @return the number of the file, or -1 if there is no file listing items
+     */
+    public int getItemFile(UUID itemId) {
+        if (firstItemIds.isEmpty()) {
+            return -1;
+        }
+        int low = 0;
+        int high = firstItemIds.size() - 1;
+        // find the last file whose first item is not after the given item
+        while (low < high) {
+            int middle = (low + high + 1) >>> 1;
+            if (compare(firstItemIds.get(middle), itemId) <= 0) {
+                low = middle;
+            } else {
+                high = middle - 1;
+            }
+        }
+        return containerFiles + low;
+    }
+
+    /**
+     * @param file the number of a file listing items
+     * @return the inclusive lower bound of the UUIDs of the items of the file,
+     * or null for the first file
+     */
+    public UUID getLowerId(int file) {
+        int index = file - containerFiles;
+        return index == 0 ? null : firstItemIds.get(index);
+    }
+
+    /**
+     * @param file the number of a file listing items
+     * @return the exclusive upper bound of the UUIDs of the items of the file,
+     * or null for the last file
+     */
+    public UUID getUpperId(int file) {
+        int index = file - containerFiles + 1;
+        return index == firstItemIds.size() ? null : firstItemIds.get(index);
+    }
+
+    public int getFileCount() {
+        return containerFiles + firstItemIds.size();
+    }
+
+    public int getContainerFiles() {
+        return containerFiles;
+    }
+
+    public Date getLastRun() {
+        return lastRun;
+    }
+
+    public void setLastRun(Date lastRun) {
+        this.lastRun = lastRun;
+    }
+
+    public Date getLastFullRun() {
+        return lastFullRun;
+    }
+
+    private static int compare(UUID a, UUID b) {
+        int result = Long.compareUnsigned(a.getMostSignificantBits(), b.getMostSignificantBits());
+        return result != 0 ? result : Long.compareUnsigned(a.getLeastSignificantBits(), b.getLeastSignificantBits());
+    }
+}
@@ -90,8 +90,11 @@ public class SitemapsOrgGenerator extends AbstractGenerator {
 
         urlText.append("<url><loc>").append(url).append("</loc>");
         if (lastMod != null) {
-            urlText.append("<lastmod>").append(w3dtfFormat.format(lastMod))
-                   .append("</lastmod>");
+            // files may be rewritten by several threads at once
+            synchronized (w3dtfFormat) {
+                urlText.append("<lastmod>").append(w3dtfFormat.format(lastMod))
+                       .append("</lastmod>");
+            }
         }
         urlText.append("</url>\n");
 
@@ -111,16 +114,17 @@ public class SitemapsOrgGenerator extends AbstractGenerator {
     @Override
     public void writeIndex(PrintStream output, int sitemapCount)
         throws IOException {
-        String now = w3dtfFormat.format(new Date());
-
         output.println("<?xml version=\"1.0\" encoding=\"UTF-8\"?>\n");
         output
             .println("<sitemapindex xmlns=\"http://www.sitemaps.org/schemas/sitemap/0.9\">");
 
         for (int i = 0; i < sitemapCount; i++) {
+            // sitemap files are only replaced when their content changes
+            File sitemap = new File(outputDir, getFilename(i));
+            Date lastMod = sitemap.exists() ? new Date(sitemap.lastModified()) : new Date();
             output.print("<sitemap><loc>" + indexURLStem + i + indexURLTail
                              + "</loc>");
-            output.print("<lastmod>" + now + "</lastmod></sitemap>\n");
+            output.print("<lastmod>" + w3dtfFormat.format(lastMod) + "</lastmod></sitemap>\n");
         }
 
         output.println("</sitemapindex>");
@@ -0,0 +1,74 @@
+/**
+ * The contents of this file are subject to the license and copyright
+ * detailed in the LICENSE and NOTICE files at the root of the source
+ * tree and available online at
+ *
+ * http://www.dspace.org/license/
+ */
+package org.dspace.authorize;
+
+import java.util.UUID;
+
+import org.dspace.authorize.factory.AuthorizeServiceFactory;
+import org.dspace.authorize.service.AuthorizationCacheService;
+import org.dspace.core.Constants;
+import org.dspace.core.Context;
+import org.dspace.event.Consumer;
+import org.dspace.event.Event;
+
+/**
+ * Event consumer which removes outdated entries from the {@link AuthorizationCacheService} when changes are being
+ * committed, and once more after the commit, as other requests may have loaded the old entries in between:
+ * <ul>
+ * <li>any change of a group (members, subgroups, deletion) invalidates all cached group memberships, as the
+ * Group2GroupCache may have been rebuilt;</li>
+ * <li>changes of an EPerson invalidate its memberships;</li>
+ * <li>changes of any other object invalidate its policies, so that policies changed in the same transaction but
+ * read by another request before the commit are reloaded.</li>
+ * </ul>
+ * Policy changes made through the ResourcePolicyService also invalidate the cache immediately.
+ */
+public class AuthorizationCacheConsumer implements Consumer {
+
+    private AuthorizationCacheService authorizationCacheService;
+
+    @Override
+    public void initialize() throws Exception {
+        authorizationCacheService = AuthorizeServiceFactory.getInstance().getAuthorizationCacheService();
+    }
+
+    @Override
+    public void consume(Context context, Event event) throws Exception {
+        if (!authorizationCacheService.isEnabled()) {
+            return;
+        }
+        switch (event.getSubjectType()) {
+            case Constants.GROUP:
+                authorizationCacheService.invalidateAllMemberships();
+                context.addAfterCommitTask(authorizationCacheService::invalidateAllMemberships);
+                if (event.getEventType() == Event.DELETE) {
+                    // the policies of the group are gone as well
+                    authorizationCacheService.invalidateAllPoliciesOnCommit(context);
+                }
+                break;
+            case Constants.EPERSON:
+                UUID ePersonId = event.getSubjectID();
+                authorizationCacheService.invalidateMemberships(ePersonId);
+                context.addAfterCommitTask(() -> authorizationCacheService.invalidateMemberships(ePersonId));
+                break;
+            default:
+                authorizationCacheService.invalidatePoliciesOnCommit(context, event.getSubjectID());
+                break;
+        }
+    }
+
+    @Override
+    public void end(Context context) throws Exception {
+        // nothing to do
+    }
+
+    @Override
+    public void finish(Context context) throws Exception {
+        // nothing to do
+    }
+}
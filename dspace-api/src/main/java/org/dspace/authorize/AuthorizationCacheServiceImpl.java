@@ -0,0 +1,268 @@
+/**
+ * The contents of this file are subject to the license and copyright
+ * detailed in the LICENSE and NOTICE files at the root of the source
+ * tree and available online at
+ *
+ * http://www.dspace.org/license/
+ */
+package org.dspace.authorize;
+
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.UUID;
+import java.util.WeakHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import javax.annotation.PostConstruct;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.CacheStats;
+import org.apache.commons.collections4.CollectionUtils;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.dspace.authorize.dao.ResourcePolicyDAO;
+import org.dspace.authorize.service.AuthorizationCacheService;
+import org.dspace.content.DSpaceObject;
+import org.dspace.core.Context;
+import org.dspace.eperson.EPerson;
+import org.dspace.eperson.Group;
+import org.dspace.eperson.Group2GroupCache;
+import org.dspace.eperson.dao.Group2GroupCacheDAO;
+import org.dspace.eperson.dao.GroupDAO;
+import org.dspace.services.ConfigurationService;
+import org.springframework.beans.factory.annotation.Autowired;
+
+/**
+ * Default implementation of the {@link AuthorizationCacheService}, using Guava caches bounded by
+ * authorization.cache.objects.max and authorization.cache.epersons.max entries which expire
+ * authorization.cache.ttl seconds after they were loaded.
+ * <p>
+ * All policies of an object are loaded with a single query and cached by object ID. The groups of an EPerson
+ * (including the anonymous group and all parent groups) are cached by EPerson ID; special groups depend on the
+ * Context and are resolved on every call, using a cache of the parent groups of each group.
+ * <p>
+ * Policies loaded while an invalidation happened are not stored, as they may have been loaded before the change.
+ */
+public class AuthorizationCacheServiceImpl implements AuthorizationCacheService {
+
+    private static final Logger log = LogManager.getLogger(AuthorizationCacheServiceImpl.class);
+
+    // key of the memberships of anonymous users, as the caches do not accept null keys
+    private static final UUID ANONYMOUS_KEY = new UUID(0, 0);
+
+    @Autowired(required = true)
+    protected ConfigurationService configurationService;
+    @Autowired(required = true)
+    protected ResourcePolicyDAO resourcePolicyDAO;
+    @Autowired(required = true)
+    protected GroupDAO groupDAO;
+    @Autowired(required = true)
+    protected Group2GroupCacheDAO group2GroupCacheDAO;
+
+    private boolean enabled = false;
+    private Cache<UUID, Map<Integer, List<CachedResourcePolicy>>> policies;
+    private Cache<UUID, Set<UUID>> memberships;
+    private Cache<UUID, Set<UUID>> groupParents;
+
+    // incremented on every policy invalidation, to detect policies loaded meanwhile
+    private final AtomicLong policyInvalidations = new AtomicLong();
+
+    // contexts with uncommitted policy changes
+    private final Map<Context, Boolean> changedContexts = Collections.synchronizedMap(new WeakHashMap<>());
+
+    @PostConstruct
+    public void init() {
+        enabled = configurationService.getBooleanProperty("authorization.cache.enabled", false);
+        long ttl = configurationService.getLongProperty("authorization.cache.ttl", 300);
+        int maxObjects = configurationService.getIntProperty("authorization.cache.objects.max", 10000);
+        int maxEPersons = configurationService.getIntProperty("authorization.cache.epersons.max", 10000);
+
+        policies = CacheBuilder.newBuilder().maximumSize(maxObjects).expireAfterWrite(ttl, TimeUnit.SECONDS)
+                               .recordStats().build();
+        memberships = CacheBuilder.newBuilder().maximumSize(maxEPersons).expireAfterWrite(ttl, TimeUnit.SECONDS)
+                                  .recordStats().build();
+        groupParents = CacheBuilder.newBuilder().maximumSize(maxEPersons).expireAfterWrite(ttl, TimeUnit.SECONDS)
+                                   .recordStats().build();
+        if (enabled) {
+            log.info("Authorization cache enabled for {} objects and {} epersons, ttl {}s", maxObjects, maxEPersons,
+                     ttl);
+        }
+    }
+
+    @Override
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    @Override
+    public boolean isEnabledFor(Context context) {
+        return enabled && !context.hasEvents() && !changedContexts.containsKey(context);
+    }
+
+    @Override
+    public List<CachedResourcePolicy> getPolicies(Context context, DSpaceObject dso, int action)
+        throws SQLException {
+        if (dso.getID() == null) {
+            return loadPolicies(context, dso).getOrDefault(action, Collections.emptyList());
+        }
+        Map<Integer, List<CachedResourcePolicy>> byAction = policies.getIfPresent(dso.getID());
+        if (byAction == null) {
+            long invalidation = policyInvalidations.get();
+            byAction = loadPolicies(context, dso);
+            policies.put(dso.getID(), byAction);
+            if (policyInvalidations.get() != invalidation) {
+                policies.invalidate(dso.getID());
+            }
+        }
+        return byAction.getOrDefault(action, Collections.emptyList());
+    }
+
+    @Override
+    public Set<UUID> getMemberGroupIds(Context context, EPerson ePerson) throws SQLException {
+        UUID key = ePerson == null ? ANONYMOUS_KEY : ePerson.getID();
+        Set<UUID> groupIds = memberships.getIfPresent(key);
+        if (groupIds == null) {
+            groupIds = loadMemberGroupIds(context, ePerson);
+            memberships.put(key, groupIds);
+        }
+
+        // special groups only apply to the current user of the context
+        List<Group> specialGroups = context.getSpecialGroups();
+        if (CollectionUtils.isNotEmpty(specialGroups) && Objects.equals(context.getCurrentUser(), ePerson)) {
+            groupIds = new HashSet<>(groupIds);
+            for (Group specialGroup : specialGroups) {
+                groupIds.addAll(getGroupWithParentIds(context, specialGroup));
+            }
+        }
+        return groupIds;
+    }
+
+    @Override
+    public void invalidatePolicies(UUID dsoId) {
+        if (dsoId != null) {
+            policyInvalidations.incrementAndGet();
+            policies.invalidate(dsoId);
+        }
+    }
+
+    @Override
+    public void invalidateAllPolicies() {
+        policyInvalidations.incrementAndGet();
+        policies.invalidateAll();
+    }
+
+    @Override
+    public void invalidatePoliciesOnCommit(Context context, UUID dsoId) {
+        invalidateOnCommit(context, () -> invalidatePolicies(dsoId));
+    }
+
+    @Override
+    public void invalidateAllPoliciesOnCommit(Context context) {
+        invalidateOnCommit(context, this::invalidateAllPolicies);
+    }
+
+    @Override
+    public void invalidateMemberships(UUID ePersonId) {
+        if (ePersonId != null) {
+            memberships.invalidate(ePersonId);
+        }
+    }
+
+    @Override
+    public void invalidateAllMemberships() {
+        memberships.invalidateAll();
+        groupParents.invalidateAll();
+    }
+
+    @Override
+    public Map<String, Long> getStatistics() {
+        Map<String, Long> statistics = new LinkedHashMap<>();
+        addStatistics(statistics, "policies", policies);
+        addStatistics(statistics, "memberships", memberships);
+        addStatistics(statistics, "groupParents", groupParents);
+        return statistics;
+    }
+
+    /**
+     * Run an invalidation now and once the changes of the context are committed, and bypass the cache for the
+     * context until then
+     */
+    private void invalidateOnCommit(Context context, Runnable invalidation) {
+        if (!enabled) {
+            return;
+        }
+        invalidation.run();
+        if (changedContexts.put(context, Boolean.TRUE) == null) {
+            context.addAfterCommitTask(() -> changedContexts.remove(context));
+        }
+        context.addAfterCommitTask(invalidation);
+    }
+
+    private void addStatistics(Map<String, Long> statistics, String name, Cache<?, ?> cache) {
+        CacheStats stats = cache.stats();
+        statistics.put(name + ".hits", stats.hitCount());
+        statistics.put(name + ".misses", stats.missCount());
+        statistics.put(name + ".evictions", stats.evictionCount());
+        statistics.put(name + ".size", cache.size());
+    }
+
+    /**
+     * Load all policies of an object with a single query, grouped by action
+     */
+    protected Map<Integer, List<CachedResourcePolicy>> loadPolicies(Context context, DSpaceObject dso)
+        throws SQLException {
+        Map<Integer, List<CachedResourcePolicy>> byAction = new HashMap<>();
+        for (ResourcePolicy resourcePolicy : resourcePolicyDAO.findByDso(context, dso)) {
+            CachedResourcePolicy cachedPolicy = new CachedResourcePolicy(resourcePolicy);
+            byAction.computeIfAbsent(cachedPolicy.getAction(), action -> new ArrayList<>()).add(cachedPolicy);
+            if (context.isReadOnly()) {
+                // the snapshot is all we need, don't keep the policy in the session
+                context.uncacheEntity(resourcePolicy);
+            }
+        }
+        byAction.replaceAll((action, list) -> Collections.unmodifiableList(list));
+        return Collections.unmodifiableMap(byAction);
+    }
+
+    /**
+     * Load the IDs of the groups an EPerson is a member of in the database, plus the anonymous group, and of all
+     * their parent groups, with the same query as GroupService.allMemberGroupsSet
+     */
+    protected Set<UUID> loadMemberGroupIds(Context context, EPerson ePerson) throws SQLException {
+        Set<UUID> extraGroupIds = new HashSet<>();
+        Group anonymous = groupDAO.findByName(context, Group.ANONYMOUS);
+        if (anonymous != null) {
+            extraGroupIds.add(anonymous.getID());
+        }
+
+        Set<UUID> groupIds = new HashSet<>();
+        for (Group group : groupDAO.findAllMemberGroups(context, ePerson, extraGroupIds)) {
+            groupIds.add(group.getID());
+        }
+        return Collections.unmodifiableSet(groupIds);
+    }
+
+    private Set<UUID> getGroupWithParentIds(Context context, Group group) throws SQLException {
+        Set<UUID> groupIds = groupParents.getIfPresent(group.getID());
+        if (groupIds == null) {
+            groupIds = new HashSet<>();
+            groupIds.add(group.getID());
+            for (Group2GroupCache group2GroupCache
+                : group2GroupCacheDAO.findByChildren(context, Collections.singleton(group))) {
+                groupIds.add(group2GroupCache.getParent().getID());
+            }
+            groupIds = Collections.unmodifiableSet(groupIds);
+            groupParents.put(group.getID(), groupIds);
+        }
+        return groupIds;
+    }
+}
@@ -10,14 +10,22 @@ package org.dspace.authorize;
 import java.sql.SQLException;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collections;
 import java.util.Date;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
 import java.util.UUID;
 
 import org.apache.commons.collections4.CollectionUtils;
 import org.apache.commons.lang3.StringUtils;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
+import org.dspace.authorize.service.AuthorizationCacheService;
 import org.dspace.authorize.service.AuthorizeService;
 import org.dspace.authorize.service.ResourcePolicyService;
 import org.dspace.content.Bitstream;
@@ -77,6 +85,8 @@ public class AuthorizeServiceImpl implements AuthorizeService {
     protected WorkflowItemService workflowItemService;
     @Autowired(required = true)
     private SearchService searchService;
+    @Autowired(required = true)
+    protected AuthorizationCacheService authorizationCacheService;
 
 
     protected AuthorizeServiceImpl() {
@@ -210,6 +220,135 @@ public class AuthorizeServiceImpl implements AuthorizeService {
         return isAuthorized;
     }
 
+    @Override
+    public <T extends DSpaceObject> List<T> filterAuthorized(Context c, EPerson e, List<T> dsos, int a,
+                                                             boolean useInheritance) throws SQLException {
+        List<T> authorized = new ArrayList<>();
+        if (CollectionUtils.isEmpty(dsos)) {
+            return authorized;
+        }
+
+        // no need to look at any policy if authorization is disabled or the user is an administrator
+        boolean grantAll = c.ignoreAuthorization() || isAdmin(c, e);
+
+        Set<DSpaceObject> granted = new HashSet<>();
+        Set<DSpaceObject> unresolved = new LinkedHashSet<>();
+        for (T dso : dsos) {
+            if (dso == null || grantAll || granted.contains(dso) || unresolved.contains(dso)) {
+                continue;
+            }
+            Boolean cachedResult = c.getCachedAuthorizationResult(dso, a, e);
+            if (cachedResult != null) {
+                if (cachedResult) {
+                    granted.add(dso);
+                }
+            } else if (authorizationCacheService.isEnabledFor(c)) {
+                // policies and groups are served by the shared cache, there is nothing to gain from bulk queries
+                if (authorize(c, dso, a, e, useInheritance)) {
+                    granted.add(dso);
+                }
+            } else {
+                unresolved.add(dso);
+            }
+        }
+        if (!unresolved.isEmpty()) {
+            granted.addAll(authorizeAll(c, e, new ArrayList<>(unresolved), a, useInheritance));
+        }
+
+        for (T dso : dsos) {
+            if (dso != null && (grantAll || granted.contains(dso))) {
+                authorized.add(dso);
+            }
+        }
+        return authorized;
+    }
+
+    /**
+     * Check an action on several objects at once, for {@link #filterAuthorized(Context, EPerson, List, int, boolean)}.
+     * The policies of all objects for the action are loaded with {@link ResourcePolicyService#find(Context,
+     * java.util.Collection, int)} and the groups of the EPerson with a single call to
+     * {@link GroupService#allMemberGroupsSet(Context, EPerson)}. The (more expensive) checks whether custom policies
+     * must be ignored and whether the EPerson is an administrator of the object are only performed for the objects
+     * which are not granted by a policy.
+     *
+     * @param c              context
+     * @param e              the EPerson, or null for an anonymous user
+     * @param dsos           the objects, without duplicates
+     * @param action         the action
+     * @param useInheritance flag to say if ADMIN action on the current object or parent
+     *                       object can be used
+     * @return the objects on which the action is authorized
+     * @throws SQLException if database error
+     */
+    protected Set<DSpaceObject> authorizeAll(Context c, EPerson e, List<DSpaceObject> dsos, int action,
+                                             boolean useInheritance) throws SQLException {
+        Map<UUID, List<ResourcePolicy>> policiesByObject = new HashMap<>();
+        for (ResourcePolicy rp : resourcePolicyService.find(c, dsos, action)) {
+            policiesByObject.computeIfAbsent(rp.getdSpaceObject().getID(), id -> new ArrayList<>()).add(rp);
+        }
+
+        // special groups only apply to the current user of the context, other users are checked group by group
+        Set<UUID> groupIds = null;
+        boolean currentUser = Objects.equals(c.getCurrentUser(), e);
+
+        Set<DSpaceObject> granted = new HashSet<>();
+        for (DSpaceObject dso : dsos) {
+            boolean authorized = false;
+            boolean customPolicyMatch = false;
+            for (ResourcePolicy rp : policiesByObject.getOrDefault(dso.getID(), Collections.emptyList())) {
+                if (authorized || !resourcePolicyService.isDateValid(rp)) {
+                    continue;
+                }
+                boolean match = rp.getEPerson() != null && rp.getEPerson().equals(e);
+                if (!match && rp.getGroup() != null) {
+                    if (currentUser) {
+                        if (groupIds == null) {
+                            groupIds = new HashSet<>();
+                            for (Group group : groupService.allMemberGroupsSet(c, e)) {
+                                groupIds.add(group.getID());
+                            }
+                        }
+                        match = groupIds.contains(rp.getGroup().getID());
+                    } else {
+                        match = groupService.isMember(c, e, rp.getGroup());
+                    }
+                }
+                if (match) {
+                    if (ResourcePolicy.TYPE_CUSTOM.equals(rp.getRpType())) {
+                        customPolicyMatch = true;
+                    } else {
+                        authorized = true;
+                    }
+                }
+            }
+            if (!authorized && customPolicyMatch) {
+                authorized = !ignoreCustomPolicies(c, dso);
+            }
+            if (!authorized && e != null) {
+                // if user is an Admin on this object
+                DSpaceObject adminObject = useInheritance ? serviceFactory.getDSpaceObjectService(dso)
+                                                                          .getAdminObject(c, dso, action) : null;
+                authorized = isAdmin(c, e, adminObject);
+            }
+
+            c.cacheAuthorizedAction(dso, action, e, authorized, null);
+            if (authorized) {
+                granted.add(dso);
+            }
+        }
+
+        if (c.isReadOnly()) {
+            //When we are in read-only mode, we will cache authorized actions in a different way
+            //So we remove the resource policies from the cache.
+            for (List<ResourcePolicy> policies : policiesByObject.values()) {
+                for (ResourcePolicy rp : policies) {
+                    c.uncacheEntity(rp);
+                }
+            }
+        }
+        return granted;
+    }
+
     /**
      * Check to see if the given user can perform the given action on the given
      * object. Always returns true if the ignore authorization flat is set in
@@ -256,66 +395,47 @@ public class AuthorizeServiceImpl implements AuthorizeService {
             }
         }
 
-        // In case the dso is an bundle or bitstream we must ignore custom
-        // policies if it does not belong to at least one installed item (see
-        // DS-2614).
-        // In case the dso is an item and a corresponding workspace or workflow
-        // item exist, we have to ignore custom policies (see DS-2614).
-        boolean ignoreCustomPolicies = false;
-        if (o instanceof Bitstream) {
-            Bitstream b = (Bitstream) o;
+        boolean ignoreCustomPolicies = ignoreCustomPolicies(c, o);
 
-            // Ensure that this is not a collection or community logo
-            DSpaceObject parent = bitstreamService.getParentObject(c, b);
-            if (!(parent instanceof Collection) && !(parent instanceof Community)) {
-                ignoreCustomPolicies = !isAnyItemInstalled(c, b.getBundles());
-            }
-        }
-        if (o instanceof Bundle) {
-            ignoreCustomPolicies = !isAnyItemInstalled(c, Arrays.asList(((Bundle) o)));
-        }
-        if (o instanceof Item) {
-            // the isArchived check is fast and would exclude the possibility that the item
-            // is a workspace or workflow without further queries
-            if (!((Item) o).isArchived() &&
-                    (workspaceItemService.findByItem(c, (Item) o) != null ||
-                    workflowItemService.findByItem(c, (Item) o) != null)) {
-                ignoreCustomPolicies = true;
+        if (authorizationCacheService.isEnabledFor(c)) {
+            if (matchesCachedPolicy(c, o, action, e, ignoreCustomPolicies)) {
+                c.cacheAuthorizedAction(o, action, e, true, null);
+                return true;
             }
-        }
+        } else {
+            for (ResourcePolicy rp : getPoliciesActionFilter(c, o, action)) {
+
+                if (ignoreCustomPolicies
+                    && ResourcePolicy.TYPE_CUSTOM.equals(rp.getRpType())) {
+                    if (c.isReadOnly()) {
+                        //When we are in read-only mode, we will cache authorized actions in a different way
+                        //So we remove this resource policy from the cache.
+                        c.uncacheEntity(rp);
+                    }
+                    continue;
+                }
 
-        for (ResourcePolicy rp : getPoliciesActionFilter(c, o, action)) {
+                // check policies for date validity
+                if (resourcePolicyService.isDateValid(rp)) {
+                    if (rp.getEPerson() != null && rp.getEPerson().equals(userToCheck)) {
+                        c.cacheAuthorizedAction(o, action, e, true, rp);
+                        return true; // match
+                    }
+
+                    if ((rp.getGroup() != null)
+                        && groupService.isMember(c, e, rp.getGroup())) {
+                        // group was set, and eperson is a member
+                        // of that group
+                        c.cacheAuthorizedAction(o, action, e, true, rp);
+                        return true;
+                    }
+                }
 
-            if (ignoreCustomPolicies
-                && ResourcePolicy.TYPE_CUSTOM.equals(rp.getRpType())) {
                 if (c.isReadOnly()) {
                     //When we are in read-only mode, we will cache authorized actions in a different way
                     //So we remove this resource policy from the cache.
                     c.uncacheEntity(rp);
                 }
-                continue;
-            }
-
-            // check policies for date validity
-            if (resourcePolicyService.isDateValid(rp)) {
-                if (rp.getEPerson() != null && rp.getEPerson().equals(userToCheck)) {
-                    c.cacheAuthorizedAction(o, action, e, true, rp);
-                    return true; // match
-                }
-
-                if ((rp.getGroup() != null)
-                    && groupService.isMember(c, e, rp.getGroup())) {
-                    // group was set, and eperson is a member
-                    // of that group
-                    c.cacheAuthorizedAction(o, action, e, true, rp);
-                    return true;
-                }
-            }
-
-            if (c.isReadOnly()) {
-                //When we are in read-only mode, we will cache authorized actions in a different way
-                //So we remove this resource policy from the cache.
-                c.uncacheEntity(rp);
             }
         }
 
@@ -334,6 +454,42 @@ public class AuthorizeServiceImpl implements AuthorizeService {
         return false;
     }
 
+    /**
+     * Check whether the custom policies of an object must be ignored: in case the dso is a bundle or bitstream we
+     * must ignore custom policies if it does not belong to at least one installed item, in case the dso is an item
+     * and a corresponding workspace or workflow item exist we have to ignore custom policies (see DS-2614).
+     *
+     * @param c context
+     * @param o the object
+     * @return true if the custom policies of the object must be ignored
+     * @throws SQLException if database error
+     */
+    protected boolean ignoreCustomPolicies(Context c, DSpaceObject o) throws SQLException {
+        boolean ignoreCustomPolicies = false;
+        if (o instanceof Bitstream) {
+            Bitstream b = (Bitstream) o;
+
+            // Ensure that this is not a collection or community logo
+            DSpaceObject parent = bitstreamService.getParentObject(c, b);
+            if (!(parent instanceof Collection) && !(parent instanceof Community)) {
+                ignoreCustomPolicies = !isAnyItemInstalled(c, b.getBundles());
+            }
+        }
+        if (o instanceof Bundle) {
+            ignoreCustomPolicies = !isAnyItemInstalled(c, Arrays.asList(((Bundle) o)));
+        }
+        if (o instanceof Item) {
+            // the isArchived check is fast and would exclude the possibility that the item
+            // is a workspace or workflow without further queries
+            if (!((Item) o).isArchived() &&
+                    (workspaceItemService.findByItem(c, (Item) o) != null ||
+                    workflowItemService.findByItem(c, (Item) o) != null)) {
+                ignoreCustomPolicies = true;
+            }
+        }
+        return ignoreCustomPolicies;
+    }
+
     // check whether any bundle belongs to any item that passed submission
     // and workflow process
     protected boolean isAnyItemInstalled(Context ctx, List<Bundle> bundles)
@@ -350,6 +506,40 @@ public class AuthorizeServiceImpl implements AuthorizeService {
     }
 
 
+    /**
+     * Check whether any of the policies of an object for an action, as held by the {@link AuthorizationCacheService},
+     * grants the action to the given EPerson (directly or through one of its groups).
+     *
+     * @param c                    context
+     * @param o                    the object
+     * @param action               the action
+     * @param e                    the EPerson, or null for an anonymous user
+     * @param ignoreCustomPolicies whether to skip custom policies
+     * @return true if a valid policy grants the action
+     * @throws SQLException if database error
+     */
+    protected boolean matchesCachedPolicy(Context c, DSpaceObject o, int action, EPerson e,
+                                          boolean ignoreCustomPolicies) throws SQLException {
+        Set<UUID> groupIds = null;
+        for (CachedResourcePolicy rp : authorizationCacheService.getPolicies(c, o, action)) {
+            if ((ignoreCustomPolicies && ResourcePolicy.TYPE_CUSTOM.equals(rp.getRpType())) || !rp.isDateValid()) {
+                continue;
+            }
+            if (e != null && e.getID().equals(rp.getEPersonId())) {
+                return true;
+            }
+            if (rp.getGroupId() != null) {
+                if (groupIds == null) {
+                    groupIds = authorizationCacheService.getMemberGroupIds(c, e);
+                }
+                if (groupIds.contains(rp.getGroupId())) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
     ///////////////////////////////////////////////
     // admin check methods
     ///////////////////////////////////////////////
@@ -378,30 +568,37 @@ public class AuthorizeServiceImpl implements AuthorizeService {
         //
         // First, check all Resource Policies directly on this object
         //
-        List<ResourcePolicy> policies = getPoliciesActionFilter(c, o, Constants.ADMIN);
+        if (authorizationCacheService.isEnabledFor(c)) {
+            if (matchesCachedPolicy(c, o, Constants.ADMIN, e, false)) {
+                c.cacheAuthorizedAction(o, Constants.ADMIN, e, true, null);
+                return true;
+            }
+        } else {
+            List<ResourcePolicy> policies = getPoliciesActionFilter(c, o, Constants.ADMIN);
+
+            for (ResourcePolicy rp : policies) {
+                // check policies for date validity
+                if (resourcePolicyService.isDateValid(rp)) {
+                    if (rp.getEPerson() != null && rp.getEPerson().equals(e)) {
+                        c.cacheAuthorizedAction(o, Constants.ADMIN, e, true, rp);
+                        return true; // match
+                    }
 
-        for (ResourcePolicy rp : policies) {
-            // check policies for date validity
-            if (resourcePolicyService.isDateValid(rp)) {
-                if (rp.getEPerson() != null && rp.getEPerson().equals(e)) {
-                    c.cacheAuthorizedAction(o, Constants.ADMIN, e, true, rp);
-                    return true; // match
+                    if ((rp.getGroup() != null)
+                        && groupService.isMember(c, e, rp.getGroup())) {
+                        // group was set, and eperson is a member
+                        // of that group
+                        c.cacheAuthorizedAction(o, Constants.ADMIN, e, true, rp);
+                        return true;
+                    }
                 }
 
-                if ((rp.getGroup() != null)
-                    && groupService.isMember(c, e, rp.getGroup())) {
-                    // group was set, and eperson is a member
-                    // of that group
-                    c.cacheAuthorizedAction(o, Constants.ADMIN, e, true, rp);
-                    return true;
+                if (c.isReadOnly()) {
+                    //When we are in read-only mode, we will cache authorized actions in a different way
+                    //So we remove this resource policy from the cache.
+                    c.uncacheEntity(rp);
                 }
             }
-
-            if (c.isReadOnly()) {
-                //When we are in read-only mode, we will cache authorized actions in a different way
-                //So we remove this resource policy from the cache.
-                c.uncacheEntity(rp);
-            }
         }
 
         // If user doesn't have specific Admin permissions on this object,
@@ -0,0 +1,68 @@
+/**
+ * The contents of this file are subject to the license and copyright
+ * detailed in the LICENSE and NOTICE files at the root of the source
+ * tree and available online at
+ *
+ * http://www.dspace.org/license/
+ */
+package org.dspace.authorize;
+
+import java.util.Date;
+import java.util.UUID;
+
+/**
+ * Immutable, session independent snapshot of the fields of a {@link ResourcePolicy} which are needed to make an
+ * authorization decision. Instances are shared between requests by the
+ * {@link org.dspace.authorize.service.AuthorizationCacheService}.
+ */
+public class CachedResourcePolicy {
+
+    private final int action;
+    private final UUID epersonId;
+    private final UUID groupId;
+    private final String rpType;
+    private final Date startDate;
+    private final Date endDate;
+
+    public CachedResourcePolicy(ResourcePolicy resourcePolicy) {
+        this.action = resourcePolicy.getAction();
+        this.epersonId = resourcePolicy.getEPerson() != null ? resourcePolicy.getEPerson().getID() : null;
+        this.groupId = resourcePolicy.getGroup() != null ? resourcePolicy.getGroup().getID() : null;
+        this.rpType = resourcePolicy.getRpType();
+        this.startDate = resourcePolicy.getStartDate() != null
+            ? new Date(resourcePolicy.getStartDate().getTime()) : null;
+        this.endDate = resourcePolicy.getEndDate() != null ? new Date(resourcePolicy.getEndDate().getTime()) : null;
+    }
+
+    public int getAction() {
+        return action;
+    }
+
+    public UUID getEPersonId() {
+        return epersonId;
+    }
+
+    public UUID getGroupId() {
+        return groupId;
+    }
+
+    public String getRpType() {
+        return rpType;
+    }
+
+    /**
+     * Same as {@link org.dspace.authorize.service.ResourcePolicyService#isDateValid(ResourcePolicy)}
+     *
+     * @return true if the policy has begun and hasn't expired yet (or no dates are set)
+     */
+    public boolean isDateValid() {
+        if (startDate == null && endDate == null) {
+            return true;
+        }
+        Date now = new Date();
+        if (startDate != null && now.before(startDate)) {
+            return false;
+        }
+        return endDate == null || !now.after(endDate);
+    }
+}
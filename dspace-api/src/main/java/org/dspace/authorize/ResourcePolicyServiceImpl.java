@@ -8,6 +8,8 @@
 package org.dspace.authorize;
 
 import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Collection;
 import java.util.Collections;
 import java.util.Date;
 import java.util.HashSet;
@@ -16,9 +18,11 @@ import java.util.Set;
 import java.util.UUID;
 
 import org.apache.commons.collections4.CollectionUtils;
+import org.apache.commons.collections4.ListUtils;
 import org.apache.commons.lang3.ObjectUtils;
 import org.apache.logging.log4j.Logger;
 import org.dspace.authorize.dao.ResourcePolicyDAO;
+import org.dspace.authorize.service.AuthorizationCacheService;
 import org.dspace.authorize.service.ResourcePolicyService;
 import org.dspace.content.DSpaceObject;
 import org.dspace.content.factory.ContentServiceFactory;
@@ -51,6 +55,9 @@ public class ResourcePolicyServiceImpl implements ResourcePolicyService {
     @Autowired
     private GroupService groupService;
 
+    @Autowired(required = true)
+    protected AuthorizationCacheService authorizationCacheService;
+
     protected ResourcePolicyServiceImpl() {
     }
 
@@ -103,6 +110,19 @@ public class ResourcePolicyServiceImpl implements ResourcePolicyService {
         return resourcePolicyDAO.findByDSoAndAction(c, o, actionId);
     }
 
+    @Override
+    public List<ResourcePolicy> find(Context c, Collection<? extends DSpaceObject> dsos, int actionId)
+        throws SQLException {
+        if (CollectionUtils.isEmpty(dsos)) {
+            return Collections.emptyList();
+        }
+        List<ResourcePolicy> policies = new ArrayList<>();
+        for (List<? extends DSpaceObject> chunk : ListUtils.partition(new ArrayList<>(dsos), IN_CLAUSE_SIZE)) {
+            policies.addAll(resourcePolicyDAO.findByDSosAndAction(c, chunk, actionId));
+        }
+        return policies;
+    }
+
     @Override
     public List<ResourcePolicy> find(Context c, DSpaceObject dso, Group group, int action) throws SQLException {
         return resourcePolicyDAO.findByTypeGroupAction(c, dso, group, action);
@@ -144,6 +164,7 @@ public class ResourcePolicyServiceImpl implements ResourcePolicyService {
         context.turnOffAuthorisationSystem();
         if (resourcePolicy.getdSpaceObject() != null) {
             //A policy for a DSpace Object has been modified, fire a modify event on the DSpace object
+            authorizationCacheService.invalidatePoliciesOnCommit(context, resourcePolicy.getdSpaceObject().getID());
             contentServiceFactory.getDSpaceObjectService(resourcePolicy.getdSpaceObject())
                                  .updateLastModified(context, resourcePolicy.getdSpaceObject());
         }
@@ -220,6 +241,7 @@ public class ResourcePolicyServiceImpl implements ResourcePolicyService {
     public void removeAllPolicies(Context c, DSpaceObject o) throws SQLException, AuthorizeException {
         resourcePolicyDAO.deleteByDso(c, o);
         c.turnOffAuthorisationSystem();
+        authorizationCacheService.invalidatePoliciesOnCommit(c, o.getID());
         contentServiceFactory.getDSpaceObjectService(o).updateLastModified(c, o);
         c.restoreAuthSystemState();
     }
@@ -228,6 +250,7 @@ public class ResourcePolicyServiceImpl implements ResourcePolicyService {
     public void removePolicies(Context c, DSpaceObject o, String type) throws SQLException, AuthorizeException {
         resourcePolicyDAO.deleteByDsoAndType(c, o, type);
         c.turnOffAuthorisationSystem();
+        authorizationCacheService.invalidatePoliciesOnCommit(c, o.getID());
         contentServiceFactory.getDSpaceObjectService(o).updateLastModified(c, o);
         c.restoreAuthSystemState();
     }
@@ -237,6 +260,7 @@ public class ResourcePolicyServiceImpl implements ResourcePolicyService {
         throws SQLException, AuthorizeException {
         resourcePolicyDAO.deleteByDsoGroupPolicies(context, dso, group);
         context.turnOffAuthorisationSystem();
+        authorizationCacheService.invalidatePoliciesOnCommit(context, dso.getID());
         contentServiceFactory.getDSpaceObjectService(dso).updateLastModified(context, dso);
         context.restoreAuthSystemState();
     }
@@ -246,6 +270,7 @@ public class ResourcePolicyServiceImpl implements ResourcePolicyService {
         throws SQLException, AuthorizeException {
         resourcePolicyDAO.deleteByDsoEPersonPolicies(context, dso, ePerson);
         context.turnOffAuthorisationSystem();
+        authorizationCacheService.invalidatePoliciesOnCommit(context, dso.getID());
         contentServiceFactory.getDSpaceObjectService(dso).updateLastModified(context, dso);
         context.restoreAuthSystemState();
 
@@ -254,11 +279,13 @@ public class ResourcePolicyServiceImpl implements ResourcePolicyService {
     @Override
     public void removeAllEPersonPolicies(Context context, EPerson ePerson) throws SQLException, AuthorizeException {
         resourcePolicyDAO.deleteByEPerson(context, ePerson);
+        authorizationCacheService.invalidateAllPoliciesOnCommit(context);
     }
 
     @Override
     public void removeGroupPolicies(Context c, Group group) throws SQLException {
         resourcePolicyDAO.deleteByGroup(c, group);
+        authorizationCacheService.invalidateAllPoliciesOnCommit(c);
     }
 
     @Override
@@ -268,6 +295,7 @@ public class ResourcePolicyServiceImpl implements ResourcePolicyService {
         } else {
             resourcePolicyDAO.deleteByDsoAndAction(c, o, actionId);
             c.turnOffAuthorisationSystem();
+            authorizationCacheService.invalidatePoliciesOnCommit(c, o.getID());
             contentServiceFactory.getDSpaceObjectService(o).updateLastModified(c, o);
             c.restoreAuthSystemState();
         }
@@ -278,6 +306,7 @@ public class ResourcePolicyServiceImpl implements ResourcePolicyService {
         throws SQLException, AuthorizeException {
         resourcePolicyDAO.deleteByDsoAndTypeNotEqualsTo(c, o, type);
         c.turnOffAuthorisationSystem();
+        authorizationCacheService.invalidatePoliciesOnCommit(c, o.getID());
         contentServiceFactory.getDSpaceObjectService(o).updateLastModified(c, o);
         c.restoreAuthSystemState();
     }
@@ -317,6 +346,7 @@ public class ResourcePolicyServiceImpl implements ResourcePolicyService {
             context.turnOffAuthorisationSystem();
             for (DSpaceObject dSpaceObject : relatedDSpaceObjects) {
                 //A policy for a DSpace Object has been modified, fire a modify event on the DSpace object
+                authorizationCacheService.invalidatePoliciesOnCommit(context, dSpaceObject.getID());
                 contentServiceFactory.getDSpaceObjectService(dSpaceObject).updateLastModified(context, dSpaceObject);
             }
             context.restoreAuthSystemState();
@@ -8,6 +8,7 @@
 package org.dspace.authorize.dao;
 
 import java.sql.SQLException;
+import java.util.Collection;
 import java.util.List;
 import java.util.UUID;
 
@@ -39,6 +40,18 @@ public interface ResourcePolicyDAO extends GenericDAO<ResourcePolicy> {
 
     public List<ResourcePolicy> findByDSoAndAction(Context context, DSpaceObject dso, int actionId) throws SQLException;
 
+    /**
+     * Find the policies of several objects for an action with a single query
+     *
+     * @param context  DSpace context
+     * @param dsos     the objects
+     * @param actionId the action ID
+     * @return the policies of all given objects for the action
+     * @throws SQLException if there's a database problem
+     */
+    public List<ResourcePolicy> findByDSosAndAction(Context context, Collection<? extends DSpaceObject> dsos,
+                                                    int actionId) throws SQLException;
+
     public List<ResourcePolicy> findByTypeGroupAction(Context context, DSpaceObject dso, Group group, int action)
         throws SQLException;
 
@@ -0,0 +1,115 @@
+/**
+ * The contents of this file are subject to the license and copyright
+ * detailed in the LICENSE and NOTICE files at the root of the source
+ * tree and available online at
+ *
+ * http://www.dspace.org/license/
+ */
+package org.dspace.authorize.service;
+
+import java.sql.SQLException;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+
+import org.dspace.authorize.CachedResourcePolicy;
+import org.dspace.content.DSpaceObject;
+import org.dspace.core.Context;
+import org.dspace.eperson.EPerson;
+
+/**
+ * Size bounded cache of resource policies and group memberships which is shared by all requests, unlike the
+ * per-Context caches of {@link org.dspace.core.ContextReadOnlyCache}. It is used by the {@link AuthorizeService} and
+ * the {@link org.dspace.eperson.service.GroupService} when enabled (authorization.cache.enabled).
+ * <p>
+ * Entries are invalidated when resource policies are changed through the {@link ResourcePolicyService}, and by the
+ * {@link org.dspace.authorize.AuthorizationCacheConsumer} when groups, group memberships or objects change, both
+ * immediately and once the changes are committed, as other requests may load the old entries meanwhile. Changes
+ * made by other processes (e.g. command line tools) only become visible once the entries expire
+ * (authorization.cache.ttl).
+ */
+public interface AuthorizationCacheService {
+
+    /**
+     * @return true if the cache is enabled
+     */
+    boolean isEnabled();
+
+    /**
+     * The cache is not used by contexts with uncommitted changes (i.e. pending events or policy changes), so that
+     * they see their own changes and never publish them to other requests before they are committed.
+     *
+     * @param context DSpace context
+     * @return true if the cache is enabled and may be used with the given context
+     */
+    boolean isEnabledFor(Context context);
+
+    /**
+     * Get the policies of an object for an action
+     *
+     * @param context DSpace context
+     * @param dso     the object
+     * @param action  the action ID
+     * @return the policies of the object for the action
+     * @throws SQLException if database error
+     */
+    List<CachedResourcePolicy> getPolicies(Context context, DSpaceObject dso, int action) throws SQLException;
+
+    /**
+     * Get the IDs of all groups an EPerson is a member of, directly or through subgroups, including the anonymous
+     * group. The special groups of the context are included when the EPerson is the current user of the context.
+     *
+     * @param context DSpace context
+     * @param ePerson the EPerson, or null for an anonymous user
+     * @return the IDs of all groups the EPerson is a member of
+     * @throws SQLException if database error
+     */
+    Set<UUID> getMemberGroupIds(Context context, EPerson ePerson) throws SQLException;
+
+    /**
+     * Remove the policies of an object from the cache
+     *
+     * @param dsoId the ID of the object
+     */
+    void invalidatePolicies(UUID dsoId);
+
+    /**
+     * Remove the policies of all objects from the cache
+     */
+    void invalidateAllPolicies();
+
+    /**
+     * Remove the policies of an object from the cache now and once the changes of the context are committed. Until
+     * then, the cache is not used by the context.
+     *
+     * @param context DSpace context holding the changes
+     * @param dsoId   the ID of the object
+     */
+    void invalidatePoliciesOnCommit(Context context, UUID dsoId);
+
+    /**
+     * Remove the policies of all objects from the cache now and once the changes of the context are committed.
+     * Until then, the cache is not used by the context.
+     *
+     * @param context DSpace context holding the changes
+     */
+    void invalidateAllPoliciesOnCommit(Context context);
+
+    /**
+     * Remove the group memberships of an EPerson from the cache
+     *
+     * @param ePersonId the ID of the EPerson
+     */
+    void invalidateMemberships(UUID ePersonId);
+
+    /**
+     * Remove all group memberships from the cache
+     */
+    void invalidateAllMemberships();
+
+    /**
+     * @return the hit, miss, eviction and size counts of the caches, by name
+     */
+    Map<String, Long> getStatistics();
+}
@@ -151,6 +151,26 @@ public interface AuthorizeService {
     public boolean authorizeActionBoolean(Context c, EPerson e, DSpaceObject o, int a, boolean useInheritance)
         throws SQLException;
 
+    /**
+     * Bulk version of {@link #authorizeActionBoolean(Context, EPerson, DSpaceObject, int, boolean)}, which checks
+     * the same action on a whole list of objects (e.g. a page of search results). The policies of all objects are
+     * loaded with a few set-based queries and the groups of the EPerson are resolved only once, instead of once per
+     * object and policy.
+     *
+     * @param c              DSpace context
+     * @param e              EPerson to use in the check, or null for an anonymous user
+     * @param dsos           the objects to check
+     * @param a              action being attempted, from
+     *                       <code>org.dspace.core.Constants</code>
+     * @param useInheritance flag to say if ADMIN action on the current object or parent
+     *                       object can be used
+     * @param <T>            the type of the objects
+     * @return the objects on which the EPerson is authorized to perform the action, in the order of the given list
+     * @throws SQLException An exception that provides information on a database access error or other errors.
+     */
+    public <T extends DSpaceObject> List<T> filterAuthorized(Context c, EPerson e, List<T> dsos, int a,
+                                                             boolean useInheritance) throws SQLException;
+
     ///////////////////////////////////////////////
     // admin check methods
     ///////////////////////////////////////////////
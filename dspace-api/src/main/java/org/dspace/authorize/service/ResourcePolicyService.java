@@ -8,6 +8,7 @@
 package org.dspace.authorize.service;
 
 import java.sql.SQLException;
+import java.util.Collection;
 import java.util.List;
 import java.util.UUID;
 
@@ -28,6 +29,11 @@ import org.dspace.service.DSpaceCRUDService;
  */
 public interface ResourcePolicyService extends DSpaceCRUDService<ResourcePolicy> {
 
+    /**
+     * Maximum number of objects passed to a single query by {@link #find(Context, Collection, int)}
+     */
+    public static final int IN_CLAUSE_SIZE = 1000;
+
 
     public List<ResourcePolicy> find(Context c, DSpaceObject o) throws SQLException;
 
@@ -35,6 +41,19 @@ public interface ResourcePolicyService extends DSpaceCRUDService<ResourcePolicy>
 
     public List<ResourcePolicy> find(Context c, DSpaceObject o, int actionId) throws SQLException;
 
+    /**
+     * Find the policies of several objects for an action, using one query per
+     * {@link #IN_CLAUSE_SIZE} objects instead of one query per object.
+     *
+     * @param c        DSpace context
+     * @param dsos     the objects
+     * @param actionId the action ID
+     * @return the policies of all given objects for the action
+     * @throws SQLException if database error
+     */
+    public List<ResourcePolicy> find(Context c, Collection<? extends DSpaceObject> dsos, int actionId)
+        throws SQLException;
+
     public List<ResourcePolicy> find(Context c, DSpaceObject dso, Group group, int action) throws SQLException;
 
     public List<ResourcePolicy> find(Context context, Group group) throws SQLException;
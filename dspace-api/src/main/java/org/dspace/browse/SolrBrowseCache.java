@@ -0,0 +1,353 @@
+/**
+ * The contents of this file are subject to the license and copyright
+ * detailed in the LICENSE and NOTICE files at the root of the source
+ * tree and available online at
+ *
+ * http://www.dspace.org/license/
+ */
+package org.dspace.browse;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.UUID;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import javax.annotation.PostConstruct;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.CacheStats;
+import com.google.common.util.concurrent.UncheckedExecutionException;
+import org.apache.commons.lang3.StringUtils;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.apache.solr.client.solrj.SolrRequest;
+import org.apache.solr.client.solrj.SolrServerException;
+import org.apache.solr.client.solrj.request.GenericSolrRequest;
+import org.apache.solr.common.params.ModifiableSolrParams;
+import org.apache.solr.common.util.NamedList;
+import org.dspace.discovery.DiscoverResult.FacetResult;
+import org.dspace.discovery.SolrSearchCore;
+import org.dspace.services.ConfigurationService;
+import org.springframework.beans.factory.annotation.Autowired;
+
+/**
+ * Cache of the browse results of the {@link SolrBrowseDAO}, shared by all requests, so that the (often huge) facet
+ * queries of the value browses and the item pages don't have to be run for every request.
+ * <p>
+ * Value browses cache all the values of an index and scope, with a jump table of the first characters of their sort
+ * values, so that a "starts with" browse is answered from the cached values instead of another facet query. A "starts
+ * with" browse whose values are not all cached yet only loads (and caches) the values starting with its value, as an
+ * uncached browse would, so the cache never runs more facet queries than the browses themselves. Item browses cache
+ * the item IDs and total of each page.
+ * <p>
+ * The caches are bounded by browse.cache.values.max values and browse.cache.items.max item IDs. The values of a
+ * browse are not cached if there are more than browse.cache.values.max-entry of them (the "starts with" browses then
+ * cache the values starting with their value instead), so that a single browse can't evict all the others. Entries
+ * expire
+ * browse.cache.ttl seconds after they were loaded, and all entries are dropped once the version of the Discovery
+ * index changes (i.e. after a commit, by any process), which is checked at most every
+ * browse.cache.check-interval seconds.
+ */
+public class SolrBrowseCache {
+
+    private static final Logger log = LogManager.getLogger(SolrBrowseCache.class);
+
+    @Autowired(required = true)
+    protected ConfigurationService configurationService;
+    @Autowired(required = true)
+    protected SolrSearchCore solrSearchCore;
+
+    // the values of a browse which are too many to be cached
+    private static final BrowseValues TOO_LARGE = new BrowseValues(null);
+
+    private boolean enabled = false;
+    private long checkInterval;
+    private long maxEntryValues;
+    private Cache<String, BrowseValues> values;
+    private Cache<String, BrowseItems> items;
+
+    private volatile long lastCheck = 0;
+    private String indexVersion = null;
+
+    @PostConstruct
+    public void init() {
+        enabled = configurationService.getBooleanProperty("browse.cache.enabled", false);
+        long ttl = configurationService.getLongProperty("browse.cache.ttl", 3600);
+        long maxValues = configurationService.getLongProperty("browse.cache.values.max", 1000000);
+        long maxItems = configurationService.getLongProperty("browse.cache.items.max", 100000);
+        checkInterval = TimeUnit.SECONDS.toMillis(configurationService.getLongProperty("browse.cache.check-interval",
+                                                                                       10));
+
+        maxEntryValues = configurationService.getLongProperty("browse.cache.values.max-entry", maxValues / 10);
+
+        // a single segment, as Guava bounds the weight of each segment, and would evict the large entries at once
+        values = CacheBuilder.newBuilder().concurrencyLevel(1).maximumWeight(maxValues)
+                             .weigher((String key, BrowseValues value) -> value.size() + 1)
+                             .expireAfterWrite(ttl, TimeUnit.SECONDS).recordStats().build();
+        items = CacheBuilder.newBuilder().maximumWeight(maxItems)
+                            .weigher((String key, BrowseItems value) -> value.getItemIds().size() + 1)
+                            .expireAfterWrite(ttl, TimeUnit.SECONDS).recordStats().build();
+        if (enabled) {
+            log.info("Browse cache enabled for {} values and {} items, ttl {}s", maxValues, maxItems, ttl);
+        }
+    }
+
+    /**
+     * @return true if the cache is enabled (browse.cache.enabled)
+     */
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Get the values of a value browse starting with a prefix, without more facet queries than an uncached browse:
+     * from the cached values of the whole browse if they are cached, otherwise from the cached values starting with
+     * the prefix, loading them with the prefix if they are not cached either. Concurrent requests for the same values
+     * wait for a single load.
+     *
+     * @param key    the key of the values (index, scope and audience, but not the "starts with" value)
+     * @param prefix the normalized "starts with" value, if any
+     * @param loader loads the values starting with a prefix (all the values if none), in index order
+     * @return the values starting with the prefix
+     * @throws BrowseException if the values can't be loaded
+     */
+    public List<FacetResult> getValues(String key, String prefix, ValuesLoader loader) throws BrowseException {
+        checkIndexVersion();
+        if (StringUtils.isNotBlank(prefix)) {
+            BrowseValues all = values.getIfPresent(key);
+            if (all != null && all != TOO_LARGE) {
+                return all.startingWith(prefix);
+            }
+        } else {
+            prefix = null;
+        }
+
+        String valuesKey = prefix != null ? key + '|' + prefix : key;
+        String valuesPrefix = prefix;
+        List<List<FacetResult>> tooLarge = new ArrayList<>(1);
+        BrowseValues cached = get(values, valuesKey, () -> {
+            List<FacetResult> facetResults = loader.load(valuesPrefix);
+            if (facetResults != null && facetResults.size() > maxEntryValues) {
+                tooLarge.add(facetResults);
+                return TOO_LARGE;
+            }
+            return new BrowseValues(facetResults);
+        });
+        if (cached != TOO_LARGE) {
+            // loaded with the prefix, so they all start with it
+            return cached.getFacetResults();
+        } else if (!tooLarge.isEmpty()) {
+            return tooLarge.get(0);
+        }
+        // loaded by a concurrent request, but not kept
+        return loadValues(loader, prefix);
+    }
+
+    private List<FacetResult> loadValues(ValuesLoader loader, String prefix) throws BrowseException {
+        try {
+            List<FacetResult> facetResults = loader.load(prefix);
+            return facetResults != null ? facetResults : Collections.emptyList();
+        } catch (BrowseException e) {
+            throw e;
+        } catch (Exception e) {
+            throw new BrowseException(e);
+        }
+    }
+
+    /**
+     * Get a page of an item browse, loading it if it is not cached.
+     *
+     * @param key    the key of the page (index, scope, filter, order, offset, limit and audience)
+     * @param loader loads the page
+     * @return the page
+     * @throws BrowseException if the page can't be loaded
+     */
+    public BrowseItems getItems(String key, Callable<BrowseItems> loader) throws BrowseException {
+        checkIndexVersion();
+        return get(items, key, loader);
+    }
+
+    private <T> T get(Cache<String, T> cache, String key, Callable<T> loader) throws BrowseException {
+        try {
+            return cache.get(key, loader);
+        } catch (ExecutionException | UncheckedExecutionException e) {
+            if (e.getCause() instanceof BrowseException) {
+                throw (BrowseException) e.getCause();
+            }
+            throw new BrowseException(e.getCause());
+        }
+    }
+
+    /**
+     * Remove all the entries of the cache
+     */
+    public void invalidateAll() {
+        values.invalidateAll();
+        items.invalidateAll();
+    }
+
+    /**
+     * @return the hits, misses, evictions and size of the caches
+     */
+    public Map<String, Long> getStatistics() {
+        Map<String, Long> statistics = new LinkedHashMap<>();
+        addStatistics(statistics, "values", values);
+        addStatistics(statistics, "items", items);
+        return statistics;
+    }
+
+    private void addStatistics(Map<String, Long> statistics, String name, Cache<?, ?> cache) {
+        CacheStats stats = cache.stats();
+        statistics.put(name + ".hits", stats.hitCount());
+        statistics.put(name + ".misses", stats.missCount());
+        statistics.put(name + ".evictions", stats.evictionCount());
+        statistics.put(name + ".size", cache.size());
+    }
+
+    /**
+     * Drop all the entries if the version of the index has changed since the last check. The version is not known
+     * if it can't be read, so the entries are dropped on every check until it can be read again.
+     */
+    protected void checkIndexVersion() {
+        long now = System.currentTimeMillis();
+        if (now - lastCheck < checkInterval) {
+            return;
+        }
+        synchronized (this) {
+            if (now - lastCheck < checkInterval) {
+                return;
+            }
+            String version = getIndexVersion();
+            if (version == null || !version.equals(indexVersion)) {
+                log.debug("Discovery index version changed from {} to {}, clearing the browse cache", indexVersion,
+                          version);
+                invalidateAll();
+                indexVersion = version;
+            }
+            lastCheck = now;
+        }
+    }
+
+    /**
+     * @return the version of the Discovery index, which changes on every commit, or null if it can't be read
+     */
+    protected String getIndexVersion() {
+        ModifiableSolrParams params = new ModifiableSolrParams();
+        params.set("show", "index");
+        params.set("numTerms", 0);
+        try {
+            NamedList<Object> response = new GenericSolrRequest(SolrRequest.METHOD.GET, "/admin/luke", params)
+                .process(solrSearchCore.getSolr()).getResponse();
+            Object index = response.get("index");
+            if (index instanceof NamedList) {
+                return Objects.toString(((NamedList<?>) index).get("version"), null);
+            }
+        } catch (IOException | SolrServerException e) {
+            log.warn("Unable to read the version of the Discovery index", e);
+        }
+        return null;
+    }
+
+    /**
+     * Loads the values of a value browse
+     */
+    @FunctionalInterface
+    public interface ValuesLoader {
+        /**
+         * @param prefix the "starts with" value, or null to load all the values
+         * @return the values starting with the prefix, in index order
+         * @throws Exception if the values can't be loaded
+         */
+        List<FacetResult> load(String prefix) throws Exception;
+    }
+
+    /**
+     * All the values of a value browse, in index order, with a jump table to the values starting with each
+     * character.
+     */
+    public static class BrowseValues {
+        private final List<FacetResult> facetResults;
+        // first and last (exclusive) position of the values whose sort value starts with each character
+        private final Map<Character, int[]> jumpTable = new HashMap<>();
+
+        public BrowseValues(List<FacetResult> facetResults) {
+            this.facetResults = facetResults != null
+                ? Collections.unmodifiableList(new ArrayList<>(facetResults)) : Collections.emptyList();
+            for (int i = 0; i < this.facetResults.size(); i++) {
+                String sortValue = this.facetResults.get(i).getSortValue();
+                if (StringUtils.isNotEmpty(sortValue)) {
+                    int[] range = jumpTable.get(sortValue.charAt(0));
+                    if (range == null) {
+                        jumpTable.put(sortValue.charAt(0), new int[] {i, i + 1});
+                    } else {
+                        range[1] = i + 1;
+                    }
+                }
+            }
+        }
+
+        /**
+         * @return all the values
+         */
+        public List<FacetResult> getFacetResults() {
+            return facetResults;
+        }
+
+        /**
+         * Get the values whose sort value starts with a prefix, as a facet query with that prefix would. Only the
+         * values between the first and last value starting with the first character of the prefix are looked at.
+         *
+         * @param prefix the normalized prefix
+         * @return the values starting with the prefix
+         */
+        public List<FacetResult> startingWith(String prefix) {
+            if (StringUtils.isEmpty(prefix)) {
+                return facetResults;
+            }
+            int[] range = jumpTable.get(prefix.charAt(0));
+            if (range == null) {
+                return Collections.emptyList();
+            }
+            List<FacetResult> result = new ArrayList<>();
+            for (FacetResult facetResult : facetResults.subList(range[0], range[1])) {
+                if (StringUtils.startsWith(facetResult.getSortValue(), prefix)) {
+                    result.add(facetResult);
+                }
+            }
+            return result;
+        }
+
+        public int size() {
+            return facetResults.size();
+        }
+    }
+
+    /**
+     * A page of an item browse: the IDs of its items and the total number of items of the browse.
+     */
+    public static class BrowseItems {
+        private final List<UUID> itemIds;
+        private final long total;
+
+        public BrowseItems(List<UUID> itemIds, long total) {
+            this.itemIds = Collections.unmodifiableList(new ArrayList<>(itemIds));
+            this.total = total;
+        }
+
+        public List<UUID> getItemIds() {
+            return itemIds;
+        }
+
+        public long getTotal() {
+            return total;
+        }
+    }
+}
@@ -14,12 +14,15 @@ import java.util.Collections;
 import java.util.Comparator;
 import java.util.List;
 import java.util.UUID;
+import java.util.stream.Collectors;
 
 import org.apache.commons.lang3.StringUtils;
 import org.apache.logging.log4j.Logger;
 import org.dspace.authorize.factory.AuthorizeServiceFactory;
 import org.dspace.authorize.service.AuthorizeService;
 import org.dspace.content.Item;
+import org.dspace.content.factory.ContentServiceFactory;
+import org.dspace.content.service.ItemService;
 import org.dspace.core.Context;
 import org.dspace.discovery.DiscoverFacetField;
 import org.dspace.discovery.DiscoverQuery;
@@ -32,6 +35,7 @@ import org.dspace.discovery.SearchService;
 import org.dspace.discovery.SearchServiceException;
 import org.dspace.discovery.configuration.DiscoveryConfigurationParameters;
 import org.dspace.discovery.indexobject.IndexableItem;
+import org.dspace.eperson.Group;
 import org.dspace.services.factory.DSpaceServicesFactory;
 
 /**
@@ -167,62 +171,143 @@ public class SolrBrowseDAO implements BrowseDAO {
     SearchService searcher = DSpaceServicesFactory.getInstance().getServiceManager().getServiceByName(
         SearchService.class.getName(), SearchService.class);
 
+    SolrBrowseCache browseCache = DSpaceServicesFactory.getInstance().getServiceManager().getServiceByName(
+        SolrBrowseCache.class.getName(), SolrBrowseCache.class);
+
+    protected ItemService itemService = ContentServiceFactory.getInstance().getItemService();
+
     private DiscoverResult sResponse = null;
 
+    private List<FacetResult> facetResults = null;
+
+    private SolrBrowseCache.BrowseItems browseItems = null;
+
     private boolean showFrequencies;
 
     private DiscoverResult getSolrResponse() throws BrowseException {
         if (sResponse == null) {
-            DiscoverQuery query = new DiscoverQuery();
-            addLocationScopeFilter(query);
-            addStatusFilter(query);
-            if (distinct) {
-                DiscoverFacetField dff;
-                if (StringUtils.isNotBlank(startsWith)) {
-                    dff = new DiscoverFacetField(facetField,
-                        DiscoveryConfigurationParameters.TYPE_TEXT, -1,
-                        DiscoveryConfigurationParameters.SORT.VALUE, startsWith);
-                } else {
-                    dff = new DiscoverFacetField(facetField,
-                        DiscoveryConfigurationParameters.TYPE_TEXT, -1,
-                        DiscoveryConfigurationParameters.SORT.VALUE);
-                }
-                query.addFacetField(dff);
-                query.setFacetMinCount(1);
-                query.setMaxResults(0);
+            sResponse = search(buildQuery(startsWith));
+        }
+        return sResponse;
+    }
+
+    private DiscoverResult search(DiscoverQuery query) throws BrowseException {
+        try {
+            return searcher.search(context, query);
+        } catch (SearchServiceException e) {
+            throw new BrowseException(e);
+        }
+    }
+
+    private DiscoverQuery buildQuery(String prefix) {
+        DiscoverQuery query = new DiscoverQuery();
+        addLocationScopeFilter(query);
+        addStatusFilter(query);
+        if (distinct) {
+            DiscoverFacetField dff;
+            if (StringUtils.isNotBlank(prefix)) {
+                dff = new DiscoverFacetField(facetField,
+                    DiscoveryConfigurationParameters.TYPE_TEXT, -1,
+                    DiscoveryConfigurationParameters.SORT.VALUE, prefix);
             } else {
-                query.setMaxResults(limit/* > 0 ? limit : 20*/);
-                if (offset > 0) {
-                    query.setStart(offset);
-                }
+                dff = new DiscoverFacetField(facetField,
+                    DiscoveryConfigurationParameters.TYPE_TEXT, -1,
+                    DiscoveryConfigurationParameters.SORT.VALUE);
+            }
+            query.addFacetField(dff);
+            query.setFacetMinCount(1);
+            query.setMaxResults(0);
+        } else {
+            query.setMaxResults(limit/* > 0 ? limit : 20*/);
+            if (offset > 0) {
+                query.setStart(offset);
+            }
 
-                // caution check first authority, value is always present!
-                if (authority != null) {
-                    query.addFilterQueries("{!field f=" + facetField + "_authority_filter}"
-                                               + authority);
-                } else if (value != null && !valuePartial) {
-                    query.addFilterQueries("{!field f=" + facetField + "_value_filter}" + value);
-                } else if (valuePartial) {
-                    query.addFilterQueries("{!field f=" + facetField + "_partial}" + value);
-                }
-                if (StringUtils.isNotBlank(startsWith) && orderField != null) {
-                    query.addFilterQueries("bi_" + orderField + "_sort:" + startsWith + "*");
-                }
-                // filter on item to be sure to don't include any other object
-                // indexed in the Discovery Search core
-                query.addFilterQueries("search.resourcetype:" + IndexableItem.TYPE);
-                if (orderField != null) {
-                    query.setSortField("bi_" + orderField + "_sort",
-                                       ascending ? SORT_ORDER.asc : SORT_ORDER.desc);
-                }
+            // caution check first authority, value is always present!
+            if (authority != null) {
+                query.addFilterQueries("{!field f=" + facetField + "_authority_filter}"
+                                           + authority);
+            } else if (value != null && !valuePartial) {
+                query.addFilterQueries("{!field f=" + facetField + "_value_filter}" + value);
+            } else if (valuePartial) {
+                query.addFilterQueries("{!field f=" + facetField + "_partial}" + value);
             }
-            try {
-                sResponse = searcher.search(context, query);
-            } catch (SearchServiceException e) {
-                throw new BrowseException(e);
+            if (StringUtils.isNotBlank(prefix) && orderField != null) {
+                query.addFilterQueries("bi_" + orderField + "_sort:" + prefix + "*");
+            }
+            // filter on item to be sure to don't include any other object
+            // indexed in the Discovery Search core
+            query.addFilterQueries("search.resourcetype:" + IndexableItem.TYPE);
+            if (orderField != null) {
+                query.setSortField("bi_" + orderField + "_sort",
+                                   ascending ? SORT_ORDER.asc : SORT_ORDER.desc);
             }
         }
-        return sResponse;
+        return query;
+    }
+
+    /**
+     * @return the values of a value browse starting with the "starts with" value, if any, from the browse cache when
+     * it is enabled
+     */
+    private List<FacetResult> getFacetResults() throws BrowseException {
+        if (facetResults == null) {
+            if (browseCache != null && browseCache.isEnabled()) {
+                facetResults = browseCache.getValues(getCacheKey(), startsWith,
+                    prefix -> search(buildQuery(prefix)).getFacetResult(facetField));
+            } else {
+                facetResults = getSolrResponse().getFacetResult(facetField);
+            }
+        }
+        return facetResults;
+    }
+
+    /**
+     * @return the IDs and total of the items of an item browse, from the browse cache when it is enabled
+     */
+    private SolrBrowseCache.BrowseItems getBrowseItems() throws BrowseException {
+        if (browseItems == null) {
+            if (browseCache != null && browseCache.isEnabled()) {
+                browseItems = browseCache.getItems(getCacheKey(), () -> toBrowseItems(search(buildQuery(startsWith))));
+            } else {
+                browseItems = toBrowseItems(getSolrResponse());
+            }
+        }
+        return browseItems;
+    }
+
+    private SolrBrowseCache.BrowseItems toBrowseItems(DiscoverResult resp) {
+        List<UUID> itemIds = resp.getIndexableObjects().stream()
+                                 .map(solrDoc -> ((IndexableItem) solrDoc).getIndexedObject().getID())
+                                 .collect(Collectors.toList());
+        return new SolrBrowseCache.BrowseItems(itemIds, resp.getTotalSearchResults());
+    }
+
+    /**
+     * Build the key of the current browse in the browse cache. The results depend on the permissions of the current
+     * user, so the key includes the user and its special groups (the groups of the user are derived from them).
+     */
+    private String getCacheKey() throws BrowseException {
+        StringBuilder key = new StringBuilder();
+        key.append(distinct ? "values" : "items").append('|').append(facetField)
+           .append('|').append(containerIDField).append('|').append(containerID);
+        if (!distinct) {
+            key.append('|').append(authority).append('|').append(value).append('|').append(valuePartial)
+               .append('|').append(startsWith).append('|').append(orderField).append('|').append(ascending)
+               .append('|').append(offset).append('|').append(limit);
+        }
+        try {
+            if (authorizeService.isAdmin(context)) {
+                key.append("|admin");
+            } else {
+                key.append('|').append(context.getCurrentUser() != null ? context.getCurrentUser().getID() : "");
+                context.getSpecialGroups().stream().map(Group::getID).map(UUID::toString).sorted()
+                       .forEach(groupId -> key.append(',').append(groupId));
+            }
+        } catch (SQLException e) {
+            throw new BrowseException(e);
+        }
+        return key.toString();
     }
 
     private void addStatusFilter(DiscoverQuery query) {
@@ -249,26 +334,24 @@ public class SolrBrowseDAO implements BrowseDAO {
 
     @Override
     public int doCountQuery() throws BrowseException {
-        DiscoverResult resp = getSolrResponse();
         int count = 0;
         if (distinct) {
-            List<FacetResult> facetResults = resp.getFacetResult(facetField);
-            count = facetResults.size();
+            count = getFacetResults().size();
         } else {
             // we need to cast to int to respect the BrowseDAO contract...
-            count = (int) resp.getTotalSearchResults();
+            count = (int) getBrowseItems().getTotal();
             // FIXME null the response cache
             // the BrowseEngine send fake argument to the BrowseDAO for the
             // count...
             sResponse = null;
+            browseItems = null;
         }
         return count;
     }
 
     @Override
     public List doValueQuery() throws BrowseException {
-        DiscoverResult resp = getSolrResponse();
-        List<FacetResult> facet = resp.getFacetResult(facetField);
+        List<FacetResult> facet = getFacetResults();
         int count = doCountQuery();
         int start = offset > 0 ? offset : 0;
         int max = limit > 0 ? limit : count; //if negative, return everything
@@ -297,14 +380,30 @@ public class SolrBrowseDAO implements BrowseDAO {
 
     @Override
     public List<Item> doQuery() throws BrowseException {
-        DiscoverResult resp = getSolrResponse();
+        if (browseCache == null || !browseCache.isEnabled()) {
+            DiscoverResult resp = getSolrResponse();
+
+            List<Item> bitems = new ArrayList<>();
+            for (IndexableObject solrDoc : resp.getIndexableObjects()) {
+                // FIXME introduce project, don't retrieve Item immediately when
+                // processing the query...
+                Item item = ((IndexableItem) solrDoc).getIndexedObject();
+                bitems.add(item);
+            }
+            return bitems;
+        }
 
+        // the cached page only holds the IDs of the items, which are loaded in this context
         List<Item> bitems = new ArrayList<>();
-        for (IndexableObject solrDoc : resp.getIndexableObjects()) {
-            // FIXME introduce project, don't retrieve Item immediately when
-            // processing the query...
-            Item item = ((IndexableItem) solrDoc).getIndexedObject();
-            bitems.add(item);
+        try {
+            for (UUID itemId : getBrowseItems().getItemIds()) {
+                Item item = itemService.find(context, itemId);
+                if (item != null) {
+                    bitems.add(item);
+                }
+            }
+        } catch (SQLException e) {
+            throw new BrowseException(e);
         }
         return bitems;
     }
@@ -367,8 +466,8 @@ public class SolrBrowseDAO implements BrowseDAO {
     @Override
     public int doDistinctOffsetQuery(String column, String value,
                                      boolean isAscending) throws BrowseException {
-        DiscoverResult resp = getSolrResponse();
-        List<FacetResult> facets = resp.getFacetResult(facetField);
+        // sort a copy, the values may be shared with other requests by the browse cache
+        List<FacetResult> facets = new ArrayList<>(getFacetResults());
         Comparator comparator = new SolrBrowseDAO.FacetValueComparator();
         Collections.sort(facets, comparator);
         int x = Collections.binarySearch(facets, value, comparator);
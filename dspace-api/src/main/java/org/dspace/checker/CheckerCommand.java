@@ -8,10 +8,25 @@
 package org.dspace.checker;
 
 import java.io.IOException;
+import java.io.InputStream;
+import java.security.DigestInputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
 import java.sql.SQLException;
 import java.util.Date;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.Map;
-
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import com.google.common.util.concurrent.RateLimiter;
 import org.apache.commons.collections4.MapUtils;
 import org.apache.logging.log4j.Logger;
 import org.dspace.checker.factory.CheckerServiceFactory;
@@ -20,6 +35,9 @@ import org.dspace.checker.service.ChecksumResultService;
 import org.dspace.checker.service.MostRecentChecksumService;
 import org.dspace.content.Bitstream;
 import org.dspace.core.Context;
+import org.dspace.core.Utils;
+import org.dspace.services.ConfigurationService;
+import org.dspace.services.factory.DSpaceServicesFactory;
 import org.dspace.storage.bitstore.factory.StorageServiceFactory;
 import org.dspace.storage.bitstore.service.BitstreamStorageService;
 
@@ -30,6 +48,14 @@ import org.dspace.storage.bitstore.service.BitstreamStorageService;
  * against the last calculated checksum for that bitstream.
  * </p>
  *
+ * <p>
+ * The bitstreams can be read by several threads at once (checker.threads), and
+ * the total bandwidth used to read them can be limited (checker.max-bandwidth),
+ * so that the checker doesn't starve the other users of the asset store. The
+ * results are always written by the calling thread, and committed every
+ * checker.commit-size bitstreams, so that an interrupted run loses little work.
+ * </p>
+ *
  * @author Jim Downing
  * @author Grace Carpenter
  * @author Nathan Sarr
@@ -78,6 +104,31 @@ public final class CheckerCommand {
      */
     private boolean reportVerbose = false;
 
+    /**
+     * Number of threads reading the bitstreams.
+     */
+    private int threads = 1;
+
+    /**
+     * Number of checked bitstreams after which the results are committed.
+     */
+    private int commitSize = 100;
+
+    /**
+     * Limits the bytes read per second, or null if unlimited.
+     */
+    private RateLimiter rateLimiter = null;
+
+    /**
+     * Number of checked bitstreams not committed yet.
+     */
+    private int uncommitted = 0;
+
+    /**
+     * Size of the buffer used to read the bitstreams.
+     */
+    private static final int BUFFER_SIZE = 64 * 1024;
+
     /**
      * Default constructor uses DSpace plugin manager to construct dependencies.
      *
@@ -89,6 +140,11 @@ public final class CheckerCommand {
         bitstreamStorageService = StorageServiceFactory.getInstance().getBitstreamStorageService();
         checksumResultService = CheckerServiceFactory.getInstance().getChecksumResultService();
         this.context = context;
+
+        ConfigurationService configurationService = DSpaceServicesFactory.getInstance().getConfigurationService();
+        setThreads(configurationService.getIntProperty("checker.threads", threads));
+        setCommitSize(configurationService.getIntProperty("checker.commit-size", commitSize));
+        setMaxBandwidth(configurationService.getIntProperty("checker.max-bandwidth", 0) * 1024L * 1024L);
     }
 
     /**
@@ -120,22 +176,125 @@ public final class CheckerCommand {
         // bitstream table - this always done.
         checksumService.updateMissingBitstreams(context);
 
+        if (threads > 1) {
+            processInParallel();
+            return;
+        }
+
         Bitstream bitstream = dispatcher.next();
 
         while (bitstream != null) {
             LOG.debug("Processing bitstream id = " + bitstream.getID());
             MostRecentChecksum info = checkBitstream(bitstream);
-
-            if (reportVerbose
-                || !ChecksumResultCode.CHECKSUM_MATCH.equals(info.getChecksumResult().getResultCode())) {
-                collector.collect(context, info);
-            }
+            report(info);
 
             context.uncacheEntity(bitstream);
+            commitBatch();
             bitstream = dispatcher.next();
         }
     }
 
+    /**
+     * Checks the bitstreams of the dispatcher, reading them in the reader threads.
+     * The bitstreams are read at most two per thread ahead of the results written,
+     * and only the reading is done by the reader threads: the database is only
+     * accessed by the calling thread, as the context isn't thread safe.
+     *
+     * @throws SQLException if database error
+     */
+    protected void processInParallel() throws SQLException {
+        AtomicInteger threadNumber = new AtomicInteger();
+        ExecutorService readers = Executors.newFixedThreadPool(threads, runnable -> {
+            Thread thread = new Thread(runnable, "checksum-reader-" + threadNumber.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        CompletionService<Verification> completionService = new ExecutorCompletionService<>(readers);
+        Set<UUID> inProgress = new HashSet<>();
+
+        try {
+            Bitstream bitstream = dispatcher.next();
+
+            while (bitstream != null || !inProgress.isEmpty()) {
+                while (bitstream != null && inProgress.size() < threads * 2) {
+                    LOG.debug("Processing bitstream id = " + bitstream.getID());
+                    if (!inProgress.contains(bitstream.getID())) {
+                        MostRecentChecksum info = checksumService.findByBitstream(context, bitstream);
+                        if (info != null && info.isToBeProcessed() && !info.getBitstream().isDeleted()) {
+                            inProgress.add(bitstream.getID());
+                            Bitstream toRead = info.getBitstream();
+                            String algorithm = info.getChecksumAlgorithm();
+                            completionService.submit(() -> verify(toRead, algorithm));
+                        } else {
+                            // nothing to read
+                            report(checkBitstream(bitstream));
+                            context.uncacheEntity(bitstream);
+                            commitBatch();
+                        }
+                    }
+                    bitstream = dispatcher.next();
+                }
+
+                if (!inProgress.isEmpty()) {
+                    Verification verification = takeVerification(completionService);
+                    inProgress.remove(verification.bitstream.getID());
+
+                    // the bitstream may have been read before the last commit
+                    MostRecentChecksum info = checksumService.findByBitstream(context, verification.bitstream);
+                    if (info == null) {
+                        LOG.warn("Bitstream ID " + verification.bitstream.getID()
+                                     + " was removed while it was being checked");
+                        continue;
+                    }
+                    recordChecksum(info, verification);
+                    report(info);
+                    context.uncacheEntity(info.getBitstream());
+                    commitBatch();
+                }
+            }
+        } finally {
+            readers.shutdownNow();
+        }
+    }
+
+    private Verification takeVerification(CompletionService<Verification> completionService) {
+        try {
+            return completionService.take().get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while checking the bitstreams", e);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Error while checking the bitstreams", e.getCause());
+        }
+    }
+
+    /**
+     * Reports the result of a check to the collector, unless it is an expected
+     * match and the report isn't verbose.
+     *
+     * @param info the checked bitstream
+     * @throws SQLException if database error
+     */
+    protected void report(MostRecentChecksum info) throws SQLException {
+        if (reportVerbose
+            || !ChecksumResultCode.CHECKSUM_MATCH.equals(info.getChecksumResult().getResultCode())) {
+            collector.collect(context, info);
+        }
+    }
+
+    /**
+     * Commits the results once commitSize bitstreams have been checked. The
+     * entities loaded before the commit must not be used afterwards.
+     *
+     * @throws SQLException if database error
+     */
+    protected void commitBatch() throws SQLException {
+        if (++uncommitted >= commitSize) {
+            context.commit();
+            uncommitted = 0;
+        }
+    }
+
     /**
      * Check a specified bitstream.
      *
@@ -242,29 +401,102 @@ public final class CheckerCommand {
      * @throws SQLException if database error
      */
     protected void processBitstream(MostRecentChecksum info) throws SQLException {
-        info.setProcessStartDate(new Date());
+        recordChecksum(info, verify(info.getBitstream(), info.getChecksumAlgorithm()));
+    }
 
+    /**
+     * Reads a bitstream to compute its checksum. This doesn't access the
+     * database, so it can be called by the reader threads.
+     *
+     * @param bitstream the bitstream to read
+     * @param algorithm the algorithm of its checksum
+     * @return the computed checksum, or the error reading the bitstream
+     */
+    protected Verification verify(Bitstream bitstream, String algorithm) {
+        Verification verification = new Verification(bitstream);
         try {
-            Map checksumMap = bitstreamStorageService.computeChecksum(context, info.getBitstream());
-            if (MapUtils.isNotEmpty(checksumMap)) {
-                info.setBitstreamFound(true);
-                if (checksumMap.containsKey("checksum")) {
-                    info.setCurrentChecksum(checksumMap.get("checksum").toString());
-                }
+            verification.checksumMap = computeChecksum(bitstream, algorithm);
+        } catch (IOException | RuntimeException e) {
+            // e.g. an error of the asset store client, which only concerns this bitstream
+            verification.error = e;
+        }
+        verification.endDate = new Date();
+        return verification;
+    }
 
-                if (checksumMap.containsKey("checksum_algorithm")) {
-                    info.setChecksumAlgorithm(checksumMap.get("checksum_algorithm").toString());
-                }
+    /**
+     * Computes the checksum of a bitstream, reading it through the rate limiter
+     * if the bandwidth is limited.
+     *
+     * @param bitstream the bitstream to read
+     * @param algorithm the algorithm of its checksum
+     * @return a map with the checksum and the checksum_algorithm
+     * @throws IOException if the bitstream can't be read
+     */
+    protected Map computeChecksum(Bitstream bitstream, String algorithm) throws IOException {
+        if (rateLimiter == null) {
+            return bitstreamStorageService.computeChecksum(context, bitstream);
+        }
+
+        if (algorithm == null) {
+            algorithm = "MD5";
+        }
+        MessageDigest digest;
+        try {
+            digest = MessageDigest.getInstance(algorithm);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IOException("Invalid checksum algorithm " + algorithm, e);
+        }
+        try (InputStream in = new DigestInputStream(
+            new ThrottledInputStream(bitstreamStorageService.retrieve(context, bitstream), rateLimiter), digest)) {
+            byte[] buffer = new byte[BUFFER_SIZE];
+            while (in.read(buffer) != -1) {
+                // the digest is updated while reading
             }
+        } catch (SQLException e) {
+            throw new IOException(e);
+        }
+
+        Map<String, String> checksumMap = new HashMap<>();
+        checksumMap.put("checksum", Utils.toHex(digest.digest()));
+        checksumMap.put("checksum_algorithm", algorithm);
+        return checksumMap;
+    }
 
-            // compare new checksum to previous checksum
-            info.setChecksumResult(compareChecksums(info.getExpectedChecksum(), info.getCurrentChecksum()));
-        } catch (IOException e) {
-            // bitstream located, but file missing from asset store
-            info.setChecksumResult(getChecksumResultByCode(ChecksumResultCode.BITSTREAM_NOT_FOUND));
-            info.setToBeProcessed(false);
-            LOG.error("Error retrieving bitstream ID " + info.getBitstream().getID()
-                          + " from " + "asset store.", e);
+    /**
+     * Records the computed checksum of a bitstream, and the result of its
+     * comparison with the previous checksum.
+     *
+     * @param info         BitstreamInfo to update
+     * @param verification the computed checksum
+     * @throws SQLException if database error
+     */
+    protected void recordChecksum(MostRecentChecksum info, Verification verification) throws SQLException {
+        info.setProcessStartDate(verification.startDate);
+
+        try {
+            if (verification.error != null) {
+                // bitstream located, but file missing from asset store
+                info.setChecksumResult(getChecksumResultByCode(ChecksumResultCode.BITSTREAM_NOT_FOUND));
+                info.setToBeProcessed(false);
+                LOG.error("Error retrieving bitstream ID " + info.getBitstream().getID()
+                              + " from " + "asset store.", verification.error);
+            } else {
+                Map checksumMap = verification.checksumMap;
+                if (MapUtils.isNotEmpty(checksumMap)) {
+                    info.setBitstreamFound(true);
+                    if (checksumMap.containsKey("checksum")) {
+                        info.setCurrentChecksum(checksumMap.get("checksum").toString());
+                    }
+
+                    if (checksumMap.containsKey("checksum_algorithm")) {
+                        info.setChecksumAlgorithm(checksumMap.get("checksum_algorithm").toString());
+                    }
+                }
+
+                // compare new checksum to previous checksum
+                info.setChecksumResult(compareChecksums(info.getExpectedChecksum(), info.getCurrentChecksum()));
+            }
         } catch (SQLException e) {
             // ??this code only executes if an SQL
             // exception occurs in *DSpace* code, probably
@@ -273,7 +505,7 @@ public final class CheckerCommand {
             LOG.error("Error retrieving metadata for bitstream ID "
                           + info.getBitstream().getID(), e);
         } finally {
-            info.setProcessEndDate(new Date());
+            info.setProcessEndDate(verification.endDate);
 
             // record new checksum and comparison result in db
             checksumService.update(context, info);
@@ -356,4 +588,47 @@ public final class CheckerCommand {
     public void setReportVerbose(boolean reportVerbose) {
         this.reportVerbose = reportVerbose;
     }
+
+    /**
+     * Set the number of threads reading the bitstreams.
+     *
+     * @param threads number of threads, 1 to read them in the calling thread
+     */
+    public void setThreads(int threads) {
+        this.threads = Math.max(1, threads);
+    }
+
+    /**
+     * Set the number of checked bitstreams after which the results are committed.
+     *
+     * @param commitSize number of bitstreams
+     */
+    public void setCommitSize(int commitSize) {
+        this.commitSize = Math.max(1, commitSize);
+    }
+
+    /**
+     * Limit the bandwidth used to read the bitstreams.
+     *
+     * @param bytesPerSecond the maximum bytes read per second by all the threads,
+     *                       0 for no limit
+     */
+    public void setMaxBandwidth(long bytesPerSecond) {
+        rateLimiter = bytesPerSecond > 0 ? RateLimiter.create(bytesPerSecond) : null;
+    }
+
+    /**
+     * Checksum computed by a reader thread, to be recorded by the calling thread.
+     */
+    protected static class Verification {
+        private final Bitstream bitstream;
+        private final Date startDate = new Date();
+        private Date endDate;
+        private Map checksumMap;
+        private Exception error;
+
+        protected Verification(Bitstream bitstream) {
+            this.bitstream = bitstream;
+        }
+    }
 }
@@ -10,6 +10,7 @@ package org.dspace.checker;
 import java.sql.SQLException;
 import java.util.Date;
 import java.util.List;
+import java.util.UUID;
 
 import org.apache.logging.log4j.Logger;
 import org.dspace.checker.dao.MostRecentChecksumDAO;
@@ -179,6 +180,25 @@ public class MostRecentChecksumServiceImpl implements MostRecentChecksumService
         return mostRecentChecksumDAO.getOldestRecord(context, lessThanDate);
     }
 
+    /**
+     * Get a page of the records to be processed, oldest first. Pages are found by the process end date and the
+     * bitstream of the last record of the previous page, so that records being updated meanwhile are neither
+     * skipped nor returned twice.
+     *
+     * @param context          context
+     * @param lessThanDate     if not null, only the records whose processing started before this date
+     * @param afterEndDate     the process end date of the last record of the previous page, or null
+     * @param afterBitstreamId the bitstream of the last record of the previous page
+     * @param limit            the maximum number of records
+     * @return the records
+     * @throws SQLException if database error
+     */
+    @Override
+    public List<MostRecentChecksum> findOldestRecords(Context context, Date lessThanDate, Date afterEndDate,
+                                                      UUID afterBitstreamId, int limit) throws SQLException {
+        return mostRecentChecksumDAO.getOldestRecords(context, lessThanDate, afterEndDate, afterBitstreamId, limit);
+    }
+
     @Override
     public List<MostRecentChecksum> findNotInHistory(Context context) throws SQLException {
         return mostRecentChecksumDAO.findNotInHistory(context);
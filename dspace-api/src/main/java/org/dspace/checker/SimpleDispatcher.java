@@ -8,7 +8,11 @@
 package org.dspace.checker;
 
 import java.sql.SQLException;
+import java.util.ArrayDeque;
 import java.util.Date;
+import java.util.Deque;
+import java.util.List;
+import java.util.UUID;
 
 import org.dspace.checker.factory.CheckerServiceFactory;
 import org.dspace.checker.service.MostRecentChecksumService;
@@ -42,6 +46,22 @@ public class SimpleDispatcher implements BitstreamDispatcher {
 
     protected Context context;
 
+    /**
+     * Number of candidates read at once.
+     */
+    protected static final int PAGE_SIZE = 100;
+
+    /**
+     * Candidates read but not dispatched yet.
+     */
+    protected Deque<Bitstream> page = new ArrayDeque<>();
+
+    /**
+     * Process end date and bitstream of the last candidate read.
+     */
+    protected Date lastEndDate = null;
+    protected UUID lastBitstreamId = null;
+
     /**
      * Creates a new SimpleDispatcher.
      *
@@ -64,30 +84,34 @@ public class SimpleDispatcher implements BitstreamDispatcher {
     }
 
     /**
-     * Selects the next candidate bitstream.
+     * Selects the next candidate bitstream. The candidates are read a page at a time, so that the bitstreams which
+     * are still being checked (e.g. by the parallel checker) are not dispatched again.
      *
      * @throws SQLException if database error
      * @see org.dspace.checker.BitstreamDispatcher#next()
      */
     @Override
     public synchronized Bitstream next() throws SQLException {
-        // should process loop infinitely through the
-        // bitstreams in most_recent_checksum table?
-        if (!loopContinuously && (processStartTime != null)) {
-            MostRecentChecksum oldestRecord = checksumService.findOldestRecord(context, processStartTime);
-            if (oldestRecord != null) {
-                return oldestRecord.getBitstream();
-            } else {
-                return null;
+        if (page.isEmpty()) {
+            // should process loop infinitely through the
+            // bitstreams in most_recent_checksum table?
+            Date lessThanDate = !loopContinuously ? processStartTime : null;
+            List<MostRecentChecksum> records = checksumService.findOldestRecords(context, lessThanDate,
+                                                                                 lastEndDate, lastBitstreamId,
+                                                                                 PAGE_SIZE);
+            if (records.isEmpty() && loopContinuously && lastEndDate != null) {
+                // start again from the oldest record
+                records = checksumService.findOldestRecords(context, null, null, null, PAGE_SIZE);
             }
-        } else {
-            MostRecentChecksum oldestRecord = checksumService.findOldestRecord(context);
-            if (oldestRecord != null) {
-                return oldestRecord.getBitstream();
-            } else {
-                return null;
+            for (MostRecentChecksum record : records) {
+                page.add(record.getBitstream());
+            }
+            if (!records.isEmpty()) {
+                MostRecentChecksum last = records.get(records.size() - 1);
+                lastEndDate = last.getProcessEndDate();
+                lastBitstreamId = last.getBitstream().getID();
             }
         }
-
+        return page.poll();
     }
 }
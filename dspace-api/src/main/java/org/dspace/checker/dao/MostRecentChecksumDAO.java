@@ -10,6 +10,7 @@ package org.dspace.checker.dao;
 import java.sql.SQLException;
 import java.util.Date;
 import java.util.List;
+import java.util.UUID;
 
 import org.dspace.checker.ChecksumResultCode;
 import org.dspace.checker.MostRecentChecksum;
@@ -39,6 +40,22 @@ public interface MostRecentChecksumDAO extends GenericDAO<MostRecentChecksum> {
 
     public MostRecentChecksum getOldestRecord(Context context, Date lessThanDate) throws SQLException;
 
+    /**
+     * Find a page of the records to be processed, oldest first. The next page is found by passing the process end
+     * date and the bitstream of the last record of the previous page.
+     *
+     * @param context          context
+     * @param lessThanDate     if not null, only the records whose processing started before this date
+     * @param afterEndDate     the process end date of the last record of the previous page, or null for the
+     *                         first page
+     * @param afterBitstreamId the bitstream of the last record of the previous page
+     * @param limit            the maximum number of records
+     * @return the records, in the order of their process end date and bitstream
+     * @throws SQLException if database error
+     */
+    public List<MostRecentChecksum> getOldestRecords(Context context, Date lessThanDate, Date afterEndDate,
+                                                     UUID afterBitstreamId, int limit) throws SQLException;
+
     public List<MostRecentChecksum> findNotInHistory(Context context) throws SQLException;
 
     public MostRecentChecksum findByBitstream(Context context, Bitstream bitstream) throws SQLException;
@@ -11,11 +11,14 @@ import java.sql.SQLException;
 import java.util.Date;
 import java.util.LinkedList;
 import java.util.List;
+import java.util.UUID;
 import javax.persistence.Query;
 import javax.persistence.criteria.CriteriaBuilder;
 import javax.persistence.criteria.CriteriaQuery;
 import javax.persistence.criteria.Join;
 import javax.persistence.criteria.Order;
+import javax.persistence.criteria.Path;
+import javax.persistence.criteria.Predicate;
 import javax.persistence.criteria.Root;
 import javax.persistence.criteria.Subquery;
 
@@ -28,6 +31,7 @@ import org.dspace.checker.MostRecentChecksum;
 import org.dspace.checker.MostRecentChecksum_;
 import org.dspace.checker.dao.MostRecentChecksumDAO;
 import org.dspace.content.Bitstream;
+import org.dspace.content.DSpaceObject_;
 import org.dspace.core.AbstractHibernateDAO;
 import org.dspace.core.Context;
 
@@ -145,6 +149,39 @@ public class MostRecentChecksumDAOImpl extends AbstractHibernateDAO<MostRecentCh
         return singleResult(context, criteriaQuery);
     }
 
+    @Override
+    public List<MostRecentChecksum> getOldestRecords(Context context, Date lessThanDate, Date afterEndDate,
+                                                     UUID afterBitstreamId, int limit) throws SQLException {
+        CriteriaBuilder criteriaBuilder = getCriteriaBuilder(context);
+        CriteriaQuery<MostRecentChecksum> criteriaQuery = getCriteriaQuery(criteriaBuilder, MostRecentChecksum.class);
+        Root<MostRecentChecksum> mostRecentChecksumRoot = criteriaQuery.from(MostRecentChecksum.class);
+        criteriaQuery.select(mostRecentChecksumRoot);
+
+        List<Predicate> predicates = new LinkedList<>();
+        predicates.add(criteriaBuilder.equal(mostRecentChecksumRoot.get(MostRecentChecksum_.toBeProcessed), true));
+        if (lessThanDate != null) {
+            predicates.add(criteriaBuilder.lessThan(mostRecentChecksumRoot.get(MostRecentChecksum_.processStartDate),
+                                                    lessThanDate));
+        }
+        if (afterEndDate != null) {
+            // continue after the last record of the previous page, in the same order
+            Path<Date> processEndDate = mostRecentChecksumRoot.get(MostRecentChecksum_.processEndDate);
+            Path<UUID> bitstreamId = mostRecentChecksumRoot.get(MostRecentChecksum_.bitstream).get(DSpaceObject_.id);
+            predicates.add(criteriaBuilder.or(
+                criteriaBuilder.greaterThan(processEndDate, afterEndDate),
+                criteriaBuilder.and(criteriaBuilder.equal(processEndDate, afterEndDate),
+                                    criteriaBuilder.greaterThan(bitstreamId, afterBitstreamId))));
+        }
+        criteriaQuery.where(predicates.toArray(new Predicate[] {}));
+
+        List<Order> orderList = new LinkedList<>();
+        orderList.add(criteriaBuilder.asc(mostRecentChecksumRoot.get(MostRecentChecksum_.processEndDate)));
+        orderList.add(criteriaBuilder.asc(mostRecentChecksumRoot.get(MostRecentChecksum_.bitstream)));
+        criteriaQuery.orderBy(orderList);
+
+        return list(context, criteriaQuery, false, MostRecentChecksum.class, limit, -1, false);
+    }
+
     @Override
     public List<MostRecentChecksum> findNotInHistory(Context context) throws SQLException {
 
@@ -44,6 +44,7 @@ import org.dspace.content.service.InstallItemService;
 import org.dspace.content.service.ItemService;
 import org.dspace.content.service.MetadataSchemaService;
 import org.dspace.content.service.RelationshipService;
+import org.dspace.content.service.VirtualMetadataCacheService;
 import org.dspace.content.service.WorkspaceItemService;
 import org.dspace.content.virtual.VirtualMetadataPopulator;
 import org.dspace.core.Constants;
@@ -120,6 +121,9 @@ public class ItemServiceImpl extends DSpaceObjectServiceImpl<Item> implements It
     @Autowired(required = true)
     private RelationshipMetadataService relationshipMetadataService;
 
+    @Autowired(required = true)
+    protected VirtualMetadataCacheService virtualMetadataCacheService;
+
     protected ItemServiceImpl() {
         super();
     }
@@ -241,6 +245,17 @@ public class ItemServiceImpl extends DSpaceObjectServiceImpl<Item> implements It
         return itemDAO.findAll(context, true, true);
     }
 
+    @Override
+    public Iterator<Item> findAllUnfilteredByIdRange(Context context, UUID lowerId, UUID upperId)
+        throws SQLException {
+        return itemDAO.findAllByIdRange(context, true, true, lowerId, upperId);
+    }
+
+    @Override
+    public Iterator<Item> findAllByIdRange(Context context, UUID lowerId, UUID upperId) throws SQLException {
+        return itemDAO.findAllByIdRange(context, true, lowerId, upperId);
+    }
+
     @Override
     public Iterator<Item> findBySubmitter(Context context, EPerson eperson) throws SQLException {
         return itemDAO.findBySubmitter(context, eperson);
@@ -573,6 +588,8 @@ public class ItemServiceImpl extends DSpaceObjectServiceImpl<Item> implements It
             if (item.isMetadataModified()) {
                 context.addEvent(new Event(Event.MODIFY_METADATA, item.getType(), item.getID(), item.getDetails(),
                                            getIdentifiers(context, item)));
+                // the metadata or relationships of the item may be part of the virtual metadata of other items
+                virtualMetadataCacheService.invalidateOnCommit(context, item);
             }
 
             context.addEvent(new Event(Event.MODIFY, Constants.ITEM, item.getID(),
@@ -719,6 +736,7 @@ public class ItemServiceImpl extends DSpaceObjectServiceImpl<Item> implements It
 
         context.addEvent(new Event(Event.DELETE, Constants.ITEM, item.getID(),
                                    item.getHandle(), getIdentifiers(context, item)));
+        virtualMetadataCacheService.invalidateOnCommit(context, item);
 
         log.info(LogHelper.getHeader(context, "delete_item", "item_id="
             + item.getID()));
@@ -1376,6 +1394,17 @@ prevent the generation of resource policy entry values with null dspace_object a
         return itemDAO.countRows(context);
     }
 
+    @Override
+    public void prefetch(Context context, List<Item> items, boolean withBundles) throws SQLException {
+        List<Item> persistedItems = new ArrayList<>(items.size());
+        for (Item item : items) {
+            if (item != null && item.getID() != null) {
+                persistedItems.add(item);
+            }
+        }
+        itemDAO.prefetch(context, persistedItems, withBundles);
+    }
+
     @Override
     public int countNotArchivedItems(Context context) throws SQLException {
         // return count of items not in archive and also not withdrawn
@@ -1438,6 +1467,8 @@ prevent the generation of resource policy entry values with null dspace_object a
     @Override
     public List<MetadataValue> getMetadata(Item item, String schema, String element, String qualifier, String lang,
                                            boolean enableVirtualMetadata) {
+        // the virtual metadata of another item may be computed from the metadata of this item
+        virtualMetadataCacheService.addDependency(item);
         if (!enableVirtualMetadata) {
             log.debug("Called getMetadata for " + item.getID() + " without enableVirtualMetadata");
             return super.getMetadata(item, schema, element, qualifier, lang);
@@ -17,6 +17,7 @@ import org.apache.commons.lang3.StringUtils;
 import org.apache.logging.log4j.Logger;
 import org.dspace.content.service.MetadataFieldService;
 import org.dspace.content.service.RelationshipService;
+import org.dspace.content.service.VirtualMetadataCacheService;
 import org.dspace.content.virtual.VirtualMetadataConfiguration;
 import org.dspace.content.virtual.VirtualMetadataPopulator;
 import org.dspace.core.Constants;
@@ -39,20 +40,19 @@ public class RelationshipMetadataServiceImpl implements RelationshipMetadataServ
     @Autowired(required = true)
     protected MetadataFieldService metadataFieldService;
 
+    @Autowired(required = true)
+    protected VirtualMetadataCacheService virtualMetadataCacheService;
+
     @Override
     public List<RelationshipMetadataValue> getRelationshipMetadata(Item item, boolean enableVirtualMetadata) {
         Context context = new Context();
         List<RelationshipMetadataValue> fullMetadataValueList = new LinkedList<>();
         try {
-            String entityType = getEntityTypeStringFromMetadata(item);
-            if (StringUtils.isNotBlank(entityType)) {
-                List<Relationship> relationships = relationshipService.findByItem(context, item, -1, -1, true);
-                for (Relationship relationship : relationships) {
-                    fullMetadataValueList
-                        .addAll(findRelationshipMetadataValueForItemRelationship(context, item, entityType,
-                                relationship, enableVirtualMetadata));
-                }
-
+            if (enableVirtualMetadata) {
+                fullMetadataValueList.addAll(virtualMetadataCacheService.getRelationshipMetadata(context, item,
+                    () -> findRelationshipMetadata(context, item, true)));
+            } else {
+                fullMetadataValueList.addAll(findRelationshipMetadata(context, item, false));
             }
         } catch (SQLException e) {
             log.error("Lookup for Relationships for item with uuid: " + item.getID() + " caused DSpace to crash", e);
@@ -60,6 +60,33 @@ public class RelationshipMetadataServiceImpl implements RelationshipMetadataServ
         return fullMetadataValueList;
     }
 
+    /**
+     * Resolve the relationships of an item into its virtual metadata
+     *
+     * @param context               The context
+     * @param item                  The item whose virtual metadata is requested
+     * @param enableVirtualMetadata Whether the values configured for the relationship types are included, or only the
+     *                              relation.* values
+     * @return                      The virtual metadata of the item
+     * @throws SQLException         If something goes wrong
+     */
+    private List<RelationshipMetadataValue> findRelationshipMetadata(Context context, Item item,
+                                                                     boolean enableVirtualMetadata)
+        throws SQLException {
+        List<RelationshipMetadataValue> fullMetadataValueList = new LinkedList<>();
+        String entityType = getEntityTypeStringFromMetadata(item);
+        if (StringUtils.isNotBlank(entityType)) {
+            List<Relationship> relationships = relationshipService.findByItem(context, item, -1, -1, true);
+            for (Relationship relationship : relationships) {
+                fullMetadataValueList
+                    .addAll(findRelationshipMetadataValueForItemRelationship(context, item, entityType,
+                            relationship, enableVirtualMetadata));
+            }
+
+        }
+        return fullMetadataValueList;
+    }
+
     public String getEntityTypeStringFromMetadata(Item item) {
         List<MetadataValue> list = item.getMetadata();
         for (MetadataValue mdv : list) {
@@ -104,6 +131,7 @@ public class RelationshipMetadataServiceImpl implements RelationshipMetadataServ
             return resultingMetadataValueList;
         }
 
+        virtualMetadataCacheService.addDependency(otherItem);
         if (hashMaps != null && enableVirtualMetadata) {
             resultingMetadataValueList.addAll(findVirtualMetadataFromConfiguration(context, item, hashMaps,
                                                                                     otherItem, relationName,
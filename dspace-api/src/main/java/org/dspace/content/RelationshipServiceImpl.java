@@ -10,7 +10,6 @@ package org.dspace.content;
 import java.sql.SQLException;
 import java.util.ArrayList;
 import java.util.Collections;
-import java.util.Comparator;
 import java.util.List;
 import java.util.UUID;
 
@@ -25,6 +24,7 @@ import org.dspace.content.service.EntityTypeService;
 import org.dspace.content.service.ItemService;
 import org.dspace.content.service.RelationshipService;
 import org.dspace.content.service.RelationshipTypeService;
+import org.dspace.content.service.VirtualMetadataCacheService;
 import org.dspace.content.virtual.VirtualMetadataPopulator;
 import org.dspace.core.Constants;
 import org.dspace.core.Context;
@@ -57,6 +57,8 @@ public class RelationshipServiceImpl implements RelationshipService {
     private RelationshipMetadataService relationshipMetadataService;
     @Autowired
     private VirtualMetadataPopulator virtualMetadataPopulator;
+    @Autowired
+    private VirtualMetadataCacheService virtualMetadataCacheService;
 
     @Override
     public Relationship create(Context context) throws SQLException, AuthorizeException {
@@ -125,53 +127,24 @@ public class RelationshipServiceImpl implements RelationshipService {
         if (relationship.getRightPlace() == -1) {
             relationship.setRightPlace(Integer.MAX_VALUE);
         }
-        List<Relationship> leftRelationships = findByItemAndRelationshipType(context,
-                                                                             leftItem,
-                                                                             relationship.getRelationshipType(), true);
-        List<Relationship> rightRelationships = findByItemAndRelationshipType(context,
-                                                                              rightItem,
-                                                                              relationship.getRelationshipType(),
-                                                                              false);
-
-        // These relationships are only deleted from the temporary lists incase they're present in them so that we can
-        // properly perform our place calculation later down the line in this method.
-        if (leftRelationships.contains(relationship)) {
-            leftRelationships.remove(relationship);
-        }
-        if (rightRelationships.contains(relationship)) {
-            rightRelationships.remove(relationship);
-        }
         context.turnOffAuthorisationSystem();
         //If useForPlace for the leftwardType is false for the relationshipType,
-        // we need to sort the relationships here based on leftplace.
+        // we need to renumber the other relationships here based on leftplace, and add this one at the end.
         if (!virtualMetadataPopulator.isUseForPlaceTrueForRelationshipType(relationship.getRelationshipType(), true)) {
-            if (!leftRelationships.isEmpty()) {
-                leftRelationships.sort(Comparator.comparingInt(Relationship::getLeftPlace));
-                for (int i = 0; i < leftRelationships.size(); i++) {
-                    leftRelationships.get(i).setLeftPlace(i);
-                }
-                relationship.setLeftPlace(leftRelationships.size());
-            } else {
-                relationship.setLeftPlace(0);
-            }
+            relationship.setLeftPlace(relationshipDAO.updatePlaces(context, leftItem,
+                                                                   relationship.getRelationshipType(), true,
+                                                                   relationship));
         } else {
             updateItem(context, leftItem);
 
         }
 
         //If useForPlace for the rightwardType is false for the relationshipType,
-        // we need to sort the relationships here based on the rightplace.
+        // we need to renumber the other relationships here based on the rightplace, and add this one at the end.
         if (!virtualMetadataPopulator.isUseForPlaceTrueForRelationshipType(relationship.getRelationshipType(), false)) {
-            if (!rightRelationships.isEmpty()) {
-                rightRelationships.sort(Comparator.comparingInt(Relationship::getRightPlace));
-                for (int i = 0; i < rightRelationships.size(); i++) {
-                    rightRelationships.get(i).setRightPlace(i);
-                }
-                relationship.setRightPlace(rightRelationships.size());
-            } else {
-                relationship.setRightPlace(0);
-            }
-
+            relationship.setRightPlace(relationshipDAO.updatePlaces(context, rightItem,
+                                                                    relationship.getRelationshipType(), false,
+                                                                    relationship));
         } else {
             updateItem(context, rightItem);
 
@@ -249,12 +222,7 @@ public class RelationshipServiceImpl implements RelationshipService {
             //no need to check the relationships
             return true;
         }
-        List<Relationship> rightRelationships = findByItemAndRelationshipType(context, itemToProcess, relationshipType,
-                                                                              isLeft);
-        if (rightRelationships.size() >= maxCardinality) {
-            return false;
-        }
-        return true;
+        return countByItemAndRelationshipType(context, itemToProcess, relationshipType, isLeft) < maxCardinality;
     }
 
     private boolean verifyEntityTypes(Item itemToProcess, EntityType entityTypeToProcess) {
@@ -282,22 +250,12 @@ public class RelationshipServiceImpl implements RelationshipService {
     public List<Relationship> findByItem(Context context, Item item, Integer limit, Integer offset,
                                          boolean excludeTilted) throws SQLException {
 
-        List<Relationship> list = relationshipDAO.findByItem(context, item, limit, offset, excludeTilted);
+        return relationshipDAO.findByItem(context, item, limit, offset, excludeTilted);
+    }
 
-        list.sort((o1, o2) -> {
-            int relationshipType = o1.getRelationshipType().getLeftwardType()
-                                     .compareTo(o2.getRelationshipType().getLeftwardType());
-            if (relationshipType != 0) {
-                return relationshipType;
-            } else {
-                if (o1.getLeftItem() == item) {
-                    return o1.getLeftPlace() - o2.getLeftPlace();
-                } else {
-                    return o1.getRightPlace() - o2.getRightPlace();
-                }
-            }
-        });
-        return list;
+    @Override
+    public int countByItem(Context context, Item item, boolean excludeTilted) throws SQLException {
+        return relationshipDAO.countByItem(context, item, excludeTilted);
     }
 
     @Override
@@ -324,6 +282,9 @@ public class RelationshipServiceImpl implements RelationshipService {
                     authorizeService.authorizeActionBoolean(context, relationship.getRightItem(), Constants.WRITE)) {
                     if (isRelationshipValidToCreate(context, relationship)) {
                         relationshipDAO.save(context, relationship);
+                        // e.g. the name variants are part of the virtual metadata of the items
+                        virtualMetadataCacheService.invalidateOnCommit(context, relationship.getLeftItem());
+                        virtualMetadataCacheService.invalidateOnCommit(context, relationship.getRightItem());
                     }
                 } else {
                     throw new AuthorizeException("You do not have write rights on this relationship's items");
@@ -0,0 +1,328 @@
+/**
+ * The contents of this file are subject to the license and copyright
+ * detailed in the LICENSE and NOTICE files at the root of the source
+ * tree and available online at
+ *
+ * http://www.dspace.org/license/
+ */
+package org.dspace.content;
+
+import java.sql.SQLException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.WeakHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import javax.annotation.PostConstruct;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.CacheStats;
+import com.google.common.cache.RemovalNotification;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.dspace.content.service.MetadataFieldService;
+import org.dspace.content.service.VirtualMetadataCacheService;
+import org.dspace.content.service.VirtualMetadataCacheService.Loader;
+import org.dspace.core.Context;
+import org.dspace.services.ConfigurationService;
+import org.springframework.beans.factory.annotation.Autowired;
+
+/**
+ * Default implementation of the {@link VirtualMetadataCacheService}, using a Guava cache bounded by
+ * relationship.virtual-metadata.cache.max values whose entries expire relationship.virtual-metadata.cache.ttl
+ * seconds after they were computed.
+ * <p>
+ * Entries are session independent snapshots of the virtual metadata of an item, with the IDs of the items they
+ * depend on. An index of the items depending on each item is kept along with the entries, so that a change only
+ * removes the entries depending on the changed item. Entries computed while a change was being committed are not
+ * stored, as they may have been computed from the state before the change.
+ */
+public class VirtualMetadataCacheServiceImpl implements VirtualMetadataCacheService {
+
+    private static final Logger log = LogManager.getLogger(VirtualMetadataCacheServiceImpl.class);
+
+    @Autowired(required = true)
+    protected ConfigurationService configurationService;
+    @Autowired(required = true)
+    protected MetadataFieldService metadataFieldService;
+
+    private boolean enabled = false;
+    private Cache<UUID, VirtualMetadata> entries;
+
+    // IDs of the items whose entries depend on each item
+    private final Map<UUID, Set<UUID>> dependents = new HashMap<>();
+    // incremented on every invalidation, to detect entries computed meanwhile
+    private final AtomicLong invalidations = new AtomicLong();
+
+    // dependencies of the entries being computed by the current thread, innermost last
+    private final ThreadLocal<Deque<Set<UUID>>> computing = ThreadLocal.withInitial(ArrayDeque::new);
+    // items changed by the uncommitted contexts of the current thread
+    private final ThreadLocal<Map<Context, Set<UUID>>> changes = ThreadLocal.withInitial(WeakHashMap::new);
+
+    @PostConstruct
+    public void init() {
+        enabled = configurationService.getBooleanProperty("relationship.virtual-metadata.cache.enabled", false);
+        long ttl = configurationService.getLongProperty("relationship.virtual-metadata.cache.ttl", 3600);
+        long maxValues = configurationService.getLongProperty("relationship.virtual-metadata.cache.max", 1000000);
+
+        entries = CacheBuilder.newBuilder().maximumWeight(maxValues)
+                              .weigher((UUID itemId, VirtualMetadata value) -> value.getValues().size() + 1)
+                              .expireAfterWrite(ttl, TimeUnit.SECONDS)
+                              .removalListener(this::removeDependencies)
+                              .recordStats().build();
+        if (enabled) {
+            log.info("Virtual metadata cache enabled for {} values, ttl {}s", maxValues, ttl);
+        }
+    }
+
+    @Override
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    @Override
+    public List<RelationshipMetadataValue> getRelationshipMetadata(Context context, Item item, Loader loader)
+        throws SQLException {
+        if (!enabled || item.getID() == null || hasChanges()) {
+            return loader.load();
+        }
+
+        VirtualMetadata virtualMetadata = entries.getIfPresent(item.getID());
+        if (virtualMetadata != null) {
+            List<RelationshipMetadataValue> values = virtualMetadata.toRelationshipMetadata(context, item);
+            if (values != null) {
+                addDependencies(virtualMetadata.getDependencies());
+                return values;
+            }
+        }
+
+        long invalidation = invalidations.get();
+        Set<UUID> dependencies = new HashSet<>();
+        dependencies.add(item.getID());
+        List<RelationshipMetadataValue> values;
+        computing.get().addLast(dependencies);
+        try {
+            values = loader.load();
+        } finally {
+            computing.get().removeLast();
+        }
+        // whatever the entry depends on, the entry being computed around it depends on as well
+        addDependencies(dependencies);
+        store(item.getID(), new VirtualMetadata(values, dependencies), invalidation);
+        return values;
+    }
+
+    @Override
+    public void addDependency(Item item) {
+        if (enabled && item != null && item.getID() != null) {
+            Set<UUID> dependencies = computing.get().peekLast();
+            if (dependencies != null) {
+                dependencies.add(item.getID());
+            }
+        }
+    }
+
+    private void addDependencies(Set<UUID> itemIds) {
+        Set<UUID> dependencies = computing.get().peekLast();
+        if (dependencies != null) {
+            dependencies.addAll(itemIds);
+        }
+    }
+
+    @Override
+    public void invalidateOnCommit(Context context, Item item) {
+        if (!enabled || item == null || item.getID() == null) {
+            return;
+        }
+        Map<Context, Set<UUID>> contextChanges = changes.get();
+        Set<UUID> itemIds = contextChanges.get(context);
+        if (itemIds == null) {
+            Set<UUID> changedItemIds = new HashSet<>();
+            contextChanges.put(context, changedItemIds);
+            // commits run on the thread of the context
+            context.addAfterCommitTask(() -> {
+                contextChanges.remove(context);
+                changedItemIds.forEach(this::invalidate);
+            });
+            itemIds = changedItemIds;
+        }
+        itemIds.add(item.getID());
+    }
+
+    /**
+     * @return true if the current thread has changes which are not committed yet. Contexts which were aborted are
+     * not valid anymore and are forgotten.
+     */
+    protected boolean hasChanges() {
+        Map<Context, Set<UUID>> contextChanges = changes.get();
+        contextChanges.keySet().removeIf(context -> !context.isValid());
+        return !contextChanges.isEmpty();
+    }
+
+    @Override
+    public void invalidate(UUID itemId) {
+        invalidations.incrementAndGet();
+        Set<UUID> itemIds;
+        synchronized (dependents) {
+            itemIds = dependents.remove(itemId);
+        }
+        entries.invalidate(itemId);
+        if (itemIds != null) {
+            entries.invalidateAll(itemIds);
+        }
+    }
+
+    @Override
+    public void invalidateAll() {
+        invalidations.incrementAndGet();
+        entries.invalidateAll();
+    }
+
+    @Override
+    public Map<String, Long> getStatistics() {
+        Map<String, Long> statistics = new LinkedHashMap<>();
+        CacheStats stats = entries.stats();
+        statistics.put("virtualMetadata.hits", stats.hitCount());
+        statistics.put("virtualMetadata.misses", stats.missCount());
+        statistics.put("virtualMetadata.evictions", stats.evictionCount());
+        statistics.put("virtualMetadata.size", entries.size());
+        return statistics;
+    }
+
+    /**
+     * Store an entry, unless an invalidation happened since it started to be computed. The dependencies are indexed
+     * before the entry is stored, so that invalidations happening after the check find it.
+     */
+    private void store(UUID itemId, VirtualMetadata virtualMetadata, long invalidation) {
+        synchronized (dependents) {
+            for (UUID dependency : virtualMetadata.getDependencies()) {
+                dependents.computeIfAbsent(dependency, key -> new HashSet<>()).add(itemId);
+            }
+            entries.put(itemId, virtualMetadata);
+        }
+        if (invalidations.get() != invalidation) {
+            entries.invalidate(itemId);
+        }
+    }
+
+    /**
+     * Remove a removed entry from the index of dependents, except for the dependencies of the entry which replaced
+     * it
+     */
+    private void removeDependencies(RemovalNotification<UUID, VirtualMetadata> notification) {
+        if (notification.getKey() == null || notification.getValue() == null) {
+            return;
+        }
+        synchronized (dependents) {
+            VirtualMetadata current = entries.getIfPresent(notification.getKey());
+            for (UUID dependency : notification.getValue().getDependencies()) {
+                if (current == null || !current.getDependencies().contains(dependency)) {
+                    Set<UUID> itemIds = dependents.get(dependency);
+                    if (itemIds != null) {
+                        itemIds.remove(notification.getKey());
+                        if (itemIds.isEmpty()) {
+                            dependents.remove(dependency);
+                        }
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * The virtual metadata of an item, with the IDs of the items they were computed from
+     */
+    protected class VirtualMetadata {
+        private final List<CachedValue> values;
+        private final Set<UUID> dependencies;
+
+        public VirtualMetadata(List<RelationshipMetadataValue> relationshipMetadata, Set<UUID> dependencies) {
+            List<CachedValue> cachedValues = new ArrayList<>(relationshipMetadata.size());
+            for (RelationshipMetadataValue value : relationshipMetadata) {
+                cachedValues.add(new CachedValue(value));
+            }
+            this.values = Collections.unmodifiableList(cachedValues);
+            this.dependencies = Collections.unmodifiableSet(new HashSet<>(dependencies));
+        }
+
+        public List<CachedValue> getValues() {
+            return values;
+        }
+
+        public Set<UUID> getDependencies() {
+            return dependencies;
+        }
+
+        /**
+         * @return new virtual metadata values of the item, bound to the session of the context, or null if a
+         * metadata field does not exist anymore
+         */
+        public List<RelationshipMetadataValue> toRelationshipMetadata(Context context, Item item) throws SQLException {
+            List<RelationshipMetadataValue> relationshipMetadata = new LinkedList<>();
+            Map<Integer, MetadataField> fields = new HashMap<>();
+            for (CachedValue value : values) {
+                MetadataField field = fields.get(value.fieldId);
+                if (field == null) {
+                    field = metadataFieldService.find(context, value.fieldId);
+                    if (field == null) {
+                        return null;
+                    }
+                    fields.put(value.fieldId, field);
+                }
+                relationshipMetadata.add(value.toRelationshipMetadataValue(field, item));
+            }
+            return relationshipMetadata;
+        }
+    }
+
+    /**
+     * Immutable, session independent snapshot of a {@link RelationshipMetadataValue}
+     */
+    protected static class CachedValue {
+        private final int fieldId;
+        private final String value;
+        private final String language;
+        private final String authority;
+        private final int confidence;
+        private final int place;
+        private final boolean useForPlace;
+        private final boolean bound;
+
+        public CachedValue(RelationshipMetadataValue relationshipMetadataValue) {
+            this.fieldId = relationshipMetadataValue.getMetadataField().getID();
+            this.value = relationshipMetadataValue.getValue();
+            this.language = relationshipMetadataValue.getLanguage();
+            this.authority = relationshipMetadataValue.getAuthority();
+            this.confidence = relationshipMetadataValue.getConfidence();
+            this.place = relationshipMetadataValue.getPlace();
+            this.useForPlace = relationshipMetadataValue.isUseForPlace();
+            this.bound = relationshipMetadataValue.getDSpaceObject() != null;
+        }
+
+        public RelationshipMetadataValue toRelationshipMetadataValue(MetadataField field, Item item) {
+            RelationshipMetadataValue relationshipMetadataValue = new RelationshipMetadataValue();
+            relationshipMetadataValue.setMetadataField(field);
+            relationshipMetadataValue.setValue(value);
+            relationshipMetadataValue.setLanguage(language);
+            relationshipMetadataValue.setAuthority(authority);
+            relationshipMetadataValue.setConfidence(confidence);
+            relationshipMetadataValue.setPlace(place);
+            relationshipMetadataValue.setUseForPlace(useForPlace);
+            if (bound) {
+                relationshipMetadataValue.setDSpaceObject(item);
+            }
+            return relationshipMetadataValue;
+        }
+    }
+}
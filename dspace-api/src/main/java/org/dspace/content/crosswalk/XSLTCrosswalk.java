@@ -8,16 +8,13 @@
 package org.dspace.content.crosswalk;
 
 import java.io.File;
-import java.io.FileInputStream;
-import java.io.FileNotFoundException;
 import java.util.ArrayList;
 import java.util.List;
-import javax.xml.transform.Source;
+import javax.xml.transform.Templates;
 import javax.xml.transform.Transformer;
 import javax.xml.transform.TransformerConfigurationException;
-import javax.xml.transform.TransformerFactory;
-import javax.xml.transform.stream.StreamSource;
 
+import org.apache.commons.lang3.tuple.Pair;
 import org.dspace.core.SelfNamedPlugin;
 import org.dspace.services.ConfigurationService;
 import org.dspace.services.factory.DSpaceServicesFactory;
@@ -69,7 +66,8 @@ import org.slf4j.LoggerFactory;
  * <p>
  * NOTE: This plugin will automatically reload any XSL stylesheet that
  * was modified since it was last loaded.  This lets you edit and test
- * stylesheets without restarting DSpace.
+ * stylesheets without restarting DSpace. Stylesheets are compiled once and
+ * shared by all threads and plugins, see {@link XSLTTemplatesCache}.
  * <p>
  * You must use the <code>PluginService</code> to instantiate an
  * XSLT crosswalk plugin, e.g.
@@ -130,12 +128,15 @@ public abstract class XSLTCrosswalk extends SelfNamedPlugin {
         return aliasList.toArray(new String[aliasList.size()]);
     }
 
-    private Transformer transformer = null;
     private File transformFile = null;
-    private long transformLastModified = 0;
+
+    // transformer of the current thread, and the compiled stylesheet it was created from
+    private final ThreadLocal<Pair<Templates, Transformer>> transformers = new ThreadLocal<>();
 
     /**
-     * Initialize the Transformation stylesheet from configured stylesheet file.
+     * Get a transformer for the configured stylesheet file, compiled once for all threads by the
+     * {@link XSLTTemplatesCache}. The transformer is only meant to be used by the calling thread, and has no
+     * parameters set.
      *
      * @param direction the direction of xwalk, either "submission" or
      *                  "dissemination"
@@ -163,26 +164,21 @@ public abstract class XSLTCrosswalk extends SelfNamedPlugin {
             }
         }
 
-        // load if first time, or reload if stylesheet changed:
-        if (transformer == null ||
-            transformFile.lastModified() > transformLastModified) {
-            try {
-                LOG.debug(
-                    (transformer == null ? "Loading {} XSLT stylesheet from {}" : "Reloading {} XSLT stylesheet from " +
-                        "{}"),
-                    getPluginInstanceName(), transformFile.toString());
-
-                Source transformSource
-                    = new StreamSource(new FileInputStream(transformFile));
-                TransformerFactory transformerFactory
-                    = TransformerFactory.newInstance();
-                transformer = transformerFactory.newTransformer(transformSource);
-                transformLastModified = transformFile.lastModified();
-            } catch (TransformerConfigurationException | FileNotFoundException e) {
-                LOG.error("Failed to initialize XSLTCrosswalk({}):  {}",
-                          getPluginInstanceName(), e.toString());
+        try {
+            Templates templates = XSLTTemplatesCache.getInstance().getTemplates(transformFile);
+            Pair<Templates, Transformer> transformer = transformers.get();
+            // reuse the transformer of this thread, unless the stylesheet was reloaded since
+            if (transformer != null && transformer.getLeft() == templates) {
+                transformer.getRight().reset();
+            } else {
+                transformer = Pair.of(templates, templates.newTransformer());
+                transformers.set(transformer);
             }
+            return transformer.getRight();
+        } catch (TransformerConfigurationException e) {
+            LOG.error("Failed to initialize XSLTCrosswalk({}):  {}",
+                      getPluginInstanceName(), e.toString());
+            return null;
         }
-        return transformer;
     }
 }
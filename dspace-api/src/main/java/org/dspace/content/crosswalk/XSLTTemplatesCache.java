@@ -0,0 +1,187 @@
+/**
+ * The contents of this file are subject to the license and copyright
+ * detailed in the LICENSE and NOTICE files at the root of the source
+ * tree and available online at
+ *
+ * http://www.dspace.org/license/
+ */
+package org.dspace.content.crosswalk;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.FileSystems;
+import java.nio.file.Path;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+import javax.xml.transform.Templates;
+import javax.xml.transform.TransformerConfigurationException;
+import javax.xml.transform.TransformerFactory;
+import javax.xml.transform.stream.StreamSource;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Cache of compiled XSLT stylesheets, shared by all {@link XSLTCrosswalk} plugins.
+ * <p>
+ * Compiled {@link Templates} are thread-safe, so a stylesheet is only compiled once, however many threads and
+ * plugins use it; each use then creates (or reuses) its own, cheap, {@link javax.xml.transform.Transformer}.
+ * <p>
+ * The directories of the stylesheets are watched by a background thread, and all stylesheets of a directory are
+ * compiled again on their next use once a file of this directory has changed (stylesheets often include or import
+ * their siblings). If the directory of a stylesheet cannot be watched, its modification date is checked on every
+ * use instead.
+ */
+public class XSLTTemplatesCache {
+
+    private static final Logger LOG = LoggerFactory.getLogger(XSLTTemplatesCache.class);
+
+    private static final XSLTTemplatesCache INSTANCE = new XSLTTemplatesCache();
+
+    private final ConcurrentMap<Path, CompiledStylesheet> stylesheets = new ConcurrentHashMap<>();
+
+    // incremented on every invalidation, to detect stylesheets compiled meanwhile
+    private final AtomicLong invalidations = new AtomicLong();
+
+    private final Set<Path> watchedDirectories = ConcurrentHashMap.newKeySet();
+
+    private WatchService watchService;
+
+    /**
+     * @return the cache shared by all XSLT crosswalks
+     */
+    public static XSLTTemplatesCache getInstance() {
+        return INSTANCE;
+    }
+
+    /**
+     * Get the compiled form of a stylesheet, compiling it if it was not compiled yet or was changed since.
+     *
+     * @param stylesheet the stylesheet file
+     * @return the compiled stylesheet
+     * @throws TransformerConfigurationException if the stylesheet cannot be compiled
+     */
+    public Templates getTemplates(File stylesheet) throws TransformerConfigurationException {
+        Path path = stylesheet.toPath().toAbsolutePath().normalize();
+        CompiledStylesheet compiled = stylesheets.get(path);
+        if (compiled != null && (compiled.watched || compiled.lastModified >= stylesheet.lastModified())) {
+            return compiled.templates;
+        }
+        return compile(path);
+    }
+
+    /**
+     * Compile a stylesheet, unless another thread just did it. TransformerFactory instances are not thread-safe,
+     * and compiling the same stylesheet in parallel would be wasted work anyway.
+     */
+    private synchronized Templates compile(Path path) throws TransformerConfigurationException {
+        File file = path.toFile();
+        CompiledStylesheet compiled = stylesheets.get(path);
+        if (compiled != null && (compiled.watched || compiled.lastModified >= file.lastModified())) {
+            return compiled.templates;
+        }
+
+        // watch before reading, so that a change made while compiling is not missed
+        boolean watched = watch(path.getParent());
+        long invalidation = invalidations.get();
+        long lastModified = file.lastModified();
+        LOG.debug("{} XSLT stylesheet from {}", compiled == null ? "Loading" : "Reloading", path);
+        Templates templates = TransformerFactory.newInstance().newTemplates(new StreamSource(file));
+
+        stylesheets.put(path, new CompiledStylesheet(templates, watched, lastModified));
+        if (invalidations.get() != invalidation) {
+            stylesheets.remove(path);
+        }
+        return templates;
+    }
+
+    /**
+     * Remove the compiled stylesheets of a directory, so that they are compiled again on their next use
+     *
+     * @param directory the directory
+     */
+    public void invalidate(Path directory) {
+        invalidations.incrementAndGet();
+        stylesheets.keySet().removeIf(path -> directory.equals(path.getParent()));
+    }
+
+    /**
+     * Remove all compiled stylesheets
+     */
+    public void invalidateAll() {
+        invalidations.incrementAndGet();
+        stylesheets.clear();
+    }
+
+    /**
+     * Watch a directory for changes, starting the watcher thread the first time.
+     *
+     * @return true if the directory is watched
+     */
+    private boolean watch(Path directory) {
+        if (directory == null) {
+            return false;
+        }
+        if (watchedDirectories.contains(directory)) {
+            return true;
+        }
+        try {
+            if (watchService == null) {
+                watchService = FileSystems.getDefault().newWatchService();
+                Thread watcher = new Thread(this::processEvents, "xslt-stylesheet-watcher");
+                watcher.setDaemon(true);
+                watcher.start();
+            }
+            directory.register(watchService, StandardWatchEventKinds.ENTRY_CREATE,
+                               StandardWatchEventKinds.ENTRY_MODIFY, StandardWatchEventKinds.ENTRY_DELETE,
+                               StandardWatchEventKinds.OVERFLOW);
+            watchedDirectories.add(directory);
+            return true;
+        } catch (IOException | UnsupportedOperationException e) {
+            LOG.warn("Cannot watch {} for stylesheet changes, checking modification dates instead: {}",
+                     directory, e.toString());
+            return false;
+        }
+    }
+
+    private void processEvents() {
+        try {
+            while (true) {
+                WatchKey key = watchService.take();
+                Path directory = (Path) key.watchable();
+                key.pollEvents();
+                LOG.debug("Stylesheets changed in {}", directory);
+                invalidate(directory);
+                if (!key.reset()) {
+                    // the directory is gone, watch it again if it comes back
+                    watchedDirectories.remove(directory);
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (ClosedWatchServiceException e) {
+            LOG.debug("Stylesheet watcher closed");
+        }
+    }
+
+    /**
+     * A compiled stylesheet, with the modification date of its file when it was compiled
+     */
+    private static class CompiledStylesheet {
+        private final Templates templates;
+        private final boolean watched;
+        private final long lastModified;
+
+        CompiledStylesheet(Templates templates, boolean watched, long lastModified) {
+            this.templates = templates;
+            this.watched = watched;
+            this.lastModified = lastModified;
+        }
+    }
+}
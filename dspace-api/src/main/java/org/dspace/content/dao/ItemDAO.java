@@ -34,6 +34,35 @@ public interface ItemDAO extends DSpaceObjectLegacySupportDAO<Item> {
 
     public Iterator<Item> findAll(Context context, boolean archived, boolean withdrawn) throws SQLException;
 
+    /**
+     * Find all Items (archived or withdrawn, depending on the flags) whose UUID falls within the given range,
+     * ordered by UUID. Either bound may be null to leave that side of the range open.
+     *
+     * @param context   Context
+     * @param archived  whether to include archived items
+     * @param withdrawn whether to include withdrawn items
+     * @param lowerId   inclusive lower bound of the UUID range, or null
+     * @param upperId   exclusive upper bound of the UUID range, or null
+     * @return iterator over the items in the range
+     * @throws SQLException if database error
+     */
+    public Iterator<Item> findAllByIdRange(Context context, boolean archived, boolean withdrawn, UUID lowerId,
+                                           UUID upperId) throws SQLException;
+
+    /**
+     * Find all Items with the given "in archive" flag whose UUID falls within the given range, ordered by UUID.
+     * Either bound may be null to leave that side of the range open.
+     *
+     * @param context  Context
+     * @param archived the value of the "in archive" flag
+     * @param lowerId  inclusive lower bound of the UUID range, or null
+     * @param upperId  exclusive upper bound of the UUID range, or null
+     * @return iterator over the items in the range
+     * @throws SQLException if database error
+     */
+    public Iterator<Item> findAllByIdRange(Context context, boolean archived, UUID lowerId, UUID upperId)
+        throws SQLException;
+
     /**
      * Find all Items modified since a Date.
      *
@@ -181,4 +210,17 @@ public interface ItemDAO extends DSpaceObjectLegacySupportDAO<Item> {
     public int countItems(Context context, EPerson submitter, boolean includeArchived, boolean includeWithdrawn)
         throws SQLException;
 
+    /**
+     * Initialize the metadata and handles of several items attached to the session of the context, with a few
+     * queries instead of one query per item and association when they are first accessed. With bundles, also
+     * initialize the owning collections of the items (and their metadata), the bundles of the items and the metadata
+     * and bitstreams of these bundles (and the metadata of these bitstreams).
+     *
+     * @param context     context
+     * @param items       the items
+     * @param withBundles whether to initialize the owning collections and bundles as well
+     * @throws SQLException if database error
+     */
+    void prefetch(Context context, List<Item> items, boolean withBundles) throws SQLException;
+
 }
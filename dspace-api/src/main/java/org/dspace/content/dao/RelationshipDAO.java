@@ -40,7 +40,8 @@ public interface RelationshipDAO extends GenericDAO<Relationship> {
 
     /**
      * This method returns a list of Relationship objects that have the given Item object
-     * as a leftItem or a rightItem
+     * as a leftItem or a rightItem, ordered by the leftward type of their relationship type and by their place
+     * on the side of the given item, so that pages are sorted consistently
      * @param context         The relevant DSpace context
      * @param item            The item that should be either a leftItem or a rightItem of all
      *                        the Relationship objects in the returned list
@@ -54,6 +55,37 @@ public interface RelationshipDAO extends GenericDAO<Relationship> {
     List<Relationship> findByItem(Context context, Item item, Integer limit, Integer offset, boolean excludeTilted)
             throws SQLException;
 
+    /**
+     * This method returns the number of Relationship objects that have the given Item object
+     * as a leftItem or a rightItem
+     * @param context         The relevant DSpace context
+     * @param item            The item that should be either a leftItem or a rightItem of all
+     *                        the counted Relationship objects
+     * @param excludeTilted   If true, excludes tilted relationships
+     * @return                The number of Relationship objects that contain either a left or a
+     *                        right item that is equal to the given item
+     * @throws SQLException   If something goes wrong
+     */
+    int countByItem(Context context, Item item, boolean excludeTilted) throws SQLException;
+
+    /**
+     * Renumber the places of the relationships of the given type which have the given item on one side, so that
+     * they are numbered from 0 without gaps, in the order of their current place. Nothing is updated if they
+     * already are, otherwise the places are shifted with one bulk update per distinct shift (e.g. a single update
+     * after a relationship was removed).
+     *
+     * @param context          The relevant DSpace context
+     * @param item             The item whose relationships are renumbered
+     * @param relationshipType The type of the relationships to renumber
+     * @param isLeft           Whether the place on the left side (the item is the leftItem) or the right side is
+     *                         renumbered
+     * @param excluded         A relationship to leave out of the renumbering, or null
+     * @return                 The number of renumbered relationships, i.e. the next free place
+     * @throws SQLException    If something goes wrong
+     */
+    int updatePlaces(Context context, Item item, RelationshipType relationshipType, boolean isLeft,
+                     Relationship excluded) throws SQLException;
+
     /**
      * This method returns the next leftplace integer to use for a relationship with this item as the leftItem
      *
@@ -8,10 +8,13 @@
 package org.dspace.content.dao.impl;
 
 import java.sql.SQLException;
+import java.util.ArrayList;
 import java.util.Collections;
 import java.util.Date;
 import java.util.Iterator;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Set;
 import java.util.UUID;
 import javax.persistence.Query;
 import javax.persistence.TemporalType;
@@ -20,6 +23,8 @@ import javax.persistence.criteria.CriteriaQuery;
 import javax.persistence.criteria.Root;
 
 import org.apache.logging.log4j.Logger;
+import org.dspace.content.Bitstream;
+import org.dspace.content.Bundle;
 import org.dspace.content.Collection;
 import org.dspace.content.Item;
 import org.dspace.content.Item_;
@@ -79,6 +84,47 @@ public class ItemDAOImpl extends AbstractHibernateDSODAO<Item> implements ItemDA
         return iterate(query);
     }
 
+    @Override
+    public Iterator<Item> findAllByIdRange(Context context, boolean archived, boolean withdrawn, UUID lowerId,
+                                           UUID upperId) throws SQLException {
+        Query query = createIdRangeQuery(context, "(inArchive = :in_archive OR withdrawn = :withdrawn)", lowerId,
+                                         upperId);
+        query.setParameter("in_archive", archived);
+        query.setParameter("withdrawn", withdrawn);
+        return iterate(query);
+    }
+
+    @Override
+    public Iterator<Item> findAllByIdRange(Context context, boolean archived, UUID lowerId, UUID upperId)
+        throws SQLException {
+        Query query = createIdRangeQuery(context, "inArchive = :in_archive", lowerId, upperId);
+        query.setParameter("in_archive", archived);
+        return iterate(query);
+    }
+
+    private Query createIdRangeQuery(Context context, String condition, UUID lowerId, UUID upperId)
+        throws SQLException {
+        StringBuilder queryStr = new StringBuilder();
+        queryStr.append("SELECT i FROM Item i");
+        queryStr.append(" WHERE ").append(condition);
+        if (lowerId != null) {
+            queryStr.append(" AND i.id >= :lower_id");
+        }
+        if (upperId != null) {
+            queryStr.append(" AND i.id < :upper_id");
+        }
+        queryStr.append(" ORDER BY i.id");
+
+        Query query = createQuery(context, queryStr.toString());
+        if (lowerId != null) {
+            query.setParameter("lower_id", lowerId);
+        }
+        if (upperId != null) {
+            query.setParameter("upper_id", upperId);
+        }
+        return query;
+    }
+
     @Override
     public Iterator<Item> findAll(Context context, boolean archived,
                                   boolean withdrawn, boolean discoverable, Date lastModified)
@@ -424,4 +470,36 @@ public class ItemDAOImpl extends AbstractHibernateDSODAO<Item> implements ItemDA
         return count(query);
 
     }
+
+    @Override
+    public void prefetch(Context context, List<Item> items, boolean withBundles) throws SQLException {
+        fetchAssociation(context, "Item", items, "metadata");
+        fetchAssociation(context, "Item", items, "handles");
+        if (!withBundles) {
+            return;
+        }
+
+        fetchAssociation(context, "Item", items, "owningCollection");
+        Set<Collection> collections = new LinkedHashSet<>();
+        for (Item item : items) {
+            if (item.getOwningCollection() != null) {
+                collections.add(item.getOwningCollection());
+            }
+        }
+        fetchAssociation(context, "Collection", new ArrayList<>(collections), "metadata");
+
+        fetchAssociation(context, "Item", items, "bundles");
+        Set<Bundle> bundles = new LinkedHashSet<>();
+        for (Item item : items) {
+            bundles.addAll(item.getBundles());
+        }
+        List<Bundle> bundleList = new ArrayList<>(bundles);
+        fetchAssociation(context, "Bundle", bundleList, "metadata");
+        fetchAssociation(context, "Bundle", bundleList, "bitstreams");
+        Set<Bitstream> bitstreams = new LinkedHashSet<>();
+        for (Bundle bundle : bundleList) {
+            bitstreams.addAll(bundle.getBitstreams());
+        }
+        fetchAssociation(context, "Bitstream", new ArrayList<>(bitstreams), "metadata");
+    }
 }
@@ -9,11 +9,15 @@ package org.dspace.content.dao.impl;
 
 import java.sql.SQLException;
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.UUID;
 import javax.persistence.Query;
 import javax.persistence.criteria.CriteriaBuilder;
 import javax.persistence.criteria.CriteriaQuery;
+import javax.persistence.criteria.Join;
+import javax.persistence.criteria.Predicate;
 import javax.persistence.criteria.Root;
 
 import org.dspace.content.Item;
@@ -26,9 +30,15 @@ import org.dspace.content.factory.ContentServiceFactory;
 import org.dspace.content.service.RelationshipTypeService;
 import org.dspace.core.AbstractHibernateDAO;
 import org.dspace.core.Context;
+import org.hibernate.Session;
+import org.hibernate.engine.spi.SessionImplementor;
+import org.hibernate.persister.entity.EntityPersister;
 
 public class RelationshipDAOImpl extends AbstractHibernateDAO<Relationship> implements RelationshipDAO {
 
+    // IN lists are limited to 1000 values by some databases
+    private static final int MAX_IDS_PER_UPDATE = 1000;
+
     @Override
     public List<Relationship> findByItem(Context context, Item item, boolean excludeTilted) throws SQLException {
         return findByItem(context, item, -1, -1, excludeTilted);
@@ -41,36 +51,63 @@ public class RelationshipDAOImpl extends AbstractHibernateDAO<Relationship> impl
         CriteriaBuilder criteriaBuilder = getCriteriaBuilder(context);
         CriteriaQuery criteriaQuery = getCriteriaQuery(criteriaBuilder, Relationship.class);
         Root<Relationship> relationshipRoot = criteriaQuery.from(Relationship.class);
+        Join<Relationship, RelationshipType> relationshipTypeJoin = relationshipRoot
+            .join(Relationship_.relationshipType);
         criteriaQuery.select(relationshipRoot);
+        criteriaQuery.where(getItemPredicate(criteriaBuilder, relationshipRoot, relationshipTypeJoin, item,
+                                             excludeTilted));
+        // sort by type and by the place on the side of the item in the database, so that pages are consistent
+        criteriaQuery.orderBy(
+            criteriaBuilder.asc(relationshipTypeJoin.get(RelationshipType_.leftwardType)),
+            criteriaBuilder.asc(criteriaBuilder.<Integer>selectCase()
+                .when(criteriaBuilder.equal(relationshipRoot.get(Relationship_.leftItem), item),
+                      relationshipRoot.get(Relationship_.leftPlace))
+                .otherwise(relationshipRoot.get(Relationship_.rightPlace))),
+            criteriaBuilder.asc(relationshipRoot.get(Relationship_.id)));
+        // not distinct, as the order is on columns which are not selected (and each row is a single relationship)
+        return list(context, criteriaQuery, false, Relationship.class, limit, offset, false);
+    }
+
+    @Override
+    public int countByItem(Context context, Item item, boolean excludeTilted) throws SQLException {
+        CriteriaBuilder criteriaBuilder = getCriteriaBuilder(context);
+        CriteriaQuery criteriaQuery = getCriteriaQuery(criteriaBuilder, Relationship.class);
+        Root<Relationship> relationshipRoot = criteriaQuery.from(Relationship.class);
+        Join<Relationship, RelationshipType> relationshipTypeJoin = relationshipRoot
+            .join(Relationship_.relationshipType);
+        criteriaQuery.where(getItemPredicate(criteriaBuilder, relationshipRoot, relationshipTypeJoin, item,
+                                             excludeTilted));
+        return count(context, criteriaQuery, criteriaBuilder, relationshipRoot);
+    }
+
+    /**
+     * Build the condition on the relationships which have the given item on either side
+     */
+    private Predicate getItemPredicate(CriteriaBuilder criteriaBuilder, Root<Relationship> relationshipRoot,
+                                       Join<Relationship, RelationshipType> relationshipTypeJoin, Item item,
+                                       boolean excludeTilted) {
         if (excludeTilted) {
             // If this item is the left item,
             //    return relationships for types which are not tilted right (tilted is either left nor null)
             // If this item is the right item,
             //    return relationships for types which are not tilted left (tilted is either right nor null)
-            criteriaQuery
-                    .where(criteriaBuilder.or(
-                            criteriaBuilder.and(
-                                    criteriaBuilder.equal(relationshipRoot.get(Relationship_.leftItem), item),
-                                    criteriaBuilder.or(
-                                            criteriaBuilder.isNull(relationshipRoot.get(Relationship_.relationshipType)
-                                                    .get(RelationshipType_.tilted)),
-                                            criteriaBuilder.notEqual(relationshipRoot
-                                                .get(Relationship_.relationshipType)
-                                                .get(RelationshipType_.tilted), RelationshipType.Tilted.RIGHT))),
-                            criteriaBuilder.and(
-                                    criteriaBuilder.equal(relationshipRoot.get(Relationship_.rightItem), item),
-                                    criteriaBuilder.or(
-                                            criteriaBuilder.isNull(relationshipRoot.get(Relationship_.relationshipType)
-                                                    .get(RelationshipType_.tilted)),
-                                            criteriaBuilder.notEqual(relationshipRoot
-                                                    .get(Relationship_.relationshipType)
-                                                    .get(RelationshipType_.tilted), RelationshipType.Tilted.LEFT)))));
+            return criteriaBuilder.or(
+                    criteriaBuilder.and(
+                            criteriaBuilder.equal(relationshipRoot.get(Relationship_.leftItem), item),
+                            criteriaBuilder.or(
+                                    criteriaBuilder.isNull(relationshipTypeJoin.get(RelationshipType_.tilted)),
+                                    criteriaBuilder.notEqual(relationshipTypeJoin.get(RelationshipType_.tilted),
+                                                             RelationshipType.Tilted.RIGHT))),
+                    criteriaBuilder.and(
+                            criteriaBuilder.equal(relationshipRoot.get(Relationship_.rightItem), item),
+                            criteriaBuilder.or(
+                                    criteriaBuilder.isNull(relationshipTypeJoin.get(RelationshipType_.tilted)),
+                                    criteriaBuilder.notEqual(relationshipTypeJoin.get(RelationshipType_.tilted),
+                                                             RelationshipType.Tilted.LEFT))));
         } else {
-            criteriaQuery
-                    .where(criteriaBuilder.or(criteriaBuilder.equal(relationshipRoot.get(Relationship_.leftItem), item),
-                            criteriaBuilder.equal(relationshipRoot.get(Relationship_.rightItem), item)));
+            return criteriaBuilder.or(criteriaBuilder.equal(relationshipRoot.get(Relationship_.leftItem), item),
+                                      criteriaBuilder.equal(relationshipRoot.get(Relationship_.rightItem), item));
         }
-        return list(context, criteriaQuery, false, Relationship.class, limit, offset);
     }
 
     @Override
@@ -89,34 +126,20 @@ public class RelationshipDAOImpl extends AbstractHibernateDAO<Relationship> impl
 
     @Override
     public int findNextLeftPlaceByLeftItem(Context context, Item item) throws SQLException {
-        CriteriaBuilder criteriaBuilder = getCriteriaBuilder(context);
-        CriteriaQuery criteriaQuery = getCriteriaQuery(criteriaBuilder, Relationship.class);
-        Root<Relationship> relationshipRoot = criteriaQuery.from(Relationship.class);
-        criteriaQuery.select(relationshipRoot);
-        criteriaQuery.where(criteriaBuilder.equal(relationshipRoot.get(Relationship_.leftItem), item));
-        List<Relationship> list = list(context, criteriaQuery, false, Relationship.class, -1, -1);
-        list.sort((o1, o2) -> o2.getLeftPlace() - o1.getLeftPlace());
-        if (!list.isEmpty()) {
-            return list.get(0).getLeftPlace() + 1;
-        } else {
-            return 0;
-        }
+        Query query = createQuery(context, "SELECT max(r.leftPlace) FROM " + Relationship.class.getSimpleName() +
+                                           " r WHERE r.leftItem = :item");
+        query.setParameter("item", item);
+        Integer maxPlace = (Integer) query.getSingleResult();
+        return maxPlace != null ? maxPlace + 1 : 0;
     }
 
     @Override
     public int findNextRightPlaceByRightItem(Context context, Item item) throws SQLException {
-        CriteriaBuilder criteriaBuilder = getCriteriaBuilder(context);
-        CriteriaQuery criteriaQuery = getCriteriaQuery(criteriaBuilder, Relationship.class);
-        Root<Relationship> relationshipRoot = criteriaQuery.from(Relationship.class);
-        criteriaQuery.select(relationshipRoot);
-        criteriaQuery.where(criteriaBuilder.equal(relationshipRoot.get(Relationship_.rightItem), item));
-        List<Relationship> list = list(context, criteriaQuery, false, Relationship.class, -1, -1);
-        list.sort((o1, o2) -> o2.getRightPlace() - o1.getRightPlace());
-        if (!list.isEmpty()) {
-            return list.get(0).getRightPlace() + 1;
-        } else {
-            return 0;
-        }
+        Query query = createQuery(context, "SELECT max(r.rightPlace) FROM " + Relationship.class.getSimpleName() +
+                                           " r WHERE r.rightItem = :item");
+        query.setParameter("item", item);
+        Integer maxPlace = (Integer) query.getSingleResult();
+        return maxPlace != null ? maxPlace + 1 : 0;
     }
 
     @Override
@@ -299,4 +322,80 @@ public class RelationshipDAOImpl extends AbstractHibernateDAO<Relationship> impl
         return count(query);
     }
 
+    @Override
+    public int updatePlaces(Context context, Item item, RelationshipType relationshipType, boolean isLeft,
+                            Relationship excluded) throws SQLException {
+        String side = isLeft ? "leftItem" : "rightItem";
+        String place = isLeft ? "leftPlace" : "rightPlace";
+        String where = " FROM " + Relationship.class.getSimpleName() + " r WHERE r.relationshipType = :type" +
+            " AND r." + side + " = :item" + (excluded != null ? " AND r.id <> :excluded" : "");
+
+        // nothing to renumber if the places are 0 to count - 1 already, which is the usual case
+        Query query = createQuery(context, "SELECT count(r), min(r." + place + "), max(r." + place + "), " +
+                                           "count(distinct r." + place + ")" + where);
+        setPlaceParameters(query, item, relationshipType, excluded);
+        Object[] stats = (Object[]) query.getSingleResult();
+        int count = ((Long) stats[0]).intValue();
+        if (count == 0 || ((Integer) stats[1] == 0 && (Integer) stats[2] == count - 1
+            && ((Long) stats[3]).intValue() == count)) {
+            return count;
+        }
+
+        // group the relationships by shift, reading their IDs and places only
+        query = createQuery(context, "SELECT r.id, r." + place + where + " ORDER BY r." + place + ", r.id");
+        setPlaceParameters(query, item, relationshipType, excluded);
+        Map<Integer, List<Integer>> idsByShift = new HashMap<>();
+        List<?> rows = query.getResultList();
+        for (int i = 0; i < rows.size(); i++) {
+            Object[] row = (Object[]) rows.get(i);
+            int shift = i - (Integer) row[1];
+            if (shift != 0) {
+                idsByShift.computeIfAbsent(shift, key -> new ArrayList<>()).add((Integer) row[0]);
+            }
+        }
+
+        Session session = getHibernateSession(context);
+        for (Map.Entry<Integer, List<Integer>> entry : idsByShift.entrySet()) {
+            List<Integer> ids = entry.getValue();
+            for (int i = 0; i < ids.size(); i += MAX_IDS_PER_UPDATE) {
+                Query update = createQuery(context, "UPDATE " + Relationship.class.getSimpleName() + " r SET r." +
+                    place + " = r." + place + " + :shift WHERE r.id IN (:ids)");
+                update.setParameter("shift", entry.getKey());
+                update.setParameter("ids", ids.subList(i, Math.min(i + MAX_IDS_PER_UPDATE, ids.size())));
+                update.executeUpdate();
+            }
+            // relationships loaded in the session don't see the bulk update
+            for (Integer id : ids) {
+                Relationship relationship = getLoadedRelationship(session, id);
+                if (relationship != null) {
+                    if (isLeft) {
+                        relationship.setLeftPlace(relationship.getLeftPlace() + entry.getKey());
+                    } else {
+                        relationship.setRightPlace(relationship.getRightPlace() + entry.getKey());
+                    }
+                }
+            }
+        }
+        return count;
+    }
+
+    private void setPlaceParameters(Query query, Item item, RelationshipType relationshipType,
+                                    Relationship excluded) {
+        query.setParameter("type", relationshipType);
+        query.setParameter("item", item);
+        if (excluded != null) {
+            query.setParameter("excluded", excluded.getID());
+        }
+    }
+
+    /**
+     * @return the relationship with the given ID if it is loaded in the session, without loading it otherwise
+     */
+    private Relationship getLoadedRelationship(Session session, Integer id) {
+        SessionImplementor sessionImplementor = (SessionImplementor) session;
+        EntityPersister persister = sessionImplementor.getFactory().getMetamodel()
+                                                      .entityPersister(Relationship.class);
+        return (Relationship) sessionImplementor.getPersistenceContext()
+                                                .getEntity(sessionImplementor.generateEntityKey(id, persister));
+    }
 }
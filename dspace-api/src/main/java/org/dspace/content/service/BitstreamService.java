@@ -9,6 +9,7 @@ package org.dspace.content.service;
 
 import java.io.IOException;
 import java.io.InputStream;
+import java.nio.file.Path;
 import java.sql.SQLException;
 import java.util.Iterator;
 import java.util.List;
@@ -166,6 +167,34 @@ public interface BitstreamService extends DSpaceObjectService<Bitstream>, DSpace
     public InputStream retrieve(Context context, Bitstream bitstream)
         throws IOException, SQLException, AuthorizeException;
 
+    /**
+     * Retrieve a range of the contents of the bitstream, e.g. to serve an HTTP Range request without reading
+     * the bytes before the range from the asset store.
+     *
+     * @param context   DSpace context object
+     * @param bitstream DSpace bitstream
+     * @param offset    the position of the first byte to return
+     * @param length    the maximum number of bytes to return, or -1 to read until the end of the bitstream
+     * @return a stream from which the range of the bitstream can be read.
+     * @throws IOException        if IO error
+     * @throws SQLException       if database error
+     * @throws AuthorizeException if authorization error
+     */
+    public InputStream retrieve(Context context, Bitstream bitstream, long offset, long length)
+        throws IOException, SQLException, AuthorizeException;
+
+    /**
+     * Return the location of the contents of the bitstream on the local file system, if its asset store keeps
+     * it as a plain local file, so that it can be sent without copying it through the JVM. No authorization
+     * is checked; callers must make sure the current user may READ the bitstream before using the file.
+     *
+     * @param context   DSpace context object
+     * @param bitstream DSpace bitstream
+     * @return the path of the file, or null if the bitstream is not available as a local file
+     * @throws IOException if IO error
+     */
+    public Path getLocalPath(Context context, Bitstream bitstream) throws IOException;
+
     /**
      * Determine if this bitstream is registered (available elsewhere on
      * filesystem than in assetstore). More about registered items:
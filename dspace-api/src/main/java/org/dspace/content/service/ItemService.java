@@ -113,6 +113,32 @@ public interface ItemService
      */
     public Iterator<Item> findAllUnfiltered(Context context) throws SQLException;
 
+    /**
+     * Get all "final" items (archived or withdrawn) whose UUID falls within the given range, ordered by UUID.
+     * This allows callers to split the full set of items into disjoint ranges which can be processed
+     * independently, e.g. by several indexing threads.
+     *
+     * @param context DSpace context object
+     * @param lowerId inclusive lower bound of the UUID range, or null for no lower bound
+     * @param upperId exclusive upper bound of the UUID range, or null for no upper bound
+     * @return an iterator over the items in the range.
+     * @throws SQLException if database error
+     */
+    public Iterator<Item> findAllUnfilteredByIdRange(Context context, UUID lowerId, UUID upperId)
+        throws SQLException;
+
+    /**
+     * Get all the items in the archive whose UUID falls within the given range, ordered by UUID. Only items with
+     * the "in archive" flag set are included.
+     *
+     * @param context DSpace context object
+     * @param lowerId inclusive lower bound of the UUID range, or null for no lower bound
+     * @param upperId exclusive upper bound of the UUID range, or null for no upper bound
+     * @return an iterator over the items in the range.
+     * @throws SQLException if database error
+     */
+    public Iterator<Item> findAllByIdRange(Context context, UUID lowerId, UUID upperId) throws SQLException;
+
     /**
      * Find all the items in the archive by a given submitter. The order is
      * indeterminate. Only items with the "in archive" flag set are included.
@@ -695,6 +721,18 @@ public interface ItemService
      */
     int countTotal(Context context) throws SQLException;
 
+    /**
+     * Load what reading several items (e.g. a page of search results) is going to need into the session of the
+     * context with a few set-based queries, instead of one query per item and association when they are first
+     * accessed: their metadata and handles and, with bundles, their owning collections, bundles and bitstreams.
+     *
+     * @param context     DSpace context object
+     * @param items       the items, attached to the session of the context
+     * @param withBundles whether to load the owning collections, bundles and bitstreams as well
+     * @throws SQLException if database error
+     */
+    void prefetch(Context context, List<Item> items, boolean withBundles) throws SQLException;
+
     /**
      * counts all items not in archive
      *
@@ -287,6 +287,20 @@ public interface RelationshipService extends DSpaceCRUDService<Relationship> {
      */
     int countByItem(Context context, Item item) throws SQLException;
 
+    /**
+     * This method returns a count of Relationship objects that have the given Item object
+     * as a leftItem or a rightItem, i.e. the total of the pages of
+     * {@link #findByItem(Context, Item, Integer, Integer, boolean)}
+     * @param context       The relevant DSpace context
+     * @param item          The item that should be either a leftItem or a rightItem of all
+     *                      the counted Relationship objects
+     * @param excludeTilted If true, excludes tilted relationships
+     * @return              The number of Relationship objects that contain either a left or a
+     *                      right item that is equal to the given item
+     * @throws SQLException If something goes wrong
+     */
+    int countByItem(Context context, Item item, boolean excludeTilted) throws SQLException;
+
     /**
      * Count total number of relationships (rows in relationship table) by a relationship type and a boolean indicating
      * whether the relationship should contain the item on the left side or not
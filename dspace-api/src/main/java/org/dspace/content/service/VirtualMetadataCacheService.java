@@ -0,0 +1,94 @@
+/**
+ * The contents of this file are subject to the license and copyright
+ * detailed in the LICENSE and NOTICE files at the root of the source
+ * tree and available online at
+ *
+ * http://www.dspace.org/license/
+ */
+package org.dspace.content.service;
+
+import java.sql.SQLException;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import org.dspace.content.Item;
+import org.dspace.content.RelationshipMetadataValue;
+import org.dspace.core.Context;
+
+/**
+ * Size bounded store of the virtual metadata of items, shared by all requests, so that the relationships of an
+ * item and the metadata of its related items don't have to be resolved on every read. It is used by the
+ * {@link org.dspace.content.RelationshipMetadataService} when enabled (relationship.virtual-metadata.cache.enabled).
+ * <p>
+ * The store records which items were read to compute the virtual metadata of an item (the item itself, its related
+ * items and the items reached through {@link org.dspace.content.virtual.Related} chains). Once a change of the
+ * metadata or the relationships of an item is committed, the virtual metadata of all items which depend on it are
+ * removed, and computed again on their next read. Until then, the thread making the change does not use the store,
+ * so that it sees its own changes and never publishes them to other requests before they are committed. Changes
+ * made by other processes (e.g. command line tools) only become visible once the entries expire
+ * (relationship.virtual-metadata.cache.ttl).
+ */
+public interface VirtualMetadataCacheService {
+
+    /**
+     * @return true if the store is enabled
+     */
+    boolean isEnabled();
+
+    /**
+     * Get the virtual metadata of an item from the store, or compute them with the given loader and store them if
+     * they are not stored yet. The loader is called directly, without storing its result, if the store is disabled
+     * or the current thread has uncommitted changes.
+     *
+     * @param context DSpace context, used to look up the metadata fields of stored values
+     * @param item    the item
+     * @param loader  computes the virtual metadata of the item
+     * @return the virtual metadata of the item
+     * @throws SQLException if database error
+     */
+    List<RelationshipMetadataValue> getRelationshipMetadata(Context context, Item item, Loader loader)
+        throws SQLException;
+
+    /**
+     * Record that the virtual metadata being computed on the current thread (if any) depend on an item, e.g.
+     * because its metadata or relationships were read.
+     *
+     * @param item the item
+     */
+    void addDependency(Item item);
+
+    /**
+     * Remove the virtual metadata depending on an item once the changes of the context are committed. Until then,
+     * the store is not used by the current thread.
+     *
+     * @param context DSpace context holding the changes
+     * @param item    the item whose metadata or relationships were changed
+     */
+    void invalidateOnCommit(Context context, Item item);
+
+    /**
+     * Remove the virtual metadata of an item and of all items which depend on it
+     *
+     * @param itemId the ID of the item
+     */
+    void invalidate(UUID itemId);
+
+    /**
+     * Remove the virtual metadata of all items
+     */
+    void invalidateAll();
+
+    /**
+     * @return the hit, miss, eviction and size counts of the store
+     */
+    Map<String, Long> getStatistics();
+
+    /**
+     * Computes the virtual metadata of an item
+     */
+    @FunctionalInterface
+    interface Loader {
+        List<RelationshipMetadataValue> load() throws SQLException;
+    }
+}
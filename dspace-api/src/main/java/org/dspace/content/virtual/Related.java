@@ -19,6 +19,7 @@ import org.dspace.content.Relationship;
 import org.dspace.content.RelationshipType;
 import org.dspace.content.service.EntityService;
 import org.dspace.content.service.RelationshipService;
+import org.dspace.content.service.VirtualMetadataCacheService;
 import org.dspace.core.Context;
 import org.springframework.beans.factory.annotation.Autowired;
 
@@ -40,6 +41,9 @@ public class Related implements VirtualMetadataConfiguration {
     @Autowired
     private EntityService entityService;
 
+    @Autowired
+    private VirtualMetadataCacheService virtualMetadataCacheService;
+
     /**
      * The String representing the relationshipType that needs to be used to find the next item
      */
@@ -146,6 +150,8 @@ public class Related implements VirtualMetadataConfiguration {
      */
     @Override
     public List<String> getValues(Context context, Item item) throws SQLException {
+        // the values depend on the relationships of the item, not only on its metadata
+        virtualMetadataCacheService.addDependency(item);
         Entity entity = entityService.findByItemId(context, item.getID());
         EntityType entityType = entityService.getType(context, entity);
 
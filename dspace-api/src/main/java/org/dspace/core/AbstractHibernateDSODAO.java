@@ -14,6 +14,7 @@ import javax.persistence.criteria.CriteriaBuilder;
 import javax.persistence.criteria.CriteriaQuery;
 import javax.persistence.criteria.Root;
 
+import com.google.common.collect.Lists;
 import org.apache.commons.collections.CollectionUtils;
 import org.apache.commons.collections.ListUtils;
 import org.apache.commons.lang3.StringUtils;
@@ -31,6 +32,13 @@ import org.dspace.content.MetadataField;
  * @param <T> type of DSO represented.
  */
 public abstract class AbstractHibernateDSODAO<T extends DSpaceObject> extends AbstractHibernateDAO<T> {
+
+    /**
+     * Maximum number of objects passed to a single query by
+     * {@link #fetchAssociation(Context, String, List, String)}
+     */
+    protected static final int FETCH_SIZE = 1000;
+
     /**
      * Find a DSO by its "legacy ID".  Former versions of DSpace used integer
      * record IDs, and these may still be found in external records such as AIPs.
@@ -151,4 +159,27 @@ public abstract class AbstractHibernateDSODAO<T extends DSpaceObject> extends Ab
         }
     }
 
+    /**
+     * Initialize a lazily loaded association (e.g. "metadata" or "handles") of several objects attached to the
+     * session of the context, with one fetch join query per {@link #FETCH_SIZE} objects, instead of one query per
+     * object when the association is first accessed. Associations which are already initialized are left as they
+     * are.
+     *
+     * @param context     current DSpace context.
+     * @param entityName  the entity name of the objects (e.g. "Item").
+     * @param dsos        the objects, which must all be of the given entity.
+     * @param association the name of the association to initialize.
+     * @throws SQLException if database error
+     */
+    protected void fetchAssociation(Context context, String entityName, List<? extends DSpaceObject> dsos,
+                                    String association) throws SQLException {
+        if (CollectionUtils.isEmpty(dsos)) {
+            return;
+        }
+        String query = "SELECT o FROM " + entityName + " o LEFT JOIN FETCH o." + association +
+            " WHERE o IN (:objects)";
+        for (List<? extends DSpaceObject> chunk : Lists.partition(dsos, FETCH_SIZE)) {
+            createQuery(context, query).setParameter("objects", chunk).getResultList();
+        }
+    }
 }
@@ -109,6 +109,11 @@ public class Context implements AutoCloseable {
      */
     private LinkedList<Event> events = null;
 
+    /**
+     * Tasks to run once the current transaction has been committed
+     */
+    private List<Runnable> afterCommitTasks = null;
+
     /**
      * Event dispatcher name
      */
@@ -440,10 +445,53 @@ public class Context implements AutoCloseable {
 
             if (dbConnection != null) {
                 // Commit our changes (this closes the transaction but leaves database connection open)
-                dbConnection.commit();
+                boolean committed = false;
+                try {
+                    dbConnection.commit();
+                    committed = true;
+                } finally {
+                    if (!committed) {
+                        // the changes the tasks were registered for are lost, they must not run after a later commit
+                        afterCommitTasks = null;
+                    }
+                }
                 reloadContextBoundEntities();
             }
         }
+        runAfterCommitTasks();
+    }
+
+    /**
+     * Register a task to run once the current transaction has been committed, e.g. to hand over changes to
+     * a background thread, which must only see committed data. The tasks are run by
+     * {@link #commit()} in the order they were added, and discarded if the changes are aborted or the commit fails.
+     *
+     * @param task the task to run after the next commit
+     */
+    public void addAfterCommitTask(Runnable task) {
+        if (afterCommitTasks == null) {
+            afterCommitTasks = new ArrayList<>();
+        }
+        afterCommitTasks.add(task);
+    }
+
+    /**
+     * Run (and forget) the tasks registered with {@link #addAfterCommitTask(Runnable)}. A failing task is logged and
+     * does not prevent the others from running.
+     */
+    protected void runAfterCommitTasks() {
+        if (afterCommitTasks == null) {
+            return;
+        }
+        List<Runnable> tasks = afterCommitTasks;
+        afterCommitTasks = null;
+        for (Runnable task : tasks) {
+            try {
+                task.run();
+            } catch (RuntimeException e) {
+                log.error("Error running after commit task", e);
+            }
+        }
     }
 
 
@@ -573,6 +621,7 @@ public class Context implements AutoCloseable {
                 log.error("Error closing the database connection", ex);
             }
             events = null;
+            afterCommitTasks = null;
         }
     }
 
@@ -20,6 +20,7 @@ import java.sql.SQLException;
 import java.util.HashMap;
 import java.util.Iterator;
 import java.util.Map;
+import java.util.Set;
 import java.util.UUID;
 
 import org.apache.commons.cli.ParseException;
@@ -54,6 +55,7 @@ public class Curation extends DSpaceRunnable<CurationScriptConfiguration> {
     private String id;
     private String queue;
     private String scope;
+    private Integer threads;
     private String reporter;
     private Map<String, String> parameters;
     private boolean verbose;
@@ -145,26 +147,31 @@ public class Curation extends DSpaceRunnable<CurationScriptConfiguration> {
     private long runQueue(TaskQueue queue, Curator curator) throws SQLException, AuthorizeException, IOException {
         // use current time as our reader 'ticket'
         long ticket = System.currentTimeMillis();
-        Iterator<TaskQueueEntry> entryIter = queue.dequeue(this.queue, ticket).iterator();
-        while (entryIter.hasNext()) {
-            TaskQueueEntry entry = entryIter.next();
-            if (verbose) {
-                super.handler.logInfo("Curating id: " + entry.getObjectId());
-            }
-            curator.clear();
-            // does entry relate to a DSO or workflow object?
-            if (entry.getObjectId().indexOf('/') > 0) {
-                for (String taskName : entry.getTaskNames()) {
-                    curator.addTask(taskName);
+        // the queue is read in batches, until it is empty
+        Set<TaskQueueEntry> entries;
+        do {
+            entries = queue.dequeue(this.queue, ticket);
+            Iterator<TaskQueueEntry> entryIter = entries.iterator();
+            while (entryIter.hasNext()) {
+                TaskQueueEntry entry = entryIter.next();
+                if (verbose) {
+                    super.handler.logInfo("Curating id: " + entry.getObjectId());
+                }
+                curator.clear();
+                // does entry relate to a DSO or workflow object?
+                if (entry.getObjectId().indexOf('/') > 0) {
+                    for (String taskName : entry.getTaskNames()) {
+                        curator.addTask(taskName);
+                    }
+                    curator.curate(context, entry.getObjectId());
+                } else {
+                    // TODO: Remove this exception once curation tasks are supported by configurable workflow
+                    // e.g. see https://github.com/DSpace/DSpace/pull/3157
+                    throw new IllegalArgumentException("curation for workflow items is no longer supported");
                 }
-                curator.curate(context, entry.getObjectId());
-            } else {
-                // TODO: Remove this exception once curation tasks are supported by configurable workflow
-                // e.g. see https://github.com/DSpace/DSpace/pull/3157
-                throw new IllegalArgumentException("curation for workflow items is no longer supported");
             }
-        }
-        queue.release(this.queue, ticket, true);
+            queue.release(this.queue, ticket, true);
+        } while (!entries.isEmpty());
         return ticket;
     }
 
@@ -206,6 +213,10 @@ public class Curation extends DSpaceRunnable<CurationScriptConfiguration> {
             curator.setTransactionScope(txScope);
         }
 
+        if (this.threads != null) {
+            curator.setThreads(this.threads);
+        }
+
         curator.addParameters(parameters);
         // we are operating in batch mode, if anyone cares.
         curator.setInvoked(Curator.Invoked.BATCH);
@@ -297,6 +308,17 @@ public class Curation extends DSpaceRunnable<CurationScriptConfiguration> {
             verbose = true;
         }
 
+        // threads
+        if (this.commandLine.hasOption('n')) {
+            try {
+                this.threads = Integer.parseInt(this.commandLine.getOptionValue('n'));
+            } catch (NumberFormatException e) {
+                this.handler.logError("Bad number of threads '" + this.commandLine.getOptionValue('n') + "'");
+                throw new IllegalArgumentException(
+                    "Bad number of threads '" + this.commandLine.getOptionValue('n') + "'", e);
+            }
+        }
+
         // scope
         if (this.commandLine.getOptionValue('s') != null) {
             this.scope = this.commandLine.getOptionValue('s');
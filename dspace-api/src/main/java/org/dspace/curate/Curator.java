@@ -14,6 +14,11 @@ import java.util.HashMap;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
@@ -28,8 +33,11 @@ import org.dspace.content.service.ItemService;
 import org.dspace.core.Constants;
 import org.dspace.core.Context;
 import org.dspace.core.factory.CoreServiceFactory;
+import org.dspace.eperson.factory.EPersonServiceFactory;
+import org.dspace.eperson.service.EPersonService;
 import org.dspace.handle.factory.HandleServiceFactory;
 import org.dspace.handle.service.HandleService;
+import org.dspace.services.factory.DSpaceServicesFactory;
 
 /**
  * Curator orchestrates and manages the application of a one or more curation
@@ -87,9 +95,12 @@ public class Curator {
     protected Invoked iMode = null;
     protected TaskResolver resolver = new TaskResolver();
     protected TxScope txScope = TxScope.OPEN;
+    protected int threads = 1;
+    protected CurationPool pool = null;
     protected CommunityService communityService;
     protected ItemService itemService;
     protected HandleService handleService;
+    protected EPersonService ePersonService;
 
     /**
      * No-arg constructor
@@ -98,7 +109,10 @@ public class Curator {
         communityService = ContentServiceFactory.getInstance().getCommunityService();
         itemService = ContentServiceFactory.getInstance().getItemService();
         handleService = HandleServiceFactory.getInstance().getHandleService();
+        ePersonService = EPersonServiceFactory.getInstance().getEPersonService();
         resolver = new TaskResolver();
+        threads = Math.max(1, DSpaceServicesFactory.getInstance().getConfigurationService()
+                                                   .getIntProperty("curate.threads", 1));
     }
 
     /**
@@ -214,6 +228,22 @@ public class Curator {
         return this;
     }
 
+    /**
+     * Sets the number of threads curating the items of a container. With
+     * more than one thread, each item is curated by one of the threads, in
+     * its own Context, which is committed after the item whatever the
+     * transactional scope. Every thread has its own instance of the tasks.
+     * Distributive tasks, which traverse the containers themselves, are still
+     * performed by the calling thread.
+     *
+     * @param threads number of threads (default: curate.threads, or 1)
+     * @return return self (Curator instance) with the number of threads set
+     */
+    public Curator setThreads(int threads) {
+        this.threads = Math.max(1, threads);
+        return this;
+    }
+
     /**
      * Performs all configured tasks upon object identified by id. If
      * the object can be resolved as a handle, the DSO will be the
@@ -268,17 +298,32 @@ public class Curator {
             throw new IOException("Cannot perform curation task(s) on a null DSpaceObject!");
         }
         int type = dso.getType();
-        for (String taskName : perfList) {
-            TaskRunner tr = trMap.get(taskName);
-            // do we need to iterate over the object ?
-            if (type == Constants.ITEM || tr.task.isDistributive()) {
-                tr.run(dso);
-            } else if (type == Constants.COLLECTION) {
-                doCollection(tr, (Collection) dso);
-            } else if (type == Constants.COMMUNITY) {
-                doCommunity(tr, (Community) dso);
-            } else if (type == Constants.SITE) {
-                doSite(tr, (Site) dso);
+        boolean pooled = threads > 1 && pool == null && type != Constants.ITEM;
+        if (pooled) {
+            pool = new CurationPool(threads);
+        }
+        try {
+            for (String taskName : perfList) {
+                TaskRunner tr = trMap.get(taskName);
+                // do we need to iterate over the object ?
+                if (type == Constants.ITEM || tr.task.isDistributive()) {
+                    tr.run(dso);
+                } else if (type == Constants.COLLECTION) {
+                    doCollection(tr, (Collection) dso);
+                } else if (type == Constants.COMMUNITY) {
+                    doCommunity(tr, (Community) dso);
+                } else if (type == Constants.SITE) {
+                    doSite(tr, (Site) dso);
+                }
+                if (pooled) {
+                    // the task is done on all the items before the next task starts
+                    pool.finish();
+                }
+            }
+        } finally {
+            if (pooled) {
+                pool.close();
+                pool = null;
             }
         }
     }
@@ -343,7 +388,9 @@ public class Curator {
         }
 
         try {
-            reporter.append(message);
+            synchronized (reporter) {
+                reporter.append(message);
+            }
         } catch (IOException ex) {
             System.out.println("Task reporting failure: " +  ex);
         }
@@ -502,7 +549,7 @@ public class Curator {
             Iterator<Item> iter = itemService.findByCollection(context, coll);
             while (iter.hasNext()) {
                 Item item = iter.next();
-                boolean shouldContinue = tr.run(item);
+                boolean shouldContinue = pool != null ? pool.submit(tr, item.getID()) : tr.run(item);
                 context.uncacheEntity(item);
                 if (!shouldContinue) {
                     return false;
@@ -511,7 +558,7 @@ public class Curator {
         } catch (SQLException sqlE) {
             throw new IOException(sqlE.getMessage(), sqlE);
         }
-        return true;
+        return pool == null || !pool.isSuspended();
     }
 
     /**
@@ -532,23 +579,37 @@ public class Curator {
 
     protected class TaskRunner {
         ResolvedTask task = null;
-        int statusCode = CURATE_UNSET;
-        String result = null;
+        volatile int statusCode = CURATE_UNSET;
+        volatile String result = null;
 
         public TaskRunner(ResolvedTask task) {
             this.task = task;
         }
 
         public boolean run(DSpaceObject dso) throws IOException {
+            return run(task, dso);
+        }
+
+        /**
+         * Performs the task upon a DSpace object, with the given instance of
+         * the task (e.g. the one of a curation thread).
+         *
+         * @param task the instance of the task
+         * @param dso  the DSpace object
+         * @return false if the curation should be suspended
+         * @throws IOException if IO error
+         */
+        protected boolean run(ResolvedTask task, DSpaceObject dso) throws IOException {
             try {
                 if (dso == null) {
                     throw new IOException("DSpaceObject is null");
                 }
-                statusCode = task.perform(dso);
+                int status = task.perform(dso);
+                statusCode = status;
                 String id = (dso.getHandle() != null) ? dso.getHandle() : "workflow item: " + dso.getID();
-                log.info(logMessage(id));
+                log.info(logMessage(id, status));
                 visit(dso);
-                return !suspend(statusCode);
+                return !suspend(status);
             } catch (IOException ioe) {
                 //log error & pass exception upwards
                 System.out.println("Error executing curation task '" + task.getName() + "'; " + ioe);
@@ -595,14 +656,201 @@ public class Curator {
          * @return log message text
          */
         protected String logMessage(String id) {
+            return logMessage(id, statusCode);
+        }
+
+        /**
+         * Builds a useful log message for a curation task.
+         *
+         * @param id     ID of DSpace Object
+         * @param status status code of the task
+         * @return log message text
+         */
+        protected String logMessage(String id, int status) {
             StringBuilder mb = new StringBuilder();
             mb.append("Curation task: ").append(task.getName()).
                 append(" performed on: ").append(id).
-                  append(" with status: ").append(statusCode);
+                  append(" with status: ").append(status);
             if (result != null) {
                 mb.append(". Result: '").append(result).append("'");
             }
             return mb.toString();
         }
     }
+
+    /**
+     * Pool of threads curating the items of containers. Every thread has its
+     * own Context, in which the items are curated and committed, and its own
+     * instance of the tasks.
+     */
+    protected class CurationPool implements AutoCloseable {
+        private final int size;
+        private final ExecutorService executor;
+        private final ThreadLocal<Context> context = new ThreadLocal<>();
+        private final ThreadLocal<Map<String, ResolvedTask>> tasks = ThreadLocal.withInitial(HashMap::new);
+        private final UUID currentUserId;
+        private final boolean ignoreAuthorization;
+        private final Context.Mode mode;
+        private int inProgress = 0;
+        private boolean suspended = false;
+        private IOException error = null;
+
+        protected CurationPool(int size) throws IOException {
+            this.size = size;
+            // the threads act on behalf of the user of the curation
+            try {
+                Context curationContext = curationContext();
+                currentUserId = curationContext.getCurrentUser() != null
+                    ? curationContext.getCurrentUser().getID() : null;
+                ignoreAuthorization = curationContext.ignoreAuthorization();
+                mode = curationContext.getCurrentMode();
+            } catch (SQLException sqlE) {
+                throw new IOException(sqlE.getMessage(), sqlE);
+            }
+            AtomicInteger threadNumber = new AtomicInteger();
+            executor = Executors.newFixedThreadPool(size, runnable -> {
+                // the context of a thread is bound to it, so it has to be closed by the thread itself
+                Thread thread = new Thread(() -> {
+                    try {
+                        runnable.run();
+                    } finally {
+                        closeContext();
+                    }
+                }, "curation-" + threadNumber.incrementAndGet());
+                thread.setDaemon(true);
+                return thread;
+            });
+        }
+
+        private Context getContext() throws SQLException {
+            Context workerContext = context.get();
+            if (workerContext == null) {
+                workerContext = new Context(mode);
+                if (currentUserId != null) {
+                    workerContext.setCurrentUser(ePersonService.find(workerContext, currentUserId));
+                }
+                if (ignoreAuthorization) {
+                    workerContext.turnOffAuthorisationSystem();
+                }
+                context.set(workerContext);
+            }
+            // tasks get the context of their thread from curationContext()
+            curationCtx.set(workerContext);
+            return workerContext;
+        }
+
+        private void closeContext() {
+            Context workerContext = context.get();
+            if (workerContext != null && workerContext.isValid()) {
+                workerContext.abort();
+            }
+            context.remove();
+            curationCtx.remove();
+        }
+
+        private ResolvedTask getTask(TaskRunner tr) throws IOException {
+            String taskName = tr.task.getName();
+            ResolvedTask task = tasks.get().get(taskName);
+            if (task == null) {
+                task = resolver.resolveTask(taskName);
+                if (task == null) {
+                    throw new IOException("Task: '" + taskName + "' does not resolve");
+                }
+                task.init(Curator.this);
+                tasks.get().put(taskName, task);
+            }
+            return task;
+        }
+
+        /**
+         * Curates an item in one of the threads, once one is available.
+         *
+         * @param tr     the runner of the task
+         * @param itemId the item to curate
+         * @return false if the curation has been suspended by the task
+         * @throws IOException the error of a thread, if any
+         */
+        protected boolean submit(TaskRunner tr, UUID itemId) throws IOException {
+            synchronized (this) {
+                while (error == null && !suspended && inProgress >= size * 2) {
+                    waitForThreads();
+                }
+                if (error != null) {
+                    throw error;
+                }
+                if (suspended) {
+                    return false;
+                }
+                inProgress++;
+            }
+            executor.execute(() -> curate(tr, itemId));
+            return true;
+        }
+
+        private void curate(TaskRunner tr, UUID itemId) {
+            boolean suspend = false;
+            IOException failure = null;
+            try {
+                Context workerContext = getContext();
+                Item item = itemService.find(workerContext, itemId);
+                if (item != null) {
+                    suspend = !tr.run(getTask(tr), item);
+                    workerContext.commit();
+                }
+            } catch (IOException ioE) {
+                failure = ioE;
+            } catch (SQLException | RuntimeException e) {
+                failure = new IOException(e.getMessage(), e);
+            } finally {
+                synchronized (this) {
+                    inProgress--;
+                    suspended |= suspend;
+                    if (failure != null && error == null) {
+                        error = failure;
+                    }
+                    notifyAll();
+                }
+            }
+        }
+
+        /**
+         * @return whether a task has suspended the curation
+         */
+        protected synchronized boolean isSuspended() {
+            return suspended;
+        }
+
+        /**
+         * Waits for the items being curated.
+         *
+         * @throws IOException the error of a thread, if any
+         */
+        protected synchronized void finish() throws IOException {
+            while (inProgress > 0) {
+                waitForThreads();
+            }
+            if (error != null) {
+                throw error;
+            }
+        }
+
+        private void waitForThreads() throws IOException {
+            try {
+                wait();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IOException("Curation interrupted", e);
+            }
+        }
+
+        @Override
+        public void close() {
+            executor.shutdownNow();
+            try {
+                executor.awaitTermination(1, TimeUnit.MINUTES);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
 }
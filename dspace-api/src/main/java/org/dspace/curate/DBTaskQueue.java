@@ -0,0 +1,292 @@
+/**
+ * The contents of this file are subject to the license and copyright
+ * detailed in the LICENSE and NOTICE files at the root of the source
+ * tree and available online at
+ *
+ * http://www.dspace.org/license/
+ */
+package org.dspace.curate;
+
+import java.io.IOException;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.SQLTransactionRollbackException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import javax.sql.DataSource;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.dspace.services.factory.DSpaceServicesFactory;
+
+/**
+ * DBTaskQueue provides a TaskQueue implementation based on the
+ * curation_task_queue table of the DSpace database, so that several curation
+ * processes, possibly in different JVMs, can consume the same queues.
+ * <P>
+ * A reader claims at most <code>curate.taskqueue.batch-size</code> unclaimed
+ * entries of a queue, oldest first, in a single update, so concurrent readers
+ * never get the same entries, and the other entries are left for the next
+ * readers. On PostgreSQL, a reader skips the entries being claimed by another
+ * one instead of waiting for them. Claims which are not released (e.g. because
+ * the reader died) expire after <code>curate.taskqueue.claim-timeout</code>
+ * minutes, after which the entries can be read again.
+ * <P>
+ * The queue is accessed in its own short transactions rather than in the
+ * Context of the caller, so that claims are visible to the other readers at
+ * once and are not lost when the curation rolls back.
+ */
+public class DBTaskQueue implements TaskQueue {
+    private static final Logger log = LogManager.getLogger(DBTaskQueue.class);
+
+    protected static final int DEFAULT_BATCH_SIZE = 100;
+
+    // number of times a statement rolled back by the database (e.g. on a deadlock) is tried
+    protected static final int MAX_ATTEMPTS = 3;
+
+    protected DataSource dataSource;
+
+    // milliseconds after which a claim expires
+    protected long claimTimeout;
+
+    // maximum number of entries claimed at once
+    protected int batchSize;
+
+    // claims of the entries held by this reader, by ticket
+    protected Map<Long, String> claims = new HashMap<>();
+
+    public DBTaskQueue() {
+        this(DSpaceServicesFactory.getInstance().getServiceManager().getServiceByName("dataSource", DataSource.class),
+             TimeUnit.MINUTES.toMillis(DSpaceServicesFactory.getInstance().getConfigurationService()
+                                                          .getLongProperty("curate.taskqueue.claim-timeout", 1440)),
+             DSpaceServicesFactory.getInstance().getConfigurationService()
+                                  .getIntProperty("curate.taskqueue.batch-size", DEFAULT_BATCH_SIZE));
+    }
+
+    /**
+     * @param dataSource   the database holding the queues
+     * @param claimTimeout milliseconds after which unreleased entries can be read again
+     */
+    public DBTaskQueue(DataSource dataSource, long claimTimeout) {
+        this(dataSource, claimTimeout, DEFAULT_BATCH_SIZE);
+    }
+
+    /**
+     * @param dataSource   the database holding the queues
+     * @param claimTimeout milliseconds after which unreleased entries can be read again
+     * @param batchSize    maximum number of entries read at once
+     */
+    public DBTaskQueue(DataSource dataSource, long claimTimeout, int batchSize) {
+        this.dataSource = dataSource;
+        this.claimTimeout = claimTimeout;
+        this.batchSize = batchSize;
+    }
+
+    @Override
+    public String[] queueNames() {
+        List<String> names = new ArrayList<>();
+        try (Connection connection = dataSource.getConnection();
+             PreparedStatement statement = connection.prepareStatement(
+                 "SELECT DISTINCT queue_name FROM curation_task_queue");
+             ResultSet results = statement.executeQuery()) {
+            while (results.next()) {
+                names.add(results.getString(1));
+            }
+        } catch (SQLException e) {
+            log.error("Unable to read the curation task queue names", e);
+        }
+        return names.toArray(new String[0]);
+    }
+
+    @Override
+    public void enqueue(String queueName, TaskQueueEntry entry) throws IOException {
+        Set<TaskQueueEntry> entrySet = new HashSet<>();
+        entrySet.add(entry);
+        enqueue(queueName, entrySet);
+    }
+
+    @Override
+    public void enqueue(String queueName, Set<TaskQueueEntry> entrySet) throws IOException {
+        try (Connection connection = dataSource.getConnection()) {
+            connection.setAutoCommit(false);
+            try (PreparedStatement statement = connection.prepareStatement(
+                "INSERT INTO curation_task_queue (entry_id, queue_name, eperson, submit_time, tasks, object_id) "
+                    + "VALUES (?, ?, ?, ?, ?, ?)")) {
+                for (TaskQueueEntry entry : entrySet) {
+                    statement.setString(1, UUID.randomUUID().toString());
+                    statement.setString(2, queueName);
+                    statement.setString(3, entry.getEpersonId());
+                    statement.setLong(4, entry.getSubmitTime());
+                    statement.setString(5, String.join(",", entry.getTaskNames()));
+                    statement.setString(6, entry.getObjectId());
+                    statement.addBatch();
+                }
+                statement.executeBatch();
+                connection.commit();
+            } catch (SQLException e) {
+                connection.rollback();
+                throw e;
+            }
+        } catch (SQLException e) {
+            throw new IOException("Unable to queue curation tasks in " + queueName, e);
+        }
+    }
+
+    @Override
+    public synchronized Set<TaskQueueEntry> dequeue(String queueName, long ticket) throws IOException {
+        Set<TaskQueueEntry> entrySet = new HashSet<>();
+        if (claims.containsKey(ticket)) {
+            // the entries of this ticket have to be released first
+            return entrySet;
+        }
+        String claim = UUID.randomUUID().toString();
+        long now = System.currentTimeMillis();
+        for (int attempt = 1; ; attempt++) {
+            try (Connection connection = dataSource.getConnection()) {
+                connection.setAutoCommit(false);
+                try {
+                    // the batch selected by the update can be claimed by a concurrent reader first, in which case
+                    // nothing is claimed even though the queue isn't empty: try again with the next entries
+                    String claimQuery = getClaimQuery(connection);
+                    int claimed;
+                    do {
+                        try (PreparedStatement statement = connection.prepareStatement(claimQuery)) {
+                            statement.setString(1, claim);
+                            statement.setLong(2, now);
+                            statement.setString(3, queueName);
+                            statement.setLong(4, now - claimTimeout);
+                            statement.setString(5, queueName);
+                            statement.setLong(6, now - claimTimeout);
+                            statement.setInt(7, batchSize);
+                            claimed = statement.executeUpdate();
+                        }
+                    } while (claimed == 0 && hasUnclaimedEntries(connection, queueName, now));
+                    try (PreparedStatement statement = connection.prepareStatement(
+                        "SELECT eperson, submit_time, tasks, object_id FROM curation_task_queue WHERE claim = ?")) {
+                        statement.setString(1, claim);
+                        try (ResultSet results = statement.executeQuery()) {
+                            while (results.next()) {
+                                entrySet.add(new TaskQueueEntry(results.getString(1), results.getLong(2),
+                                                                Arrays.asList(results.getString(3).split(",")),
+                                                                results.getString(4)));
+                            }
+                        }
+                    }
+                    connection.commit();
+                    break;
+                } catch (SQLException e) {
+                    connection.rollback();
+                    throw e;
+                }
+            } catch (SQLException e) {
+                entrySet.clear();
+                if (attempt < MAX_ATTEMPTS && isRolledBack(e)) {
+                    // the claim lost a deadlock with a concurrent reader or release: try again
+                    continue;
+                }
+                throw new IOException("Unable to read the curation task queue " + queueName, e);
+            }
+        }
+        claims.put(ticket, claim);
+        return entrySet;
+    }
+
+    /**
+     * Check whether a queue has entries which are not claimed, or whose claim expired.
+     *
+     * @param connection the connection to the database
+     * @param queueName  the name of the queue
+     * @param now        the time of the claim
+     * @return true if some entries can be claimed
+     * @throws SQLException if the queue can't be read
+     */
+    protected boolean hasUnclaimedEntries(Connection connection, String queueName, long now) throws SQLException {
+        try (PreparedStatement statement = connection.prepareStatement(
+            "SELECT entry_id FROM curation_task_queue WHERE queue_name = ? AND (claim IS NULL OR claim_time < ?)")) {
+            statement.setMaxRows(1);
+            statement.setString(1, queueName);
+            statement.setLong(2, now - claimTimeout);
+            try (ResultSet results = statement.executeQuery()) {
+                return results.next();
+            }
+        }
+    }
+
+    /**
+     * The update claiming a batch of unclaimed entries of a queue. The entries
+     * are checked again by the update itself, in case a concurrent reader
+     * claimed them between the selection of the batch and the update.
+     *
+     * @param connection the connection to the database
+     * @return the update, with the claim, the claim time, the queue name and the
+     * expiry time as parameters, followed by the queue name, the expiry time and
+     * the batch size for the selection of the batch
+     * @throws SQLException if the database can't be identified
+     */
+    protected String getClaimQuery(Connection connection) throws SQLException {
+        String unclaimed = "queue_name = ? AND (claim IS NULL OR claim_time < ?)";
+        String batch = "SELECT entry_id FROM curation_task_queue WHERE " + unclaimed + " ORDER BY submit_time";
+        String dbms = connection.getMetaData().getDatabaseProductName().toLowerCase(Locale.ROOT);
+        if (dbms.contains("postgresql")) {
+            // skip the entries being claimed by another reader rather than wait for them
+            batch += " LIMIT ? FOR UPDATE SKIP LOCKED";
+        } else if (dbms.contains("oracle")) {
+            batch += " FETCH FIRST ? ROWS ONLY";
+        } else {
+            batch += " LIMIT ?";
+        }
+        return "UPDATE curation_task_queue SET claim = ?, claim_time = ? WHERE " + unclaimed
+            + " AND entry_id IN (" + batch + ")";
+    }
+
+    @Override
+    public synchronized void release(String queueName, long ticket, boolean remove) {
+        String claim = claims.remove(ticket);
+        if (claim == null) {
+            return;
+        }
+        String sql = remove ? "DELETE FROM curation_task_queue WHERE claim = ?"
+            : "UPDATE curation_task_queue SET claim = NULL, claim_time = NULL WHERE claim = ?";
+        for (int attempt = 1; ; attempt++) {
+            try (Connection connection = dataSource.getConnection()) {
+                connection.setAutoCommit(true);
+                try (PreparedStatement statement = connection.prepareStatement(sql)) {
+                    statement.setString(1, claim);
+                    statement.executeUpdate();
+                }
+                return;
+            } catch (SQLException e) {
+                if (attempt < MAX_ATTEMPTS && isRolledBack(e)) {
+                    // the release lost a deadlock with a concurrent reader: try again
+                    continue;
+                }
+                // the entries will be read again once the claim has expired
+                log.error("Unable to release the entries of curation task queue " + queueName, e);
+                return;
+            }
+        }
+    }
+
+    /**
+     * Check whether a statement failed because the database rolled its transaction back, e.g. to resolve a
+     * deadlock between concurrent readers, in which case it can be tried again.
+     *
+     * @param e the error of the statement
+     * @return true if the transaction was rolled back
+     */
+    protected boolean isRolledBack(SQLException e) {
+        // SQLSTATE class 40 is "transaction rollback"
+        return e instanceof SQLTransactionRollbackException
+            || (e.getSQLState() != null && e.getSQLState().startsWith("40"));
+    }
+}
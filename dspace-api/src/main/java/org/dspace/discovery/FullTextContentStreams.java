@@ -12,6 +12,7 @@ import static org.dspace.core.Utils.emptyIfNull;
 import java.io.ByteArrayInputStream;
 import java.io.IOException;
 import java.io.InputStream;
+import java.io.InputStreamReader;
 import java.io.Reader;
 import java.io.SequenceInputStream;
 import java.nio.charset.StandardCharsets;
@@ -137,6 +138,51 @@ public class FullTextContentStreams extends ContentStreamBase {
         }
     }
 
+    /**
+     * Read the full text, up to a maximum number of characters. The text is read one bitstream at a time, and the
+     * bitstreams after the limit are not read at all, so that at most charLimit characters are ever held in memory.
+     * The TEXT bitstreams are decoded as UTF-8, which is how the text extraction filters write them.
+     *
+     * @param charLimit maximum number of characters, or a negative number for no maximum
+     * @return the full text
+     * @throws IOException if the text cannot be read
+     */
+    public String readFullText(int charLimit) throws IOException {
+        long expected = getSize() + fullTextStreams.size();
+        int capacity = (int) Math.min(charLimit < 0 ? Integer.MAX_VALUE - 8 : charLimit, expected);
+        StringBuilder fullText = new StringBuilder(capacity);
+        char[] buffer = new char[8192];
+        boolean truncated = false;
+
+        FullTextEnumeration bitstreams = new FullTextEnumeration(fullTextStreams.iterator());
+        while (bitstreams.hasMoreElements() && !truncated) {
+            InputStream bitstream = bitstreams.nextElement();
+            if (bitstream == null) {
+                continue;
+            }
+            try (Reader reader = new InputStreamReader(bitstream, StandardCharsets.UTF_8)) {
+                while (true) {
+                    int length = charLimit < 0 ? buffer.length
+                                               : Math.min(buffer.length, charLimit - fullText.length());
+                    if (length == 0) {
+                        truncated = reader.read() != -1 || bitstreams.hasMoreElements();
+                        break;
+                    }
+                    int read = reader.read(buffer, 0, length);
+                    if (read == -1) {
+                        break;
+                    }
+                    fullText.append(buffer, 0, read);
+                }
+            }
+        }
+        if (truncated) {
+            log.info("Full text of item {} is larger than the limit, only the first {} characters are read.",
+                     sourceInfo, charLimit);
+        }
+        return fullText.toString();
+    }
+
     public boolean isEmpty() {
         return CollectionUtils.isEmpty(fullTextStreams);
     }
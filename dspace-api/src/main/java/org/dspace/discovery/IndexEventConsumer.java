@@ -7,7 +7,9 @@
  */
 package org.dspace.discovery;
 
+import java.util.ArrayList;
 import java.util.HashSet;
+import java.util.List;
 import java.util.Optional;
 import java.util.Set;
 
@@ -45,6 +47,10 @@ public class IndexEventConsumer implements Consumer {
                                                    .getServiceByName(IndexingService.class.getName(),
                                                                      IndexingService.class);
 
+    IndexQueueService indexQueueService = DSpaceServicesFactory.getInstance().getServiceManager()
+                                                              .getServiceByName(IndexQueueService.class.getName(),
+                                                                                IndexQueueService.class);
+
     IndexObjectFactoryFactory indexObjectServiceFactory = IndexObjectFactoryFactory.getInstance();
 
     @Override
@@ -196,6 +202,11 @@ public class IndexEventConsumer implements Consumer {
     @Override
     public void end(Context ctx) throws Exception {
 
+        if (indexQueueService != null && indexQueueService.isEnabled()) {
+            queueChanges(ctx);
+            return;
+        }
+
         try {
             for (String uid : uniqueIdsToDelete) {
                 try {
@@ -239,6 +250,39 @@ public class IndexEventConsumer implements Consumer {
         }
     }
 
+    /**
+     * Hand the sets of objects to update and delete over to the asynchronous index queue instead of indexing them
+     * in the current request. They are only handed over once the changes have been committed, as the queue's
+     * workers read the objects using their own Context, and are discarded if the changes are aborted. Deletions
+     * are queued first, so that an object which is both deleted and updated (e.g. an Item, see
+     * {@link #consume(Context, Event)}) ends up being reindexed.
+     *
+     * @param ctx the Context whose changes are being committed
+     */
+    private void queueChanges(Context ctx) {
+        List<String> deletions = new ArrayList<>(uniqueIdsToDelete);
+        List<String> updates = new ArrayList<>();
+        for (IndexableObject iu : objectsToUpdate) {
+            String uniqueIndexID = iu.getUniqueIndexID();
+            if (uniqueIndexID != null) {
+                updates.add(uniqueIndexID);
+            }
+        }
+        objectsToUpdate.clear();
+        uniqueIdsToDelete.clear();
+        if (deletions.isEmpty() && updates.isEmpty()) {
+            return;
+        }
+        ctx.addAfterCommitTask(() -> {
+            for (String uid : deletions) {
+                indexQueueService.queueDelete(uid);
+            }
+            for (String uid : updates) {
+                indexQueueService.queueUpdate(uid);
+            }
+        });
+    }
+
     @Override
     public void finish(Context ctx) throws Exception {
         // No-op
@@ -0,0 +1,53 @@
+/**
+ * The contents of this file are subject to the license and copyright
+ * detailed in the LICENSE and NOTICE files at the root of the source
+ * tree and available online at
+ *
+ * http://www.dspace.org/license/
+ */
+package org.dspace.discovery;
+
+/**
+ * Queue of pending discovery index updates, used by the {@link IndexEventConsumer} when asynchronous indexing is
+ * enabled (discovery.index.async.enabled). Objects are identified by their unique index ID
+ * (see {@link IndexableObject#getUniqueIndexID()}); repeated updates of the same object are coalesced so that it is
+ * only indexed once. The queue is drained by background workers.
+ */
+public interface IndexQueueService {
+
+    /**
+     * @return true if asynchronous indexing is enabled and changes should be queued rather than indexed directly
+     */
+    boolean isEnabled();
+
+    /**
+     * Queue the (re)indexing of the object with the given unique index ID. A pending deletion of the same object is
+     * kept, and applied before the update.
+     *
+     * @param uniqueIndexId the unique index ID of the object
+     */
+    void queueUpdate(String uniqueIndexId);
+
+    /**
+     * Queue the removal of the object with the given unique index ID from the index. A pending update of the same
+     * object is kept, and applied after the removal.
+     *
+     * @param uniqueIndexId the unique index ID of the object
+     */
+    void queueDelete(String uniqueIndexId);
+
+    /**
+     * @return the number of objects which are queued or currently being indexed
+     */
+    int getQueueSize();
+
+    /**
+     * Block until all queued changes have been written to the index and are visible to searches, or the timeout
+     * expires. Useful for tests and for callers which need to read their own writes.
+     *
+     * @param timeoutMillis the maximum time to wait in milliseconds
+     * @return true if the queue was drained, false if the timeout expired first
+     * @throws InterruptedException if the current thread was interrupted while waiting
+     */
+    boolean waitForIndex(long timeoutMillis) throws InterruptedException;
+}
@@ -0,0 +1,353 @@
+/**
+ * The contents of this file are subject to the license and copyright
+ * detailed in the LICENSE and NOTICE files at the root of the source
+ * tree and available online at
+ *
+ * http://www.dspace.org/license/
+ */
+package org.dspace.discovery;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+
+import org.apache.commons.lang3.StringUtils;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.apache.solr.client.solrj.SolrServerException;
+import org.dspace.core.Context;
+import org.dspace.discovery.indexobject.factory.IndexFactory;
+import org.dspace.discovery.indexobject.factory.IndexObjectFactoryFactory;
+import org.dspace.services.ConfigurationService;
+import org.springframework.beans.factory.annotation.Autowired;
+
+/**
+ * Default implementation of the {@link IndexQueueService}.
+ * <p>
+ * Pending changes are kept in memory, coalesced per unique index ID and action, and appended to a journal file
+ * (discovery.index.async.journal) so that they survive a restart. The journal is replayed on startup and truncated
+ * whenever the queue is empty. The queue is drained by discovery.index.async.threads worker threads, each of which
+ * takes up to discovery.index.async.batch.size changes at a time, applies them using its own Context and then
+ * issues a Solr soft commit. An object is never processed by two workers at the same time.
+ * <p>
+ * A pending deletion and update of the same object are both kept and the deletion is applied first, as they may not
+ * remove the same documents: the deletion of an Item also removes the documents of its workspace or workflow item,
+ * which its update does not.
+ */
+public class IndexQueueServiceImpl implements IndexQueueService {
+
+    private static final Logger log = LogManager.getLogger(IndexQueueServiceImpl.class);
+
+    /**
+     * The change to apply to the index for a queued object
+     */
+    protected enum Action {
+        UPDATE, DELETE
+    }
+
+    @Autowired
+    protected ConfigurationService configurationService;
+    @Autowired
+    protected IndexingService indexingService;
+    @Autowired
+    protected IndexObjectFactoryFactory indexObjectFactoryFactory;
+    @Autowired
+    protected SolrSearchCore solrSearchCore;
+
+    // queued changes, in order of arrival, guarded by "this"
+    private final Map<String, Set<Action>> pending = new LinkedHashMap<>();
+    // changes currently being applied by a worker, guarded by "this"
+    private final Map<String, Set<Action>> inFlight = new HashMap<>();
+
+    private boolean enabled = false;
+    private int batchSize;
+    private File journalFile;
+    private BufferedWriter journal;
+    private int journalEntries = 0;
+    private ExecutorService executor;
+    private volatile boolean destroyed = false;
+
+    @PostConstruct
+    public void init() {
+        destroyed = false;
+        enabled = configurationService.getBooleanProperty("discovery.index.async.enabled", false);
+        if (!enabled) {
+            return;
+        }
+        batchSize = Math.max(1, configurationService.getIntProperty("discovery.index.async.batch.size", 100));
+        int threads = Math.max(1, configurationService.getIntProperty("discovery.index.async.threads", 1));
+        journalFile = new File(configurationService.getProperty("discovery.index.async.journal",
+            configurationService.getProperty("dspace.dir") + File.separator + "var" + File.separator
+                + "discovery-index-queue.journal"));
+        synchronized (this) {
+            replayJournal();
+            rewriteJournal();
+            log.info("Asynchronous discovery indexing enabled with {} worker(s), {} change(s) recovered from {}",
+                     threads, pending.size(), journalFile);
+        }
+        executor = Executors.newFixedThreadPool(threads);
+        for (int i = 0; i < threads; i++) {
+            executor.execute(this::drain);
+        }
+    }
+
+    @PreDestroy
+    public void destroy() throws InterruptedException {
+        destroyed = true;
+        if (executor != null) {
+            synchronized (this) {
+                notifyAll();
+            }
+            executor.shutdown();
+            executor.awaitTermination(10, TimeUnit.SECONDS);
+            synchronized (this) {
+                closeJournal();
+            }
+        }
+    }
+
+    @Override
+    public boolean isEnabled() {
+        return enabled && !destroyed;
+    }
+
+    @Override
+    public void queueUpdate(String uniqueIndexId) {
+        queue(uniqueIndexId, Action.UPDATE);
+    }
+
+    @Override
+    public void queueDelete(String uniqueIndexId) {
+        queue(uniqueIndexId, Action.DELETE);
+    }
+
+    @Override
+    public synchronized int getQueueSize() {
+        return pending.size() + inFlight.size();
+    }
+
+    @Override
+    public synchronized boolean waitForIndex(long timeoutMillis) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + timeoutMillis;
+        while (!pending.isEmpty() || !inFlight.isEmpty()) {
+            long remaining = deadline - System.currentTimeMillis();
+            if (remaining <= 0 || destroyed) {
+                return false;
+            }
+            wait(remaining);
+        }
+        return true;
+    }
+
+    protected synchronized void queue(String uniqueIndexId, Action action) {
+        addPending(uniqueIndexId, action);
+        appendToJournal(uniqueIndexId, action);
+        notifyAll();
+    }
+
+    /**
+     * Add a change to the pending ones, keeping any other pending action on the same object, and move the object
+     * to the end of the queue.
+     */
+    private void addPending(String uniqueIndexId, Action action) {
+        Set<Action> actions = pending.remove(uniqueIndexId);
+        if (actions == null) {
+            actions = EnumSet.noneOf(Action.class);
+        }
+        actions.add(action);
+        pending.put(uniqueIndexId, actions);
+    }
+
+    /**
+     * Worker loop: take batches of queued changes and apply them until this service is destroyed.
+     */
+    protected void drain() {
+        while (!destroyed) {
+            try {
+                Map<String, Set<Action>> batch = takeBatch();
+                if (!batch.isEmpty()) {
+                    try {
+                        apply(batch);
+                    } finally {
+                        complete(batch);
+                    }
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (RuntimeException e) {
+                log.error("Unexpected error while processing the discovery index queue", e);
+            }
+        }
+    }
+
+    /**
+     * Wait for queued changes and move up to batchSize of them to the in-flight set, skipping objects which are
+     * already being processed by another worker.
+     *
+     * @return the changes to apply, empty if this service is being destroyed
+     * @throws InterruptedException if interrupted while waiting
+     */
+    protected synchronized Map<String, Set<Action>> takeBatch() throws InterruptedException {
+        Map<String, Set<Action>> batch = new LinkedHashMap<>();
+        while (batch.isEmpty() && !destroyed) {
+            Iterator<Map.Entry<String, Set<Action>>> iterator = pending.entrySet().iterator();
+            while (iterator.hasNext() && batch.size() < batchSize) {
+                Map.Entry<String, Set<Action>> entry = iterator.next();
+                if (!inFlight.containsKey(entry.getKey())) {
+                    batch.put(entry.getKey(), entry.getValue());
+                    iterator.remove();
+                }
+            }
+            if (batch.isEmpty()) {
+                wait(1000);
+            }
+        }
+        inFlight.putAll(batch);
+        return batch;
+    }
+
+    protected synchronized void complete(Map<String, Set<Action>> batch) {
+        for (String uniqueIndexId : batch.keySet()) {
+            inFlight.remove(uniqueIndexId);
+        }
+        if (pending.isEmpty() && inFlight.isEmpty()) {
+            rewriteJournal();
+        }
+        notifyAll();
+    }
+
+    /**
+     * Apply a batch of changes to the index using a dedicated Context and make them visible with a soft commit.
+     *
+     * @param batch the changes to apply
+     */
+    protected void apply(Map<String, Set<Action>> batch) {
+        Context context = new Context(Context.Mode.READ_ONLY);
+        try {
+            context.turnOffAuthorisationSystem();
+            for (Map.Entry<String, Set<Action>> entry : batch.entrySet()) {
+                String uniqueIndexId = entry.getKey();
+                try {
+                    if (entry.getValue().contains(Action.DELETE)) {
+                        indexingService.unIndexContent(context, uniqueIndexId, false);
+                    }
+                    if (!entry.getValue().contains(Action.UPDATE)) {
+                        continue;
+                    }
+                    IndexFactory indexFactory = indexObjectFactoryFactory.getIndexableObjectFactory(uniqueIndexId);
+                    Optional<IndexableObject> indexableObject = indexFactory
+                        .findIndexableObject(context, StringUtils.substringAfter(uniqueIndexId, "-"));
+                    if (indexableObject.isPresent()) {
+                        indexingService.indexContent(context, indexableObject.get(), true, false);
+                        context.uncacheEntity(indexableObject.get().getIndexedObject());
+                    } else {
+                        // the object was deleted after the update was queued
+                        indexingService.unIndexContent(context, uniqueIndexId, false);
+                    }
+                } catch (Exception e) {
+                    log.error("Failed while indexing queued object: " + uniqueIndexId, e);
+                }
+            }
+            if (solrSearchCore.getSolr() != null) {
+                solrSearchCore.getSolr().commit(true, true, true);
+            }
+        } catch (IOException | SolrServerException e) {
+            log.error("Unable to soft commit the discovery index", e);
+        } finally {
+            context.abort();
+        }
+    }
+
+    private void replayJournal() {
+        if (!journalFile.exists()) {
+            return;
+        }
+        try (BufferedReader reader = Files.newBufferedReader(journalFile.toPath(), StandardCharsets.UTF_8)) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                String[] parts = StringUtils.split(line, ' ');
+                if (parts.length == 2) {
+                    addPending(parts[1], Action.valueOf(parts[0]));
+                }
+            }
+        } catch (IOException | IllegalArgumentException e) {
+            log.error("Unable to replay the discovery index queue journal " + journalFile, e);
+        }
+    }
+
+    private void appendToJournal(String uniqueIndexId, Action action) {
+        if (journal == null) {
+            return;
+        }
+        try {
+            journal.write(action.name() + " " + uniqueIndexId);
+            journal.newLine();
+            journal.flush();
+            journalEntries++;
+            // keep the journal from growing without bounds while the queue never runs empty
+            if (journalEntries > 10 * (pending.size() + inFlight.size() + batchSize)) {
+                rewriteJournal();
+            }
+        } catch (IOException e) {
+            log.error("Unable to write to the discovery index queue journal " + journalFile, e);
+        }
+    }
+
+    /**
+     * Replace the journal by one only containing the changes which are still queued or in flight.
+     */
+    private void rewriteJournal() {
+        closeJournal();
+        try {
+            File parent = journalFile.getParentFile();
+            if (parent != null && !parent.exists() && !parent.mkdirs()) {
+                throw new IOException("Unable to create directory " + parent);
+            }
+            journal = new BufferedWriter(new FileWriter(journalFile, StandardCharsets.UTF_8, false));
+            journalEntries = 0;
+            for (Map<String, Set<Action>> changes : List.of(inFlight, pending)) {
+                for (Map.Entry<String, Set<Action>> entry : changes.entrySet()) {
+                    for (Action action : entry.getValue()) {
+                        journal.write(action.name() + " " + entry.getKey());
+                        journal.newLine();
+                        journalEntries++;
+                    }
+                }
+            }
+            journal.flush();
+        } catch (IOException e) {
+            log.error("Unable to write the discovery index queue journal " + journalFile
+                          + ", queued changes will not survive a restart", e);
+            closeJournal();
+        }
+    }
+
+    private void closeJournal() {
+        if (journal != null) {
+            try {
+                journal.close();
+            } catch (IOException e) {
+                log.warn("Unable to close the discovery index queue journal " + journalFile, e);
+            }
+            journal = null;
+        }
+    }
+}
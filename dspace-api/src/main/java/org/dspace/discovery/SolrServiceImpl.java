@@ -28,6 +28,10 @@ import java.util.Map;
 import java.util.Optional;
 import java.util.TimeZone;
 import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
 import javax.mail.MessagingException;
 
 import org.apache.commons.collections4.CollectionUtils;
@@ -309,13 +313,28 @@ public class SolrServiceImpl implements SearchService, IndexingService {
         updateIndex(context, force, null);
     }
 
+    /**
+     * Iterates over all indexable objects of the given type (or all types when null) and updates them in the index.
+     * <p>
+     * When {@code discovery.index.parallel.threads} is larger than 1, Items are reindexed in parallel, see
+     * {@link #updateItemIndexInParallel(IndexFactory, boolean, int)}.
+     *
+     * @param context the dspace context
+     * @param force   whether or not to force the reindexing
+     * @param type    the type of indexable object to update, or null for all types
+     */
     @Override
     public void updateIndex(Context context, boolean force, String type) {
         try {
+            final int threads = configurationService.getIntProperty("discovery.index.parallel.threads", 1);
             final List<IndexFactory> indexableObjectServices = indexObjectServiceFactory.
                 getIndexFactories();
             for (IndexFactory indexableObjectService : indexableObjectServices) {
                 if (type == null || StringUtils.equals(indexableObjectService.getType(), type)) {
+                    if (threads > 1 && StringUtils.equals(indexableObjectService.getType(), IndexableItem.TYPE)) {
+                        updateItemIndexInParallel(indexableObjectService, force, threads);
+                        continue;
+                    }
                     final Iterator<IndexableObject> indexableObjects = indexableObjectService.findAll(context);
                     while (indexableObjects.hasNext()) {
                         final IndexableObject indexableObject = indexableObjects.next();
@@ -333,6 +352,195 @@ public class SolrServiceImpl implements SearchService, IndexingService {
         }
     }
 
+    /**
+     * Reindex all Items using a pool of worker threads. The Item UUID space is split into
+     * {@code discovery.index.parallel.ranges} disjoint ranges which are handed out to the workers. Each worker
+     * uses its own read-only Context, builds the Solr documents for the Items in its range and sends them to Solr
+     * in batches of {@code discovery.index.batch.size} documents. Progress and throughput are logged every
+     * {@code discovery.index.parallel.progress.interval} Items.
+     *
+     * @param itemIndexFactory the index factory for Items
+     * @param force            whether or not to force the reindexing
+     * @param threads          the number of worker threads
+     */
+    protected void updateItemIndexInParallel(IndexFactory itemIndexFactory, boolean force, int threads) {
+        final int ranges = Math.max(threads, configurationService.getIntProperty("discovery.index.parallel.ranges",
+                                                                                   threads * 4));
+        final int batchSize = Math.max(1, configurationService.getIntProperty("discovery.index.batch.size", 100));
+        final long progressInterval = configurationService
+            .getLongProperty("discovery.index.parallel.progress.interval", 10000);
+        final IndexingProgress progress = new IndexingProgress(progressInterval);
+
+        log.info("Reindexing items using {} threads, {} UUID ranges and batches of {} documents",
+                 threads, ranges, batchSize);
+        final List<UUID> boundaries = splitIdSpace(ranges);
+        final ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try {
+            for (int i = 0; i <= boundaries.size(); i++) {
+                final UUID lowerId = i == 0 ? null : boundaries.get(i - 1);
+                final UUID upperId = i == boundaries.size() ? null : boundaries.get(i);
+                executor.execute(() -> indexItemRange(itemIndexFactory, lowerId, upperId, force, batchSize,
+                                                      progress));
+            }
+            executor.shutdown();
+            executor.awaitTermination(Long.MAX_VALUE, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            log.error("Interrupted while waiting for the item reindex to complete", e);
+            executor.shutdownNow();
+            Thread.currentThread().interrupt();
+        }
+        progress.logSummary();
+    }
+
+    /**
+     * Index all Items with a UUID in the given range, using a dedicated read-only Context. An Item whose document
+     * cannot be built is counted as failed and skipped; when the Items of the range can no longer be iterated,
+     * the documents not written yet are counted as failed and the range is recorded as incomplete, so that the
+     * error doesn't go unnoticed in the summary of the reindex.
+     *
+     * @param itemIndexFactory the index factory for Items
+     * @param lowerId          inclusive lower bound of the range, or null
+     * @param upperId          exclusive upper bound of the range, or null
+     * @param force            whether or not to force the reindexing
+     * @param batchSize        the number of documents to send to Solr in a single request
+     * @param progress         the shared progress tracker
+     */
+    protected void indexItemRange(IndexFactory itemIndexFactory, UUID lowerId, UUID upperId, boolean force,
+                                  int batchSize, IndexingProgress progress) {
+        final List<SolrInputDocument> batch = new ArrayList<>(batchSize);
+        Context workerContext = null;
+        try {
+            workerContext = new Context(Context.Mode.READ_ONLY);
+            workerContext.turnOffAuthorisationSystem();
+            final Iterator<Item> items = contentServiceFactory.getItemService()
+                                                              .findAllUnfilteredByIdRange(workerContext, lowerId,
+                                                                                          upperId);
+            while (items.hasNext()) {
+                final Item item = items.next();
+                final IndexableItem indexableItem = new IndexableItem(item);
+                try {
+                    if (force || requiresIndexing(indexableItem.getUniqueIndexID(),
+                                                  indexableItem.getLastModified())) {
+                        batch.add(itemIndexFactory.buildCompleteDocument(workerContext, indexableItem));
+                    }
+                } catch (IOException | SQLException | SearchServiceException | RuntimeException e) {
+                    log.error("Unable to build the index document for " + indexableItem.getUniqueIndexID(), e);
+                    progress.failed(1);
+                }
+                workerContext.uncacheEntity(item);
+                if (batch.size() >= batchSize) {
+                    writeBatch(batch, progress);
+                }
+            }
+            writeBatch(batch, progress);
+        } catch (SQLException | RuntimeException e) {
+            log.error("Unable to reindex items in range " + lowerId + " - " + upperId
+                          + ", the rest of the range is skipped", e);
+            progress.failed(batch.size());
+            progress.failedRange();
+        } finally {
+            if (workerContext != null) {
+                workerContext.abort();
+            }
+        }
+    }
+
+    /**
+     * Send a batch of documents to Solr in a single request and clear the batch.
+     *
+     * @param batch    the documents to write
+     * @param progress the shared progress tracker
+     */
+    private void writeBatch(List<SolrInputDocument> batch, IndexingProgress progress) {
+        if (batch.isEmpty()) {
+            return;
+        }
+        try {
+            if (solrSearchCore.getSolr() != null) {
+                solrSearchCore.getSolr().add(batch);
+            }
+            progress.indexed(batch.size());
+        } catch (IOException | SolrServerException | RuntimeException e) {
+            log.error("Unable to write a batch of " + batch.size() + " documents to the index", e);
+            progress.failed(batch.size());
+        }
+        batch.clear();
+    }
+
+    /**
+     * Split the UUID space into the given number of contiguous ranges of (roughly) equal size, using the unsigned
+     * ordering the database applies to UUID columns.
+     *
+     * @param ranges the number of ranges
+     * @return the ranges - 1 boundaries between the ranges, in ascending order
+     */
+    protected static List<UUID> splitIdSpace(int ranges) {
+        final List<UUID> boundaries = new ArrayList<>();
+        final long step = Long.divideUnsigned(-1L, Math.max(1, ranges));
+        for (int i = 1; i < ranges; i++) {
+            boundaries.add(new UUID(step * i, 0L));
+        }
+        return boundaries;
+    }
+
+    /**
+     * Thread-safe tracker of the number of indexed and failed objects during a parallel reindex, which logs
+     * progress and throughput at a fixed interval.
+     */
+    protected static class IndexingProgress {
+        private final long interval;
+        private final long startTime = System.currentTimeMillis();
+        private final AtomicLong indexed = new AtomicLong();
+        private final AtomicLong failed = new AtomicLong();
+        private final AtomicLong failedRanges = new AtomicLong();
+
+        IndexingProgress(long interval) {
+            this.interval = Math.max(1, interval);
+        }
+
+        void indexed(int count) {
+            final long total = indexed.addAndGet(count);
+            if (total / interval != (total - count) / interval) {
+                log.info("Indexed {} items ({} items/s, {} failed)", total, getThroughput(total), failed.get());
+            }
+        }
+
+        void failed(int count) {
+            failed.addAndGet(count);
+        }
+
+        void failedRange() {
+            failedRanges.incrementAndGet();
+        }
+
+        long getIndexed() {
+            return indexed.get();
+        }
+
+        long getFailed() {
+            return failed.get();
+        }
+
+        long getFailedRanges() {
+            return failedRanges.get();
+        }
+
+        long getThroughput(long total) {
+            final long seconds = Math.max(1, (System.currentTimeMillis() - startTime) / 1000);
+            return total / seconds;
+        }
+
+        void logSummary() {
+            final long total = indexed.get();
+            log.info("Reindexed {} items in {} seconds ({} items/s), {} items failed", total,
+                     (System.currentTimeMillis() - startTime) / 1000, getThroughput(total), failed.get());
+            if (failedRanges.get() > 0) {
+                log.error("{} UUID ranges were not completely reindexed because of an error, see the errors above; "
+                              + "the index is incomplete until the next reindex", failedRanges.get());
+            }
+        }
+    }
+
     /**
      * Removes all documents from the Lucene index
      */
@@ -662,6 +662,14 @@ public class ItemIndexFactoryImpl extends DSpaceObjectIndexFactoryImpl<Indexable
         writeDocument(solrInputDocument, new FullTextContentStreams(context, indexableObject.getIndexedObject()));
     }
 
+    @Override
+    public SolrInputDocument buildCompleteDocument(Context context, IndexableItem indexableObject)
+            throws SQLException, IOException {
+        SolrInputDocument doc = buildDocument(context, indexableObject);
+        addFullText(doc, new FullTextContentStreams(context, indexableObject.getIndexedObject()));
+        return doc;
+    }
+
     @Override
     public List<String> getLocations(Context context, IndexableItem indexableDSpaceObject)
             throws SQLException {
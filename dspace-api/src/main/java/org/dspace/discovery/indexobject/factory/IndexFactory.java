@@ -58,6 +58,18 @@ public interface IndexFactory<T extends IndexableObject, S> {
     void writeDocument(Context context, T indexableObject, SolrInputDocument solrInputDocument)
             throws SQLException, IOException, SolrServerException;
 
+    /**
+     * Create the solr document exactly as {@link #writeDocument(Context, IndexableObject, SolrInputDocument)} would
+     * send it to the search core (including e.g. full text), without writing it. This allows callers to send
+     * several documents to the search core in a single request.
+     * @param context           DSpace context object
+     * @param indexableObject   the indexableObject that we want to index
+     * @return                  the complete solr document
+     * @throws SQLException     If database error
+     * @throws IOException      If IO error
+     */
+    SolrInputDocument buildCompleteDocument(Context context, T indexableObject) throws SQLException, IOException;
+
     /**
      * Remove the provided indexable object from the solr core
      * @param indexableObject       The indexable object that we want to remove from the search core
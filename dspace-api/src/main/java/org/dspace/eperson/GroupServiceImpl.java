@@ -8,7 +8,10 @@
 package org.dspace.eperson;
 
 import java.sql.SQLException;
+import java.util.ArrayDeque;
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Deque;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Iterator;
@@ -25,6 +28,7 @@ import org.apache.commons.lang3.tuple.Pair;
 import org.dspace.authorize.AuthorizeConfiguration;
 import org.dspace.authorize.AuthorizeException;
 import org.dspace.authorize.ResourcePolicy;
+import org.dspace.authorize.service.AuthorizationCacheService;
 import org.dspace.authorize.service.AuthorizeService;
 import org.dspace.authorize.service.ResourcePolicyService;
 import org.dspace.content.Collection;
@@ -88,6 +92,8 @@ public class GroupServiceImpl extends DSpaceObjectServiceImpl<Group> implements
     protected AuthorizeService authorizeService;
     @Autowired(required = true)
     protected ResourcePolicyService resourcePolicyService;
+    @Autowired(required = true)
+    protected AuthorizationCacheService authorizationCacheService;
 
     @Autowired(required = true)
     protected PoolTaskService poolTaskService;
@@ -257,6 +263,10 @@ public class GroupServiceImpl extends DSpaceObjectServiceImpl<Group> implements
         if (group == null) {
             return false;
 
+            // the shared cache holds all groups of the eperson, including anonymous and special groups
+        } else if (authorizationCacheService.isEnabledFor(context)) {
+            return authorizationCacheService.getMemberGroupIds(context, ePerson).contains(group.getID());
+
             // special, everyone is member of group 0 (anonymous)
         } else if (StringUtils.equals(group.getName(), Group.ANONYMOUS) ||
                    isParentOf(context, group, findByName(context, Group.ANONYMOUS))) {
@@ -329,36 +339,27 @@ public class GroupServiceImpl extends DSpaceObjectServiceImpl<Group> implements
             return cachedGroupMembership;
         }
 
-        Set<Group> groups = new HashSet<>();
-
-        if (ePerson != null) {
-            // two queries - first to get groups eperson is a member of
-            // second query gets parent groups for groups eperson is a member of
-            groups.addAll(groupDAO.findByEPerson(context, ePerson));
-        }
         // Also need to get all "Special Groups" user is a member of!
         // Otherwise, you're ignoring the user's membership to these groups!
         // However, we only do this is we are looking up the special groups
         // of the current user, as we cannot look up the special groups
         // of a user who is not logged in.
+        Set<UUID> groupIds = new HashSet<>();
         if ((context.getCurrentUser() == null) || (context.getCurrentUser().equals(ePerson))) {
-            List<Group> specialGroups = context.getSpecialGroups();
-            for (Group special : specialGroups) {
-                groups.add(special);
+            for (Group special : context.getSpecialGroups()) {
+                groupIds.add(special.getID());
             }
         }
 
         // all the users are members of the anonymous group
-        groups.add(findByName(context, Group.ANONYMOUS));
-
-        List<Group2GroupCache> groupCache = group2GroupCacheDAO.findByChildren(context, groups);
-        // now we have all owning groups, also grab all parents of owning groups
-        // yes, I know this could have been done as one big query and a union,
-        // but doing the Oracle port taught me to keep to simple SQL!
-        for (Group2GroupCache group2GroupCache : groupCache) {
-            groups.add(group2GroupCache.getParent());
+        Group anonymous = findByName(context, Group.ANONYMOUS);
+        if (anonymous != null) {
+            groupIds.add(anonymous.getID());
         }
 
+        // one query for the groups of the eperson, the groups above and all their parents
+        Set<Group> groups = new HashSet<>(groupDAO.findAllMemberGroups(context, ePerson, groupIds));
+
         context.cacheAllMemberGroupsSet(ePerson, groups);
         return groups;
     }
@@ -497,11 +498,17 @@ public class GroupServiceImpl extends DSpaceObjectServiceImpl<Group> implements
             ePerson.getGroups().remove(group);
         }
 
-        // empty out group2groupcache table (if we do it after we delete our object we get an issue with references)
-        group2GroupCacheDAO.deleteAll(context);
+        // remove our group2groupcache entries (if we do it after we delete our object we get an issue with
+        // references), the entries of our former ancestors are updated afterwards
+        List<Group> ancestors = new ArrayList<>();
+        for (Group2GroupCache group2GroupCache
+            : group2GroupCacheDAO.findByChildren(context, Collections.singletonList(group))) {
+            ancestors.add(group2GroupCache.getParent());
+        }
+        group2GroupCacheDAO.deleteByGroup(context, group);
         // Remove ourself
         groupDAO.delete(context, group);
-        rethinkGroupCache(context, false);
+        updateGroupCache(context, ancestors);
 
         log.info(LogHelper.getHeader(context, "delete_group", "group_id="
             + group.getID()));
@@ -592,7 +599,7 @@ public class GroupServiceImpl extends DSpaceObjectServiceImpl<Group> implements
         }
 
         if (group.isGroupsChanged()) {
-            rethinkGroupCache(context, true);
+            updateGroupCache(context, Collections.singletonList(group));
             group.clearGroupsChanged();
         }
 
@@ -673,6 +680,128 @@ public class GroupServiceImpl extends DSpaceObjectServiceImpl<Group> implements
         }
     }
 
+    /**
+     * Incrementally update the group cache AKA the group2groupcache table in the database after subgroups have been
+     * added to or removed from the given groups. Instead of rebuilding the whole table like
+     * {@link #rethinkGroupCache(Context, boolean)}, only the entries of the given groups and of their ancestors (before
+     * and after the change) are recomputed, and only the entries which actually changed are deleted or inserted.
+     * Only the group2group relations above and below the affected groups are loaded, and all queries are done in
+     * batches.
+     *
+     * @param context      The relevant DSpace Context.
+     * @param groups       the groups whose subgroups or parent groups changed
+     * @throws SQLException An exception that provides information on a database access error or other errors.
+     */
+    protected void updateGroupCache(Context context, List<Group> groups) throws SQLException {
+        if (groups.isEmpty()) {
+            return;
+        }
+
+        // the ancestors before the change are still in the cache table
+        Set<UUID> changed = new HashSet<>();
+        for (Group group : groups) {
+            changed.add(group.getID());
+        }
+        Set<UUID> affected = new HashSet<>(changed);
+        for (Group2GroupCache group2GroupCache : group2GroupCacheDAO.findByChildren(context, groups)) {
+            affected.add(group2GroupCache.getParent().getID());
+        }
+
+        // and the ancestors after the change are found by walking up the group2group relations
+        Set<UUID> ancestors = new HashSet<>();
+        Set<UUID> frontier = new HashSet<>(changed);
+        while (!frontier.isEmpty()) {
+            Set<UUID> next = new HashSet<>();
+            for (Pair<UUID, UUID> relation : groupDAO.getGroup2GroupResultsByChildren(context, frontier)) {
+                if (ancestors.add(relation.getLeft())) {
+                    next.add(relation.getLeft());
+                }
+            }
+            frontier = next;
+        }
+        affected.addAll(ancestors);
+
+        // load the relations below the affected groups, one level at a time
+        Map<UUID, Set<UUID>> children = new HashMap<>();
+        Set<UUID> visited = new HashSet<>(affected);
+        frontier = new HashSet<>(affected);
+        while (!frontier.isEmpty()) {
+            Set<UUID> next = new HashSet<>();
+            for (Pair<UUID, UUID> relation : groupDAO.getGroup2GroupResultsByParents(context, frontier)) {
+                children.computeIfAbsent(relation.getLeft(), id -> new HashSet<>()).add(relation.getRight());
+                if (visited.add(relation.getRight())) {
+                    next.add(relation.getRight());
+                }
+            }
+            frontier = next;
+        }
+
+        // the cache entries each affected group should have
+        Map<UUID, Set<UUID>> missing = new HashMap<>();
+        for (UUID parent : affected) {
+            missing.put(parent, getReachableGroups(children, parent));
+        }
+
+        // keep the entries which are still valid, delete the others
+        for (Group2GroupCache group2GroupCache : group2GroupCacheDAO.findByParentIds(context, affected)) {
+            Set<UUID> descendants = missing.get(group2GroupCache.getParent().getID());
+            if (descendants == null || !descendants.remove(group2GroupCache.getChild().getID())) {
+                group2GroupCacheDAO.delete(context, group2GroupCache);
+            }
+        }
+
+        // write out the new ones, loading the groups involved in batches
+        Set<UUID> involved = new HashSet<>();
+        for (Map.Entry<UUID, Set<UUID>> parent : missing.entrySet()) {
+            if (!parent.getValue().isEmpty()) {
+                involved.add(parent.getKey());
+                involved.addAll(parent.getValue());
+            }
+        }
+        if (involved.isEmpty()) {
+            return;
+        }
+        Map<UUID, Group> groupsById = new HashMap<>();
+        for (Group group : groupDAO.findByIds(context, involved)) {
+            groupsById.put(group.getID(), group);
+        }
+        for (Map.Entry<UUID, Set<UUID>> parent : missing.entrySet()) {
+            Group parentGroup = groupsById.get(parent.getKey());
+            if (parentGroup == null) {
+                continue;
+            }
+            for (UUID child : parent.getValue()) {
+                Group childGroup = groupsById.get(child);
+                if (childGroup != null) {
+                    Group2GroupCache group2GroupCache = group2GroupCacheDAO.create(context, new Group2GroupCache());
+                    group2GroupCache.setParent(parentGroup);
+                    group2GroupCache.setChild(childGroup);
+                    group2GroupCacheDAO.save(context, group2GroupCache);
+                }
+            }
+        }
+    }
+
+    /**
+     * Find all groups reachable from a group in a map of direct relations, e.g. all descendants when given a map of
+     * the children of each group, or all ancestors when given a map of the parents of each group.
+     *
+     * @param relations the direct relations, by group ID
+     * @param groupId   the group to start from
+     * @return the IDs of all reachable groups
+     */
+    protected Set<UUID> getReachableGroups(Map<UUID, Set<UUID>> relations, UUID groupId) {
+        Set<UUID> reachable = new HashSet<>();
+        Deque<UUID> queue = new ArrayDeque<>(relations.getOrDefault(groupId, Collections.emptySet()));
+        while (!queue.isEmpty()) {
+            UUID next = queue.poll();
+            if (reachable.add(next)) {
+                queue.addAll(relations.getOrDefault(next, Collections.emptySet()));
+            }
+        }
+        return reachable;
+    }
+
     @Override
     public DSpaceObject getParentObject(Context context, Group group) throws SQLException {
         if (group == null) {
@@ -8,7 +8,9 @@
 package org.dspace.eperson.dao;
 
 import java.sql.SQLException;
+import java.util.Collection;
 import java.util.List;
+import java.util.UUID;
 
 import org.dspace.core.Context;
 import org.dspace.core.GenericDAO;
@@ -29,9 +31,28 @@ public interface Group2GroupCacheDAO extends GenericDAO<Group2GroupCache> {
 
     public List<Group2GroupCache> findByChildren(Context context, Iterable<Group> groups) throws SQLException;
 
+    /**
+     * Find the cache entries of all descendants of the given parent groups
+     *
+     * @param context   The DSpace context
+     * @param parentIds The IDs of the parent groups
+     * @return the cache entries having one of the given groups as parent
+     * @throws SQLException if database error
+     */
+    public List<Group2GroupCache> findByParentIds(Context context, Collection<UUID> parentIds) throws SQLException;
+
     public Group2GroupCache findByParentAndChild(Context context, Group parent, Group child) throws SQLException;
 
     public Group2GroupCache find(Context context, Group parent, Group child) throws SQLException;
 
     public void deleteAll(Context context) throws SQLException;
+
+    /**
+     * Delete all cache entries having the given group as parent or as child
+     *
+     * @param context The DSpace context
+     * @param group   The group
+     * @throws SQLException if database error
+     */
+    public void deleteByGroup(Context context, Group group) throws SQLException;
 }
@@ -8,6 +8,7 @@
 package org.dspace.eperson.dao;
 
 import java.sql.SQLException;
+import java.util.Collection;
 import java.util.List;
 import java.util.UUID;
 
@@ -75,6 +76,18 @@ public interface GroupDAO extends DSpaceObjectDAO<Group>, DSpaceObjectLegacySupp
      */
     List<Group> findByEPerson(Context context, EPerson ePerson) throws SQLException;
 
+    /**
+     * Find, with a single query, all groups the given EPerson is a direct member of, the given groups, and all
+     * parent groups of both (according to the group2groupcache table)
+     *
+     * @param context  The DSpace context
+     * @param ePerson  The EPerson to match, may be null
+     * @param groupIds The IDs of other groups to include with their parents (e.g. anonymous and special groups)
+     * @return A list of all matching groups, without duplicates
+     * @throws SQLException if database error
+     */
+    List<Group> findAllMemberGroups(Context context, EPerson ePerson, Collection<UUID> groupIds) throws SQLException;
+
     /**
      * Get a list of all direct parent - child group relations in the database
      *
@@ -85,6 +98,38 @@ public interface GroupDAO extends DSpaceObjectDAO<Group>, DSpaceObjectLegacySupp
      */
     List<Pair<UUID, UUID>> getGroup2GroupResults(Context context, boolean flushQueries) throws SQLException;
 
+    /**
+     * Get the direct parent - child group relations having one of the given groups as parent
+     *
+     * @param context   The DSpace context
+     * @param parentIds The IDs of the parent groups
+     * @return A list of pairs indicating parent - child
+     * @throws SQLException if database error
+     */
+    List<Pair<UUID, UUID>> getGroup2GroupResultsByParents(Context context, Collection<UUID> parentIds)
+        throws SQLException;
+
+    /**
+     * Get the direct parent - child group relations having one of the given groups as child
+     *
+     * @param context  The DSpace context
+     * @param childIds The IDs of the child groups
+     * @return A list of pairs indicating parent - child
+     * @throws SQLException if database error
+     */
+    List<Pair<UUID, UUID>> getGroup2GroupResultsByChildren(Context context, Collection<UUID> childIds)
+        throws SQLException;
+
+    /**
+     * Find the groups with the given IDs, with one query per thousand IDs
+     *
+     * @param context The DSpace context
+     * @param ids     The IDs of the groups
+     * @return the groups found, in no particular order
+     * @throws SQLException if database error
+     */
+    List<Group> findByIds(Context context, Collection<UUID> ids) throws SQLException;
+
     /**
      * Return all empty groups
      *
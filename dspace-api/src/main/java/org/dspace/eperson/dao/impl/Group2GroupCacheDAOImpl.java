@@ -8,14 +8,18 @@
 package org.dspace.eperson.dao.impl;
 
 import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Collection;
 import java.util.LinkedList;
 import java.util.List;
+import java.util.UUID;
 import javax.persistence.Query;
 import javax.persistence.criteria.CriteriaBuilder;
 import javax.persistence.criteria.CriteriaQuery;
 import javax.persistence.criteria.Predicate;
 import javax.persistence.criteria.Root;
 
+import com.google.common.collect.Lists;
 import org.dspace.core.AbstractHibernateDAO;
 import org.dspace.core.Context;
 import org.dspace.eperson.Group;
@@ -31,6 +35,12 @@ import org.dspace.eperson.dao.Group2GroupCacheDAO;
  * @author kevinvandevelde at atmire.com
  */
 public class Group2GroupCacheDAOImpl extends AbstractHibernateDAO<Group2GroupCache> implements Group2GroupCacheDAO {
+
+    /**
+     * Maximum number of parent IDs passed to a single query by {@link #findByParentIds(Context, Collection)}
+     */
+    protected static final int IN_CLAUSE_SIZE = 1000;
+
     protected Group2GroupCacheDAOImpl() {
         super();
     }
@@ -60,6 +70,17 @@ public class Group2GroupCacheDAOImpl extends AbstractHibernateDAO<Group2GroupCac
         return list(context, criteriaQuery, true, Group2GroupCache.class, -1, -1);
     }
 
+    @Override
+    public List<Group2GroupCache> findByParentIds(Context context, Collection<UUID> parentIds) throws SQLException {
+        List<Group2GroupCache> results = new LinkedList<>();
+        for (List<UUID> chunk : Lists.partition(new ArrayList<>(parentIds), IN_CLAUSE_SIZE)) {
+            Query query = createQuery(context, "FROM Group2GroupCache g WHERE g.parent.id IN (:parentIds)");
+            query.setParameter("parentIds", chunk);
+            results.addAll(list(query));
+        }
+        return results;
+    }
+
     @Override
     public Group2GroupCache findByParentAndChild(Context context, Group parent, Group child) throws SQLException {
         Query query = createQuery(context,
@@ -90,4 +111,11 @@ public class Group2GroupCacheDAOImpl extends AbstractHibernateDAO<Group2GroupCac
     public void deleteAll(Context context) throws SQLException {
         createQuery(context, "delete from Group2GroupCache").executeUpdate();
     }
+
+    @Override
+    public void deleteByGroup(Context context, Group group) throws SQLException {
+        Query query = createQuery(context, "delete from Group2GroupCache where parent = :group or child = :group");
+        query.setParameter("group", group);
+        query.executeUpdate();
+    }
 }
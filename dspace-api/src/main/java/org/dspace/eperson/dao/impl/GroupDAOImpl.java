@@ -8,11 +8,14 @@
 package org.dspace.eperson.dao.impl;
 
 import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Collection;
 import java.util.Collections;
 import java.util.List;
 import java.util.UUID;
 import javax.persistence.Query;
 
+import com.google.common.collect.Lists;
 import org.apache.commons.lang3.StringUtils;
 import org.apache.commons.lang3.tuple.Pair;
 import org.dspace.content.MetadataField;
@@ -99,6 +102,43 @@ public class GroupDAOImpl extends AbstractHibernateDSODAO<Group> implements Grou
         return list(query);
     }
 
+    @Override
+    public List<Group> findAllMemberGroups(Context context, EPerson ePerson, Collection<UUID> groupIds)
+        throws SQLException {
+        boolean hasGroups = groupIds != null && !groupIds.isEmpty();
+        if (ePerson == null && !hasGroups) {
+            return Collections.emptyList();
+        }
+
+        // the same condition applies to the groups themselves and to the children of their parents in the cache
+        StringBuilder memberCondition = new StringBuilder();
+        if (ePerson != null) {
+            memberCondition.append("p.id = :eperson_id");
+        }
+        if (hasGroups) {
+            memberCondition.append(ePerson != null ? " OR " : "").append("m.id IN (:group_ids)");
+        }
+        Query query = createQuery(context,
+                                  "SELECT DISTINCT g FROM Group g " +
+                                      "WHERE EXISTS ( " +
+                                      "SELECT 1 FROM Group m LEFT JOIN m.epeople p " +
+                                      "WHERE m.id = g.id AND (" + memberCondition + ") " +
+                                      ") OR EXISTS ( " +
+                                      "SELECT 1 FROM Group2GroupCache gc " +
+                                      "JOIN gc.parent parent " +
+                                      "JOIN gc.child m " +
+                                      "LEFT JOIN m.epeople p " +
+                                      "WHERE parent.id = g.id AND (" + memberCondition + ") " +
+                                      ")");
+        if (ePerson != null) {
+            query.setParameter("eperson_id", ePerson.getID());
+        }
+        if (hasGroups) {
+            query.setParameter("group_ids", groupIds);
+        }
+        return list(query);
+    }
+
     @Override
     public Group findByName(final Context context, final String name) throws SQLException {
         Query query = createQuery(context,
@@ -186,6 +226,50 @@ public class GroupDAOImpl extends AbstractHibernateDSODAO<Group> implements Grou
         return results;
     }
 
+    @Override
+    public List<Pair<UUID, UUID>> getGroup2GroupResultsByParents(Context context, Collection<UUID> parentIds)
+        throws SQLException {
+        return getGroup2GroupResults(context, "g.id", parentIds);
+    }
+
+    @Override
+    public List<Pair<UUID, UUID>> getGroup2GroupResultsByChildren(Context context, Collection<UUID> childIds)
+        throws SQLException {
+        return getGroup2GroupResults(context, "c.id", childIds);
+    }
+
+    /**
+     * Get the direct parent - child group relations where the given side of the relation is one of the given IDs,
+     * with one query per {@link #FETCH_SIZE} IDs
+     */
+    protected List<Pair<UUID, UUID>> getGroup2GroupResults(Context context, String column, Collection<UUID> ids)
+        throws SQLException {
+        List<Pair<UUID, UUID>> results = new ArrayList<>();
+        for (List<UUID> chunk : Lists.partition(new ArrayList<>(ids), FETCH_SIZE)) {
+            Query query = createQuery(context, "SELECT new org.apache.commons.lang3.tuple.ImmutablePair(g.id, c.id) " +
+                "FROM Group g " +
+                "JOIN g.groups c " +
+                "WHERE " + column + " IN (:ids)");
+            query.setParameter("ids", chunk);
+
+            @SuppressWarnings("unchecked")
+            List<Pair<UUID, UUID>> chunkResults = query.getResultList();
+            results.addAll(chunkResults);
+        }
+        return results;
+    }
+
+    @Override
+    public List<Group> findByIds(Context context, Collection<UUID> ids) throws SQLException {
+        List<Group> groups = new ArrayList<>();
+        for (List<UUID> chunk : Lists.partition(new ArrayList<>(ids), FETCH_SIZE)) {
+            Query query = createQuery(context, "SELECT g FROM Group g WHERE g.id IN (:ids)");
+            query.setParameter("ids", chunk);
+            groups.addAll(list(query));
+        }
+        return groups;
+    }
+
     @Override
     public List<Group> getEmptyGroups(Context context) throws SQLException {
         return list(createQuery(context, "SELECT g from Group g where g.epeople is EMPTY"));
@@ -8,6 +8,7 @@
 package org.dspace.event;
 
 import java.util.Iterator;
+import java.util.concurrent.TimeUnit;
 
 import org.apache.logging.log4j.Logger;
 import org.dspace.core.Context;
@@ -26,6 +27,11 @@ public class BasicDispatcher extends Dispatcher {
         super(name);
     }
 
+    /**
+     * Duration from which a call of {@link Consumer#end} is logged as slow
+     */
+    protected static final long SLOW_CONSUMER_MILLIS = 5000;
+
     /**
      * log4j category
      */
@@ -100,16 +106,7 @@ public class BasicDispatcher extends Dispatcher {
                                           + "\": " + event.toString());
                         }
 
-                        try {
-                            cp.getConsumer().consume(ctx, event);
-
-                            // Record that the event has been consumed by this
-                            // consumer
-                            event.setBitSet(cp.getName());
-                        } catch (Exception e) {
-                            log.error("Consumer(\"" + cp.getName()
-                                          + "\").consume threw: " + e.toString(), e);
-                        }
+                        consume(ctx, cp, event);
                     }
 
                 }
@@ -124,15 +121,64 @@ public class BasicDispatcher extends Dispatcher {
                                       + "\"");
                     }
 
-                    try {
-                        cp.getConsumer().end(ctx);
-                    } catch (Exception e) {
-                        log.error("Error in Consumer(\"" + cp.getName()
-                                      + "\").end: " + e.toString(), e);
-                    }
+                    end(ctx, cp);
                 }
             }
         }
     }
 
+    /**
+     * Send an event to a consumer. Exceptions are logged and don't prevent the other consumers from getting the
+     * event.
+     *
+     * @param ctx   the execution context
+     * @param cp    the consumer profile
+     * @param event the event, which passed the filters of the consumer
+     */
+    protected void consume(Context ctx, ConsumerProfile cp, Event event) {
+        long start = System.nanoTime();
+        boolean failed = false;
+        try {
+            cp.getConsumer().consume(ctx, event);
+
+            // Record that the event has been consumed by this
+            // consumer
+            event.setBitSet(cp.getName());
+        } catch (Exception e) {
+            failed = true;
+            log.error("Consumer(\"" + cp.getName()
+                          + "\").consume threw: " + e.toString(), e);
+        } finally {
+            ConsumerStatistics.get(cp.getName()).recordConsume(System.nanoTime() - start, failed);
+        }
+    }
+
+    /**
+     * Signal the end of the events of this dispatch to a consumer. Exceptions are logged and don't prevent the
+     * other consumers from ending. Slow consumers are logged, as they delay every commit (see
+     * {@link ThreadedDispatcher} to run them asynchronously).
+     *
+     * @param ctx the execution context
+     * @param cp  the consumer profile
+     */
+    protected void end(Context ctx, ConsumerProfile cp) {
+        long start = System.nanoTime();
+        boolean failed = false;
+        try {
+            cp.getConsumer().end(ctx);
+        } catch (Exception e) {
+            failed = true;
+            log.error("Error in Consumer(\"" + cp.getName()
+                          + "\").end: " + e.toString(), e);
+        } finally {
+            long nanos = System.nanoTime() - start;
+            ConsumerStatistics statistics = ConsumerStatistics.get(cp.getName());
+            statistics.recordEnd(nanos, failed);
+            if (TimeUnit.NANOSECONDS.toMillis(nanos) >= SLOW_CONSUMER_MILLIS) {
+                log.warn("Consumer(\"" + cp.getName() + "\").end took " + TimeUnit.NANOSECONDS.toMillis(nanos)
+                             + "ms; " + statistics);
+            }
+        }
+    }
+
 }
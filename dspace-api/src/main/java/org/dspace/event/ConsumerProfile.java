@@ -43,6 +43,11 @@ public class ConsumerProfile {
      */
     private List<int[]> filters;
 
+    /**
+     * Whether the consumer may be run asynchronously, after the commit and in its own thread
+     */
+    private boolean asynchronous;
+
     // Prefix of keys in DSpace Configuration.
     private static final String CONSUMER_PREFIX = "event.consumer.";
 
@@ -108,6 +113,8 @@ public class ConsumerProfile {
                 .asSubclass(Consumer.class)
                 .getDeclaredConstructor().newInstance();
 
+        asynchronous = configurationService.getBooleanProperty(CONSUMER_PREFIX + name + ".async", false);
+
         // Each "filter" is <objectTypes> + <eventTypes> : ...
         filters = new ArrayList<>();
         String part[] = filterString.trim().split(":");
@@ -163,4 +170,15 @@ public class ConsumerProfile {
     public String getName() {
         return name;
     }
+
+    /**
+     * Whether the consumer is marked as safe to run asynchronously (event.consumer.&lt;name&gt;.async), i.e. it only
+     * needs committed data, works with its own Context and doesn't have to finish before the commit returns. Only
+     * dispatchers supporting it (see {@link ThreadedDispatcher}) run such consumers asynchronously.
+     *
+     * @return true if the consumer may be run asynchronously
+     */
+    public boolean isAsynchronous() {
+        return asynchronous;
+    }
 }
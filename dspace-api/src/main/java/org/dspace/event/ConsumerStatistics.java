@@ -0,0 +1,121 @@
+/**
+ * The contents of this file are subject to the license and copyright
+ * detailed in the LICENSE and NOTICE files at the root of the source
+ * tree and available online at
+ *
+ * http://www.dspace.org/license/
+ */
+package org.dspace.event;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Execution statistics of an event consumer, shared by all dispatchers and threads running consumers with the same
+ * configured name: number of events consumed, number of batches ended, failures, and time spent in
+ * {@link Consumer#consume} and {@link Consumer#end}.
+ */
+public class ConsumerStatistics {
+
+    private static final ConcurrentMap<String, ConsumerStatistics> STATISTICS = new ConcurrentHashMap<>();
+
+    private final String name;
+    private final LongAdder events = new LongAdder();
+    private final LongAdder batches = new LongAdder();
+    private final LongAdder failures = new LongAdder();
+    private final LongAdder consumeNanos = new LongAdder();
+    private final LongAdder endNanos = new LongAdder();
+    private final LongAccumulator maxEndNanos = new LongAccumulator(Long::max, 0);
+
+    protected ConsumerStatistics(String name) {
+        this.name = name;
+    }
+
+    /**
+     * Get the statistics of a consumer
+     *
+     * @param name the configured name of the consumer
+     * @return the statistics, created on first use
+     */
+    public static ConsumerStatistics get(String name) {
+        return STATISTICS.computeIfAbsent(name, ConsumerStatistics::new);
+    }
+
+    /**
+     * @return the statistics of all consumers which have been run since startup
+     */
+    public static Collection<ConsumerStatistics> getAll() {
+        return new ArrayList<>(STATISTICS.values());
+    }
+
+    /**
+     * Record a call of {@link Consumer#consume}
+     *
+     * @param nanos  the duration of the call
+     * @param failed whether the call threw an exception
+     */
+    public void recordConsume(long nanos, boolean failed) {
+        events.increment();
+        consumeNanos.add(nanos);
+        if (failed) {
+            failures.increment();
+        }
+    }
+
+    /**
+     * Record a call of {@link Consumer#end}
+     *
+     * @param nanos  the duration of the call
+     * @param failed whether the call threw an exception
+     */
+    public void recordEnd(long nanos, boolean failed) {
+        batches.increment();
+        endNanos.add(nanos);
+        maxEndNanos.accumulate(nanos);
+        if (failed) {
+            failures.increment();
+        }
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public long getEvents() {
+        return events.sum();
+    }
+
+    public long getBatches() {
+        return batches.sum();
+    }
+
+    public long getFailures() {
+        return failures.sum();
+    }
+
+    /**
+     * @return the total time spent consuming events and ending batches, in milliseconds
+     */
+    public long getTotalTime() {
+        return TimeUnit.NANOSECONDS.toMillis(consumeNanos.sum() + endNanos.sum());
+    }
+
+    /**
+     * @return the longest time spent ending a batch, in milliseconds
+     */
+    public long getMaxEndTime() {
+        return TimeUnit.NANOSECONDS.toMillis(maxEndNanos.get());
+    }
+
+    @Override
+    public String toString() {
+        return "Consumer(\"" + name + "\"): events=" + getEvents() + ", batches=" + getBatches()
+            + ", failures=" + getFailures() + ", totalTime=" + getTotalTime() + "ms, maxEndTime="
+            + getMaxEndTime() + "ms";
+    }
+}
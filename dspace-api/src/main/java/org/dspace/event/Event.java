@@ -217,7 +217,11 @@ public class Event implements Serializable {
      */
     private String extraLogInfo = null;
 
-    private BitSet consumedBy = new BitSet();
+    /**
+     * Consumers which have consumed this event. Guarded by itself, as asynchronous consumers (see
+     * {@link ThreadedDispatcher}) record their consumption from their own threads.
+     */
+    private final BitSet consumedBy = new BitSet();
 
     /**
      * log4j category
@@ -620,14 +624,19 @@ public class Event implements Serializable {
      * @param consumerName name of consumer which has consumed the event
      */
     public void setBitSet(String consumerName) {
-        consumedBy.set(EventServiceFactory.getInstance().getEventService().getConsumerIndex(consumerName));
+        int index = EventServiceFactory.getInstance().getEventService().getConsumerIndex(consumerName);
+        synchronized (consumedBy) {
+            consumedBy.set(index);
+        }
     }
 
     /**
-     * @return the set of consumers which have consumed this Event.
+     * @return a copy of the set of consumers which have consumed this Event.
      */
     public BitSet getBitSet() {
-        return consumedBy;
+        synchronized (consumedBy) {
+            return (BitSet) consumedBy.clone();
+        }
     }
 
     /**
@@ -13,6 +13,7 @@ import java.util.HashMap;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
+import javax.annotation.PreDestroy;
 
 import org.apache.commons.lang3.ArrayUtils;
 import org.apache.commons.pool2.KeyedObjectPool;
@@ -94,6 +95,16 @@ public class EventServiceImpl implements EventService {
         }
     }
 
+    /**
+     * Log the execution statistics of the event consumers at shutdown
+     */
+    @PreDestroy
+    public void destroy() {
+        for (ConsumerStatistics statistics : ConsumerStatistics.getAll()) {
+            log.info(statistics);
+        }
+    }
+
     @Override
     public Dispatcher getDispatcher(String name) {
         if (dispatcherPool == null) {
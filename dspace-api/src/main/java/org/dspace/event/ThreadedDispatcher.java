@@ -0,0 +1,240 @@
+/**
+ * The contents of this file are subject to the license and copyright
+ * detailed in the LICENSE and NOTICE files at the root of the source
+ * tree and available online at
+ *
+ * http://www.dspace.org/license/
+ */
+package org.dspace.event;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.apache.commons.lang3.concurrent.BasicThreadFactory;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.dspace.core.Context;
+
+/**
+ * ThreadedDispatcher runs the consumers marked as asynchronous (event.consumer.&lt;name&gt;.async = true) outside of
+ * the committing thread, so that a slow consumer (e.g. the RDF conversion) doesn't delay every commit. The other
+ * consumers are run synchronously, like by the {@link BasicDispatcher}: they share the transaction and the
+ * Hibernate session of the committing Context, which can't be used by several threads at once.
+ * <p>
+ * The events of an asynchronous consumer are handed over once the transaction has been committed (they are
+ * discarded if it is aborted), and processed by a single worker thread per consumer, using its own instance of the
+ * consumer and a new Context for each batch of events. Therefore:
+ * <ul>
+ * <li>asynchronous consumers run concurrently with each other and with the committing thread;</li>
+ * <li>the events of a consumer, and so all events of an object, are processed in the order they were handed
+ * over;</li>
+ * <li>a failing or slow consumer doesn't affect the others.</li>
+ * </ul>
+ * The time spent in each consumer is recorded in the {@link ConsumerStatistics}. Events still queued when the JVM
+ * shuts down are processed for at most {@link #SHUTDOWN_TIMEOUT_SECONDS} seconds.
+ */
+public class ThreadedDispatcher extends BasicDispatcher {
+
+    private static final Logger log = LogManager.getLogger(ThreadedDispatcher.class);
+
+    /**
+     * Maximum time to wait for the queued events at shutdown
+     */
+    protected static final long SHUTDOWN_TIMEOUT_SECONDS = 30;
+
+    /**
+     * Workers by consumer name, shared by all dispatcher instances so that events are processed in order
+     */
+    private static final ConcurrentMap<String, ConsumerWorker> workers = new ConcurrentHashMap<>();
+
+    static {
+        Runtime.getRuntime().addShutdownHook(new Thread(ThreadedDispatcher::shutdownWorkers,
+                                                        "event-workers-shutdown"));
+    }
+
+    /**
+     * Events of the current dispatch, by asynchronous consumer name
+     */
+    private final Map<String, List<Event>> pendingEvents = new HashMap<>();
+
+    public ThreadedDispatcher(String name) {
+        super(name);
+    }
+
+    @Override
+    protected void consume(Context ctx, ConsumerProfile cp, Event event) {
+        if (cp.isAsynchronous()) {
+            pendingEvents.computeIfAbsent(cp.getName(), consumerName -> new ArrayList<>()).add(event);
+        } else {
+            super.consume(ctx, cp, event);
+        }
+    }
+
+    @Override
+    protected void end(Context ctx, ConsumerProfile cp) {
+        if (!cp.isAsynchronous()) {
+            super.end(ctx, cp);
+            return;
+        }
+
+        List<Event> events = pendingEvents.remove(cp.getName());
+        if (events == null) {
+            return;
+        }
+        ConsumerWorker worker;
+        try {
+            worker = getWorker(cp.getName());
+        } catch (RuntimeException e) {
+            log.error("Unable to run Consumer(\"" + cp.getName() + "\") asynchronously, running it synchronously", e);
+            for (Event event : events) {
+                super.consume(ctx, cp, event);
+            }
+            super.end(ctx, cp);
+            return;
+        }
+        ctx.addAfterCommitTask(() -> worker.submit(events));
+    }
+
+    /**
+     * Get the worker of an asynchronous consumer, creating it on first use
+     *
+     * @param consumerName the configured name of the consumer
+     * @return the worker
+     * @throws IllegalStateException if the consumer can't be created
+     */
+    protected ConsumerWorker getWorker(String consumerName) {
+        return workers.computeIfAbsent(consumerName, name -> {
+            try {
+                ConsumerProfile profile = ConsumerProfile.makeConsumerProfile(name);
+                profile.getConsumer().initialize();
+                return new ConsumerWorker(profile);
+            } catch (Exception e) {
+                throw new IllegalStateException("Unable to create asynchronous consumer " + name, e);
+            }
+        });
+    }
+
+    /**
+     * @return the number of batches of events waiting to be processed, by asynchronous consumer name
+     */
+    public static Map<String, Integer> getQueueSizes() {
+        Map<String, Integer> queueSizes = new LinkedHashMap<>();
+        for (Map.Entry<String, ConsumerWorker> worker : workers.entrySet()) {
+            queueSizes.put(worker.getKey(), worker.getValue().getQueueSize());
+        }
+        return queueSizes;
+    }
+
+    private static void shutdownWorkers() {
+        for (ConsumerWorker worker : workers.values()) {
+            worker.shutdown();
+        }
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(SHUTDOWN_TIMEOUT_SECONDS);
+        for (ConsumerWorker worker : workers.values()) {
+            long remaining = deadline - System.nanoTime();
+            if (remaining <= 0 || !worker.awaitTermination(remaining)) {
+                log.warn("Asynchronous Consumer(\"" + worker.getName() + "\") still had "
+                             + worker.getQueueSize() + " batches of events to process at shutdown");
+            }
+        }
+    }
+
+    /**
+     * Processes the events of one asynchronous consumer in a single thread, with its own instance of the consumer
+     * and a new Context for each batch of events
+     */
+    protected static class ConsumerWorker {
+
+        private final ConsumerProfile profile;
+        private final BasicDispatcher dispatcher;
+        private final ExecutorService executor;
+        private final AtomicInteger queueSize = new AtomicInteger();
+
+        protected ConsumerWorker(ConsumerProfile profile) {
+            this.profile = profile;
+            // consumes the events with the same error handling and statistics as a synchronous dispatch
+            this.dispatcher = new BasicDispatcher(profile.getName() + "-async");
+            this.executor = Executors.newSingleThreadExecutor(
+                new BasicThreadFactory.Builder().namingPattern("event-" + profile.getName() + "-%d")
+                                                .daemon(true).build());
+        }
+
+        public String getName() {
+            return profile.getName();
+        }
+
+        public int getQueueSize() {
+            return queueSize.get();
+        }
+
+        /**
+         * Queue a batch of committed events
+         *
+         * @param events the events, in the order they were created
+         */
+        public void submit(List<Event> events) {
+            queueSize.incrementAndGet();
+            try {
+                executor.execute(() -> {
+                    try {
+                        process(events);
+                    } finally {
+                        queueSize.decrementAndGet();
+                    }
+                });
+            } catch (RuntimeException e) {
+                queueSize.decrementAndGet();
+                log.error("Unable to queue " + events.size() + " events for asynchronous Consumer(\""
+                              + getName() + "\")", e);
+            }
+        }
+
+        protected void process(List<Event> events) {
+            Context context = null;
+            try {
+                context = createContext();
+                for (Event event : events) {
+                    dispatcher.consume(context, profile, event);
+                }
+                dispatcher.end(context, profile);
+                context.complete();
+            } catch (Exception e) {
+                log.error("Asynchronous Consumer(\"" + getName() + "\") failed to process " + events.size()
+                              + " events", e);
+            } finally {
+                if (context != null && context.isValid()) {
+                    context.abort();
+                }
+            }
+        }
+
+        /**
+         * @return a new Context for a batch of events
+         */
+        protected Context createContext() {
+            return new Context();
+        }
+
+        protected void shutdown() {
+            executor.shutdown();
+        }
+
+        protected boolean awaitTermination(long nanos) {
+            try {
+                return executor.awaitTermination(nanos, TimeUnit.NANOSECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return false;
+            }
+        }
+    }
+}
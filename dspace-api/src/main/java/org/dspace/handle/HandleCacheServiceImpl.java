@@ -0,0 +1,275 @@
+/**
+ * The contents of this file are subject to the license and copyright
+ * detailed in the LICENSE and NOTICE files at the root of the source
+ * tree and available online at
+ *
+ * http://www.dspace.org/license/
+ */
+package org.dspace.handle;
+
+import java.sql.SQLException;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.UUID;
+import java.util.WeakHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Stream;
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.CacheStats;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.dspace.core.Context;
+import org.dspace.handle.dao.HandleDAO;
+import org.dspace.handle.service.HandleCacheService;
+import org.dspace.kernel.ServiceManager;
+import org.dspace.kernel.mixins.ServiceManagerReadyAware;
+import org.dspace.services.ConfigurationService;
+import org.springframework.beans.factory.annotation.Autowired;
+
+/**
+ * Default implementation of the {@link HandleCacheService}, using two Guava caches (handles to their targets, and
+ * objects to their handle) bounded by handle.cache.max entries each, whose entries expire handle.cache.ttl seconds
+ * after they were stored. Entries looked up while a change was being committed are not stored, as they may have been
+ * looked up before the change.
+ * <p>
+ * The targets are held as primitives (see {@link HandleTarget}), while Guava takes care of the bound, the expiry and
+ * the statistics of the entries. The handles are preloaded once all the services are started, and the statistics
+ * are logged at shutdown.
+ */
+public class HandleCacheServiceImpl implements HandleCacheService, ServiceManagerReadyAware {
+
+    private static final Logger log = LogManager.getLogger(HandleCacheServiceImpl.class);
+
+    // stored for objects without handle
+    private static final String NO_HANDLE = "";
+
+    @Autowired(required = true)
+    protected ConfigurationService configurationService;
+    @Autowired(required = true)
+    protected HandleDAO handleDAO;
+
+    private boolean enabled = false;
+    private long maxEntries;
+    private Cache<String, HandleTarget> targets;
+    private Cache<UUID, String> handles;
+
+    // incremented on every invalidation, to detect entries looked up meanwhile
+    private final AtomicLong invalidations = new AtomicLong();
+
+    // contexts of the current thread with uncommitted handle changes
+    private final ThreadLocal<Map<Context, Boolean>> changes = ThreadLocal.withInitial(WeakHashMap::new);
+
+    @PostConstruct
+    public void init() {
+        enabled = configurationService.getBooleanProperty("handle.cache.enabled", false);
+        long ttl = configurationService.getLongProperty("handle.cache.ttl", 3600);
+        maxEntries = configurationService.getLongProperty("handle.cache.max", 1000000);
+
+        targets = CacheBuilder.newBuilder().maximumSize(maxEntries)
+                              .expireAfterWrite(ttl, TimeUnit.SECONDS)
+                              .recordStats().build();
+        handles = CacheBuilder.newBuilder().maximumSize(maxEntries)
+                              .expireAfterWrite(ttl, TimeUnit.SECONDS)
+                              .recordStats().build();
+        if (enabled) {
+            log.info("Handle cache enabled for {} handles, ttl {}s", maxEntries, ttl);
+        }
+    }
+
+    /**
+     * Preload the handles in the background, once the services needed to read the database are started
+     */
+    @Override
+    public void serviceManagerReady(ServiceManager serviceManager) {
+        if (enabled && configurationService.getBooleanProperty("handle.cache.preload", false)) {
+            Thread preloader = new Thread(this::preloadInBackground, "handle-cache-preload");
+            preloader.setDaemon(true);
+            preloader.start();
+        }
+    }
+
+    /**
+     * Log the statistics of the cache at shutdown
+     */
+    @PreDestroy
+    public void destroy() {
+        if (enabled) {
+            log.info("Handle cache statistics: {}", getStatistics());
+        }
+    }
+
+    @Override
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    @Override
+    public HandleTarget resolve(Context context, String handle, Loader<Handle> loader) throws SQLException {
+        if (!enabled || handle == null || hasChanges()) {
+            return toTarget(loader.load());
+        }
+
+        HandleTarget target = targets.getIfPresent(handle);
+        if (target != null) {
+            return target;
+        }
+
+        long invalidation = invalidations.get();
+        target = toTarget(loader.load());
+        if (target != null) {
+            targets.put(handle, target);
+            if (invalidations.get() != invalidation) {
+                targets.invalidate(handle);
+            }
+        }
+        return target;
+    }
+
+    @Override
+    public String findHandle(Context context, UUID dsoId, Loader<String> loader) throws SQLException {
+        if (!enabled || dsoId == null || hasChanges()) {
+            return loader.load();
+        }
+
+        String handle = handles.getIfPresent(dsoId);
+        if (handle != null) {
+            return NO_HANDLE.equals(handle) ? null : handle;
+        }
+
+        long invalidation = invalidations.get();
+        handle = loader.load();
+        handles.put(dsoId, handle == null ? NO_HANDLE : handle);
+        if (invalidations.get() != invalidation) {
+            handles.invalidate(dsoId);
+        }
+        return handle;
+    }
+
+    @Override
+    public void invalidateOnCommit(Context context, String handle, UUID dsoId) {
+        if (!enabled) {
+            return;
+        }
+        invalidate(handle, dsoId);
+        addChanges(context, () -> invalidate(handle, dsoId));
+    }
+
+    @Override
+    public void invalidateAllOnCommit(Context context) {
+        if (!enabled) {
+            return;
+        }
+        invalidateAll();
+        addChanges(context, this::invalidateAll);
+    }
+
+    @Override
+    public void invalidateAll() {
+        invalidations.incrementAndGet();
+        targets.invalidateAll();
+        handles.invalidateAll();
+    }
+
+    @Override
+    public long preload(Context context) throws SQLException {
+        if (!enabled) {
+            return 0;
+        }
+        long invalidation = invalidations.get();
+        long count = 0;
+        try (Stream<Object[]> rows = handleDAO.streamHandleTargets(context)) {
+            Iterator<Object[]> iterator = rows.iterator();
+            // stop when full, rather than evicting handles loaded before, or once a handle changed
+            while (iterator.hasNext() && count < maxEntries && invalidations.get() == invalidation) {
+                Object[] row = iterator.next();
+                Integer type = (Integer) row[1];
+                targets.put((String) row[0], new HandleTarget(type == null ? -1 : type, (UUID) row[2]));
+                count++;
+            }
+        }
+        if (invalidations.get() != invalidation) {
+            // some of the handles may have been loaded before they changed
+            invalidateAll();
+            log.warn("Handles changed while preloading the handle cache, it is filled on demand instead");
+            return 0;
+        }
+        log.info("Preloaded {} handles", count);
+        return count;
+    }
+
+    @Override
+    public Map<String, Long> getStatistics() {
+        Map<String, Long> statistics = new LinkedHashMap<>();
+        CacheStats targetStats = targets.stats();
+        statistics.put("handle.hits", targetStats.hitCount());
+        statistics.put("handle.misses", targetStats.missCount());
+        statistics.put("handle.evictions", targetStats.evictionCount());
+        statistics.put("handle.size", targets.size());
+        CacheStats handleStats = handles.stats();
+        statistics.put("handle.objects.hits", handleStats.hitCount());
+        statistics.put("handle.objects.misses", handleStats.missCount());
+        statistics.put("handle.objects.evictions", handleStats.evictionCount());
+        statistics.put("handle.objects.size", handles.size());
+        return statistics;
+    }
+
+    @Override
+    public void invalidate(String handle, UUID dsoId) {
+        invalidations.incrementAndGet();
+        if (handle != null) {
+            targets.invalidate(handle);
+        }
+        if (dsoId != null) {
+            handles.invalidate(dsoId);
+        }
+    }
+
+    /**
+     * Bypass the store on the current thread until the changes of the context are committed, and then run the
+     * given invalidation
+     */
+    private void addChanges(Context context, Runnable invalidation) {
+        Map<Context, Boolean> contextChanges = changes.get();
+        contextChanges.put(context, Boolean.TRUE);
+        // commits run on the thread of the context
+        context.addAfterCommitTask(() -> {
+            contextChanges.remove(context);
+            invalidation.run();
+        });
+    }
+
+    /**
+     * @return true if the current thread has changes which are not committed yet. Contexts which were aborted are
+     * not valid anymore and are forgotten.
+     */
+    protected boolean hasChanges() {
+        Map<Context, Boolean> contextChanges = changes.get();
+        contextChanges.keySet().removeIf(context -> !context.isValid());
+        return !contextChanges.isEmpty();
+    }
+
+    private static HandleTarget toTarget(Handle handle) {
+        if (handle == null) {
+            return null;
+        }
+        int type = handle.getResourceTypeId() == null ? -1 : handle.getResourceTypeId();
+        return new HandleTarget(type, handle.getDSpaceObject() == null ? null : handle.getDSpaceObject().getID());
+    }
+
+    private void preloadInBackground() {
+        Context context = new Context(Context.Mode.READ_ONLY);
+        try {
+            preload(context);
+        } catch (SQLException | RuntimeException e) {
+            log.warn("Unable to preload the handle cache, it is filled on demand instead", e);
+        } finally {
+            context.abort();
+        }
+    }
+}
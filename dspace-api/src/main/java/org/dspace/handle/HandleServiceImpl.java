@@ -10,6 +10,7 @@ package org.dspace.handle;
 import java.sql.SQLException;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.UUID;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
@@ -18,10 +19,13 @@ import org.apache.commons.lang3.StringUtils;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 import org.dspace.content.DSpaceObject;
+import org.dspace.content.factory.ContentServiceFactory;
 import org.dspace.content.service.SiteService;
 import org.dspace.core.Constants;
 import org.dspace.core.Context;
 import org.dspace.handle.dao.HandleDAO;
+import org.dspace.handle.service.HandleCacheService;
+import org.dspace.handle.service.HandleCacheService.HandleTarget;
 import org.dspace.handle.service.HandleService;
 import org.dspace.services.ConfigurationService;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -58,6 +62,9 @@ public class HandleServiceImpl implements HandleService {
     @Autowired
     protected SiteService siteService;
 
+    @Autowired(required = true)
+    protected HandleCacheService handleCacheService;
+
     private static final Pattern[] IDENTIFIER_PATTERNS = {
         Pattern.compile("^hdl:(.*)$"),
         Pattern.compile("^info:hdl/(.*)$"),
@@ -74,9 +81,7 @@ public class HandleServiceImpl implements HandleService {
     @Override
     public String resolveToURL(Context context, String handle)
         throws SQLException {
-        Handle dbhandle = findHandleInternal(context, handle);
-
-        if (dbhandle == null) {
+        if (resolveTarget(context, handle) == null) {
             return null;
         }
 
@@ -113,9 +118,8 @@ public class HandleServiceImpl implements HandleService {
         while (handle.startsWith("/")) {
             handle = handle.substring(1);
         }
-        Handle dbhandle = findHandleInternal(context, handle);
 
-        return (null == dbhandle) ? null : handle;
+        return (null == resolveTarget(context, handle)) ? null : handle;
     }
 
     @Override
@@ -145,6 +149,7 @@ public class HandleServiceImpl implements HandleService {
         dso.addHandle(handle);
         handle.setResourceTypeId(dso.getType());
         handleDAO.save(context, handle);
+        handleCacheService.invalidateOnCommit(context, handleId, dso.getID());
 
         log.debug("Created new handle for {} (ID={}) {}",
             () -> Constants.typeText[dso.getType()],
@@ -199,6 +204,7 @@ public class HandleServiceImpl implements HandleService {
         handle.setDSpaceObject(dso);
         dso.addHandle(handle);
         handleDAO.save(context, handle);
+        handleCacheService.invalidateOnCommit(context, suppliedHandle, dso.getID());
 
         log.debug("Created new handle for {} (ID={}) {}",
             () -> Constants.typeText[dso.getType()],
@@ -224,6 +230,7 @@ public class HandleServiceImpl implements HandleService {
                 dso.getHandles().remove(handle);
 
                 handleDAO.save(context, handle);
+                handleCacheService.invalidateOnCommit(context, handle.getHandle(), dso.getID());
 
                 log.debug("Unbound Handle {} from object {} id={}",
                     () -> handle.getHandle(),
@@ -240,6 +247,20 @@ public class HandleServiceImpl implements HandleService {
     @Override
     public DSpaceObject resolveToObject(Context context, String handle)
         throws IllegalStateException, SQLException {
+        if (handleCacheService.isEnabled()) {
+            HandleTarget target = resolveTarget(context, handle);
+            if (target == null || !target.isBound() || target.getType() < 0) {
+                return null;
+            }
+            DSpaceObject dso = ContentServiceFactory.getInstance().getDSpaceObjectService(target.getType())
+                                                    .find(context, target.getDSpaceObjectId());
+            if (dso != null) {
+                return dso;
+            }
+            // the object was deleted by another process, look the handle up again
+            handleCacheService.invalidate(handle, target.getDSpaceObjectId());
+        }
+
         Handle dbhandle = findHandleInternal(context, handle);
         // check if handle was allocated previously, but is currently not
         // associated with a DSpaceObject
@@ -255,6 +276,12 @@ public class HandleServiceImpl implements HandleService {
 
     @Override
     public String findHandle(Context context, DSpaceObject dso)
+        throws SQLException {
+        UUID dsoId = dso == null ? null : dso.getID();
+        return handleCacheService.findHandle(context, dsoId, () -> findHandleUncached(context, dso));
+    }
+
+    private String findHandleUncached(Context context, DSpaceObject dso)
         throws SQLException {
         List<Handle> handles = getInternalHandles(context, dso);
         if (CollectionUtils.isEmpty(handles)) {
@@ -303,6 +330,7 @@ public class HandleServiceImpl implements HandleService {
 
     @Override
     public int updateHandlesWithNewPrefix(Context context, String newPrefix, String oldPrefix) throws SQLException {
+        handleCacheService.invalidateAllOnCommit(context);
         return handleDAO.updateHandlesWithNewPrefix(context, newPrefix, oldPrefix);
     }
 
@@ -313,6 +341,7 @@ public class HandleServiceImpl implements HandleService {
             // Check if we have to remove the handle from the current handle list
             // or if object is alreday deleted.
             if (dbHandle.getDSpaceObject() != null) {
+                handleCacheService.invalidateOnCommit(context, null, dbHandle.getDSpaceObject().getID());
                 // Remove the old handle from the current handle list
                 dbHandle.getDSpaceObject().getHandles().remove(dbHandle);
             }
@@ -321,6 +350,7 @@ public class HandleServiceImpl implements HandleService {
             dbHandle.setResourceTypeId(newOwner.getType());
             newOwner.getHandles().add(0, dbHandle);
             handleDAO.save(context, dbHandle);
+            handleCacheService.invalidateOnCommit(context, handle, newOwner.getID());
         }
 
     }
@@ -359,6 +389,19 @@ public class HandleServiceImpl implements HandleService {
         return handleDAO.findByHandle(context, handle);
     }
 
+    /**
+     * Find the type and ID of the object a handle is bound to, using the handle cache if it is enabled.
+     *
+     * @param context DSpace context
+     * @param handle  The handle to resolve
+     * @return The target of the handle, or null if it does not exist
+     * @throws SQLException If a database error occurs
+     */
+    protected HandleTarget resolveTarget(Context context, String handle)
+        throws SQLException {
+        return handleCacheService.resolve(context, handle, () -> findHandleInternal(context, handle));
+    }
+
     /**
      * Create/mint a new handle id.
      *
@@ -9,6 +9,7 @@ package org.dspace.handle.dao;
 
 import java.sql.SQLException;
 import java.util.List;
+import java.util.stream.Stream;
 
 import org.dspace.content.DSpaceObject;
 import org.dspace.core.Context;
@@ -31,6 +32,16 @@ public interface HandleDAO extends GenericDAO<Handle> {
 
     public Handle findByHandle(Context context, String handle) throws SQLException;
 
+    /**
+     * Stream the handle, resource type and resource ID of all handles, without loading the objects they are bound
+     * to. The resource ID is null for unbound handles. The stream must be closed.
+     *
+     * @param context DSpace context
+     * @return a stream of {handle, resource type ID, resource UUID} rows
+     * @throws SQLException if database error
+     */
+    public Stream<Object[]> streamHandleTargets(Context context) throws SQLException;
+
     public List<Handle> findByPrefix(Context context, String prefix) throws SQLException;
 
     public long countHandlesByPrefix(Context context, String prefix) throws SQLException;
@@ -13,6 +13,7 @@ import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.util.Collections;
 import java.util.List;
+import java.util.stream.Stream;
 import javax.persistence.Query;
 import javax.persistence.criteria.CriteriaBuilder;
 import javax.persistence.criteria.CriteriaQuery;
@@ -77,6 +78,16 @@ public class HandleDAOImpl extends AbstractHibernateDAO<Handle> implements Handl
         return singleResult(query);
     }
 
+    @Override
+    @SuppressWarnings("unchecked")
+    public Stream<Object[]> streamHandleTargets(Context context) throws SQLException {
+        Query query = createQuery(context,
+                                  "SELECT h.handle, h.resourceTypeId, d.id " +
+                                      "FROM Handle h " +
+                                      "LEFT JOIN h.dso d");
+        return query.getResultStream();
+    }
+
     @Override
     public List<Handle> findByPrefix(Context context, String prefix) throws SQLException {
 
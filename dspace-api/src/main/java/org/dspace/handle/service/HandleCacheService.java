@@ -0,0 +1,148 @@
+/**
+ * The contents of this file are subject to the license and copyright
+ * detailed in the LICENSE and NOTICE files at the root of the source
+ * tree and available online at
+ *
+ * http://www.dspace.org/license/
+ */
+package org.dspace.handle.service;
+
+import java.sql.SQLException;
+import java.util.Map;
+import java.util.UUID;
+
+import org.dspace.core.Context;
+import org.dspace.handle.Handle;
+
+/**
+ * Size bounded store of handles and the objects they are bound to, shared by all requests, so that resolving a
+ * handle or finding the handle of an object does not query the handle table each time. It is used by the
+ * {@link HandleService} when enabled (handle.cache.enabled), and can be filled with all handles at startup
+ * (handle.cache.preload).
+ * <p>
+ * Entries are removed when the {@link HandleService} creates, unbinds or moves a handle, and once more when the
+ * change is committed. Until then, the thread making the change does not use the store, so that it sees its own
+ * changes and never publishes them to other requests before they are committed. Changes made by other processes
+ * (e.g. command line tools) only become visible once the entries expire (handle.cache.ttl).
+ */
+public interface HandleCacheService {
+
+    /**
+     * @return true if the store is enabled
+     */
+    boolean isEnabled();
+
+    /**
+     * Get the target of a handle from the store, or look the handle up with the given loader and store its target
+     * if it is not stored yet. Handles which do not exist are not stored.
+     *
+     * @param context DSpace context
+     * @param handle  the handle
+     * @param loader  looks up the handle in the database
+     * @return the target of the handle, or null if it does not exist
+     * @throws SQLException if database error
+     */
+    HandleTarget resolve(Context context, String handle, Loader<Handle> loader) throws SQLException;
+
+    /**
+     * Get the handle of an object from the store, or look it up with the given loader and store it if it is not
+     * stored yet. Objects without handle are stored as well.
+     *
+     * @param context DSpace context
+     * @param dsoId   the ID of the object
+     * @param loader  looks up the handle of the object in the database
+     * @return the handle of the object, or null if it has none
+     * @throws SQLException if database error
+     */
+    String findHandle(Context context, UUID dsoId, Loader<String> loader) throws SQLException;
+
+    /**
+     * Remove the entries of a handle and of an object now and once the changes of the context are committed. Until
+     * then, the store is not used by the current thread.
+     *
+     * @param context DSpace context holding the changes
+     * @param handle  the changed handle, or null
+     * @param dsoId   the ID of the object whose handles changed, or null
+     */
+    void invalidateOnCommit(Context context, String handle, UUID dsoId);
+
+    /**
+     * Remove the entries of a handle and of an object
+     *
+     * @param handle the handle, or null
+     * @param dsoId  the ID of the object, or null
+     */
+    void invalidate(String handle, UUID dsoId);
+
+    /**
+     * Remove all entries now and once the changes of the context are committed. Until then, the store is not used
+     * by the current thread.
+     *
+     * @param context DSpace context holding the changes
+     */
+    void invalidateAllOnCommit(Context context);
+
+    /**
+     * Remove all entries
+     */
+    void invalidateAll();
+
+    /**
+     * Fill the store with the targets of all handles, up to its maximum size
+     *
+     * @param context DSpace context
+     * @return the number of handles stored
+     * @throws SQLException if database error
+     */
+    long preload(Context context) throws SQLException;
+
+    /**
+     * @return the hit, miss, eviction and size counts of the handles and objects stored
+     */
+    Map<String, Long> getStatistics();
+
+    /**
+     * Looks up a value in the database
+     */
+    @FunctionalInterface
+    interface Loader<T> {
+        T load() throws SQLException;
+    }
+
+    /**
+     * The type and ID of the object a handle is bound to, if any, held as primitives
+     */
+    final class HandleTarget {
+        private final int type;
+        private final boolean bound;
+        private final long mostSigBits;
+        private final long leastSigBits;
+
+        /**
+         * @param type  the type of the object the handle is (or was) bound to, see
+         *              {@link org.dspace.core.Constants}, or -1 if unknown
+         * @param dsoId the ID of the object the handle is bound to, or null if it is unbound
+         */
+        public HandleTarget(int type, UUID dsoId) {
+            this.type = type;
+            this.bound = dsoId != null;
+            this.mostSigBits = bound ? dsoId.getMostSignificantBits() : 0;
+            this.leastSigBits = bound ? dsoId.getLeastSignificantBits() : 0;
+        }
+
+        public int getType() {
+            return type;
+        }
+
+        public boolean isBound() {
+            return bound;
+        }
+
+        /**
+         * @return the ID of the object the handle is bound to, or null if it is unbound
+         */
+        public UUID getDSpaceObjectId() {
+            return bound ? new UUID(mostSigBits, leastSigBits) : null;
+        }
+    }
+}
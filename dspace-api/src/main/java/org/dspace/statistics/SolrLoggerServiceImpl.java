@@ -35,6 +35,7 @@ import java.util.List;
 import java.util.Locale;
 import java.util.Map;
 import java.util.Set;
+import javax.annotation.PreDestroy;
 import javax.servlet.http.HttpServletRequest;
 
 import com.maxmind.geoip2.DatabaseReader;
@@ -143,6 +144,9 @@ public class SolrLoggerServiceImpl implements SolrLoggerService, InitializingBea
     @Autowired
     private SolrStatisticsCore solrStatisticsCore;
 
+    /** Buffer for usage event documents, null if solr-statistics.buffer.enabled is false. */
+    protected StatisticsEventBuffer eventBuffer;
+
     /** URL to the current-year statistics core.  Prior-year shards will have a year suffixed. */
     private String statisticsCoreURL;
 
@@ -201,6 +205,53 @@ public class SolrLoggerServiceImpl implements SolrLoggerService, InitializingBea
             log.error("The required 'dbfile' configuration is missing in solr-statistics.cfg!");
         }
         locationService = service;
+
+        if (solr != null && configurationService.getBooleanProperty("solr-statistics.buffer.enabled", false)) {
+            eventBuffer = new StatisticsEventBuffer(solr,
+                configurationService.getIntProperty("solr-statistics.buffer.capacity", 10000),
+                configurationService.getIntProperty("solr-statistics.buffer.flush.size", 500),
+                configurationService.getLongProperty("solr-statistics.buffer.flush.age", 5000),
+                StatisticsEventBuffer.OverflowPolicy.valueOf(StringUtils.upperCase(
+                    configurationService.getProperty("solr-statistics.buffer.overflow", "drop"))),
+                configurationService.getLongProperty("solr-statistics.buffer.block.timeout", 1000),
+                !configurationService.getBooleanProperty("solr-statistics.autoCommit", true));
+            eventBuffer.start();
+        }
+    }
+
+    /**
+     * Write any usage events still in the buffer to Solr before shutting down.
+     *
+     * @throws InterruptedException if interrupted while waiting for the buffer to be written
+     */
+    @PreDestroy
+    public void shutdownEventBuffer() throws InterruptedException {
+        if (eventBuffer != null) {
+            eventBuffer.shutdown(configurationService.getLongProperty("solr-statistics.buffer.flush.age", 5000)
+                                     + 10000);
+        }
+    }
+
+    /**
+     * Send a usage event document to the statistics core. When the event buffer is enabled the document is handed
+     * to the buffer and written in a batch by a background thread, otherwise it is written immediately.
+     *
+     * @param doc    the usage event document
+     * @param commit whether to explicitly commit the document when Solr's autocommit is not used
+     * @throws IOException         if IO error
+     * @throws SolrServerException if the document could not be written
+     */
+    protected void addUsageDocument(SolrInputDocument doc, boolean commit) throws IOException, SolrServerException {
+        if (eventBuffer != null) {
+            eventBuffer.add(doc);
+            return;
+        }
+        solr.add(doc);
+        // commits are executed automatically using the solr autocommit
+        boolean useAutoCommit = configurationService.getBooleanProperty("solr-statistics.autoCommit", true);
+        if (commit && !useAutoCommit) {
+            solr.commit(false, false);
+        }
     }
 
     @Override
@@ -234,12 +285,7 @@ public class SolrLoggerServiceImpl implements SolrLoggerService, InitializingBea
             doc1.addField("statistics_type", StatisticsType.VIEW.text());
 
 
-            solr.add(doc1);
-            // commits are executed automatically using the solr autocommit
-            boolean useAutoCommit = configurationService.getBooleanProperty("solr-statistics.autoCommit", true);
-            if (!useAutoCommit) {
-                solr.commit(false, false);
-            }
+            addUsageDocument(doc1, true);
 
         } catch (RuntimeException re) {
             throw re;
@@ -274,12 +320,7 @@ public class SolrLoggerServiceImpl implements SolrLoggerService, InitializingBea
 
             doc1.addField("statistics_type", StatisticsType.VIEW.text());
 
-            solr.add(doc1);
-            // commits are executed automatically using the solr autocommit
-            boolean useAutoCommit = configurationService.getBooleanProperty("solr-statistics.autoCommit", true);
-            if (!useAutoCommit) {
-                solr.commit(false, false);
-            }
+            addUsageDocument(doc1, true);
 
         } catch (RuntimeException re) {
             throw re;
@@ -519,7 +560,7 @@ public class SolrLoggerServiceImpl implements SolrLoggerService, InitializingBea
                 solrDoc.addField("page", page);
             }
 
-            solr.add(solrDoc);
+            addUsageDocument(solrDoc, false);
         } catch (RuntimeException re) {
             throw re;
         } catch (Exception e) {
@@ -568,7 +609,7 @@ public class SolrLoggerServiceImpl implements SolrLoggerService, InitializingBea
                 solrDoc.addField("actor", usageWorkflowEvent.getActor().getID().toString());
             }
 
-            solr.add(solrDoc);
+            addUsageDocument(solrDoc, false);
         } catch (Exception e) {
             //Log the exception, no need to send it through, the workflow shouldn't crash because of this !
             log.error("Error saving WORKFLOW event to Solr", e);
@@ -1157,7 +1198,8 @@ public class SolrLoggerServiceImpl implements SolrLoggerService, InitializingBea
                     first = false;
                 }
 
-                query.append(" NOT(ip: ").append(ip).append(")");
+                // IPv6 addresses and blocks contain query syntax characters
+                query.append(" NOT(ip: ").append(ClientUtils.escapeQueryChars(ip)).append(")");
             }
             filterQuery = query.toString();
         }
@@ -0,0 +1,210 @@
+/**
+ * The contents of this file are subject to the license and copyright
+ * detailed in the LICENSE and NOTICE files at the root of the source
+ * tree and available online at
+ *
+ * http://www.dspace.org/license/
+ */
+package org.dspace.statistics;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.apache.solr.client.solrj.SolrClient;
+import org.apache.solr.common.SolrInputDocument;
+
+/**
+ * Bounded in-memory buffer of usage event documents which are written to the statistics core in batches by a
+ * single background thread, so that logging a view or download does not cost a Solr round trip on the request
+ * thread.
+ * <p>
+ * A batch is written as soon as it holds {@code flushSize} documents, or when its oldest document has waited
+ * {@code flushAgeMillis}. When the buffer is full, new documents are either dropped or the caller blocks for at
+ * most {@code blockTimeoutMillis} (after which the document is dropped), depending on the {@link OverflowPolicy}.
+ *
+ * @see SolrLoggerServiceImpl
+ */
+public class StatisticsEventBuffer {
+
+    private static final Logger log = LogManager.getLogger();
+
+    /**
+     * What to do with a new document when the buffer is full
+     */
+    public enum OverflowPolicy {
+        DROP, BLOCK
+    }
+
+    private final SolrClient solr;
+    private final BlockingQueue<SolrInputDocument> queue;
+    private final int flushSize;
+    private final long flushAgeMillis;
+    private final OverflowPolicy overflowPolicy;
+    private final long blockTimeoutMillis;
+    private final boolean commitAfterFlush;
+
+    private final AtomicLong flushed = new AtomicLong();
+    private final AtomicLong dropped = new AtomicLong();
+    private final AtomicLong failed = new AtomicLong();
+
+    private final Thread flusher;
+    private volatile boolean running = true;
+
+    /**
+     * @param solr               the statistics core to write to
+     * @param capacity           the maximum number of documents held in the buffer
+     * @param flushSize          the maximum number of documents written in a single request
+     * @param flushAgeMillis     the maximum time a document waits in the buffer before it is written
+     * @param overflowPolicy     what to do when the buffer is full
+     * @param blockTimeoutMillis how long to block when the buffer is full and the policy is BLOCK
+     * @param commitAfterFlush   whether to issue an explicit commit after every batch
+     */
+    public StatisticsEventBuffer(SolrClient solr, int capacity, int flushSize, long flushAgeMillis,
+                                 OverflowPolicy overflowPolicy, long blockTimeoutMillis, boolean commitAfterFlush) {
+        this.solr = solr;
+        this.queue = new ArrayBlockingQueue<>(Math.max(1, capacity));
+        this.flushSize = Math.max(1, flushSize);
+        this.flushAgeMillis = Math.max(0, flushAgeMillis);
+        this.overflowPolicy = overflowPolicy;
+        this.blockTimeoutMillis = Math.max(0, blockTimeoutMillis);
+        this.commitAfterFlush = commitAfterFlush;
+        this.flusher = new Thread(this::run, "statistics-event-buffer");
+        this.flusher.setDaemon(true);
+    }
+
+    public void start() {
+        flusher.start();
+    }
+
+    /**
+     * Add a document to the buffer.
+     *
+     * @param doc the usage event document
+     * @return true if the document was buffered, false if it was dropped because the buffer is full
+     */
+    public boolean add(SolrInputDocument doc) {
+        boolean added = false;
+        if (running) {
+            if (overflowPolicy == OverflowPolicy.BLOCK) {
+                try {
+                    added = queue.offer(doc, blockTimeoutMillis, TimeUnit.MILLISECONDS);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            } else {
+                added = queue.offer(doc);
+            }
+        }
+        if (!added) {
+            long count = dropped.incrementAndGet();
+            // don't flood the log during a crawler burst
+            if (Long.bitCount(count) == 1) {
+                log.warn("Statistics event buffer is full, {} usage event(s) dropped so far", count);
+            }
+        }
+        return added;
+    }
+
+    /**
+     * Stop accepting documents, write the documents still in the buffer and stop the background thread.
+     *
+     * @param timeoutMillis the maximum time to wait for the remaining documents to be written
+     * @throws InterruptedException if interrupted while waiting
+     */
+    public void shutdown(long timeoutMillis) throws InterruptedException {
+        running = false;
+        flusher.join(timeoutMillis);
+        log.info("Statistics event buffer stopped: {} flushed, {} dropped, {} failed", flushed.get(), dropped.get(),
+                 failed.get());
+    }
+
+    /**
+     * @return the number of documents successfully written to Solr
+     */
+    public long getFlushedCount() {
+        return flushed.get();
+    }
+
+    /**
+     * @return the number of documents dropped because the buffer was full
+     */
+    public long getDroppedCount() {
+        return dropped.get();
+    }
+
+    /**
+     * @return the number of documents which could not be written to Solr
+     */
+    public long getFailedCount() {
+        return failed.get();
+    }
+
+    /**
+     * @return the number of documents currently waiting in the buffer
+     */
+    public int size() {
+        return queue.size();
+    }
+
+    private void run() {
+        List<SolrInputDocument> batch = new ArrayList<>(flushSize);
+        while (running || !queue.isEmpty()) {
+            try {
+                SolrInputDocument first = queue.poll(1, TimeUnit.SECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+                long deadline = System.currentTimeMillis() + flushAgeMillis;
+                queue.drainTo(batch, flushSize - batch.size());
+                // wait for more documents until the batch is full or the oldest document is too old, but stop
+                // waiting as soon as we are shut down
+                long remaining = deadline - System.currentTimeMillis();
+                while (batch.size() < flushSize && remaining > 0 && running) {
+                    SolrInputDocument doc = queue.poll(Math.min(remaining, 100), TimeUnit.MILLISECONDS);
+                    if (doc != null) {
+                        batch.add(doc);
+                        queue.drainTo(batch, flushSize - batch.size());
+                    }
+                    remaining = deadline - System.currentTimeMillis();
+                }
+                flush(batch);
+            } catch (InterruptedException e) {
+                // write what we have without waiting any longer
+                running = false;
+                do {
+                    flush(batch);
+                    batch.clear();
+                } while (queue.drainTo(batch, flushSize) > 0);
+                Thread.currentThread().interrupt();
+                return;
+            } catch (RuntimeException e) {
+                log.error("Unexpected error in the statistics event buffer", e);
+            } finally {
+                batch.clear();
+            }
+        }
+    }
+
+    private void flush(List<SolrInputDocument> batch) {
+        if (batch.isEmpty()) {
+            return;
+        }
+        try {
+            solr.add(batch);
+            if (commitAfterFlush) {
+                solr.commit(false, false);
+            }
+            flushed.addAndGet(batch.size());
+        } catch (Exception e) {
+            failed.addAndGet(batch.size());
+            log.error("Error saving {} usage event(s) to Solr", batch.size(), e);
+        }
+    }
+}
@@ -7,205 +7,278 @@
  */
 package org.dspace.statistics.util;
 
-import java.util.HashMap;
+import java.math.BigInteger;
+import java.net.InetAddress;
+import java.net.UnknownHostException;
 import java.util.HashSet;
-import java.util.Map;
 import java.util.Set;
 
-import org.apache.logging.log4j.LogManager;
-import org.apache.logging.log4j.Logger;
+import com.google.common.net.InetAddresses;
 
 /**
- * A Spare v4 IPTable implementation that uses nested HashMaps
- * to optimize IP address matching over ranges of IP addresses.
+ * An IPv4 and IPv6 IPTable implementation using binary radix tries of address bits, in which each added address,
+ * subnet or range is stored as the CIDR blocks covering it. Checking an address walks down at most 32 (IPv4) or 128
+ * (IPv6) nodes, whatever the number of entries.
+ * <p>
+ * Once filled, a table can be checked by any number of threads without locking.
  *
  * @author mdiggory at atmire.com
  */
 public class IPTable {
-    private static final Logger log = LogManager.getLogger(IPTable.class);
 
-    /* A lookup tree for IP addresses and SubnetRanges */
-    private final Map<String, Map<String, Map<String, Set<String>>>> map
-            = new HashMap<>();
+    private static final int IPV4_BITS = 32;
+    private static final int IPV6_BITS = 128;
+
+    /* Lookup tries for IPv4 and IPv6 addresses */
+    private final Node ipv4 = new Node();
+    private final Node ipv6 = new Node();
 
     /**
-     * Can be full v4 IP, subnet or range string.
+     * Can be full IP, subnet, CIDR block or range string.
      * <ul>
-     *   <li>A full address is a complete dotted-quad:  {@code "1.2.3.4".}
+     *   <li>A full address is a complete dotted-quad or IPv6 address:  {@code "1.2.3.4"}.
      *   <li>A subnet is a dotted-triplet:  {@code "1.2.3"}.  It means an entire
      *       Class C subnet:  "1.2.3.0-1.2.3.255".
-     *   <li>A range is two dotted-quad addresses separated by hyphen:
-     *       {@code "1.2.3.4-1.2.3.14"}.  Only the final octet may be different.
+     *   <li>A CIDR block is an address followed by the number of leading bits
+     *       it shares with all addresses of the block:  {@code "1.2.0.0/16"}.
+     *   <li>A range is two addresses separated by hyphen:
+     *       {@code "1.2.3.4-1.2.3.14"}.
      * </ul>
      *
-     * Any attempt at CIDR notation is ignored.
-     *
      * @param ip IP address(es)
      * @throws IPFormatException Exception Class to deal with IPFormat errors.
      */
     public void add(String ip) throws IPFormatException {
-
-        String[] start;
-
-        String[] end;
-
         String[] range = ip.split("-");
 
         if (range.length >= 2) {
-
-            start = range[0].trim().split("/")[0].split("\\.");
-            end = range[1].trim().split("/")[0].split("\\.");
-
-            if (start.length != 4 || end.length != 4) {
-                throw new IPFormatException(ip + " - Ranges need to be full IPv4 Addresses");
-            }
-
-            if (!(start[0].equals(end[0]) && start[1].equals(end[1]) && start[2].equals(end[2]))) {
-                throw new IPFormatException(ip + " - Ranges can only be across the last subnet x.y.z.0 - x.y.z.254");
+            byte[] start = parseAddress(range[0].trim().split("/")[0], ip);
+            byte[] end = parseAddress(range[1].trim().split("/")[0], ip);
+            if (start.length != end.length) {
+                throw new IPFormatException(ip + " - Ranges cannot mix IPv4 and IPv6 addresses");
             }
-
-        } else {
-            //need to ignore CIDR notation for the moment.
-            //ip = ip.split("\\/")[0];
-
-            String[] subnets = ip.split("\\.");
-
-            if (subnets.length < 3) {
-                throw new IPFormatException(ip + " - require at least three subnet places (255.255.255.0");
+            BigInteger low = new BigInteger(1, start);
+            BigInteger high = new BigInteger(1, end);
+            if (low.compareTo(high) > 0) {
+                throw new IPFormatException(ip + " - The start of the range is after its end");
             }
-
-            start = subnets;
-            end = subnets;
+            int bits = start.length * 8;
+            addRange(getRoot(start), 0, BigInteger.ZERO, BigInteger.ONE.shiftLeft(bits).subtract(BigInteger.ONE),
+                     bits, low, high);
+            return;
         }
 
-        if (start.length >= 3) {
-            Map<String, Map<String, Set<String>>> first = map.get(start[0]);
-
-            if (first == null) {
-                first = new HashMap<>();
-                map.put(start[0], first);
-            }
-
-            Map<String, Set<String>> second = first.get(start[1]);
-
-            if (second == null) {
-                second = new HashMap<>();
-                first.put(start[1], second);
-            }
-
-            Set<String> third = second.get(start[2]);
-
-            if (third == null) {
-                third = new HashSet<>();
-                second.put(start[2], third);
-            }
-
-            //now populate fourth place (* or value 0-254);
-
-            if (start.length == 3) {
-                third.add("*");
-            }
-
-            if (third.contains("*")) {
-                return;
+        String address = ip.trim();
+        int prefixLength = -1;
+        int slash = address.indexOf('/');
+        if (slash >= 0) {
+            try {
+                prefixLength = Integer.parseInt(address.substring(slash + 1).trim());
+            } catch (NumberFormatException e) {
+                throw new IPFormatException(ip + " - Invalid CIDR prefix length");
             }
+            address = address.substring(0, slash).trim();
+        } else if (!address.contains(":") && address.split("\\.").length == 3) {
+            // a Class C subnet
+            address = address + ".0";
+            prefixLength = 24;
+        } else if (!address.contains(":") && address.split("\\.").length < 3) {
+            throw new IPFormatException(ip + " - require at least three subnet places (255.255.255.0");
+        }
 
-            if (start.length >= 4) {
-                int s = Integer.valueOf(start[3]);
-                int e = Integer.valueOf(end[3]);
-                for (int i = s; i <= e; i++) {
-                    third.add(String.valueOf(i));
-                }
-            }
+        byte[] bytes = parseAddress(address, ip);
+        int bits = bytes.length * 8;
+        if (prefixLength < 0) {
+            prefixLength = bits;
+        } else if (prefixLength > bits) {
+            throw new IPFormatException(ip + " - Invalid CIDR prefix length");
         }
+        addPrefix(getRoot(bytes), bytes, prefixLength);
     }
 
     /**
      * Check whether a given address is contained in this netblock.
      *
      * @param ip the address to be tested
-     * @return true if {@code ip} is within this table's limits.  Returns false
-     *         if {@link ip} looks like an IPv6 address.
+     * @return true if {@code ip} is within this table's limits.
      * @throws IPFormatException Exception Class to deal with IPFormat errors.
      */
     public boolean contains(String ip) throws IPFormatException {
-
-        String[] subnets = ip.split("\\.");
-
-        // Does it look like IPv6?
-        if (subnets.length > 4 || ip.contains("::")) {
-            log.warn("Address {} assumed not to match.  IPv6 is not implemented.", ip);
-            return false;
-        }
-
-        // Does it look like a subnet?
-        if (subnets.length < 4) {
+        String address = ip.trim();
+        if (!address.contains(":") && address.split("\\.").length < 4) {
             throw new IPFormatException("needs to be a single IP address");
         }
+        byte[] bytes = parseAddress(address, ip);
 
-        Map<String, Map<String, Set<String>>> first = map.get(subnets[0]);
-
-        if (first == null) {
-            return false;
-        }
-
-        Map<String, Set<String>> second = first.get(subnets[1]);
-
-        if (second == null) {
-            return false;
-        }
-
-        Set<String> third = second.get(subnets[2]);
-
-        if (third == null) {
-            return false;
+        Node node = getRoot(bytes);
+        for (int bit = 0; node != null; bit++) {
+            if (node.terminal) {
+                return true;
+            }
+            if (bit == bytes.length * 8) {
+                return false;
+            }
+            node = isSet(bytes, bit) ? node.one : node.zero;
         }
-
-        return third.contains(subnets[3]) || third.contains("*");
-
+        return false;
     }
 
     /**
-     * Convert to a Set.
+     * Convert to a Set. IPv4 Class C subnets are given as dotted-triplets (larger blocks as the Class C subnets they
+     * contain) and smaller IPv4 blocks as the addresses they contain. IPv6 blocks are given in CIDR notation, or as
+     * plain addresses for single addresses.
      *
      * @return this table's content as a Set
      */
     public Set<String> toSet() {
-        HashSet<String> set = new HashSet<>();
+        Set<String> set = new HashSet<>();
+        collect(ipv4, new byte[IPV4_BITS / 8], 0, set);
+        collect(ipv6, new byte[IPV6_BITS / 8], 0, set);
+        return set;
+    }
 
-        for (Map.Entry<String, Map<String, Map<String, Set<String>>>> first : map.entrySet()) {
-            String firstString = first.getKey();
-            Map<String, Map<String, Set<String>>> secondMap = first.getValue();
+    /**
+     * Return whether IPTable is empty (having no entries)
+     * @return true if empty, false otherwise
+     */
+    public boolean isEmpty() {
+        return ipv4.isEmpty() && ipv6.isEmpty();
+    }
 
-            for (Map.Entry<String, Map<String, Set<String>>> second : secondMap.entrySet()) {
-                String secondString = second.getKey();
-                Map<String, Set<String>> thirdMap = second.getValue();
+    private Node getRoot(byte[] address) {
+        return address.length == IPV4_BITS / 8 ? ipv4 : ipv6;
+    }
 
-                for (Map.Entry<String, Set<String>> third : thirdMap.entrySet()) {
-                    String thirdString = third.getKey();
-                    Set<String> fourthSet = third.getValue();
+    /**
+     * Parse a literal address (never looking up a host name). IPv4-mapped IPv6 addresses are returned as IPv4
+     * addresses.
+     */
+    private static byte[] parseAddress(String address, String ip) throws IPFormatException {
+        try {
+            InetAddress inetAddress = InetAddresses.forString(address.trim());
+            return inetAddress.getAddress();
+        } catch (IllegalArgumentException e) {
+            throw new IPFormatException(ip + " - not an IP address");
+        }
+    }
 
-                    if (fourthSet.contains("*")) {
-                        set.add(firstString + "." + secondString + "." + thirdString);
-                    } else {
-                        for (String fourth : fourthSet) {
-                            set.add(firstString + "." + secondString + "." + thirdString + "." + fourth);
-                        }
-                    }
+    private static boolean isSet(byte[] address, int bit) {
+        return (address[bit / 8] & (0x80 >>> (bit % 8))) != 0;
+    }
 
+    private static void addPrefix(Node root, byte[] address, int prefixLength) {
+        Node node = root;
+        for (int bit = 0; bit < prefixLength; bit++) {
+            if (node.terminal) {
+                // already covered by a larger block
+                return;
+            }
+            if (isSet(address, bit)) {
+                if (node.one == null) {
+                    node.one = new Node();
+                }
+                node = node.one;
+            } else {
+                if (node.zero == null) {
+                    node.zero = new Node();
                 }
+                node = node.zero;
             }
         }
+        node.setTerminal();
+    }
 
-        return set;
+    /**
+     * Add the addresses from low to high which are in the block of the given node, whose addresses go from
+     * blockLow to blockHigh.
+     */
+    private static void addRange(Node node, int depth, BigInteger blockLow, BigInteger blockHigh, int bits,
+                                 BigInteger low, BigInteger high) {
+        if (node.terminal || blockHigh.compareTo(low) < 0 || blockLow.compareTo(high) > 0) {
+            return;
+        }
+        if (blockLow.compareTo(low) >= 0 && blockHigh.compareTo(high) <= 0) {
+            node.setTerminal();
+            return;
+        }
+        BigInteger half = BigInteger.ONE.shiftLeft(bits - depth - 1);
+        if (node.zero == null) {
+            node.zero = new Node();
+        }
+        if (node.one == null) {
+            node.one = new Node();
+        }
+        addRange(node.zero, depth + 1, blockLow, blockLow.add(half).subtract(BigInteger.ONE), bits, low, high);
+        addRange(node.one, depth + 1, blockLow.add(half), blockHigh, bits, low, high);
+        // don't keep the branches which are outside of the range
+        if (node.zero.isEmpty()) {
+            node.zero = null;
+        }
+        if (node.one.isEmpty()) {
+            node.one = null;
+        }
+    }
+
+    private static void collect(Node node, byte[] address, int depth, Set<String> set) {
+        if (node.terminal) {
+            if (address.length == IPV4_BITS / 8) {
+                collectIPv4(address, depth, set);
+            } else {
+                String block = toAddressString(address);
+                set.add(depth == IPV6_BITS ? block : block + "/" + depth);
+            }
+            return;
+        }
+        if (node.zero != null) {
+            collect(node.zero, address, depth + 1, set);
+        }
+        if (node.one != null) {
+            address[depth / 8] |= (byte) (0x80 >>> (depth % 8));
+            collect(node.one, address, depth + 1, set);
+            address[depth / 8] &= (byte) ~(0x80 >>> (depth % 8));
+        }
+    }
+
+    private static void collectIPv4(byte[] address, int prefixLength, Set<String> set) {
+        long first = new BigInteger(1, address).longValue();
+        if (prefixLength <= 24) {
+            for (long subnet = first >>> 8; subnet < (first >>> 8) + (1L << (24 - prefixLength)); subnet++) {
+                set.add((subnet >>> 16 & 0xff) + "." + (subnet >>> 8 & 0xff) + "." + (subnet & 0xff));
+            }
+        } else {
+            for (long ip = first; ip < first + (1L << (IPV4_BITS - prefixLength)); ip++) {
+                set.add((ip >>> 24 & 0xff) + "." + (ip >>> 16 & 0xff) + "." + (ip >>> 8 & 0xff) + "." + (ip & 0xff));
+            }
+        }
+    }
+
+    private static String toAddressString(byte[] address) {
+        try {
+            return InetAddresses.toAddrString(InetAddress.getByAddress(address));
+        } catch (UnknownHostException e) {
+            // cannot happen with an address of a valid length
+            throw new IllegalArgumentException(e);
+        }
     }
 
     /**
-     * Return whether IPTable is empty (having no entries)
-     * @return true if empty, false otherwise
+     * A node of a trie, standing for the block of addresses starting with the bits leading to it
      */
-    public boolean isEmpty() {
-        return map.isEmpty();
+    private static class Node {
+        private Node zero;
+        private Node one;
+        // all addresses of the block are in the table
+        private boolean terminal;
+
+        void setTerminal() {
+            terminal = true;
+            zero = null;
+            one = null;
+        }
+
+        boolean isEmpty() {
+            return !terminal && zero == null && one == null;
+        }
     }
 
     /**
@@ -0,0 +1,194 @@
+/**
+ * The contents of this file are subject to the license and copyright
+ * detailed in the LICENSE and NOTICE files at the root of the source
+ * tree and available online at
+ *
+ * http://www.dspace.org/license/
+ */
+package org.dspace.statistics.util;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.regex.Pattern;
+import java.util.regex.PatternSyntaxException;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+/**
+ * Matches a text against a whole list of regular expressions at once, answering whether any of them is found in the
+ * text.
+ * <p>
+ * Most spider patterns are plain words (e.g. "bot" or "crawl"). These are compiled into a single Aho-Corasick
+ * automaton, which finds all of them in one pass over the text, however many there are. The actual regular
+ * expressions are combined into a single alternation, so the text is scanned once by one {@link Pattern} instead of
+ * once per pattern. Regular expressions which cannot be combined (e.g. using back references) are kept apart.
+ * <p>
+ * A matcher is immutable once built, and can be used by any number of threads without locking.
+ */
+public class MultiPatternMatcher {
+
+    private static final Logger log = LogManager.getLogger(MultiPatternMatcher.class);
+
+    // characters which make a pattern more than a plain word, unless they are escaped
+    private static final String METACHARACTERS = ".$^{}[]()|*+?\\";
+
+    private static final Pattern BACK_REFERENCE = Pattern.compile("\\\\[1-9]|\\\\k<");
+
+    private final Node root = new Node();
+    private final boolean hasWords;
+    private final List<Pattern> patterns = new ArrayList<>();
+
+    /**
+     * @param regexes the regular expressions to look for. Invalid ones are logged and ignored.
+     */
+    public MultiPatternMatcher(Collection<String> regexes) {
+        List<String> combinable = new ArrayList<>();
+        boolean words = false;
+        for (String regex : regexes) {
+            if (regex == null || regex.isEmpty()) {
+                continue;
+            }
+            String word = toWord(regex);
+            if (word != null) {
+                addWord(word);
+                words = true;
+            } else if (isValid(regex)) {
+                if (BACK_REFERENCE.matcher(regex).find()) {
+                    patterns.add(Pattern.compile(regex));
+                } else {
+                    combinable.add(regex);
+                }
+            }
+        }
+        hasWords = words;
+        buildFailureLinks();
+
+        if (combinable.size() == 1) {
+            patterns.add(Pattern.compile(combinable.get(0)));
+        } else if (!combinable.isEmpty()) {
+            StringBuilder alternation = new StringBuilder();
+            for (String regex : combinable) {
+                if (alternation.length() > 0) {
+                    alternation.append('|');
+                }
+                alternation.append("(?:").append(regex).append(')');
+            }
+            patterns.add(Pattern.compile(alternation.toString()));
+        }
+    }
+
+    /**
+     * @param text the text
+     * @return true if any of the patterns is found in the text
+     */
+    public boolean matches(String text) {
+        if (text == null) {
+            return false;
+        }
+        if (hasWords) {
+            Node node = root;
+            for (int i = 0; i < text.length(); i++) {
+                char c = text.charAt(i);
+                Node next = node.children.get(c);
+                while (next == null && node != root) {
+                    node = node.failure;
+                    next = node.children.get(c);
+                }
+                node = next != null ? next : root;
+                if (node.match) {
+                    return true;
+                }
+            }
+        }
+        for (Pattern pattern : patterns) {
+            if (pattern.matcher(text).find()) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * @return the plain word a pattern matches, or null if it is an actual regular expression
+     */
+    private static String toWord(String regex) {
+        StringBuilder word = new StringBuilder(regex.length());
+        for (int i = 0; i < regex.length(); i++) {
+            char c = regex.charAt(i);
+            if (c == '\\') {
+                // an escaped punctuation character stands for itself, anything else (\d, \s...) is a class
+                if (i + 1 < regex.length() && isEscapedLiteral(regex.charAt(i + 1))) {
+                    word.append(regex.charAt(++i));
+                } else {
+                    return null;
+                }
+            } else if (METACHARACTERS.indexOf(c) >= 0) {
+                return null;
+            } else {
+                word.append(c);
+            }
+        }
+        return word.toString();
+    }
+
+    private static boolean isEscapedLiteral(char c) {
+        return c < 128 && !Character.isLetterOrDigit(c) && !Character.isWhitespace(c);
+    }
+
+    private static boolean isValid(String regex) {
+        try {
+            Pattern.compile(regex);
+            return true;
+        } catch (PatternSyntaxException e) {
+            log.error("Ignoring invalid pattern {}: {}", regex, e.getMessage());
+            return false;
+        }
+    }
+
+    private void addWord(String word) {
+        Node node = root;
+        for (int i = 0; i < word.length(); i++) {
+            node = node.children.computeIfAbsent(word.charAt(i), c -> new Node());
+        }
+        node.match = true;
+    }
+
+    /**
+     * Link each node to the node of its longest proper suffix, breadth first, so that the automaton does not have to
+     * go back in the text on a mismatch.
+     */
+    private void buildFailureLinks() {
+        Deque<Node> queue = new ArrayDeque<>();
+        for (Node child : root.children.values()) {
+            child.failure = root;
+            queue.add(child);
+        }
+        while (!queue.isEmpty()) {
+            Node node = queue.poll();
+            for (Map.Entry<Character, Node> entry : node.children.entrySet()) {
+                Node child = entry.getValue();
+                Node failure = node.failure;
+                while (failure != root && !failure.children.containsKey(entry.getKey())) {
+                    failure = failure.failure;
+                }
+                Node suffix = failure.children.get(entry.getKey());
+                child.failure = suffix != null && suffix != child ? suffix : root;
+                // a word ending within the text matched so far is found as well
+                child.match |= child.failure.match;
+                queue.add(child);
+            }
+        }
+    }
+
+    private static class Node {
+        private final Map<Character, Node> children = new HashMap<>();
+        private Node failure;
+        private boolean match;
+    }
+}
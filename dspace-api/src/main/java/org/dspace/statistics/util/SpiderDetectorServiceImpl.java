@@ -12,13 +12,13 @@ import java.io.File;
 import java.io.FileReader;
 import java.io.IOException;
 import java.util.ArrayList;
-import java.util.Collections;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Set;
-import java.util.regex.Pattern;
 import javax.servlet.http.HttpServletRequest;
 
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
 import org.apache.commons.configuration2.ex.ConversionException;
 import org.apache.commons.lang3.StringUtils;
 import org.dspace.service.ClientInfoService;
@@ -43,24 +43,32 @@ public class SpiderDetectorServiceImpl implements SpiderDetectorService {
 
     private Boolean useCaseInsensitiveMatching;
 
-    private final List<Pattern> agents
-        = Collections.synchronizedList(new ArrayList<Pattern>());
+    /**
+     * Matchers of all agent and domain name patterns, loaded on first use.
+     */
+    private volatile MultiPatternMatcher agents = null;
 
-    private final List<Pattern> domains
-        = Collections.synchronizedList(new ArrayList<Pattern>());
+    private volatile MultiPatternMatcher domains = null;
 
     private ConfigurationService configurationService;
     private ClientInfoService clientInfoService;
 
     /**
-     * Sparse HashTable structure to hold IP address ranges.
+     * Radix tries holding IP address ranges.
+     */
+    private volatile IPTable table = null;
+
+    /**
+     * Verdicts of the most recently checked clients, or null if disabled.
      */
-    private IPTable table = null;
+    private final Cache<String, Boolean> verdicts;
 
     @Autowired(required = true)
     public SpiderDetectorServiceImpl(ConfigurationService configurationService, ClientInfoService clientInfoService) {
         this.configurationService = configurationService;
         this.clientInfoService = clientInfoService;
+        int cacheSize = configurationService.getIntProperty("usage-statistics.bots.cache.max", 10000);
+        verdicts = cacheSize > 0 ? CacheBuilder.newBuilder().maximumSize(cacheSize).build() : null;
     }
 
     public IPTable getTable() {
@@ -70,8 +78,9 @@ public class SpiderDetectorServiceImpl implements SpiderDetectorService {
     /**
      * Service Method for testing spiders against existing spider files.
      * <p>
-     * In future spiders HashSet may be optimized as byte offset array to
-     * improve performance and memory footprint further.
+     * The verdicts of the most recently checked clients are kept
+     * (usage-statistics.bots.cache.max), as the same clients tend to make
+     * many requests in a row.
      *
      * @param clientIP address of the client.
      * @param proxyIPs comma-list of X-Forwarded-For addresses, or null.
@@ -80,28 +89,27 @@ public class SpiderDetectorServiceImpl implements SpiderDetectorService {
      * @return true if the client matches any spider characteristics list.
      */
     public boolean isSpider(String clientIP, String proxyIPs, String hostname, String agent) {
-        // See if any agent patterns match
-        if (null != agent) {
-            synchronized (agents) {
-                if (agents.isEmpty()) {
-                    loadPatterns("agents", agents);
-                }
-            }
-
-            if (isUseCaseInsensitiveMatching()) {
-                agent = StringUtils.lowerCase(agent);
-                hostname = StringUtils.lowerCase(hostname);
-            }
-
-            for (Pattern candidate : agents) {
-
-                // prevent matcher() invocation from a null Pattern object
-                if (null != candidate && candidate.matcher(agent).find()) {
-                    return true;
-                }
+        if (verdicts == null) {
+            return checkSpider(clientIP, proxyIPs, hostname, agent);
+        }
+        String key = clientIP + '\n' + proxyIPs + '\n' + hostname + '\n' + agent;
+        Boolean verdict = verdicts.getIfPresent(key);
+        if (verdict == null) {
+            verdict = checkSpider(clientIP, proxyIPs, hostname, agent);
+            verdicts.put(key, verdict);
+        }
+        return verdict;
+    }
 
+    private boolean checkSpider(String clientIP, String proxyIPs, String hostname, String agent) {
+        if (isUseCaseInsensitiveMatching()) {
+            agent = StringUtils.lowerCase(agent);
+            hostname = StringUtils.lowerCase(hostname);
+        }
 
-            }
+        // See if any agent patterns match
+        if (null != agent && getAgents().matches(agent)) {
+            return true;
         }
 
         // No.  See if any IP addresses match
@@ -119,22 +127,34 @@ public class SpiderDetectorServiceImpl implements SpiderDetectorService {
         }
 
         // No.  See if any DNS names match
-        if (null != hostname) {
-            synchronized (domains) {
-                if (domains.isEmpty()) {
-                    loadPatterns("domains", domains);
+        if (null != hostname && getDomains().matches(hostname)) {
+            return true;
+        }
+
+        // Not a known spider.
+        return false;
+    }
+
+    private MultiPatternMatcher getAgents() {
+        if (agents == null) {
+            synchronized (this) {
+                if (agents == null) {
+                    agents = loadPatterns("agents");
                 }
             }
-            for (Pattern candidate : domains) {
-                // prevent matcher() invocation from a null Pattern object
-                if (null != candidate && candidate.matcher(hostname).find()) {
-                    return true;
+        }
+        return agents;
+    }
+
+    private MultiPatternMatcher getDomains() {
+        if (domains == null) {
+            synchronized (this) {
+                if (domains == null) {
+                    domains = loadPatterns("domains");
                 }
             }
         }
-
-        // Not a known spider.
-        return false;
+        return domains;
     }
 
     /**
@@ -177,10 +197,10 @@ public class SpiderDetectorServiceImpl implements SpiderDetectorService {
      * @param directory   simple directory name (e.g. "agents").
      *                    "${dspace.dir}/config/spiders" will be prepended to yield the path to
      *                    the directory of pattern files.
-     * @param patternList patterns read from the files in {@code directory} will
-     *                    be added to this List.
+     * @return a matcher of the patterns read from the files in {@code directory}.
      */
-    private void loadPatterns(String directory, List<Pattern> patternList) {
+    private MultiPatternMatcher loadPatterns(String directory) {
+        List<String> patternList = new ArrayList<>();
         String dspaceHome = configurationService.getProperty("dspace.dir");
         File spidersDir = new File(dspaceHome, "config/spiders");
         File patternsDir = new File(spidersDir, directory);
@@ -199,7 +219,7 @@ public class SpiderDetectorServiceImpl implements SpiderDetectorService {
                     if (isUseCaseInsensitiveMatching()) {
                         pattern = StringUtils.lowerCase(pattern);
                     }
-                    patternList.add(Pattern.compile(pattern));
+                    patternList.add(pattern);
                 }
 
 
@@ -208,6 +228,7 @@ public class SpiderDetectorServiceImpl implements SpiderDetectorService {
         } else {
             log.info("No patterns loaded from {}", patternsDir.getPath());
         }
+        return new MultiPatternMatcher(patternList);
     }
 
     /**
@@ -251,7 +272,8 @@ public class SpiderDetectorServiceImpl implements SpiderDetectorService {
     public synchronized void loadSpiderIpAddresses() {
 
         if (table == null) {
-            table = new IPTable();
+            // only published once filled, as it is read without locking
+            IPTable ipTable = new IPTable();
 
             String filePath = configurationService.getProperty("dspace.dir");
 
@@ -263,7 +285,7 @@ public class SpiderDetectorServiceImpl implements SpiderDetectorService {
                         if (file.isFile()) {
                             for (String ip : readPatterns(file)) {
                                 log.debug("Loading {}", ip);
-                                if (!Character.isDigit(ip.charAt(0))) {
+                                if (!Character.isDigit(ip.charAt(0)) && !ip.contains(":")) {
                                     try {
                                         ip = DnsLookup.forward(ip);
                                         log.debug("Resolved to {}", ip);
@@ -272,7 +294,7 @@ public class SpiderDetectorServiceImpl implements SpiderDetectorService {
                                         continue;
                                     }
                                 }
-                                table.add(ip);
+                                ipTable.add(ip);
                             }
                             log.info("Loaded Spider IP file: " + file);
                         }
@@ -283,7 +305,7 @@ public class SpiderDetectorServiceImpl implements SpiderDetectorService {
             } catch (IOException | IPTable.IPFormatException e) {
                 log.error("Error Loading Spiders:" + e.getMessage(), e);
             }
-
+            table = ipTable;
         }
 
     }
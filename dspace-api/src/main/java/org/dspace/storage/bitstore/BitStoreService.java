@@ -9,8 +9,11 @@ package org.dspace.storage.bitstore;
 
 import java.io.IOException;
 import java.io.InputStream;
+import java.nio.file.Path;
 import java.util.Map;
 
+import org.apache.commons.io.IOUtils;
+import org.apache.commons.io.input.BoundedInputStream;
 import org.dspace.content.Bitstream;
 
 /**
@@ -44,6 +47,39 @@ public interface BitStoreService {
      */
     public InputStream get(Bitstream bitstream) throws IOException;
 
+    /**
+     * Retrieve a range of the bits for bitstream, e.g. to serve an HTTP Range request.
+     * <p>
+     * The default implementation skips through the full stream returned by {@link #get(Bitstream)};
+     * asset stores which support positioned or ranged reads should override it so that only the requested
+     * bytes are read.
+     *
+     * @param bitstream DSpace Bitstream object
+     * @param offset    the position of the first byte to return
+     * @param length    the maximum number of bytes to return, or -1 to read until the end of the bitstream
+     * @return The stream of bits in the range
+     * @throws java.io.IOException If a problem occurs while retrieving the bits, or if no
+     *                             asset with ID exists in the store
+     */
+    public default InputStream get(Bitstream bitstream, long offset, long length) throws IOException {
+        InputStream in = get(bitstream);
+        IOUtils.skipFully(in, offset);
+        return length < 0 ? in : new BoundedInputStream(in, length);
+    }
+
+    /**
+     * Return the location of the asset on the local file system, for asset stores which keep assets as plain
+     * local files. This allows callers to hand the file to the operating system (e.g. the servlet container's
+     * sendfile support) instead of copying it through {@link #get(Bitstream)}.
+     *
+     * @param bitstream DSpace Bitstream object
+     * @return the path of the asset, or null if the asset is not available as a local file
+     * @throws java.io.IOException If a problem occurs while locating the asset
+     */
+    public default Path getLocalPath(Bitstream bitstream) throws IOException {
+        return null;
+    }
+
     /**
      * Store a stream of bits.
      *
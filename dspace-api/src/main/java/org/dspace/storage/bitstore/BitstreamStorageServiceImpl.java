@@ -9,6 +9,7 @@ package org.dspace.storage.bitstore;
 
 import java.io.IOException;
 import java.io.InputStream;
+import java.nio.file.Path;
 import java.sql.SQLException;
 import java.util.HashMap;
 import java.util.Iterator;
@@ -220,6 +221,18 @@ public class BitstreamStorageServiceImpl implements BitstreamStorageService, Ini
         return stores.get(storeNumber).get(bitstream);
     }
 
+    @Override
+    public InputStream retrieve(Context context, Bitstream bitstream, long offset, long length)
+        throws SQLException, IOException {
+        Integer storeNumber = bitstream.getStoreNumber();
+        return stores.get(storeNumber).get(bitstream, offset, length);
+    }
+
+    @Override
+    public Path getLocalPath(Context context, Bitstream bitstream) throws IOException {
+        return stores.get(bitstream.getStoreNumber()).getLocalPath(bitstream);
+    }
+
     @Override
     public void cleanup(boolean deleteDbRecords, boolean verbose) throws SQLException, IOException, AuthorizeException {
         Context context = null;
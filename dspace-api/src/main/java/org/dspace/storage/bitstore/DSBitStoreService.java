@@ -12,11 +12,17 @@ import java.io.FileInputStream;
 import java.io.FileOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
 import java.security.DigestInputStream;
 import java.security.MessageDigest;
 import java.security.NoSuchAlgorithmException;
 import java.util.Map;
 
+import org.apache.commons.io.IOUtils;
+import org.apache.commons.io.input.BoundedInputStream;
 import org.apache.logging.log4j.Logger;
 import org.dspace.content.Bitstream;
 import org.dspace.core.Utils;
@@ -94,6 +100,44 @@ public class DSBitStoreService implements BitStoreService {
         }
     }
 
+    /**
+     * Retrieve a range of the bits for the asset with ID, by positioning a file channel at the requested offset
+     * rather than reading through the start of the file.
+     *
+     * @param bitstream The ID of the asset to retrieve
+     * @param offset    the position of the first byte to return
+     * @param length    the maximum number of bytes to return, or -1 to read until the end of the file
+     * @return The stream of bits in the range
+     * @throws java.io.IOException If a problem occurs while retrieving the bits
+     */
+    @Override
+    public InputStream get(Bitstream bitstream, long offset, long length) throws IOException {
+        FileChannel channel = null;
+        try {
+            channel = FileChannel.open(getFile(bitstream).toPath(), StandardOpenOption.READ);
+            channel.position(offset);
+            InputStream in = Channels.newInputStream(channel);
+            return length < 0 ? in : new BoundedInputStream(in, length);
+        } catch (Exception e) {
+            IOUtils.closeQuietly(channel);
+            log.error("get(" + bitstream.getInternalId() + ", " + offset + ", " + length + ")", e);
+            throw new IOException(e);
+        }
+    }
+
+    /**
+     * Return the file holding the asset, as all assets of this store are local files.
+     *
+     * @param bitstream The ID of the asset
+     * @return the path of the asset, or null if the file does not exist
+     * @throws java.io.IOException If a problem occurs while locating the asset
+     */
+    @Override
+    public Path getLocalPath(Bitstream bitstream) throws IOException {
+        File file = getFile(bitstream);
+        return file != null && file.isFile() ? file.toPath() : null;
+    }
+
     /**
      * Store a stream of bits.
      *
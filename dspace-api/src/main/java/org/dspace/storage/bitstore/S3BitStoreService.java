@@ -7,26 +7,46 @@
  */
 package org.dspace.storage.bitstore;
 
-import java.io.File;
+import java.io.ByteArrayInputStream;
 import java.io.IOException;
 import java.io.InputStream;
+import java.security.DigestInputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
 
 import com.amazonaws.AmazonClientException;
+import com.amazonaws.ClientConfiguration;
 import com.amazonaws.auth.AWSCredentials;
+import com.amazonaws.auth.AWSStaticCredentialsProvider;
 import com.amazonaws.auth.BasicAWSCredentials;
+import com.amazonaws.client.builder.AwsClientBuilder;
 import com.amazonaws.regions.Region;
 import com.amazonaws.regions.Regions;
 import com.amazonaws.services.s3.AmazonS3;
 import com.amazonaws.services.s3.AmazonS3Client;
+import com.amazonaws.services.s3.AmazonS3ClientBuilder;
+import com.amazonaws.services.s3.model.AbortMultipartUploadRequest;
 import com.amazonaws.services.s3.model.AmazonS3Exception;
+import com.amazonaws.services.s3.model.CompleteMultipartUploadRequest;
 import com.amazonaws.services.s3.model.GetObjectRequest;
+import com.amazonaws.services.s3.model.InitiateMultipartUploadRequest;
 import com.amazonaws.services.s3.model.ObjectMetadata;
+import com.amazonaws.services.s3.model.PartETag;
 import com.amazonaws.services.s3.model.PutObjectRequest;
-import com.amazonaws.services.s3.model.PutObjectResult;
 import com.amazonaws.services.s3.model.S3Object;
-import org.apache.commons.io.FileUtils;
+import com.amazonaws.services.s3.model.UploadPartRequest;
+import org.apache.commons.io.IOUtils;
 import org.apache.commons.lang3.StringUtils;
+import org.apache.commons.lang3.concurrent.BasicThreadFactory;
 import org.apache.http.HttpStatus;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
@@ -55,6 +75,16 @@ public class S3BitStoreService implements BitStoreService {
      */
     private static final String CSA = "MD5";
 
+    /**
+     * Minimum size of a part of a multipart upload (except the last one), as imposed by S3
+     */
+    private static final int MIN_PART_SIZE = 5 * 1024 * 1024;
+
+    /**
+     * Size of the buffer a part is first read into, doubled until the part is read
+     */
+    private static final int INITIAL_BUFFER_SIZE = 64 * 1024;
+
     private String awsAccessKey;
     private String awsSecretKey;
     private String awsRegionName;
@@ -69,16 +99,61 @@ public class S3BitStoreService implements BitStoreService {
      */
     private String subfolder = null;
 
+    /**
+     * (Optional) endpoint of an S3 compatible service (e.g. MinIO) to use instead of Amazon S3
+     */
+    private String endpoint = null;
+
+    /**
+     * Whether to address buckets by path rather than by virtual host, as required by most S3 compatible services
+     */
+    private boolean pathStyleAccess = false;
+
+    /**
+     * Maximum number of pooled HTTP connections of the S3 client, shared by all reads and writes of this store
+     */
+    private int maxConnections = ClientConfiguration.DEFAULT_MAX_CONNECTIONS;
+
+    /**
+     * Timeouts of the S3 client, in milliseconds
+     */
+    private int connectionTimeout = ClientConfiguration.DEFAULT_CONNECTION_TIMEOUT;
+    private int socketTimeout = ClientConfiguration.DEFAULT_SOCKET_TIMEOUT;
+
+    /**
+     * Size of the parts of a multipart upload. Streams up to this size are stored with a single request.
+     * S3 requires at least 5 MB per part.
+     */
+    private int multipartPartSize = 16 * 1024 * 1024;
+
+    /**
+     * Maximum number of parts of a single upload which are sent in parallel
+     */
+    private int multipartThreads = 4;
+
     /**
      * S3 service
      */
     private AmazonS3 s3Service = null;
 
-    private static final ConfigurationService configurationService
-            = DSpaceServicesFactory.getInstance().getConfigurationService();
+    /**
+     * Thread pool sending the parts of multipart uploads
+     */
+    private ExecutorService uploadExecutor = null;
+
     public S3BitStoreService() {
     }
 
+    /**
+     * Create a store using the given S3 client instead of building one from the configured credentials,
+     * e.g. to test against a local S3 compatible service or a mock.
+     *
+     * @param s3Service the S3 client to use
+     */
+    public S3BitStoreService(AmazonS3 s3Service) {
+        this.s3Service = s3Service;
+    }
+
     /**
      * Initialize the asset store
      * S3 Requires:
@@ -93,13 +168,20 @@ public class S3BitStoreService implements BitStoreService {
         }
 
         // init client
-        AWSCredentials awsCredentials = new BasicAWSCredentials(getAwsAccessKey(), getAwsSecretKey());
-        s3Service = new AmazonS3Client(awsCredentials);
+        if (s3Service == null) {
+            s3Service = buildClient();
+        }
+        if (multipartPartSize < MIN_PART_SIZE) {
+            log.warn("S3 multipartPartSize " + multipartPartSize + " is below the S3 minimum, using " + MIN_PART_SIZE);
+            multipartPartSize = MIN_PART_SIZE;
+        }
+        uploadExecutor = Executors.newFixedThreadPool(Math.max(1, multipartThreads), new BasicThreadFactory.Builder()
+            .namingPattern("s3-upload-%d").daemon(true).build());
 
         // bucket name
         if (StringUtils.isEmpty(bucketName)) {
             // get hostname of DSpace UI to use to name bucket
-            String hostname = Utils.getHostName(configurationService.getProperty("dspace.ui.url"));
+            String hostname = Utils.getHostName(getConfigurationService().getProperty("dspace.ui.url"));
             bucketName = "dspace-asset-" + hostname;
             log.warn("S3 BucketName is not configured, setting default: " + bucketName);
         }
@@ -114,19 +196,48 @@ public class S3BitStoreService implements BitStoreService {
             throw new IOException(e);
         }
 
-        // region
+        log.info("AWS S3 Assetstore ready to go! bucket:" + bucketName);
+    }
+
+    /**
+     * Build the S3 client of this store, with a connection pool sized by maxConnections which is reused by all
+     * requests.
+     *
+     * @return the S3 client
+     */
+    protected AmazonS3 buildClient() {
+        AWSCredentials awsCredentials = new BasicAWSCredentials(getAwsAccessKey(), getAwsSecretKey());
+        ClientConfiguration clientConfiguration = new ClientConfiguration()
+            .withMaxConnections(maxConnections)
+            .withConnectionTimeout(connectionTimeout)
+            .withSocketTimeout(socketTimeout)
+            .withTcpKeepAlive(true);
+
+        // region, by default the global endpoint (us-east-1) which can access buckets of any region
+        String regionName = null;
         if (StringUtils.isNotBlank(awsRegionName)) {
             try {
-                Regions regions = Regions.fromName(awsRegionName);
-                Region region = Region.getRegion(regions);
-                s3Service.setRegion(region);
-                log.info("S3 Region set to: " + region.getName());
+                Region region = Region.getRegion(Regions.fromName(awsRegionName));
+                regionName = region.getName();
+                log.info("S3 Region set to: " + regionName);
             } catch (IllegalArgumentException e) {
                 log.warn("Invalid aws_region: " + awsRegionName);
             }
         }
 
-        log.info("AWS S3 Assetstore ready to go! bucket:" + bucketName);
+        AmazonS3ClientBuilder builder = AmazonS3ClientBuilder.standard()
+            .withCredentials(new AWSStaticCredentialsProvider(awsCredentials))
+            .withClientConfiguration(clientConfiguration)
+            .withPathStyleAccessEnabled(pathStyleAccess);
+        if (StringUtils.isNotBlank(endpoint)) {
+            builder.withEndpointConfiguration(new AwsClientBuilder.EndpointConfiguration(endpoint, regionName));
+            log.info("S3 endpoint set to: " + endpoint);
+        } else if (regionName != null) {
+            builder.withRegion(regionName);
+        } else {
+            builder.withRegion(Regions.US_EAST_1).withForceGlobalBucketAccessEnabled(true);
+        }
+        return builder.build();
     }
 
 
@@ -160,10 +271,46 @@ public class S3BitStoreService implements BitStoreService {
         }
     }
 
+    /**
+     * Retrieve a range of the bits for the asset with ID, using a ranged GET so that only the requested bytes
+     * are transferred from S3.
+     *
+     * @param bitstream The ID of the asset to retrieve
+     * @param offset    the position of the first byte to return
+     * @param length    the maximum number of bytes to return, or -1 to read until the end of the object
+     * @return The stream of bits in the range, or null
+     * @throws java.io.IOException If a problem occurs while retrieving the bits
+     */
+    @Override
+    public InputStream get(Bitstream bitstream, long offset, long length) throws IOException {
+        String key = getFullKey(bitstream.getInternalId());
+        try {
+            GetObjectRequest request = new GetObjectRequest(bucketName, key);
+            if (length < 0) {
+                request.setRange(offset);
+            } else if (length == 0) {
+                return InputStream.nullInputStream();
+            } else {
+                request.setRange(offset, offset + length - 1);
+            }
+            S3Object object = s3Service.getObject(request);
+            return (object != null) ? object.getObjectContent() : null;
+        } catch (AmazonClientException e) {
+            log.error("get(" + key + ", " + offset + ", " + length + ")", e);
+            throw new IOException(e);
+        }
+    }
+
     /**
      * Store a stream of bits.
      *
      * <p>
+     * The stream is read in parts of multipartPartSize bytes, so it is never spooled to disk. A stream which fits
+     * in a single part is stored with one request; larger streams are stored with a multipart upload of which up to
+     * multipartThreads parts are sent in parallel. The MD5 checksum is calculated while reading the stream.
+     * </p>
+     *
+     * <p>
      * If this method returns successfully, the bits have been stored.
      * If an exception is thrown, the bits have not been stored.
      * </p>
@@ -174,31 +321,122 @@ public class S3BitStoreService implements BitStoreService {
     @Override
     public void put(Bitstream bitstream, InputStream in) throws IOException {
         String key = getFullKey(bitstream.getInternalId());
-        //Copy istream to temp file, and send the file, with some metadata
-        File scratchFile = File.createTempFile(bitstream.getInternalId(), "s3bs");
         try {
-            FileUtils.copyInputStreamToFile(in, scratchFile);
-            long contentLength = scratchFile.length();
-
-            PutObjectRequest putObjectRequest = new PutObjectRequest(bucketName, key, scratchFile);
-            PutObjectResult putObjectResult = s3Service.putObject(putObjectRequest);
+            DigestInputStream dis = new DigestInputStream(in, MessageDigest.getInstance(CSA));
+            byte[] firstPart = readPart(dis);
+
+            long contentLength;
+            if (firstPart.length < multipartPartSize) {
+                ObjectMetadata objectMetadata = new ObjectMetadata();
+                objectMetadata.setContentLength(firstPart.length);
+                s3Service.putObject(new PutObjectRequest(bucketName, key, new ByteArrayInputStream(firstPart),
+                                                         objectMetadata));
+                contentLength = firstPart.length;
+            } else {
+                contentLength = putMultipart(key, dis, firstPart);
+            }
 
             bitstream.setSizeBytes(contentLength);
-            bitstream.setChecksum(putObjectResult.getETag());
+            bitstream.setChecksum(Utils.toHex(dis.getMessageDigest().digest()));
             bitstream.setChecksumAlgorithm(CSA);
-
-            scratchFile.delete();
-
-        } catch (AmazonClientException | IOException e) {
+        } catch (AmazonClientException | IOException | NoSuchAlgorithmException e) {
             log.error("put(" + bitstream.getInternalId() + ", is)", e);
             throw new IOException(e);
-        } finally {
-            if (scratchFile.exists()) {
-                scratchFile.delete();
+        }
+    }
+
+    /**
+     * Store a stream with a multipart upload. Parts are read from the stream on the calling thread and sent by the
+     * upload thread pool; at most multipartThreads parts are held in memory while waiting to be sent. The upload is
+     * aborted if any part fails.
+     *
+     * @param key       the key of the object
+     * @param in        the rest of the stream
+     * @param firstPart the first part, already read from the stream
+     * @return the total number of bytes stored
+     * @throws IOException if the stream cannot be read or a part cannot be stored
+     */
+    protected long putMultipart(String key, InputStream in, byte[] firstPart) throws IOException {
+        String uploadId = s3Service.initiateMultipartUpload(new InitiateMultipartUploadRequest(bucketName, key))
+                                   .getUploadId();
+        List<Future<PartETag>> parts = new ArrayList<>();
+        Semaphore permits = new Semaphore(Math.max(1, multipartThreads));
+        try {
+            long contentLength = 0;
+            byte[] part = firstPart;
+            while (part.length > 0) {
+                permits.acquire();
+                UploadPartRequest uploadPartRequest = new UploadPartRequest()
+                    .withBucketName(bucketName)
+                    .withKey(key)
+                    .withUploadId(uploadId)
+                    .withPartNumber(parts.size() + 1)
+                    .withPartSize(part.length)
+                    .withInputStream(new ByteArrayInputStream(part));
+                parts.add(uploadExecutor.submit(() -> {
+                    try {
+                        return s3Service.uploadPart(uploadPartRequest).getPartETag();
+                    } finally {
+                        permits.release();
+                    }
+                }));
+                contentLength += part.length;
+                checkFailedParts(parts);
+                part = part.length < multipartPartSize ? new byte[0] : readPart(in);
             }
+
+            List<PartETag> partETags = new ArrayList<>(parts.size());
+            for (Future<PartETag> future : parts) {
+                partETags.add(future.get());
+            }
+            s3Service.completeMultipartUpload(new CompleteMultipartUploadRequest(bucketName, key, uploadId,
+                                                                                 partETags));
+            return contentLength;
+        } catch (InterruptedException | ExecutionException | IOException | RuntimeException e) {
+            for (Future<PartETag> future : parts) {
+                future.cancel(true);
+            }
+            try {
+                s3Service.abortMultipartUpload(new AbortMultipartUploadRequest(bucketName, key, uploadId));
+            } catch (AmazonClientException ae) {
+                log.warn("Unable to abort multipart upload of " + key, ae);
+            }
+            if (e instanceof InterruptedException) {
+                Thread.currentThread().interrupt();
+            }
+            throw e instanceof IOException ? (IOException) e : new IOException(e);
         }
     }
 
+    /**
+     * Stop reading the stream as soon as one of the parts sent so far has failed.
+     */
+    private void checkFailedParts(List<Future<PartETag>> parts) throws InterruptedException, ExecutionException {
+        for (Future<PartETag> future : parts) {
+            if (future.isDone()) {
+                future.get();
+            }
+        }
+    }
+
+    /**
+     * Read the next part of a stream.
+     *
+     * @param in the stream
+     * @return up to multipartPartSize bytes, less only if the end of the stream was reached
+     * @throws IOException if the stream cannot be read
+     */
+    private byte[] readPart(InputStream in) throws IOException {
+        // start small and grow up to the part size, so that small streams don't allocate a whole part
+        byte[] buffer = new byte[Math.min(multipartPartSize, INITIAL_BUFFER_SIZE)];
+        int count = IOUtils.read(in, buffer);
+        while (count == buffer.length && buffer.length < multipartPartSize) {
+            buffer = Arrays.copyOf(buffer, (int) Math.min(multipartPartSize, 2L * buffer.length));
+            count += IOUtils.read(in, buffer, count, buffer.length - count);
+        }
+        return count < buffer.length ? Arrays.copyOf(buffer, count) : buffer;
+    }
+
     /**
      * Obtain technical metadata about an asset in the asset store.
      *
@@ -223,7 +461,12 @@ public class S3BitStoreService implements BitStoreService {
                     attrs.put("size_bytes", objectMetadata.getContentLength());
                 }
                 if (attrs.containsKey("checksum")) {
-                    attrs.put("checksum", objectMetadata.getETag());
+                    String etag = objectMetadata.getETag();
+                    if (StringUtils.contains(etag, '-')) {
+                        // the ETag of a multipart upload is not the MD5 of the object, so calculate it
+                        etag = computeChecksum(key);
+                    }
+                    attrs.put("checksum", etag);
                     attrs.put("checksum_algorithm", CSA);
                 }
                 if (attrs.containsKey("modified")) {
@@ -242,6 +485,23 @@ public class S3BitStoreService implements BitStoreService {
         return null;
     }
 
+    /**
+     * Calculate the MD5 checksum of an object by reading it.
+     *
+     * @param key the key of the object
+     * @return the hex encoded checksum
+     * @throws IOException if the object cannot be read
+     */
+    private String computeChecksum(String key) throws IOException {
+        try (InputStream in = s3Service.getObject(new GetObjectRequest(bucketName, key)).getObjectContent();
+             DigestInputStream dis = new DigestInputStream(in, MessageDigest.getInstance(CSA))) {
+            IOUtils.skip(dis, Long.MAX_VALUE);
+            return Utils.toHex(dis.getMessageDigest().digest());
+        } catch (NoSuchAlgorithmException e) {
+            throw new IOException("Invalid checksum algorithm", e);
+        }
+    }
+
     /**
      * Remove an asset from the asset store. An irreversible operation.
      *
@@ -259,6 +519,14 @@ public class S3BitStoreService implements BitStoreService {
         }
     }
 
+    /**
+     * Looked up when needed rather than when the class is loaded, so that the store can be used without a running
+     * DSpace kernel (e.g. in unit tests using a mocked S3 client)
+     */
+    private static ConfigurationService getConfigurationService() {
+        return DSpaceServicesFactory.getInstance().getConfigurationService();
+    }
+
     /**
      * Utility Method: Prefix the key with a subfolder, if this instance assets are stored within subfolder
      *
@@ -308,6 +576,62 @@ public class S3BitStoreService implements BitStoreService {
         this.bucketName = bucketName;
     }
 
+    public String getEndpoint() {
+        return endpoint;
+    }
+
+    public void setEndpoint(String endpoint) {
+        this.endpoint = endpoint;
+    }
+
+    public boolean isPathStyleAccess() {
+        return pathStyleAccess;
+    }
+
+    public void setPathStyleAccess(boolean pathStyleAccess) {
+        this.pathStyleAccess = pathStyleAccess;
+    }
+
+    public int getMaxConnections() {
+        return maxConnections;
+    }
+
+    public void setMaxConnections(int maxConnections) {
+        this.maxConnections = maxConnections;
+    }
+
+    public int getConnectionTimeout() {
+        return connectionTimeout;
+    }
+
+    public void setConnectionTimeout(int connectionTimeout) {
+        this.connectionTimeout = connectionTimeout;
+    }
+
+    public int getSocketTimeout() {
+        return socketTimeout;
+    }
+
+    public void setSocketTimeout(int socketTimeout) {
+        this.socketTimeout = socketTimeout;
+    }
+
+    public int getMultipartPartSize() {
+        return multipartPartSize;
+    }
+
+    public void setMultipartPartSize(int multipartPartSize) {
+        this.multipartPartSize = multipartPartSize;
+    }
+
+    public int getMultipartThreads() {
+        return multipartThreads;
+    }
+
+    public void setMultipartThreads(int multipartThreads) {
+        this.multipartThreads = multipartThreads;
+    }
+
     public String getSubfolder() {
         return subfolder;
     }
@@ -356,7 +680,7 @@ public class S3BitStoreService implements BitStoreService {
         store.s3Service.setRegion(usEast1);
 
         // get hostname of DSpace UI to use to name bucket
-        String hostname = Utils.getHostName(configurationService.getProperty("dspace.ui.url"));
+        String hostname = Utils.getHostName(getConfigurationService().getProperty("dspace.ui.url"));
         //Bucketname should be lowercase
         store.bucketName = "dspace-asset-" + hostname + ".s3test";
         store.s3Service.createBucket(store.bucketName);
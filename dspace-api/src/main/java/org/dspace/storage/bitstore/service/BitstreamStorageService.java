@@ -9,6 +9,7 @@ package org.dspace.storage.bitstore.service;
 
 import java.io.IOException;
 import java.io.InputStream;
+import java.nio.file.Path;
 import java.sql.SQLException;
 import java.util.Map;
 import java.util.UUID;
@@ -126,6 +127,32 @@ public interface BitstreamStorageService {
     public InputStream retrieve(Context context, Bitstream bitstream)
         throws SQLException, IOException;
 
+    /**
+     * Retrieve a range of the bits for the bitstream with ID, reading only the requested bytes from the
+     * asset store where the store supports it.
+     *
+     * @param context   The current context
+     * @param bitstream The bitstream to retrieve
+     * @param offset    the position of the first byte to return
+     * @param length    the maximum number of bytes to return, or -1 to read until the end of the bitstream
+     * @return The stream of bits in the range
+     * @throws IOException  If a problem occurs while retrieving the bits
+     * @throws SQLException If a problem occurs accessing the RDBMS
+     */
+    public InputStream retrieve(Context context, Bitstream bitstream, long offset, long length)
+        throws SQLException, IOException;
+
+    /**
+     * Return the location of the bitstream on the local file system, if its asset store keeps it as a plain
+     * local file.
+     *
+     * @param context   The current context
+     * @param bitstream The bitstream to locate
+     * @return the path of the bitstream's file, or null if it is not available as a local file
+     * @throws IOException If a problem occurs while locating the bitstream
+     */
+    public Path getLocalPath(Context context, Bitstream bitstream) throws IOException;
+
     /**
      * Clean up the bitstream storage area. This method deletes any bitstreams
      * which are more than 1 hour old and marked deleted. The deletions cannot
@@ -0,0 +1,26 @@
+--
+-- The contents of this file are subject to the license and copyright
+-- detailed in the LICENSE and NOTICE files at the root of the source
+-- tree and available online at
+--
+-- http://www.dspace.org/license/
+--
+
+----------------------------------------------------
+-- Table of the database backed curation task queue (DBTaskQueue)
+----------------------------------------------------
+
+CREATE TABLE curation_task_queue
+(
+  entry_id      VARCHAR2(36) PRIMARY KEY,
+  queue_name    VARCHAR2(64) NOT NULL,
+  eperson       VARCHAR2(256),
+  submit_time   NUMBER(19) NOT NULL,
+  tasks         VARCHAR2(1024) NOT NULL,
+  object_id     VARCHAR2(256) NOT NULL,
+  claim         VARCHAR2(36),
+  claim_time    NUMBER(19)
+);
+
+CREATE INDEX curation_task_queue_name_idx ON curation_task_queue(queue_name);
+CREATE INDEX curation_task_queue_claim_idx ON curation_task_queue(claim);
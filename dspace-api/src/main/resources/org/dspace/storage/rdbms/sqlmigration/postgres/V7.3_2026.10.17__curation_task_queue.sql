@@ -0,0 +1,26 @@
+--
+-- The contents of this file are subject to the license and copyright
+-- detailed in the LICENSE and NOTICE files at the root of the source
+-- tree and available online at
+--
+-- http://www.dspace.org/license/
+--
+
+----------------------------------------------------
+-- Table of the database backed curation task queue (DBTaskQueue)
+----------------------------------------------------
+
+CREATE TABLE curation_task_queue
+(
+  entry_id      VARCHAR(36) PRIMARY KEY,
+  queue_name    VARCHAR(64) NOT NULL,
+  eperson       VARCHAR(256),
+  submit_time   BIGINT NOT NULL,
+  tasks         VARCHAR(1024) NOT NULL,
+  object_id     VARCHAR(256) NOT NULL,
+  claim         VARCHAR(36),
+  claim_time    BIGINT
+);
+
+CREATE INDEX curation_task_queue_name_idx ON curation_task_queue(queue_name);
+CREATE INDEX curation_task_queue_claim_idx ON curation_task_queue(claim);
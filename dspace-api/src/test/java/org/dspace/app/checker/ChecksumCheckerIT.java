@@ -0,0 +1,152 @@
+/**
+ * The contents of this file are subject to the license and copyright
+ * detailed in the LICENSE and NOTICE files at the root of the source
+ * tree and available online at
+ *
+ * http://www.dspace.org/license/
+ */
+package org.dspace.app.checker;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+
+import java.io.File;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+
+import org.apache.commons.io.FileUtils;
+import org.apache.commons.io.IOUtils;
+import org.dspace.AbstractIntegrationTestWithDatabase;
+import org.dspace.builder.BitstreamBuilder;
+import org.dspace.builder.CollectionBuilder;
+import org.dspace.builder.CommunityBuilder;
+import org.dspace.builder.ItemBuilder;
+import org.dspace.checker.MostRecentChecksum;
+import org.dspace.checker.factory.CheckerServiceFactory;
+import org.dspace.checker.service.ChecksumHistoryService;
+import org.dspace.checker.service.MostRecentChecksumService;
+import org.dspace.content.Bitstream;
+import org.dspace.content.Collection;
+import org.dspace.content.Item;
+import org.dspace.core.Context;
+import org.dspace.services.ConfigurationService;
+import org.dspace.services.factory.DSpaceServicesFactory;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+/**
+ * Integration tests of the {@link ChecksumChecker} script
+ */
+public class ChecksumCheckerIT extends AbstractIntegrationTestWithDatabase {
+
+    @Rule
+    public final TemporaryFolder folder = new TemporaryFolder();
+
+    private final ConfigurationService configurationService =
+        DSpaceServicesFactory.getInstance().getConfigurationService();
+    private final MostRecentChecksumService checksumService =
+        CheckerServiceFactory.getInstance().getMostRecentChecksumService();
+    private final ChecksumHistoryService checksumHistoryService =
+        CheckerServiceFactory.getInstance().getChecksumHistoryService();
+
+    private final List<Bitstream> bitstreams = new ArrayList<>();
+    private File stateFile;
+
+    @Before
+    @Override
+    public void setUp() throws Exception {
+        super.setUp();
+        stateFile = new File(folder.getRoot(), "checker.state");
+        configurationService.setProperty("checker.state-file", stateFile.getAbsolutePath());
+
+        context.turnOffAuthorisationSystem();
+        parentCommunity = CommunityBuilder.createCommunity(context).build();
+        Collection collection = CollectionBuilder.createCollection(context, parentCommunity).build();
+        Item item = ItemBuilder.createItem(context, collection).build();
+        for (int i = 0; i < 4; i++) {
+            bitstreams.add(BitstreamBuilder.createBitstream(context, item,
+                IOUtils.toInputStream("Bitstream " + i, StandardCharsets.UTF_8)).build());
+        }
+        checksumService.updateMissingBitstreams(context);
+
+        // the bitstreams were last checked an hour ago
+        Date lastCheck = new Date(System.currentTimeMillis() - 3600000);
+        for (Bitstream bitstream : bitstreams) {
+            MostRecentChecksum record = checksumService.findByBitstream(context, bitstream);
+            record.setProcessStartDate(lastCheck);
+            record.setProcessEndDate(lastCheck);
+            checksumService.update(context, record);
+        }
+        context.restoreAuthSystemState();
+        context.commit();
+    }
+
+    @After
+    @Override
+    public void destroy() throws Exception {
+        configurationService.setProperty("checker.state-file", null);
+        for (Bitstream bitstream : bitstreams) {
+            checksumHistoryService.deleteByBitstream(context, context.reloadEntity(bitstream));
+        }
+        context.commit();
+        super.destroy();
+    }
+
+    @Test
+    public void testInterruptedLoopIsResumed() throws Exception {
+        // the loop started two hours ago was interrupted after checking the first two bitstreams
+        long now = System.currentTimeMillis();
+        Date loopStart = new Date(now - 2 * 3600000);
+        Date notChecked = new Date(now - 24 * 3600000);
+        Date checked = checksumService.findByBitstream(context, bitstreams.get(0)).getProcessStartDate();
+        for (Bitstream bitstream : bitstreams.subList(2, bitstreams.size())) {
+            MostRecentChecksum record = checksumService.findByBitstream(context, bitstream);
+            record.setProcessStartDate(notChecked);
+            record.setProcessEndDate(notChecked);
+            checksumService.update(context, record);
+        }
+        context.commit();
+        FileUtils.writeStringToFile(stateFile, String.valueOf(loopStart.getTime()), StandardCharsets.UTF_8);
+
+        ChecksumChecker.main(new String[] {"-l"});
+
+        // only the bitstreams the interrupted loop didn't check yet are checked
+        Context verification = new Context();
+        try {
+            for (int i = 0; i < bitstreams.size(); i++) {
+                MostRecentChecksum record = checksumService.findByBitstream(verification, bitstreams.get(i));
+                if (i < 2) {
+                    assertEquals(checked.getTime(), record.getProcessStartDate().getTime());
+                } else {
+                    assertFalse(record.getProcessStartDate().before(new Date(now)));
+                }
+            }
+        } finally {
+            verification.abort();
+        }
+        // the loop is over, so the next run starts a new one
+        assertFalse(stateFile.exists());
+    }
+
+    @Test
+    public void testLoopChecksAllBitstreams() throws Exception {
+        Date loopStart = new Date();
+        ChecksumChecker.main(new String[] {"-l"});
+
+        Context verification = new Context();
+        try {
+            for (Bitstream bitstream : bitstreams) {
+                MostRecentChecksum record = checksumService.findByBitstream(verification, bitstream);
+                assertFalse(record.getProcessStartDate().before(loopStart));
+            }
+        } finally {
+            verification.abort();
+        }
+        assertFalse(stateFile.exists());
+    }
+}
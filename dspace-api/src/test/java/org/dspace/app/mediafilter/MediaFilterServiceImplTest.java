@@ -0,0 +1,198 @@
+/**
+ * The contents of this file are subject to the license and copyright
+ * detailed in the LICENSE and NOTICE files at the root of the source
+ * tree and available online at
+ *
+ * http://www.dspace.org/license/
+ */
+package org.dspace.app.mediafilter;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyBoolean;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.dspace.content.Bitstream;
+import org.dspace.content.Item;
+import org.dspace.core.Context;
+import org.dspace.services.ConfigurationService;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Unit tests of the limits applied to the filters by {@link MediaFilterServiceImpl}
+ */
+public class MediaFilterServiceImplTest {
+    private static final long TIMEOUT = 10000;
+
+    private final ConfigurationService configurationService = mock(ConfigurationService.class);
+    private final Context context = mock(Context.class);
+    private final Item item = mock(Item.class);
+    private final Bitstream bitstream = mock(Bitstream.class);
+    private final AtomicInteger running = new AtomicInteger();
+    private final AtomicInteger maxRunning = new AtomicInteger();
+    private final AtomicInteger calls = new AtomicInteger();
+    private final CountDownLatch release = new CountDownLatch(1);
+    private final ExecutorService callers = Executors.newCachedThreadPool();
+    private MediaFilterServiceImpl mediaFilterService;
+    private int maxThreads = 0;
+    private int timeout = 0;
+
+    @Before
+    public void setUp() {
+        when(configurationService.getIntProperty(anyString(), anyInt())).thenAnswer(invocation -> {
+            String key = invocation.getArgument(0);
+            if (key.endsWith(".max-threads")) {
+                return maxThreads;
+            } else if (key.endsWith(".timeout")) {
+                return timeout;
+            }
+            return invocation.getArgument(1);
+        });
+        mediaFilterService = new MediaFilterServiceImpl() {
+            @Override
+            public boolean processBitstream(Context context, Item item, Bitstream source, FormatFilter formatFilter)
+                throws Exception {
+                try (InputStream destination = getDestinationStream(formatFilter, item,
+                                                                    new ByteArrayInputStream(new byte[0]))) {
+                    return destination != null;
+                }
+            }
+        };
+        mediaFilterService.configurationService = configurationService;
+        mediaFilterService.threads = 2;
+    }
+
+    @After
+    public void tearDown() {
+        release.countDown();
+        callers.shutdownNow();
+    }
+
+    @Test(timeout = TIMEOUT)
+    public void testFilterThreadsAreLimited() throws Exception {
+        maxThreads = 2;
+        FormatFilter filter = blockingFilter(false);
+        List<Future<Boolean>> results = new ArrayList<>();
+        for (int i = 0; i < 6; i++) {
+            results.add(callers.submit(() -> mediaFilterService.applyFilter(context, item, bitstream, filter)));
+        }
+        while (calls.get() < 2) {
+            Thread.sleep(10);
+        }
+        Thread.sleep(100);
+        assertEquals(2, calls.get());
+
+        release.countDown();
+        for (Future<Boolean> result : results) {
+            assertTrue(result.get());
+        }
+        assertEquals(6, calls.get());
+        assertEquals(2, maxRunning.get());
+    }
+
+    @Test(timeout = TIMEOUT)
+    public void testTimedOutFilterKeepsItsPermit() throws Exception {
+        maxThreads = 1;
+        timeout = 1;
+        // the filter ignores the interruption when it times out, like a blocking native call
+        FormatFilter filter = blockingFilter(true);
+
+        assertTimesOut(filter);
+        Semaphore permits = mediaFilterService.filterPermits.values().iterator().next();
+        assertEquals(1, running.get());
+        assertEquals(0, permits.availablePermits());
+
+        // the next bitstream waits for the filter which timed out, and gives up after the timeout too
+        assertTimesOut(filter);
+        assertEquals(1, calls.get());
+        assertEquals(2, mediaFilterService.filterStatistics.values().iterator().next().timedOut.sum());
+
+        // the permit is given back once the filter stops
+        release.countDown();
+        while (permits.availablePermits() < 1) {
+            Thread.sleep(10);
+        }
+        assertEquals(0, running.get());
+        assertTrue(mediaFilterService.applyFilter(context, item, bitstream, filter));
+        assertEquals(1, permits.availablePermits());
+    }
+
+    @Test(timeout = TIMEOUT)
+    public void testFiltersWithTimeoutAreLimitedToTheThreads() throws Exception {
+        timeout = 1;
+        FormatFilter filter = blockingFilter(true);
+        for (int i = 0; i < 2; i++) {
+            assertTimesOut(filter);
+        }
+        Semaphore permits = mediaFilterService.filterPermits.values().iterator().next();
+        assertEquals(0, permits.availablePermits());
+        assertEquals(2, running.get());
+
+        // no more threads are started for the filter while the abandoned ones are running
+        assertTimesOut(filter);
+        assertEquals(2, calls.get());
+
+        release.countDown();
+        while (permits.availablePermits() < 2) {
+            Thread.sleep(10);
+        }
+    }
+
+    private void assertTimesOut(FormatFilter filter) throws Exception {
+        try {
+            mediaFilterService.applyFilter(context, item, bitstream, filter);
+            fail("The filter should have timed out");
+        } catch (TimeoutException e) {
+            // expected
+        }
+    }
+
+    /**
+     * A filter blocked until the test releases it
+     *
+     * @param ignoreInterrupts whether the filter keeps waiting when interrupted
+     * @return the filter
+     */
+    private FormatFilter blockingFilter(boolean ignoreInterrupts) throws Exception {
+        FormatFilter filter = mock(FormatFilter.class);
+        when(filter.getDestinationStream(eq(item), any(InputStream.class), anyBoolean())).thenAnswer(invocation -> {
+            calls.incrementAndGet();
+            maxRunning.accumulateAndGet(running.incrementAndGet(), Math::max);
+            try {
+                while (release.getCount() > 0) {
+                    try {
+                        release.await();
+                    } catch (InterruptedException e) {
+                        if (!ignoreInterrupts) {
+                            throw e;
+                        }
+                    }
+                }
+            } finally {
+                running.decrementAndGet();
+            }
+            return new ByteArrayInputStream(new byte[0]);
+        });
+        return filter;
+    }
+}
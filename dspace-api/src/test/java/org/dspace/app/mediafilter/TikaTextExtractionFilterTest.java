@@ -85,6 +85,40 @@ public class TikaTextExtractionFilterTest extends AbstractUnitTest {
         assertFalse("Known ending content was not found", extractedText.contains("Emergency Broadcast System"));
     }
 
+    /**
+     * Test of getDestinationStream method streaming the extracted text
+     *
+     * @throws java.lang.Exception passed through.
+     */
+    @Test
+    public void testGetDestinationStreamWithUseStream()
+        throws Exception {
+        TikaTextExtractionFilter instance = new TikaTextExtractionFilter();
+
+        // Extract text from file with "use-stream=true"
+        configurationService.setProperty("textextractor.use-stream", "true");
+        InputStream source = getClass().getResourceAsStream("test.pdf");
+        InputStream result = instance.getDestinationStream(null, source, false);
+        String streamedText = readAll(result);
+
+        // Extract first 100 characters only
+        configurationService.setProperty("textextractor.max-chars", "100");
+        source = getClass().getResourceAsStream("test.pdf");
+        result = instance.getDestinationStream(null, source, false);
+        String truncatedText = readAll(result);
+
+        // Now, extract text from same file using default, in-memory
+        configurationService.setProperty("textextractor.use-stream", "false");
+        configurationService.setProperty("textextractor.max-chars", "100000");
+        source = getClass().getResourceAsStream("test.pdf");
+        result = instance.getDestinationStream(null, source, false);
+        String inMemoryExtractedText = readAll(result);
+
+        // Verify the results are equal
+        assertEquals("Extracted text via stream is the same as in-memory.", inMemoryExtractedText, streamedText);
+        assertEquals(inMemoryExtractedText.substring(0, 100), truncatedText);
+    }
+
     /**
      * Test of getDestinationStream method using older Microsoft Word document.
      * Read a constant .doc document and examine the extracted text.
@@ -0,0 +1,77 @@
+/**
+ * The contents of this file are subject to the license and copyright
+ * detailed in the LICENSE and NOTICE files at the root of the source
+ * tree and available online at
+ *
+ * http://www.dspace.org/license/
+ */
+package org.dspace.app.sitemap;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+import java.io.File;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.Date;
+import java.util.UUID;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+public class SitemapStateTest {
+
+    private static final UUID FIRST = UUID.fromString("10000000-0000-0000-0000-000000000000");
+    // after FIRST in the order of the database, although its most significant bits are negative
+    private static final UUID SECOND = UUID.fromString("f0000000-0000-0000-0000-000000000000");
+
+    @Rule
+    public final TemporaryFolder folder = new TemporaryFolder();
+
+    @Test
+    public void testItemFiles() {
+        SitemapState state = new SitemapState(new Date(), new Date(), 2);
+        assertEquals(-1, state.getItemFile(FIRST));
+
+        state.addItemFile(FIRST);
+        state.addItemFile(SECOND);
+        assertEquals(4, state.getFileCount());
+
+        assertEquals(2, state.getItemFile(UUID.fromString("00000000-0000-0000-0000-000000000001")));
+        assertEquals(2, state.getItemFile(FIRST));
+        assertEquals(2, state.getItemFile(UUID.fromString("80000000-0000-0000-0000-000000000000")));
+        assertEquals(3, state.getItemFile(SECOND));
+        assertEquals(3, state.getItemFile(UUID.fromString("ffffffff-ffff-ffff-ffff-ffffffffffff")));
+
+        assertNull(state.getLowerId(2));
+        assertEquals(SECOND, state.getUpperId(2));
+        assertEquals(SECOND, state.getLowerId(3));
+        assertNull(state.getUpperId(3));
+    }
+
+    @Test
+    public void testSaveAndLoad() throws Exception {
+        File file = folder.newFile("sitemap_index.xml.state");
+        SitemapState state = new SitemapState(new Date(2000), new Date(1000), 1);
+        state.addItemFile(FIRST);
+        state.addItemFile(SECOND);
+        state.save(file);
+
+        SitemapState loaded = SitemapState.load(file);
+        assertEquals(new Date(2000), loaded.getLastRun());
+        assertEquals(new Date(1000), loaded.getLastFullRun());
+        assertEquals(1, loaded.getContainerFiles());
+        assertEquals(3, loaded.getFileCount());
+        assertEquals(SECOND, loaded.getLowerId(2));
+    }
+
+    @Test
+    public void testLoadMissingOrInvalid() throws Exception {
+        assertNull(SitemapState.load(new File(folder.getRoot(), "missing.state")));
+
+        File file = folder.newFile("invalid.state");
+        Files.write(file.toPath(), "lastrun=yesterday".getBytes(StandardCharsets.UTF_8));
+        assertNull(SitemapState.load(file));
+    }
+}
@@ -0,0 +1,105 @@
+/**
+ * The contents of this file are subject to the license and copyright
+ * detailed in the LICENSE and NOTICE files at the root of the source
+ * tree and available online at
+ *
+ * http://www.dspace.org/license/
+ */
+package org.dspace.app.sitemap;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import org.apache.commons.lang3.tuple.Pair;
+import org.junit.Assume;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+public class SitemapsOrgGeneratorTest {
+
+    @Rule
+    public final TemporaryFolder folder = new TemporaryFolder();
+
+    @Test
+    public void testFilesAreWrittenInParallel() throws Exception {
+        ExecutorService writers = Executors.newFixedThreadPool(4);
+        try {
+            SitemapsOrgGenerator generator = new SitemapsOrgGenerator(folder.getRoot(), "http://x/sitemap", ".xml");
+            generator.setWriters(writers);
+            generator.setFillRatio(0.5);
+            for (int i = 0; i < 100001; i++) {
+                generator.addURL("http://x/items/" + i, new Date(0));
+            }
+            // 25000 URLs per file
+            assertEquals(5, generator.finish());
+        } finally {
+            writers.shutdownNow();
+        }
+        for (int i = 0; i < 5; i++) {
+            assertTrue(read("sitemap" + i + ".xml").endsWith("</urlset>"));
+        }
+        assertTrue(read("sitemap4.xml").contains("<loc>http://x/items/100000</loc>"));
+        assertTrue(read("sitemap_index.xml").contains("<loc>http://x/sitemap4.xml</loc>"));
+    }
+
+    @Test
+    public void testRewriteFile() throws Exception {
+        SitemapsOrgGenerator generator = new SitemapsOrgGenerator(folder.getRoot(), "http://x/sitemap", ".xml");
+        generator.addURL("http://x/items/1", null);
+        generator.addURL("http://x/items/2", null);
+        generator.finish();
+        File sitemap = new File(folder.getRoot(), "sitemap0.xml");
+        assertTrue(sitemap.setLastModified(1000000));
+
+        // unchanged files are left as they are
+        List<Pair<String, Date>> urls = new ArrayList<>();
+        urls.add(Pair.of("http://x/items/1", null));
+        urls.add(Pair.of("http://x/items/2", null));
+        assertTrue(generator.rewriteFile(0, urls));
+        assertEquals(1000000, sitemap.lastModified());
+
+        urls.add(Pair.of("http://x/items/3", null));
+        assertTrue(generator.rewriteFile(0, urls));
+        assertTrue(read("sitemap0.xml").contains("<loc>http://x/items/3</loc>"));
+        assertTrue(sitemap.lastModified() > 1000000);
+
+        // too many URLs for a single file
+        assertFalse(generator.rewriteFile(0, Collections.nCopies(50001, Pair.of("http://x/items/4", null))));
+        assertFalse(read("sitemap0.xml").contains("<loc>http://x/items/4</loc>"));
+    }
+
+    @Test
+    public void testFilesGetDefaultPermissions() throws Exception {
+        Assume.assumeTrue(FileSystems.getDefault().supportedFileAttributeViews().contains("posix"));
+        SitemapsOrgGenerator generator = new SitemapsOrgGenerator(folder.getRoot(), "http://x/sitemap", ".xml");
+        generator.addURL("http://x/items/1", null);
+        generator.finish();
+
+        // the same permissions as any new file, not only readable by their owner
+        Path reference = Files.createFile(folder.getRoot().toPath().resolve("reference"));
+        assertEquals(Files.getPosixFilePermissions(reference),
+                     Files.getPosixFilePermissions(new File(folder.getRoot(), "sitemap0.xml").toPath()));
+        assertEquals(Files.getPosixFilePermissions(reference),
+                     Files.getPosixFilePermissions(new File(folder.getRoot(), "sitemap_index.xml").toPath()));
+        // no temporary file is left
+        assertEquals(3, folder.getRoot().list().length);
+    }
+
+    private String read(String filename) throws Exception {
+        return new String(Files.readAllBytes(new File(folder.getRoot(), filename).toPath()), StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,158 @@
+/**
+ * The contents of this file are subject to the license and copyright
+ * detailed in the LICENSE and NOTICE files at the root of the source
+ * tree and available online at
+ *
+ * http://www.dspace.org/license/
+ */
+package org.dspace.authorize;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.sql.SQLException;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+
+import org.dspace.authorize.dao.ResourcePolicyDAO;
+import org.dspace.content.DSpaceObject;
+import org.dspace.core.Constants;
+import org.dspace.core.Context;
+import org.dspace.eperson.EPerson;
+import org.dspace.eperson.Group;
+import org.dspace.eperson.dao.Group2GroupCacheDAO;
+import org.dspace.eperson.dao.GroupDAO;
+import org.dspace.services.ConfigurationService;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.MockitoJUnitRunner;
+
+/**
+ * Unit tests for {@link AuthorizationCacheServiceImpl}
+ */
+@RunWith(MockitoJUnitRunner.class)
+public class AuthorizationCacheServiceImplTest {
+
+    @InjectMocks
+    private AuthorizationCacheServiceImpl authorizationCacheService;
+
+    @Mock
+    private ConfigurationService configurationService;
+    @Mock
+    private ResourcePolicyDAO resourcePolicyDAO;
+    @Mock
+    private GroupDAO groupDAO;
+    @Mock
+    private Group2GroupCacheDAO group2GroupCacheDAO;
+    @Mock
+    private Context context;
+
+    @Before
+    public void setUp() {
+        when(configurationService.getBooleanProperty("authorization.cache.enabled", false)).thenReturn(true);
+        when(configurationService.getLongProperty("authorization.cache.ttl", 300)).thenReturn(300L);
+        when(configurationService.getIntProperty("authorization.cache.objects.max", 10000)).thenReturn(100);
+        when(configurationService.getIntProperty("authorization.cache.epersons.max", 10000)).thenReturn(100);
+        authorizationCacheService.init();
+    }
+
+    @Test
+    public void testPoliciesAreLoadedOncePerObject() throws SQLException {
+        DSpaceObject dso = mock(DSpaceObject.class);
+        when(dso.getID()).thenReturn(UUID.randomUUID());
+        ResourcePolicy read = mockPolicy(Constants.READ);
+        ResourcePolicy write = mockPolicy(Constants.WRITE);
+        when(resourcePolicyDAO.findByDso(context, dso)).thenReturn(List.of(read, write));
+
+        assertEquals(1, authorizationCacheService.getPolicies(context, dso, Constants.READ).size());
+        assertEquals(1, authorizationCacheService.getPolicies(context, dso, Constants.WRITE).size());
+        assertTrue(authorizationCacheService.getPolicies(context, dso, Constants.ADMIN).isEmpty());
+        verify(resourcePolicyDAO, times(1)).findByDso(context, dso);
+
+        Map<String, Long> statistics = authorizationCacheService.getStatistics();
+        assertEquals(Long.valueOf(2), statistics.get("policies.hits"));
+        assertEquals(Long.valueOf(1), statistics.get("policies.misses"));
+
+        authorizationCacheService.invalidatePolicies(dso.getID());
+        authorizationCacheService.getPolicies(context, dso, Constants.READ);
+        verify(resourcePolicyDAO, times(2)).findByDso(context, dso);
+    }
+
+    @Test
+    public void testMemberGroupsIncludeParentAndAnonymousGroups() throws SQLException {
+        EPerson ePerson = mock(EPerson.class);
+        when(ePerson.getID()).thenReturn(UUID.randomUUID());
+        Group group = mockGroup();
+        Group parent = mockGroup();
+        Group anonymous = mockGroup();
+        when(groupDAO.findByName(context, Group.ANONYMOUS)).thenReturn(anonymous);
+        when(groupDAO.findAllMemberGroups(context, ePerson, Set.of(anonymous.getID())))
+            .thenReturn(List.of(group, parent, anonymous));
+
+        Set<UUID> groupIds = authorizationCacheService.getMemberGroupIds(context, ePerson);
+        assertEquals(Set.of(group.getID(), parent.getID(), anonymous.getID()), groupIds);
+
+        authorizationCacheService.getMemberGroupIds(context, ePerson);
+        verify(groupDAO, times(1)).findAllMemberGroups(any(), any(), any());
+
+        authorizationCacheService.invalidateMemberships(ePerson.getID());
+        authorizationCacheService.getMemberGroupIds(context, ePerson);
+        verify(groupDAO, times(2)).findAllMemberGroups(any(), any(), any());
+    }
+
+    @Test
+    public void testCacheIsNotUsedWithUncommittedChanges() {
+        assertTrue(authorizationCacheService.isEnabledFor(context));
+        when(context.hasEvents()).thenReturn(true);
+        assertFalse(authorizationCacheService.isEnabledFor(context));
+    }
+
+    @Test
+    public void testPoliciesInvalidatedAgainOnCommit() throws SQLException {
+        DSpaceObject dso = mock(DSpaceObject.class);
+        when(dso.getID()).thenReturn(UUID.randomUUID());
+        Context otherContext = mock(Context.class);
+        ResourcePolicy read = mockPolicy(Constants.READ);
+        when(resourcePolicyDAO.findByDso(otherContext, dso)).thenReturn(List.of(read));
+        authorizationCacheService.getPolicies(otherContext, dso, Constants.READ);
+
+        authorizationCacheService.invalidatePoliciesOnCommit(context, dso.getID());
+        ArgumentCaptor<Runnable> tasks = ArgumentCaptor.forClass(Runnable.class);
+        verify(context, times(2)).addAfterCommitTask(tasks.capture());
+        // the changing context doesn't use the cache until it has committed
+        assertFalse(authorizationCacheService.isEnabledFor(context));
+
+        // another request caches the policies as they are before the commit
+        authorizationCacheService.getPolicies(otherContext, dso, Constants.READ);
+        verify(resourcePolicyDAO, times(2)).findByDso(otherContext, dso);
+
+        tasks.getAllValues().forEach(Runnable::run);
+        assertTrue(authorizationCacheService.isEnabledFor(context));
+        authorizationCacheService.getPolicies(otherContext, dso, Constants.READ);
+        verify(resourcePolicyDAO, times(3)).findByDso(otherContext, dso);
+    }
+
+    private ResourcePolicy mockPolicy(int action) {
+        ResourcePolicy resourcePolicy = mock(ResourcePolicy.class);
+        when(resourcePolicy.getAction()).thenReturn(action);
+        return resourcePolicy;
+    }
+
+    private Group mockGroup() {
+        Group group = mock(Group.class);
+        when(group.getID()).thenReturn(UUID.randomUUID());
+        return group;
+    }
+}
@@ -0,0 +1,104 @@
+/**
+ * The contents of this file are subject to the license and copyright
+ * detailed in the LICENSE and NOTICE files at the root of the source
+ * tree and available online at
+ *
+ * http://www.dspace.org/license/
+ */
+package org.dspace.authorize;
+
+import static org.junit.Assert.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.sql.SQLException;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+
+import org.dspace.authorize.service.AuthorizationCacheService;
+import org.dspace.authorize.service.ResourcePolicyService;
+import org.dspace.content.Item;
+import org.dspace.core.Constants;
+import org.dspace.core.Context;
+import org.dspace.eperson.Group;
+import org.dspace.eperson.service.GroupService;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.MockitoJUnitRunner;
+
+/**
+ * Unit tests for the bulk authorization checks of {@link AuthorizeServiceImpl}
+ */
+@RunWith(MockitoJUnitRunner.class)
+public class AuthorizeServiceImplTest {
+
+    @InjectMocks
+    private AuthorizeServiceImpl authorizeService;
+
+    @Mock
+    private ResourcePolicyService resourcePolicyService;
+    @Mock
+    private GroupService groupService;
+    @Mock
+    private AuthorizationCacheService authorizationCacheService;
+    @Mock
+    private Context context;
+
+    @Test
+    public void testFilterAuthorizedLoadsPoliciesOnce() throws SQLException {
+        Group anonymous = mock(Group.class);
+        when(anonymous.getID()).thenReturn(UUID.randomUUID());
+        Item readable = mockItem();
+        Item hidden = mockItem();
+        Item alsoReadable = mockItem();
+        ResourcePolicy policy = mockPolicy(readable, anonymous);
+        ResourcePolicy otherPolicy = mockPolicy(alsoReadable, anonymous);
+        when(resourcePolicyService.find(eq(context), anyList(), eq(Constants.READ)))
+            .thenReturn(List.of(policy, otherPolicy));
+        when(resourcePolicyService.isDateValid(any())).thenReturn(true);
+        when(context.getCachedAuthorizationResult(any(), anyInt(), any())).thenReturn(null);
+        when(groupService.allMemberGroupsSet(context, null)).thenReturn(Set.of(anonymous));
+
+        List<Item> authorized = authorizeService.filterAuthorized(context, null,
+            Arrays.asList(readable, hidden, null, alsoReadable, readable), Constants.READ, true);
+
+        assertEquals(List.of(readable, alsoReadable, readable), authorized);
+        verify(resourcePolicyService, times(1)).find(eq(context), anyList(), eq(Constants.READ));
+        verify(groupService, times(1)).allMemberGroupsSet(context, null);
+        verify(context).cacheAuthorizedAction(hidden, Constants.READ, null, false, null);
+    }
+
+    @Test
+    public void testFilterAuthorizedWithIgnoredAuthorization() throws SQLException {
+        when(context.ignoreAuthorization()).thenReturn(true);
+        Item item = mock(Item.class);
+
+        assertEquals(List.of(item), authorizeService.filterAuthorized(context, null, List.of(item), Constants.WRITE,
+                                                                      true));
+        verify(resourcePolicyService, never()).find(any(), anyList(), eq(Constants.WRITE));
+    }
+
+    private Item mockItem() {
+        Item item = mock(Item.class);
+        when(item.getID()).thenReturn(UUID.randomUUID());
+        return item;
+    }
+
+    private ResourcePolicy mockPolicy(Item item, Group group) {
+        ResourcePolicy resourcePolicy = mock(ResourcePolicy.class);
+        when(resourcePolicy.getdSpaceObject()).thenReturn(item);
+        when(resourcePolicy.getGroup()).thenReturn(group);
+        return resourcePolicy;
+    }
+}
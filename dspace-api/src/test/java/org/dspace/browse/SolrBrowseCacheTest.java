@@ -0,0 +1,150 @@
+/**
+ * The contents of this file are subject to the license and copyright
+ * detailed in the LICENSE and NOTICE files at the root of the source
+ * tree and available online at
+ *
+ * http://www.dspace.org/license/
+ */
+package org.dspace.browse;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.ArgumentMatchers.anyBoolean;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import org.dspace.browse.SolrBrowseCache.BrowseValues;
+import org.dspace.discovery.DiscoverResult.FacetResult;
+import org.dspace.discovery.configuration.DiscoveryConfigurationParameters;
+import org.dspace.services.ConfigurationService;
+import org.junit.Before;
+import org.junit.Test;
+
+public class SolrBrowseCacheTest {
+
+    // in index order, as returned by a facet query sorted by value
+    private final List<FacetResult> facetResults = Arrays.asList(
+        facetResult("abbott, john"), facetResult("adams, ann"), facetResult("baker, bob"),
+        facetResult("barnes, carl"), facetResult("bates, dan"), facetResult("smith, eve"), facetResult("zola, emile"));
+
+    private String indexVersion = "1";
+    private SolrBrowseCache browseCache;
+
+    @Before
+    public void setUp() {
+        browseCache = newBrowseCache(1000000, 100000);
+    }
+
+    private SolrBrowseCache newBrowseCache(long maxValues, long maxEntryValues) {
+        ConfigurationService configurationService = mock(ConfigurationService.class);
+        when(configurationService.getBooleanProperty(eq("browse.cache.enabled"), anyBoolean())).thenReturn(true);
+        when(configurationService.getLongProperty(anyString(), anyLong()))
+            .thenAnswer(invocation -> invocation.getArgument(1));
+        when(configurationService.getLongProperty(eq("browse.cache.check-interval"), anyLong())).thenReturn(0L);
+        when(configurationService.getLongProperty(eq("browse.cache.values.max"), anyLong())).thenReturn(maxValues);
+        when(configurationService.getLongProperty(eq("browse.cache.values.max-entry"), anyLong()))
+            .thenReturn(maxEntryValues);
+
+        SolrBrowseCache cache = new SolrBrowseCache() {
+            @Override
+            protected String getIndexVersion() {
+                return indexVersion;
+            }
+        };
+        cache.configurationService = configurationService;
+        cache.init();
+        return cache;
+    }
+
+    @Test
+    public void testStartingWith() {
+        BrowseValues values = new BrowseValues(facetResults);
+
+        assertEquals(facetResults, values.startingWith(""));
+        assertEquals(Arrays.asList("abbott, john", "adams, ann"), sortValues(values.startingWith("a")));
+        assertEquals(Arrays.asList("baker, bob", "barnes, carl", "bates, dan"), sortValues(values.startingWith("ba")));
+        assertEquals(Arrays.asList("barnes, carl"), sortValues(values.startingWith("bar")));
+        assertEquals(Arrays.asList("baker, bob"), sortValues(values.startingWith("baker, b")));
+        assertEquals(Arrays.asList("zola, emile"), sortValues(values.startingWith("z")));
+        assertTrue(values.startingWith("c").isEmpty());
+        assertTrue(values.startingWith("bo").isEmpty());
+    }
+
+    @Test
+    public void testValuesAreLoadedOncePerIndexVersion() throws Exception {
+        List<String> loads = new ArrayList<>();
+        assertEquals(facetResults, browseCache.getValues("values|author", null, loader(loads)));
+        assertEquals(facetResults, browseCache.getValues("values|author", "", loader(loads)));
+        assertEquals(1, loads.size());
+
+        // a commit changes the version of the index
+        indexVersion = "2";
+        browseCache.getValues("values|author", null, loader(loads));
+        assertEquals(2, loads.size());
+    }
+
+    @Test
+    public void testStartsWithLoadsNoMoreThanThePrefix() throws Exception {
+        List<String> loads = new ArrayList<>();
+        assertEquals(Arrays.asList("baker, bob", "barnes, carl", "bates, dan"),
+                     sortValues(browseCache.getValues("values|author", "ba", loader(loads))));
+        browseCache.getValues("values|author", "ba", loader(loads));
+        assertEquals(Arrays.asList("ba"), loads);
+
+        // once all the values are cached, they answer the other prefixes
+        browseCache.getValues("values|author", null, loader(loads));
+        assertEquals(Arrays.asList("zola, emile"),
+                     sortValues(browseCache.getValues("values|author", "z", loader(loads))));
+        assertEquals(Arrays.asList("ba", null), loads);
+    }
+
+    @Test
+    public void testTooManyValuesAreNotCached() throws Exception {
+        browseCache = newBrowseCache(1000, 3);
+        List<String> loads = new ArrayList<>();
+        assertEquals(facetResults, browseCache.getValues("values|author", null, loader(loads)));
+        assertEquals(facetResults, browseCache.getValues("values|author", null, loader(loads)));
+        assertEquals(Arrays.asList(null, null), loads);
+
+        // the values starting with a prefix are cached instead
+        browseCache.getValues("values|author", "ba", loader(loads));
+        browseCache.getValues("values|author", "ba", loader(loads));
+        assertEquals(Arrays.asList(null, null, "ba"), loads);
+    }
+
+    @Test
+    public void testLargeValuesAreKept() throws Exception {
+        // the values weigh more than a quarter of the cache, the limit of a segment by default
+        browseCache = newBrowseCache(20, 20);
+        List<String> loads = new ArrayList<>();
+        browseCache.getValues("values|author", null, loader(loads));
+        browseCache.getValues("values|author", null, loader(loads));
+        assertEquals(1, loads.size());
+    }
+
+    /**
+     * Loads the values starting with the prefix, recording the prefix
+     */
+    private SolrBrowseCache.ValuesLoader loader(List<String> loads) {
+        return prefix -> {
+            loads.add(prefix);
+            return prefix == null ? facetResults : new BrowseValues(facetResults).startingWith(prefix);
+        };
+    }
+
+    private static FacetResult facetResult(String sortValue) {
+        return new FacetResult(sortValue, sortValue, null, sortValue, 1, DiscoveryConfigurationParameters.TYPE_TEXT);
+    }
+
+    private static List<String> sortValues(List<FacetResult> facetResults) {
+        return facetResults.stream().map(FacetResult::getSortValue).collect(Collectors.toList());
+    }
+}
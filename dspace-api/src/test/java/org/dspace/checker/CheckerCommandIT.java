@@ -0,0 +1,161 @@
+/**
+ * The contents of this file are subject to the license and copyright
+ * detailed in the LICENSE and NOTICE files at the root of the source
+ * tree and available online at
+ *
+ * http://www.dspace.org/license/
+ */
+package org.dspace.checker;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import org.apache.commons.io.IOUtils;
+import org.dspace.AbstractIntegrationTestWithDatabase;
+import org.dspace.builder.BitstreamBuilder;
+import org.dspace.builder.CollectionBuilder;
+import org.dspace.builder.CommunityBuilder;
+import org.dspace.builder.ItemBuilder;
+import org.dspace.checker.factory.CheckerServiceFactory;
+import org.dspace.checker.service.ChecksumHistoryService;
+import org.dspace.checker.service.MostRecentChecksumService;
+import org.dspace.content.Bitstream;
+import org.dspace.content.Collection;
+import org.dspace.content.Item;
+import org.dspace.core.Context;
+import org.dspace.storage.bitstore.factory.StorageServiceFactory;
+import org.dspace.storage.bitstore.service.BitstreamStorageService;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+/**
+ * Integration tests of the checks of the bitstreams by {@link CheckerCommand}
+ */
+public class CheckerCommandIT extends AbstractIntegrationTestWithDatabase {
+
+    private final MostRecentChecksumService checksumService =
+        CheckerServiceFactory.getInstance().getMostRecentChecksumService();
+    private final ChecksumHistoryService checksumHistoryService =
+        CheckerServiceFactory.getInstance().getChecksumHistoryService();
+
+    private final List<Bitstream> bitstreams = new ArrayList<>();
+    private final Map<UUID, ChecksumResultCode> results = new HashMap<>();
+    private Date processStart;
+
+    @Before
+    @Override
+    public void setUp() throws Exception {
+        super.setUp();
+        context.turnOffAuthorisationSystem();
+        parentCommunity = CommunityBuilder.createCommunity(context).build();
+        Collection collection = CollectionBuilder.createCollection(context, parentCommunity).build();
+        Item item = ItemBuilder.createItem(context, collection).build();
+        for (int i = 0; i < 7; i++) {
+            bitstreams.add(BitstreamBuilder.createBitstream(context, item,
+                IOUtils.toInputStream("Bitstream " + i, StandardCharsets.UTF_8)).build());
+        }
+        checksumService.updateMissingBitstreams(context);
+
+        // the bitstreams were last checked an hour ago
+        Date lastCheck = new Date(System.currentTimeMillis() - 3600000);
+        for (Bitstream bitstream : bitstreams) {
+            MostRecentChecksum record = checksumService.findByBitstream(context, bitstream);
+            record.setProcessStartDate(lastCheck);
+            record.setProcessEndDate(lastCheck);
+            checksumService.update(context, record);
+        }
+        context.restoreAuthSystemState();
+        context.commit();
+        processStart = new Date();
+    }
+
+    @After
+    @Override
+    public void destroy() throws Exception {
+        for (Bitstream bitstream : bitstreams) {
+            checksumHistoryService.deleteByBitstream(context, context.reloadEntity(bitstream));
+        }
+        context.commit();
+        super.destroy();
+    }
+
+    @Test
+    public void testParallelCheck() throws Exception {
+        CheckerCommand checker = newChecker(3);
+        checker.process();
+        context.commit();
+
+        for (Bitstream bitstream : bitstreams) {
+            assertEquals(ChecksumResultCode.CHECKSUM_MATCH, results.get(bitstream.getID()));
+            MostRecentChecksum record = checksumService.findByBitstream(context, bitstream);
+            assertEquals(ChecksumResultCode.CHECKSUM_MATCH, record.getChecksumResult().getResultCode());
+            assertFalse(record.getProcessStartDate().before(processStart));
+            assertTrue(record.isToBeProcessed());
+        }
+    }
+
+    @Test
+    public void testReaderFailureIsRecordedForItsBitstream() throws Exception {
+        // the asset store client fails to read one of the bitstreams
+        UUID failing = bitstreams.get(3).getID();
+        BitstreamStorageService storageService = StorageServiceFactory.getInstance().getBitstreamStorageService();
+        BitstreamStorageService failingStorageService = mock(BitstreamStorageService.class);
+        when(failingStorageService.computeChecksum(any(Context.class), any(Bitstream.class))).thenAnswer(
+            invocation -> {
+                Bitstream bitstream = invocation.getArgument(1);
+                if (failing.equals(bitstream.getID())) {
+                    throw new IllegalStateException("Connection reset");
+                }
+                return storageService.computeChecksum(invocation.getArgument(0), bitstream);
+            });
+        CheckerCommand checker = newChecker(3);
+        ReflectionTestUtils.setField(checker, "bitstreamStorageService", failingStorageService);
+
+        checker.process();
+        context.commit();
+
+        for (Bitstream bitstream : bitstreams) {
+            MostRecentChecksum record = checksumService.findByBitstream(context, bitstream);
+            if (failing.equals(bitstream.getID())) {
+                assertEquals(ChecksumResultCode.BITSTREAM_NOT_FOUND, results.get(bitstream.getID()));
+                assertEquals(ChecksumResultCode.BITSTREAM_NOT_FOUND, record.getChecksumResult().getResultCode());
+                assertFalse(record.isToBeProcessed());
+            } else {
+                assertEquals(ChecksumResultCode.CHECKSUM_MATCH, results.get(bitstream.getID()));
+                assertEquals(ChecksumResultCode.CHECKSUM_MATCH, record.getChecksumResult().getResultCode());
+            }
+        }
+    }
+
+    /**
+     * Create a checker going once through the records not checked since the start of the test
+     *
+     * @param threads the number of reader threads
+     * @return the checker
+     */
+    private CheckerCommand newChecker(int threads) {
+        CheckerCommand checker = new CheckerCommand(context);
+        checker.setThreads(threads);
+        checker.setCommitSize(2);
+        checker.setReportVerbose(true);
+        checker.setProcessStartDate(processStart);
+        checker.setDispatcher(new SimpleDispatcher(context, processStart, false));
+        checker.setCollector((collectorContext, info) ->
+            results.put(info.getBitstream().getID(), info.getChecksumResult().getResultCode()));
+        return checker;
+    }
+}
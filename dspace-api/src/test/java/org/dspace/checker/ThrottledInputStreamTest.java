@@ -0,0 +1,59 @@
+/**
+ * The contents of this file are subject to the license and copyright
+ * detailed in the LICENSE and NOTICE files at the root of the source
+ * tree and available online at
+ *
+ * http://www.dspace.org/license/
+ */
+package org.dspace.checker;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.util.concurrent.atomic.AtomicLong;
+
+import com.google.common.util.concurrent.RateLimiter;
+import org.apache.commons.io.IOUtils;
+import org.junit.Before;
+import org.junit.Test;
+
+public class ThrottledInputStreamTest {
+
+    private final byte[] content = new byte[100000];
+    private final AtomicLong acquired = new AtomicLong();
+    private RateLimiter rateLimiter;
+
+    @Before
+    public void setUp() {
+        for (int i = 0; i < content.length; i++) {
+            content[i] = (byte) i;
+        }
+        rateLimiter = mock(RateLimiter.class);
+        doAnswer(invocation -> {
+            acquired.addAndGet((int) invocation.getArgument(0));
+            return 0.0;
+        }).when(rateLimiter).acquire(anyInt());
+    }
+
+    @Test
+    public void testReadAcquiresEveryByte() throws Exception {
+        try (InputStream in = new ThrottledInputStream(new ByteArrayInputStream(content), rateLimiter)) {
+            assertArrayEquals(content, IOUtils.toByteArray(in));
+        }
+        assertEquals(content.length, acquired.get());
+    }
+
+    @Test
+    public void testSkipAcquiresSkippedBytes() throws Exception {
+        try (InputStream in = new ThrottledInputStream(new ByteArrayInputStream(content), rateLimiter)) {
+            assertEquals(20000, in.skip(20000));
+            assertEquals(content[20000], (byte) in.read());
+        }
+        assertEquals(20000, acquired.get());
+    }
+}
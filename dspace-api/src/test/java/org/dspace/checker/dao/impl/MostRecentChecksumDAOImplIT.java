@@ -0,0 +1,134 @@
+/**
+ * The contents of this file are subject to the license and copyright
+ * detailed in the LICENSE and NOTICE files at the root of the source
+ * tree and available online at
+ *
+ * http://www.dspace.org/license/
+ */
+package org.dspace.checker.dao.impl;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+
+import org.apache.commons.io.IOUtils;
+import org.dspace.AbstractIntegrationTestWithDatabase;
+import org.dspace.builder.BitstreamBuilder;
+import org.dspace.builder.CollectionBuilder;
+import org.dspace.builder.CommunityBuilder;
+import org.dspace.builder.ItemBuilder;
+import org.dspace.checker.MostRecentChecksum;
+import org.dspace.checker.factory.CheckerServiceFactory;
+import org.dspace.checker.service.ChecksumHistoryService;
+import org.dspace.checker.service.MostRecentChecksumService;
+import org.dspace.content.Bitstream;
+import org.dspace.content.Collection;
+import org.dspace.content.Item;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Integration tests of the paging of the oldest checksum records
+ */
+public class MostRecentChecksumDAOImplIT extends AbstractIntegrationTestWithDatabase {
+
+    private final MostRecentChecksumService checksumService =
+        CheckerServiceFactory.getInstance().getMostRecentChecksumService();
+    private final ChecksumHistoryService checksumHistoryService =
+        CheckerServiceFactory.getInstance().getChecksumHistoryService();
+
+    private final List<Bitstream> bitstreams = new ArrayList<>();
+
+    @Before
+    @Override
+    public void setUp() throws Exception {
+        super.setUp();
+        context.turnOffAuthorisationSystem();
+        parentCommunity = CommunityBuilder.createCommunity(context).build();
+        Collection collection = CollectionBuilder.createCollection(context, parentCommunity).build();
+        Item item = ItemBuilder.createItem(context, collection).build();
+        for (int i = 0; i < 7; i++) {
+            bitstreams.add(BitstreamBuilder.createBitstream(context, item,
+                IOUtils.toInputStream("Bitstream " + i, StandardCharsets.UTF_8)).build());
+        }
+        checksumService.updateMissingBitstreams(context);
+
+        // several records end on the same date, so a page can end in the middle of them
+        Date date = new Date(System.currentTimeMillis() - 3600000);
+        for (int i = 0; i < bitstreams.size(); i++) {
+            MostRecentChecksum record = checksumService.findByBitstream(context, bitstreams.get(i));
+            record.setProcessStartDate(date);
+            record.setProcessEndDate(new Date(date.getTime() + (i < 5 ? 0 : i)));
+            checksumService.update(context, record);
+        }
+        context.restoreAuthSystemState();
+        context.commit();
+    }
+
+    @After
+    @Override
+    public void destroy() throws Exception {
+        for (Bitstream bitstream : bitstreams) {
+            checksumHistoryService.deleteByBitstream(context, context.reloadEntity(bitstream));
+        }
+        context.commit();
+        super.destroy();
+    }
+
+    @Test
+    public void testOldestRecordsArePagedWithoutGapsOrDuplicates() throws Exception {
+        List<UUID> expected = new ArrayList<>();
+        for (MostRecentChecksum record : checksumService.findOldestRecords(context, null, null, null, 1000)) {
+            expected.add(record.getBitstream().getID());
+        }
+
+        List<UUID> paged = new ArrayList<>();
+        Date lastEndDate = null;
+        UUID lastBitstreamId = null;
+        List<MostRecentChecksum> page = checksumService.findOldestRecords(context, null, null, null, 2);
+        while (!page.isEmpty()) {
+            assertTrue(page.size() <= 2);
+            for (MostRecentChecksum record : page) {
+                assertFalse(lastEndDate != null && record.getProcessEndDate().before(lastEndDate));
+                paged.add(record.getBitstream().getID());
+                lastEndDate = record.getProcessEndDate();
+                lastBitstreamId = record.getBitstream().getID();
+            }
+            page = checksumService.findOldestRecords(context, null, lastEndDate, lastBitstreamId, 2);
+        }
+
+        assertEquals(expected, paged);
+        Set<UUID> ids = new HashSet<>(paged);
+        assertEquals(paged.size(), ids.size());
+        for (Bitstream bitstream : bitstreams) {
+            assertTrue(ids.contains(bitstream.getID()));
+        }
+    }
+
+    @Test
+    public void testOldestRecordsStartedBeforeDate() throws Exception {
+        MostRecentChecksum checked = checksumService.findByBitstream(context, bitstreams.get(0));
+        checked.setProcessStartDate(new Date());
+        checksumService.update(context, checked);
+        context.commit();
+
+        Set<UUID> ids = new HashSet<>();
+        for (MostRecentChecksum record : checksumService.findOldestRecords(context,
+            new Date(System.currentTimeMillis() - 60000), null, null, 1000)) {
+            ids.add(record.getBitstream().getID());
+        }
+        assertFalse(ids.contains(bitstreams.get(0).getID()));
+        for (Bitstream bitstream : bitstreams.subList(1, bitstreams.size())) {
+            assertTrue(ids.contains(bitstream.getID()));
+        }
+    }
+}
@@ -815,6 +815,22 @@ public class ItemTest extends AbstractDSpaceObjectTest {
         assertTrue("testCreateBundleAuth 3", itemService.getBundles(it, name).size() == 1);
     }
 
+    /**
+     * Test of prefetch method, of class ItemService.
+     */
+    @Test
+    public void testPrefetch() throws Exception {
+        // Allow Item ADD perms
+        doNothing().when(authorizeServiceSpy).authorizeAction(context, it, Constants.ADD);
+        bundleService.create(context, it, "bundle");
+
+        itemService.prefetch(context, Arrays.asList(it, null), true);
+        assertThat("testPrefetch 0", it.getBundles().size(), equalTo(1));
+        assertThat("testPrefetch 1", it.getBundles().get(0).getName(), equalTo("bundle"));
+        assertThat("testPrefetch 2", it.getOwningCollection(), equalTo(collection));
+        assertThat("testPrefetch 3", it.getHandle(), notNullValue());
+    }
+
     /**
      * Test of createBundle method, of class Item.
      */
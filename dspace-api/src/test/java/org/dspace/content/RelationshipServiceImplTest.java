@@ -20,6 +20,7 @@ import org.dspace.content.dao.RelationshipDAO;
 import org.dspace.content.service.EntityTypeService;
 import org.dspace.content.service.ItemService;
 import org.dspace.content.service.RelationshipTypeService;
+import org.dspace.content.service.VirtualMetadataCacheService;
 import org.dspace.content.virtual.VirtualMetadataPopulator;
 import org.dspace.core.Constants;
 import org.dspace.core.Context;
@@ -71,6 +72,9 @@ public class RelationshipServiceImplTest {
     @Mock
     private ConfigurationService configurationService;
 
+    @Mock
+    private VirtualMetadataCacheService virtualMetadataCacheService;
+
     @Before
     public void init() {
         relationshipsList = new ArrayList<>();
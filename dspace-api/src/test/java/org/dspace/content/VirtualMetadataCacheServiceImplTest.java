@@ -0,0 +1,142 @@
+/**
+ * The contents of this file are subject to the license and copyright
+ * detailed in the LICENSE and NOTICE files at the root of the source
+ * tree and available online at
+ *
+ * http://www.dspace.org/license/
+ */
+package org.dspace.content;
+
+import static org.junit.Assert.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyBoolean;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.dspace.content.service.MetadataFieldService;
+import org.dspace.core.Context;
+import org.dspace.services.ConfigurationService;
+import org.junit.Before;
+import org.junit.Test;
+
+public class VirtualMetadataCacheServiceImplTest {
+
+    private VirtualMetadataCacheServiceImpl virtualMetadataCacheService;
+    private MetadataField field;
+    private Context context;
+    private final List<Runnable> afterCommitTasks = new ArrayList<>();
+
+    private final Item publication = item();
+    private final Item issue = item();
+    private final Item volume = item();
+    private final AtomicInteger loads = new AtomicInteger();
+
+    @Before
+    public void setUp() throws Exception {
+        ConfigurationService configurationService = mock(ConfigurationService.class);
+        when(configurationService.getBooleanProperty(anyString(), anyBoolean())).thenReturn(true);
+        when(configurationService.getLongProperty(anyString(), anyLong()))
+            .thenAnswer(invocation -> invocation.getArgument(1));
+
+        field = mock(MetadataField.class);
+        when(field.getID()).thenReturn(1);
+        MetadataFieldService metadataFieldService = mock(MetadataFieldService.class);
+        when(metadataFieldService.find(any(Context.class), anyInt())).thenReturn(field);
+
+        context = mock(Context.class);
+        when(context.isValid()).thenReturn(true);
+        doAnswer(invocation -> afterCommitTasks.add(invocation.getArgument(0)))
+            .when(context).addAfterCommitTask(any(Runnable.class));
+
+        virtualMetadataCacheService = new VirtualMetadataCacheServiceImpl();
+        virtualMetadataCacheService.configurationService = configurationService;
+        virtualMetadataCacheService.metadataFieldService = metadataFieldService;
+        virtualMetadataCacheService.init();
+    }
+
+    @Test
+    public void testRelatedChangesRemoveDependentEntries() throws Exception {
+        assertEquals("volume 1", getValue(publication));
+        assertEquals("volume 1", getValue(publication));
+        assertEquals(1, loads.get());
+
+        // the volume was read through the issue, while the virtual metadata of the publication were computed
+        virtualMetadataCacheService.invalidateOnCommit(context, volume);
+        // until the change is committed, the thread making it bypasses the store
+        assertEquals("volume 1", getValue(publication));
+        assertEquals(2, loads.get());
+
+        commit();
+        assertEquals("volume 1", getValue(publication));
+        assertEquals(3, loads.get());
+        assertEquals("volume 1", getValue(publication));
+        assertEquals(3, loads.get());
+    }
+
+    @Test
+    public void testAbortedChangesAreForgotten() throws Exception {
+        getValue(publication);
+        virtualMetadataCacheService.invalidateOnCommit(context, issue);
+        when(context.isValid()).thenReturn(false);
+        afterCommitTasks.clear();
+
+        getValue(publication);
+        assertEquals(1, loads.get());
+    }
+
+    @Test
+    public void testUnrelatedChangesKeepEntries() throws Exception {
+        getValue(publication);
+        virtualMetadataCacheService.invalidateOnCommit(context, item());
+        commit();
+
+        getValue(publication);
+        assertEquals(1, loads.get());
+    }
+
+    /**
+     * Get the value of the virtual metadata of the publication, which are computed from the issue, whose own
+     * metadata are computed from the volume
+     */
+    private String getValue(Item item) throws Exception {
+        List<RelationshipMetadataValue> values = virtualMetadataCacheService.getRelationshipMetadata(context, item,
+            () -> {
+                loads.incrementAndGet();
+                virtualMetadataCacheService.addDependency(issue);
+                return virtualMetadataCacheService.getRelationshipMetadata(context, issue, () -> {
+                    virtualMetadataCacheService.addDependency(volume);
+                    return Collections.singletonList(value("volume 1"));
+                });
+            });
+        assertEquals(1, values.size());
+        return values.get(0).getValue();
+    }
+
+    private void commit() {
+        afterCommitTasks.forEach(Runnable::run);
+        afterCommitTasks.clear();
+    }
+
+    private RelationshipMetadataValue value(String value) {
+        RelationshipMetadataValue relationshipMetadataValue = new RelationshipMetadataValue();
+        relationshipMetadataValue.setMetadataField(field);
+        relationshipMetadataValue.setValue(value);
+        return relationshipMetadataValue;
+    }
+
+    private static Item item() {
+        Item item = mock(Item.class);
+        when(item.getID()).thenReturn(UUID.randomUUID());
+        return item;
+    }
+}
@@ -0,0 +1,93 @@
+/**
+ * The contents of this file are subject to the license and copyright
+ * detailed in the LICENSE and NOTICE files at the root of the source
+ * tree and available online at
+ *
+ * http://www.dspace.org/license/
+ */
+package org.dspace.content.crosswalk;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+
+import java.io.File;
+import java.io.StringReader;
+import java.io.StringWriter;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import javax.xml.transform.Templates;
+import javax.xml.transform.stream.StreamResult;
+import javax.xml.transform.stream.StreamSource;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+public class XSLTTemplatesCacheTest {
+
+    @Rule
+    public final TemporaryFolder folder = new TemporaryFolder();
+
+    private final XSLTTemplatesCache templatesCache = new XSLTTemplatesCache();
+
+    @Test
+    public void testStylesheetIsCompiledOnceForAllThreads() throws Exception {
+        File stylesheet = writeStylesheet(folder.newFile("title.xsl"), "title");
+        Templates templates = templatesCache.getTemplates(stylesheet);
+
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        try {
+            List<Future<String>> results = new ArrayList<>();
+            for (int i = 0; i < 64; i++) {
+                String value = "value " + i;
+                results.add(executor.submit(() -> {
+                    assertSame(templates, templatesCache.getTemplates(stylesheet));
+                    return transform(templatesCache.getTemplates(stylesheet), value);
+                }));
+            }
+            for (int i = 0; i < results.size(); i++) {
+                assertEquals("<title>value " + i + "</title>", results.get(i).get());
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    public void testChangedStylesheetIsReloaded() throws Exception {
+        File stylesheet = writeStylesheet(folder.newFile("title.xsl"), "title");
+        Templates templates = templatesCache.getTemplates(stylesheet);
+        assertEquals("<title>value</title>", transform(templates, "value"));
+
+        writeStylesheet(stylesheet, "name");
+        // the change is noticed by the watcher thread
+        long deadline = System.currentTimeMillis() + 10000;
+        while (templatesCache.getTemplates(stylesheet) == templates && System.currentTimeMillis() < deadline) {
+            Thread.sleep(50);
+        }
+        assertNotSame(templates, templatesCache.getTemplates(stylesheet));
+        assertEquals("<name>value</name>", transform(templatesCache.getTemplates(stylesheet), "value"));
+    }
+
+    private static File writeStylesheet(File file, String element) throws Exception {
+        String stylesheet = "<xsl:stylesheet version=\"1.0\" xmlns:xsl=\"http://www.w3.org/1999/XSL/Transform\">"
+            + "<xsl:output method=\"xml\" omit-xml-declaration=\"yes\"/>"
+            + "<xsl:template match=\"/dim\"><" + element + "><xsl:value-of select=\".\"/></" + element + ">"
+            + "</xsl:template></xsl:stylesheet>";
+        Files.write(file.toPath(), stylesheet.getBytes(StandardCharsets.UTF_8));
+        return file;
+    }
+
+    private static String transform(Templates templates, String value) throws Exception {
+        StringWriter result = new StringWriter();
+        templates.newTransformer().transform(new StreamSource(new StringReader("<dim>" + value + "</dim>")),
+                                             new StreamResult(result));
+        return result.toString();
+    }
+}
@@ -31,6 +31,7 @@ import org.dspace.content.service.ItemService;
 import org.dspace.content.service.RelationshipService;
 import org.dspace.content.service.RelationshipTypeService;
 import org.dspace.content.service.WorkspaceItemService;
+import org.dspace.services.factory.DSpaceServicesFactory;
 import org.junit.After;
 import org.junit.Before;
 import org.junit.Test;
@@ -183,5 +184,37 @@ public class RelationshipDAOImplTest extends AbstractIntegrationTest {
         assertEquals("TestByRelationshipType 0", relationshipsList.size(), relationshipService.countTotal(context));
     }
 
+    /**
+     * Test countByItem should return the size of the list returned by findByItem
+     *
+     * @throws Exception
+     */
+    @Test
+    public void testCountByItem() throws Exception {
+        assertEquals("TestCountByItem 0", relationshipsList.size(), relationshipService.countByItem(context, itemOne,
+                true));
+        assertEquals("TestCountByItem 1", relationshipsList.size(), relationshipService.countByItem(context, itemTwo,
+                false));
+    }
+
+    /**
+     * Test updatePlaces should renumber the places from 0, including the relationships loaded in the session
+     *
+     * @throws Exception
+     */
+    @Test
+    public void testUpdatePlaces() throws Exception {
+        RelationshipDAO relationshipDAO = DSpaceServicesFactory.getInstance().getServiceManager()
+                .getServicesByType(RelationshipDAO.class).get(0);
+        relationship.setRightPlace(3);
+        relationshipDAO.save(context, relationship);
+
+        assertEquals("TestUpdatePlaces 0", 1, relationshipDAO.updatePlaces(context, itemTwo, relationshipType,
+                false, null));
+        assertEquals("TestUpdatePlaces 1", 0, relationship.getRightPlace());
+        assertEquals("TestUpdatePlaces 2", 0, relationshipDAO.updatePlaces(context, itemTwo, relationshipType,
+                false, relationship));
+    }
+
 
 }
@@ -23,6 +23,7 @@ import org.dspace.content.Relationship;
 import org.dspace.content.RelationshipType;
 import org.dspace.content.service.EntityService;
 import org.dspace.content.service.RelationshipService;
+import org.dspace.content.service.VirtualMetadataCacheService;
 import org.dspace.core.Context;
 import org.junit.Test;
 import org.junit.runner.RunWith;
@@ -42,6 +43,9 @@ public class RelatedTest {
     @Mock
     private EntityService entityService;
 
+    @Mock
+    private VirtualMetadataCacheService virtualMetadataCacheService;
+
     @Mock
     private VirtualMetadataConfiguration virtualMetadataConfiguration;
 
@@ -16,11 +16,14 @@ import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertTrue;
 import static org.junit.Assert.fail;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.spy;
 import static org.mockito.Mockito.when;
 
 import java.io.IOException;
 import java.sql.SQLException;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Locale;
 import java.util.UUID;
@@ -316,6 +319,43 @@ public class ContextTest extends AbstractUnitTest {
         cleanupContext(instance);
     }
 
+    /**
+     * Test of addAfterCommitTask method, of class Context.
+     */
+    @Test
+    public void testAfterCommitTasks() throws SQLException {
+        Context instance = new Context();
+        List<String> runTasks = new ArrayList<>();
+
+        // Tasks run once the changes are committed
+        instance.addAfterCommitTask(() -> runTasks.add("committed"));
+        assertTrue("Tasks should not run before the commit", runTasks.isEmpty());
+        instance.commit();
+        assertEquals("Tasks should run after the commit", List.of("committed"), runTasks);
+
+        // Tasks of a failed commit are discarded, and not run by the next one
+        DBConnection dbConnection = instance.getDBConnection();
+        DBConnection failingConnection = mock(DBConnection.class);
+        doThrow(new SQLException("commit failed")).when(failingConnection).commit();
+        instance.addAfterCommitTask(() -> runTasks.add("failed"));
+        ReflectionTestUtils.setField(instance, "dbConnection", failingConnection);
+        try {
+            instance.commit();
+            fail("The commit should have failed");
+        } catch (SQLException e) {
+            // expected
+        } finally {
+            ReflectionTestUtils.setField(instance, "dbConnection", dbConnection);
+        }
+        instance.commit();
+        assertEquals("Tasks of a failed commit should be discarded", List.of("committed"), runTasks);
+
+        // Tasks of aborted changes are discarded
+        instance.addAfterCommitTask(() -> runTasks.add("aborted"));
+        instance.abort();
+        assertEquals("Tasks of aborted changes should be discarded", List.of("committed"), runTasks);
+    }
+
     /**
      * Test of abort method, of class Context.
      */
@@ -0,0 +1,95 @@
+/**
+ * The contents of this file are subject to the license and copyright
+ * detailed in the LICENSE and NOTICE files at the root of the source
+ * tree and available online at
+ *
+ * http://www.dspace.org/license/
+ */
+package org.dspace.curate;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.io.IOException;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.UUID;
+
+import org.dspace.AbstractIntegrationTestWithDatabase;
+import org.dspace.builder.CollectionBuilder;
+import org.dspace.builder.CommunityBuilder;
+import org.dspace.builder.ItemBuilder;
+import org.dspace.content.Collection;
+import org.dspace.content.Item;
+import org.dspace.core.factory.CoreServiceFactory;
+import org.dspace.services.ConfigurationService;
+import org.dspace.services.factory.DSpaceServicesFactory;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Integration tests of the curation of the items of a container by several threads of {@link Curator}
+ */
+public class CuratorPoolIT extends AbstractIntegrationTestWithDatabase {
+
+    private static final String TASK_NAME = "threadRecordingTask";
+
+    private final ConfigurationService configurationService =
+        DSpaceServicesFactory.getInstance().getConfigurationService();
+
+    private Collection collection;
+    private final Set<UUID> itemIds = new HashSet<>();
+
+    @Before
+    @Override
+    public void setUp() throws Exception {
+        super.setUp();
+        CoreServiceFactory.getInstance().getPluginService().clearNamedPluginClasses();
+        configurationService.setProperty("plugin.named.org.dspace.curate.CurationTask",
+            ThreadRecordingTask.class.getName() + " = " + TASK_NAME);
+        ThreadRecordingTask.curatedItems.clear();
+        ThreadRecordingTask.failingItem = null;
+
+        context.turnOffAuthorisationSystem();
+        parentCommunity = CommunityBuilder.createCommunity(context).build();
+        collection = CollectionBuilder.createCollection(context, parentCommunity).build();
+        for (int i = 0; i < 10; i++) {
+            Item item = ItemBuilder.createItem(context, collection).withTitle("Item " + i).build();
+            itemIds.add(item.getID());
+        }
+        context.restoreAuthSystemState();
+        context.commit();
+    }
+
+    @Test
+    public void testItemsAreCuratedByThePool() throws Exception {
+        Curator curator = new Curator().setThreads(3);
+        curator.addTask(TASK_NAME);
+        curator.curate(context, collection);
+
+        // every item is curated once, by the threads of the pool
+        assertEquals(itemIds, ThreadRecordingTask.curatedItems.keySet());
+        for (String threadName : ThreadRecordingTask.curatedItems.values()) {
+            assertTrue(threadName, threadName.startsWith("curation-"));
+        }
+        assertTrue(new HashSet<>(ThreadRecordingTask.curatedItems.values()).size() <= 3);
+
+        assertEquals(Curator.CURATE_SUCCESS, curator.getStatus(TASK_NAME));
+        assertTrue(curator.getResult(TASK_NAME).startsWith("Curated "));
+    }
+
+    @Test
+    public void testErrorOfAThreadIsThrown() throws Exception {
+        ThreadRecordingTask.failingItem = itemIds.iterator().next();
+
+        Curator curator = new Curator().setThreads(3);
+        curator.addTask(TASK_NAME);
+        try {
+            curator.curate(context, collection);
+            fail("Expected the error of the failing item");
+        } catch (IOException e) {
+            assertEquals("Unable to curate " + ThreadRecordingTask.failingItem, e.getMessage());
+        }
+    }
+}
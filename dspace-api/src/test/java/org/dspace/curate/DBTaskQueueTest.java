@@ -0,0 +1,167 @@
+/**
+ * The contents of this file are subject to the license and copyright
+ * detailed in the LICENSE and NOTICE files at the root of the source
+ * tree and available online at
+ *
+ * http://www.dspace.org/license/
+ */
+package org.dspace.curate;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.stream.Collectors;
+
+import org.apache.commons.io.IOUtils;
+import org.h2.jdbcx.JdbcDataSource;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+public class DBTaskQueueTest {
+    private static final String MIGRATION =
+        "/org/dspace/storage/rdbms/sqlmigration/h2/V7.3_2026.10.17__curation_task_queue.sql";
+
+    private JdbcDataSource dataSource;
+    private Connection keepAlive;
+
+    @Before
+    public void setUp() throws Exception {
+        dataSource = new JdbcDataSource();
+        dataSource.setURL("jdbc:h2:mem:curation_task_queue");
+        // the in-memory database lives as long as a connection is open
+        keepAlive = dataSource.getConnection();
+        try (InputStream in = getClass().getResourceAsStream(MIGRATION);
+             Statement statement = keepAlive.createStatement()) {
+            for (String sql : IOUtils.toString(in, StandardCharsets.UTF_8).split(";")) {
+                String ddl = Arrays.stream(sql.split("\n")).filter(line -> !line.startsWith("--"))
+                                   .collect(Collectors.joining("\n")).trim();
+                if (!ddl.isEmpty()) {
+                    statement.execute(ddl);
+                }
+            }
+        }
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        keepAlive.close();
+    }
+
+    @Test
+    public void testReadersGetDistinctEntries() throws Exception {
+        DBTaskQueue queue = new DBTaskQueue(dataSource, 60000);
+        DBTaskQueue otherQueue = new DBTaskQueue(dataSource, 60000);
+        queue.enqueue("monthly", entry("123456789/1"));
+        queue.enqueue("monthly", entry("123456789/2"));
+        queue.enqueue("weekly", entry("123456789/3"));
+
+        Set<TaskQueueEntry> entries = queue.dequeue("monthly", 1L);
+        assertEquals(Set.of("123456789/1", "123456789/2"), objectIds(entries));
+        assertEquals(Arrays.asList("noop", "checklinks"), entries.iterator().next().getTaskNames());
+
+        // entries queued once the queue has been read are left for the next reader
+        queue.enqueue("monthly", entry("123456789/4"));
+        assertEquals(Set.of("123456789/4"), objectIds(otherQueue.dequeue("monthly", 1L)));
+        assertTrue(queue.dequeue("monthly", 1L).isEmpty());
+
+        queue.release("monthly", 1L, true);
+        otherQueue.release("monthly", 1L, false);
+        assertEquals(Set.of("123456789/4"), objectIds(queue.dequeue("monthly", 2L)));
+        Set<String> names = new HashSet<>(Arrays.asList(queue.queueNames()));
+        assertEquals(Set.of("monthly", "weekly"), names);
+    }
+
+    @Test
+    public void testExpiredClaimsAreReadAgain() throws Exception {
+        DBTaskQueue queue = new DBTaskQueue(dataSource, -1);
+        queue.enqueue("monthly", entry("123456789/1"));
+
+        assertEquals(1, queue.dequeue("monthly", 1L).size());
+        // the reader died without releasing its entries
+        assertEquals(Set.of("123456789/1"), objectIds(new DBTaskQueue(dataSource, -1).dequeue("monthly", 1L)));
+
+        queue.release("monthly", 1L, true);
+        assertArrayEquals(new String[] {"monthly"}, queue.queueNames());
+    }
+
+    @Test
+    public void testReadersClaimBoundedBatches() throws Exception {
+        DBTaskQueue queue = new DBTaskQueue(dataSource, 60000, 2);
+        for (int i = 1; i <= 5; i++) {
+            queue.enqueue("monthly", new TaskQueueEntry("admin", i, Arrays.asList("noop"), "123456789/" + i));
+        }
+
+        // the oldest entries are read first
+        assertEquals(Set.of("123456789/1", "123456789/2"), objectIds(queue.dequeue("monthly", 1L)));
+        assertEquals(Set.of("123456789/3", "123456789/4"),
+                     objectIds(new DBTaskQueue(dataSource, 60000, 2).dequeue("monthly", 1L)));
+        queue.release("monthly", 1L, true);
+        assertEquals(Set.of("123456789/5"), objectIds(queue.dequeue("monthly", 2L)));
+    }
+
+    @Test(timeout = 60000)
+    public void testConcurrentReaders() throws Exception {
+        Set<TaskQueueEntry> queued = new HashSet<>();
+        for (int i = 0; i < 500; i++) {
+            queued.add(entry("123456789/" + i));
+        }
+        new DBTaskQueue(dataSource, 60000).enqueue("monthly", queued);
+
+        // two readers drain the queue at once, in batches
+        CyclicBarrier start = new CyclicBarrier(2);
+        ExecutorService readers = Executors.newFixedThreadPool(2);
+        try {
+            List<Future<List<String>>> results = new ArrayList<>();
+            for (int i = 0; i < 2; i++) {
+                results.add(readers.submit(() -> {
+                    DBTaskQueue queue = new DBTaskQueue(dataSource, 60000, 10);
+                    List<String> read = new ArrayList<>();
+                    start.await();
+                    for (long ticket = 1; ; ticket++) {
+                        Set<TaskQueueEntry> entries = queue.dequeue("monthly", ticket);
+                        if (entries.isEmpty()) {
+                            return read;
+                        }
+                        assertTrue(entries.size() <= 10);
+                        read.addAll(objectIds(entries));
+                        queue.release("monthly", ticket, true);
+                    }
+                }));
+            }
+
+            List<String> read = new ArrayList<>();
+            for (Future<List<String>> result : results) {
+                read.addAll(result.get());
+            }
+            // every entry is read once, by one of the readers
+            assertEquals(queued.size(), read.size());
+            assertEquals(objectIds(queued), new HashSet<>(read));
+        } finally {
+            readers.shutdownNow();
+        }
+        assertEquals(0, new DBTaskQueue(dataSource, 60000).queueNames().length);
+    }
+
+    private TaskQueueEntry entry(String objectId) {
+        return new TaskQueueEntry("admin", System.currentTimeMillis(), Arrays.asList("noop", "checklinks"), objectId);
+    }
+
+    private Set<String> objectIds(Set<TaskQueueEntry> entries) {
+        return entries.stream().map(TaskQueueEntry::getObjectId).collect(Collectors.toSet());
+    }
+}
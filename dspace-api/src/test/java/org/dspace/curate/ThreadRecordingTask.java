@@ -0,0 +1,48 @@
+/**
+ * The contents of this file are subject to the license and copyright
+ * detailed in the LICENSE and NOTICE files at the root of the source
+ * tree and available online at
+ *
+ * http://www.dspace.org/license/
+ */
+package org.dspace.curate;
+
+import java.io.IOException;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.dspace.content.DSpaceObject;
+import org.dspace.content.Item;
+
+/**
+ * Makes no model changes, but records the thread which curated each item, for inspection by
+ * {@link CuratorPoolIT}. Curating the item {@link #failingItem} fails.
+ */
+public class ThreadRecordingTask
+    extends AbstractCurationTask {
+
+    /**
+     * Name of the thread which curated each item, by item ID
+     */
+    static final Map<UUID, String> curatedItems = new ConcurrentHashMap<>();
+
+    /**
+     * ID of an item which can't be curated, if any
+     */
+    static volatile UUID failingItem;
+
+    @Override
+    public int perform(DSpaceObject dso)
+            throws IOException {
+        if (!(dso instanceof Item)) {
+            return Curator.CURATE_SKIP;
+        }
+        if (dso.getID().equals(failingItem)) {
+            throw new IOException("Unable to curate " + dso.getID());
+        }
+        curatedItems.put(dso.getID(), Thread.currentThread().getName());
+        setResult("Curated " + dso.getID());
+        return Curator.CURATE_SUCCESS;
+    }
+}
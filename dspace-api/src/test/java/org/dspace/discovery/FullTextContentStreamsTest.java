@@ -11,6 +11,8 @@ import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertNotNull;
 import static org.junit.Assert.assertTrue;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 import java.io.ByteArrayInputStream;
@@ -201,4 +203,27 @@ public class FullTextContentStreamsTest {
                    content.contains("NOTFOUND"));
     }
 
+    @Test
+    public void testReadFullText() throws Exception {
+        when(item.getBundles()).thenReturn(Arrays.asList(originalBundle, textBundle));
+        when(textBundle.getBitstreams()).thenReturn(Arrays.asList(textBitstream1, textBitstream2, textBitstream3));
+
+        streams.init(item);
+
+        assertEquals("The full text should match the text of the bitstreams", "\nThis is text 1" +
+            "\nThis is text 2\nThis is text 3", streams.readFullText(-1));
+    }
+
+    @Test
+    public void testReadFullTextWithLimit() throws Exception {
+        when(item.getBundles()).thenReturn(Arrays.asList(originalBundle, textBundle));
+        when(textBundle.getBitstreams()).thenReturn(Arrays.asList(textBitstream1, textBitstream2, textBitstream3));
+
+        streams.init(item);
+
+        assertEquals("The full text should be truncated to the limit", "\nThis is text 1\nThis",
+                     streams.readFullText(20));
+        verify(bitstreamService, never()).retrieve(null, textBitstream3);
+    }
+
 }
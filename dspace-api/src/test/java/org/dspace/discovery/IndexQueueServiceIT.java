@@ -0,0 +1,156 @@
+/**
+ * The contents of this file are subject to the license and copyright
+ * detailed in the LICENSE and NOTICE files at the root of the source
+ * tree and available online at
+ *
+ * http://www.dspace.org/license/
+ */
+package org.dspace.discovery;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.List;
+
+import org.dspace.AbstractIntegrationTestWithDatabase;
+import org.dspace.builder.CollectionBuilder;
+import org.dspace.builder.CommunityBuilder;
+import org.dspace.builder.ItemBuilder;
+import org.dspace.builder.WorkspaceItemBuilder;
+import org.dspace.content.Collection;
+import org.dspace.content.Item;
+import org.dspace.content.WorkspaceItem;
+import org.dspace.content.factory.ContentServiceFactory;
+import org.dspace.content.service.InstallItemService;
+import org.dspace.content.service.ItemService;
+import org.dspace.core.Context;
+import org.dspace.discovery.indexobject.IndexableItem;
+import org.dspace.discovery.indexobject.IndexableWorkspaceItem;
+import org.dspace.services.ConfigurationService;
+import org.dspace.services.factory.DSpaceServicesFactory;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+/**
+ * Tests the asynchronous indexing of the {@link IndexEventConsumer} through the {@link IndexQueueService}
+ */
+public class IndexQueueServiceIT extends AbstractIntegrationTestWithDatabase {
+
+    private static final long TIMEOUT = 30000;
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private final ConfigurationService configurationService =
+        DSpaceServicesFactory.getInstance().getConfigurationService();
+    private final IndexQueueServiceImpl indexQueueService = (IndexQueueServiceImpl) DSpaceServicesFactory
+        .getInstance().getServiceManager().getServiceByName(IndexQueueService.class.getName(), IndexQueueService.class);
+    private final SearchService searchService = SearchUtils.getSearchService();
+    private final ItemService itemService = ContentServiceFactory.getInstance().getItemService();
+    private final InstallItemService installItemService = ContentServiceFactory.getInstance()
+                                                                              .getInstallItemService();
+
+    private Collection collection;
+
+    @Before
+    @Override
+    public void setUp() throws Exception {
+        super.setUp();
+        configurationService.setProperty("discovery.index.async.enabled", true);
+        configurationService.setProperty("discovery.index.async.journal",
+                                         folder.newFile("queue.journal").getAbsolutePath());
+        indexQueueService.init();
+
+        context.turnOffAuthorisationSystem();
+        collection = CollectionBuilder.createCollection(context, CommunityBuilder.createCommunity(context).build())
+                                      .withName("Collection")
+                                      .build();
+        context.restoreAuthSystemState();
+        context.commit();
+        assertTrue(indexQueueService.waitForIndex(TIMEOUT));
+    }
+
+    @After
+    @Override
+    public void destroy() throws Exception {
+        indexQueueService.waitForIndex(TIMEOUT);
+        indexQueueService.destroy();
+        configurationService.setProperty("discovery.index.async.enabled", false);
+        super.destroy();
+    }
+
+    @Test
+    public void testChangesQueuedOnCommit() throws Exception {
+        context.turnOffAuthorisationSystem();
+        Item item = ItemBuilder.createItem(context, collection).withTitle("Queued item").build();
+        context.restoreAuthSystemState();
+
+        // the events were dispatched, but the item is only handed to the queue once committed
+        assertEquals(0, indexQueueService.getQueueSize());
+        assertSearchQuery(IndexableItem.TYPE, 0);
+
+        context.commit();
+        assertTrue(indexQueueService.waitForIndex(TIMEOUT));
+        assertSearchQuery(IndexableItem.TYPE, 1);
+
+        context.turnOffAuthorisationSystem();
+        item = context.reloadEntity(item);
+        itemService.addMetadata(context, item, "dc", "subject", null, null, "queued subject");
+        itemService.update(context, item);
+        context.restoreAuthSystemState();
+        context.commit();
+        assertTrue(indexQueueService.waitForIndex(TIMEOUT));
+
+        DiscoverQuery query = new DiscoverQuery();
+        query.setQuery("\"queued subject\"");
+        assertEquals(1, searchService.search(context, query).getTotalSearchResults());
+    }
+
+    @Test
+    public void testChangesDiscardedOnAbort() throws Exception {
+        Context otherContext = new Context();
+        try {
+            otherContext.turnOffAuthorisationSystem();
+            ItemBuilder.createItem(otherContext, otherContext.reloadEntity(collection)).withTitle("Aborted").build();
+        } finally {
+            otherContext.abort();
+        }
+
+        assertEquals(0, indexQueueService.getQueueSize());
+        assertTrue(indexQueueService.waitForIndex(TIMEOUT));
+        assertSearchQuery(IndexableItem.TYPE, 0);
+    }
+
+    @Test
+    public void testInstallRemovesWorkspaceItem() throws Exception {
+        context.turnOffAuthorisationSystem();
+        WorkspaceItem workspaceItem = WorkspaceItemBuilder.createWorkspaceItem(context, collection)
+                                                          .withTitle("Submission")
+                                                          .build();
+        context.restoreAuthSystemState();
+        context.commit();
+        assertTrue(indexQueueService.waitForIndex(TIMEOUT));
+        assertSearchQuery(IndexableWorkspaceItem.TYPE, 1);
+        assertSearchQuery(IndexableItem.TYPE, 0);
+
+        // the item is both deleted (removing the workspace item document) and updated when installed
+        context.turnOffAuthorisationSystem();
+        installItemService.installItem(context, context.reloadEntity(workspaceItem));
+        context.restoreAuthSystemState();
+        context.commit();
+        assertTrue(indexQueueService.waitForIndex(TIMEOUT));
+        assertSearchQuery(IndexableWorkspaceItem.TYPE, 0);
+        assertSearchQuery(IndexableItem.TYPE, 1);
+    }
+
+    private void assertSearchQuery(String resourceType, int size) throws SearchServiceException {
+        DiscoverQuery discoverQuery = new DiscoverQuery();
+        discoverQuery.setQuery("*:*");
+        discoverQuery.addFilterQueries("search.resourcetype:" + resourceType);
+        List<IndexableObject> indexableObjects = searchService.search(context, discoverQuery).getIndexableObjects();
+        assertEquals(size, indexableObjects.size());
+    }
+}
@@ -0,0 +1,147 @@
+/**
+ * The contents of this file are subject to the license and copyright
+ * detailed in the LICENSE and NOTICE files at the root of the source
+ * tree and available online at
+ *
+ * http://www.dspace.org/license/
+ */
+package org.dspace.discovery;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.mockConstruction;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.Iterator;
+import java.util.List;
+import java.util.UUID;
+
+import org.apache.solr.client.solrj.SolrClient;
+import org.apache.solr.common.SolrInputDocument;
+import org.dspace.content.Item;
+import org.dspace.content.factory.ContentServiceFactory;
+import org.dspace.content.service.ItemService;
+import org.dspace.core.Context;
+import org.dspace.discovery.indexobject.IndexableItem;
+import org.dspace.discovery.indexobject.factory.IndexFactory;
+import org.dspace.services.ConfigurationService;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.MockedConstruction;
+
+/**
+ * Unit tests for the parallel reindex of the Items by {@link SolrServiceImpl}. The Context of each range is
+ * mocked, which only applies to the calling thread, so the ranges are indexed directly.
+ */
+public class SolrServiceImplTest {
+
+    private final ItemService itemService = mock(ItemService.class);
+    private final IndexFactory itemIndexFactory = mock(IndexFactory.class);
+    private final SolrClient solr = mock(SolrClient.class);
+    private MockedConstruction<Context> contexts;
+    private SolrServiceImpl solrService;
+
+    @Before
+    public void setUp() throws Exception {
+        // each range is indexed with its own Context
+        contexts = mockConstruction(Context.class);
+
+        ContentServiceFactory contentServiceFactory = mock(ContentServiceFactory.class);
+        when(contentServiceFactory.getItemService()).thenReturn(itemService);
+        SolrSearchCore solrSearchCore = mock(SolrSearchCore.class);
+        when(solrSearchCore.getSolr()).thenReturn(solr);
+        ConfigurationService configurationService = mock(ConfigurationService.class);
+        when(configurationService.getIntProperty(anyString(), anyInt()))
+            .thenAnswer(invocation -> invocation.getArgument(1));
+        when(configurationService.getLongProperty(anyString(), anyLong()))
+            .thenAnswer(invocation -> invocation.getArgument(1));
+        when(itemIndexFactory.buildCompleteDocument(any(Context.class), any(IndexableItem.class)))
+            .thenAnswer(invocation -> new SolrInputDocument());
+
+        solrService = new SolrServiceImpl();
+        solrService.contentServiceFactory = contentServiceFactory;
+        solrService.solrSearchCore = solrSearchCore;
+        solrService.configurationService = configurationService;
+    }
+
+    @After
+    public void tearDown() {
+        contexts.close();
+    }
+
+    @Test
+    public void testSplitIdSpaceSingleRange() {
+        assertTrue(SolrServiceImpl.splitIdSpace(1).isEmpty());
+    }
+
+    @Test
+    public void testSplitIdSpaceBoundariesAreAscending() {
+        List<UUID> boundaries = SolrServiceImpl.splitIdSpace(16);
+        assertEquals(15, boundaries.size());
+        assertEquals(UUID.fromString("0fffffff-ffff-ffff-0000-000000000000"), boundaries.get(0));
+        for (int i = 1; i < boundaries.size(); i++) {
+            // the database orders UUIDs by their unsigned value
+            assertTrue(Long.compareUnsigned(boundaries.get(i - 1).getMostSignificantBits(),
+                                            boundaries.get(i).getMostSignificantBits()) < 0);
+        }
+    }
+
+    @Test
+    public void testFailedDocumentIsCountedAndSkipped() throws Exception {
+        Item failing = mockItem();
+        when(itemIndexFactory.buildCompleteDocument(any(Context.class), any(IndexableItem.class)))
+            .thenAnswer(invocation -> {
+                IndexableItem indexableItem = invocation.getArgument(1);
+                if (indexableItem.getIndexedObject() == failing) {
+                    throw new IllegalStateException("Broken metadata");
+                }
+                return new SolrInputDocument();
+            });
+        List<Item> items = List.of(mockItem(), failing, mockItem());
+        when(itemService.findAllUnfilteredByIdRange(any(Context.class), eq(null), eq(null)))
+            .thenReturn(items.iterator());
+
+        SolrServiceImpl.IndexingProgress progress = new SolrServiceImpl.IndexingProgress(100);
+        solrService.indexItemRange(itemIndexFactory, null, null, true, 10, progress);
+
+        assertEquals(2, progress.getIndexed());
+        assertEquals(1, progress.getFailed());
+        assertEquals(0, progress.getFailedRanges());
+        verify(solr).add(anyCollection());
+        verify(contexts.constructed().get(0)).abort();
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void testFailedIterationIsCounted() throws Exception {
+        Iterator<Item> items = mock(Iterator.class);
+        Item item = mockItem();
+        when(items.hasNext()).thenReturn(true);
+        when(items.next()).thenReturn(item, item, item).thenThrow(new IllegalStateException("Connection reset"));
+        when(itemService.findAllUnfilteredByIdRange(any(Context.class), eq(null), eq(null))).thenReturn(items);
+
+        SolrServiceImpl.IndexingProgress progress = new SolrServiceImpl.IndexingProgress(100);
+        solrService.indexItemRange(itemIndexFactory, null, null, true, 2, progress);
+
+        // the first batch was written, the document of the second one is lost with the rest of the range
+        assertEquals(2, progress.getIndexed());
+        assertEquals(1, progress.getFailed());
+        assertEquals(1, progress.getFailedRanges());
+        verify(contexts.constructed().get(0)).abort();
+    }
+
+    private static Item mockItem() {
+        Item item = mock(Item.class);
+        when(item.getID()).thenReturn(UUID.randomUUID());
+        return item;
+    }
+}
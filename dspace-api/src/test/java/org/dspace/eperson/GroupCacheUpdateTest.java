@@ -0,0 +1,187 @@
+/**
+ * The contents of this file are subject to the license and copyright
+ * detailed in the LICENSE and NOTICE files at the root of the source
+ * tree and available online at
+ *
+ * http://www.dspace.org/license/
+ */
+package org.dspace.eperson;
+
+import static org.junit.Assert.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyBoolean;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import org.apache.commons.lang3.tuple.ImmutablePair;
+import org.apache.commons.lang3.tuple.Pair;
+import org.dspace.core.Context;
+import org.dspace.eperson.dao.Group2GroupCacheDAO;
+import org.dspace.eperson.dao.GroupDAO;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.MockitoJUnitRunner;
+
+/**
+ * Unit tests for the incremental maintenance of the group2groupcache table by {@link GroupServiceImpl}
+ */
+@RunWith(MockitoJUnitRunner.class)
+public class GroupCacheUpdateTest {
+
+    @InjectMocks
+    private GroupServiceImpl groupService;
+
+    @Mock
+    private GroupDAO groupDAO;
+    @Mock
+    private Group2GroupCacheDAO group2GroupCacheDAO;
+    @Mock
+    private Context context;
+
+    private Group a;
+    private Group b;
+    private Group c;
+    private List<Group2GroupCache> created;
+
+    @Before
+    public void setUp() throws SQLException {
+        a = mockGroup();
+        b = mockGroup();
+        c = mockGroup();
+        created = new ArrayList<>();
+        lenient().when(group2GroupCacheDAO.create(eq(context), any(Group2GroupCache.class)))
+                 .thenAnswer(invocation -> {
+                     Group2GroupCache group2GroupCache = invocation.getArgument(1);
+                     created.add(group2GroupCache);
+                     return group2GroupCache;
+                 });
+    }
+
+    @Test
+    public void testAddedSubgroupOnlyInsertsNewEntries() throws SQLException {
+        // A > B existed, C has just been added to B
+        Group2GroupCache ab = entry(a, b);
+        when(group2GroupCacheDAO.findByChildren(context, List.of(b))).thenReturn(List.of(ab));
+        mockLinks(links(a, b, b, c));
+        when(group2GroupCacheDAO.findByParentIds(eq(context), anyCollection())).thenReturn(List.of(ab));
+        when(groupDAO.findByIds(eq(context), anyCollection())).thenAnswer(invocation -> {
+            Collection<UUID> ids = invocation.getArgument(1);
+            return Stream.of(a, b, c).filter(group -> ids.contains(group.getID())).collect(Collectors.toList());
+        });
+
+        groupService.updateGroupCache(context, List.of(b));
+
+        assertEquals(Set.of(List.of(a.getID(), c.getID()), List.of(b.getID(), c.getID())), pairs(created));
+        // the groups are loaded at once, and the relations of unrelated groups are never loaded
+        verify(groupDAO).findByIds(eq(context), anyCollection());
+        verify(groupDAO, never()).findByID(any(), any(), any());
+        verify(groupDAO, never()).getGroup2GroupResults(any(), anyBoolean());
+        verify(group2GroupCacheDAO, never()).delete(any(), any());
+        verify(group2GroupCacheDAO, never()).deleteAll(any());
+    }
+
+    @Test
+    public void testRemovedSubgroupOnlyDeletesStaleEntries() throws SQLException {
+        // A > B > C existed, C has just been removed from B
+        Group2GroupCache ab = entry(a, b);
+        Group2GroupCache ac = entry(a, c);
+        Group2GroupCache bc = entry(b, c);
+        when(group2GroupCacheDAO.findByChildren(context, List.of(b))).thenReturn(List.of(ab));
+        mockLinks(links(a, b));
+        when(group2GroupCacheDAO.findByParentIds(eq(context), anyCollection())).thenReturn(List.of(ab, ac, bc));
+
+        groupService.updateGroupCache(context, List.of(b));
+
+        verify(group2GroupCacheDAO).delete(context, ac);
+        verify(group2GroupCacheDAO).delete(context, bc);
+        verify(group2GroupCacheDAO, never()).delete(context, ab);
+        assertEquals(0, created.size());
+        verify(groupDAO, never()).findByIds(any(), any());
+    }
+
+    @Test
+    public void testOnlyAffectedSubtreeIsLoaded() throws SQLException {
+        // D > A > B > C and an unrelated E > F, a new subgroup was added to B
+        Group d = mockGroup();
+        Group e = mockGroup();
+        Group f = mockGroup();
+        when(group2GroupCacheDAO.findByChildren(context, List.of(b))).thenReturn(List.of(entry(a, b), entry(d, b)));
+        mockLinks(links(d, a, a, b, b, c, e, f));
+
+        groupService.updateGroupCache(context, List.of(b));
+
+        verify(groupDAO).getGroup2GroupResultsByChildren(context, Set.of(b.getID()));
+        verify(groupDAO).getGroup2GroupResultsByChildren(context, Set.of(a.getID()));
+        verify(groupDAO).getGroup2GroupResultsByChildren(context, Set.of(d.getID()));
+        verify(groupDAO).getGroup2GroupResultsByParents(context, Set.of(a.getID(), b.getID(), d.getID()));
+        verify(groupDAO).getGroup2GroupResultsByParents(context, Set.of(c.getID()));
+        verify(groupDAO, never()).getGroup2GroupResultsByParents(eq(context), argThat(ids -> ids.contains(e.getID())));
+        verify(group2GroupCacheDAO).findByParentIds(context, Set.of(a.getID(), b.getID(), d.getID()));
+    }
+
+    private Group mockGroup() {
+        Group group = mock(Group.class);
+        when(group.getID()).thenReturn(UUID.randomUUID());
+        return group;
+    }
+
+    private Group2GroupCache entry(Group parent, Group child) {
+        Group2GroupCache group2GroupCache = new Group2GroupCache();
+        group2GroupCache.setParent(parent);
+        group2GroupCache.setChild(child);
+        return group2GroupCache;
+    }
+
+    /**
+     * Answer the lookups of direct group2group relations by parent or child from the given relations
+     */
+    private void mockLinks(List<Pair<UUID, UUID>> links) throws SQLException {
+        lenient().when(groupDAO.getGroup2GroupResultsByChildren(eq(context), anyCollection()))
+                 .thenAnswer(invocation -> {
+                     Collection<UUID> ids = new HashSet<>(invocation.getArgument(1));
+                     return links.stream().filter(link -> ids.contains(link.getRight()))
+                                 .collect(Collectors.toList());
+                 });
+        lenient().when(groupDAO.getGroup2GroupResultsByParents(eq(context), anyCollection()))
+                 .thenAnswer(invocation -> {
+                     Collection<UUID> ids = new HashSet<>(invocation.getArgument(1));
+                     return links.stream().filter(link -> ids.contains(link.getLeft()))
+                                 .collect(Collectors.toList());
+                 });
+    }
+
+    private List<Pair<UUID, UUID>> links(Group... groups) {
+        List<Pair<UUID, UUID>> links = new ArrayList<>();
+        for (int i = 0; i < groups.length; i += 2) {
+            links.add(new ImmutablePair<>(groups[i].getID(), groups[i + 1].getID()));
+        }
+        return links;
+    }
+
+    private Set<List<UUID>> pairs(List<Group2GroupCache> entries) {
+        Set<List<UUID>> pairs = new HashSet<>();
+        for (Group2GroupCache entry : entries) {
+            pairs.add(List.of(entry.getParent().getID(), entry.getChild().getID()));
+        }
+        return pairs;
+    }
+}
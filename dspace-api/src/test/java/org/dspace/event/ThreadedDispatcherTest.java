@@ -0,0 +1,120 @@
+/**
+ * The contents of this file are subject to the license and copyright
+ * detailed in the LICENSE and NOTICE files at the root of the source
+ * tree and available online at
+ *
+ * http://www.dspace.org/license/
+ */
+package org.dspace.event;
+
+import static org.junit.Assert.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import org.dspace.core.Context;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InOrder;
+
+/**
+ * Unit tests for the dispatch of events to synchronous and asynchronous consumers by {@link ThreadedDispatcher}
+ */
+public class ThreadedDispatcherTest {
+
+    private Context context;
+    private Context workerContext;
+    private Consumer syncConsumer;
+    private Consumer asyncConsumer;
+    private Consumer workerConsumer;
+    private ThreadedDispatcher dispatcher;
+
+    @Before
+    public void setUp() throws Exception {
+        context = mock(Context.class);
+        workerContext = mock(Context.class);
+        syncConsumer = mock(Consumer.class);
+        asyncConsumer = mock(Consumer.class);
+        workerConsumer = mock(Consumer.class);
+        when(workerContext.isValid()).thenReturn(false);
+
+        // the worker has its own instance of the consumer, like when created from the configuration
+        ThreadedDispatcher.ConsumerWorker worker =
+            new ThreadedDispatcher.ConsumerWorker(mockProfile("async-test", workerConsumer, true)) {
+                @Override
+                protected Context createContext() {
+                    return workerContext;
+                }
+            };
+        dispatcher = new ThreadedDispatcher("test") {
+            @Override
+            protected ConsumerWorker getWorker(String consumerName) {
+                return worker;
+            }
+        };
+        dispatcher.addConsumerProfile(mockProfile("sync-test", syncConsumer, false));
+        dispatcher.addConsumerProfile(mockProfile("async-test", asyncConsumer, true));
+    }
+
+    @Test
+    public void testAsynchronousConsumerRunsAfterCommit() throws Exception {
+        Event first = mockEvent();
+        Event second = mockEvent();
+        when(context.hasEvents()).thenReturn(true, true, true, false);
+        when(context.pollEvent()).thenReturn(first, second);
+
+        dispatcher.dispatch(context);
+
+        // the synchronous consumer ran in the committing thread, the asynchronous one is waiting for the commit
+        verify(syncConsumer).consume(context, first);
+        verify(syncConsumer).consume(context, second);
+        verify(syncConsumer).end(context);
+        verify(workerConsumer, never()).consume(any(), any());
+        verify(asyncConsumer, never()).consume(any(), any());
+        ArgumentCaptor<Runnable> afterCommit = ArgumentCaptor.forClass(Runnable.class);
+        verify(context).addAfterCommitTask(afterCommit.capture());
+
+        afterCommit.getValue().run();
+
+        InOrder inOrder = inOrder(workerConsumer, workerContext);
+        inOrder.verify(workerConsumer, timeout(5000)).consume(workerContext, first);
+        inOrder.verify(workerConsumer, timeout(5000)).consume(workerContext, second);
+        inOrder.verify(workerConsumer, timeout(5000)).end(workerContext);
+        inOrder.verify(workerContext, timeout(5000)).complete();
+    }
+
+    @Test
+    public void testFailingConsumerDoesNotStopOthers() throws Exception {
+        Event event = mockEvent();
+        when(context.hasEvents()).thenReturn(true, true, false);
+        when(context.pollEvent()).thenReturn(event);
+        doThrow(new IllegalStateException("failed")).when(syncConsumer).consume(context, event);
+        long failures = ConsumerStatistics.get("sync-test").getFailures();
+
+        dispatcher.dispatch(context);
+
+        verify(syncConsumer).end(context);
+        verify(context).addAfterCommitTask(any());
+        assertEquals(failures + 1, ConsumerStatistics.get("sync-test").getFailures());
+    }
+
+    private ConsumerProfile mockProfile(String name, Consumer consumer, boolean asynchronous) {
+        ConsumerProfile profile = mock(ConsumerProfile.class);
+        when(profile.getName()).thenReturn(name);
+        when(profile.getConsumer()).thenReturn(consumer);
+        when(profile.isAsynchronous()).thenReturn(asynchronous);
+        return profile;
+    }
+
+    private Event mockEvent() {
+        Event event = mock(Event.class);
+        when(event.pass(any())).thenReturn(true);
+        return event;
+    }
+}
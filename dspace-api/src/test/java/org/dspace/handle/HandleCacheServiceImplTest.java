@@ -0,0 +1,153 @@
+/**
+ * The contents of this file are subject to the license and copyright
+ * detailed in the LICENSE and NOTICE files at the root of the source
+ * tree and available online at
+ *
+ * http://www.dspace.org/license/
+ */
+package org.dspace.handle;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyBoolean;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.dspace.content.Item;
+import org.dspace.core.Constants;
+import org.dspace.core.Context;
+import org.dspace.handle.service.HandleCacheService.HandleTarget;
+import org.dspace.services.ConfigurationService;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.ArgumentCaptor;
+
+public class HandleCacheServiceImplTest {
+
+    private final HandleCacheServiceImpl cache = new HandleCacheServiceImpl();
+    private final Context context = mock(Context.class);
+    private final AtomicInteger loads = new AtomicInteger();
+    private final UUID itemId = UUID.randomUUID();
+    private Handle handle;
+
+    @Before
+    public void setUp() {
+        ConfigurationService configurationService = mock(ConfigurationService.class);
+        when(configurationService.getBooleanProperty(eq("handle.cache.enabled"), anyBoolean())).thenReturn(true);
+        when(configurationService.getLongProperty(eq("handle.cache.ttl"), anyLong())).thenReturn(3600L);
+        when(configurationService.getLongProperty(eq("handle.cache.max"), anyLong())).thenReturn(100L);
+        cache.configurationService = configurationService;
+        cache.init();
+
+        Item item = mock(Item.class);
+        when(item.getID()).thenReturn(itemId);
+        handle = new Handle();
+        handle.setHandle("123456789/1");
+        handle.setDSpaceObject(item);
+        handle.setResourceTypeId(Constants.ITEM);
+        when(context.isValid()).thenReturn(true);
+    }
+
+    @Test
+    public void testResolve() throws Exception {
+        HandleTarget target = resolve("123456789/1");
+        assertEquals(Constants.ITEM, target.getType());
+        assertTrue(target.isBound());
+        assertEquals(itemId, target.getDSpaceObjectId());
+
+        assertEquals(itemId, resolve("123456789/1").getDSpaceObjectId());
+        assertEquals(1, loads.get());
+        assertEquals(1L, (long) cache.getStatistics().get("handle.hits"));
+        assertEquals(1L, (long) cache.getStatistics().get("handle.misses"));
+    }
+
+    @Test
+    public void testMissingHandleNotStored() throws Exception {
+        assertNull(cache.resolve(context, "123456789/2", () -> {
+            loads.incrementAndGet();
+            return null;
+        }));
+        assertNull(cache.resolve(context, "123456789/2", () -> {
+            loads.incrementAndGet();
+            return null;
+        }));
+        assertEquals(2, loads.get());
+    }
+
+    @Test
+    public void testFindHandle() throws Exception {
+        assertNull(findHandle(null));
+        assertNull(findHandle("123456789/1"));
+        assertEquals(1, loads.get());
+        assertEquals(1L, (long) cache.getStatistics().get("handle.objects.hits"));
+    }
+
+    @Test
+    public void testInvalidateOnCommit() throws Exception {
+        resolve("123456789/1");
+        cache.invalidateOnCommit(context, "123456789/1", itemId);
+        ArgumentCaptor<Runnable> task = ArgumentCaptor.forClass(Runnable.class);
+        verify(context).addAfterCommitTask(task.capture());
+
+        // the thread with uncommitted changes looks the handle up every time, without storing it
+        resolve("123456789/1");
+        resolve("123456789/1");
+        assertEquals(3, loads.get());
+        assertEquals(0L, (long) cache.getStatistics().get("handle.size"));
+
+        task.getValue().run();
+        resolve("123456789/1");
+        resolve("123456789/1");
+        assertEquals(4, loads.get());
+    }
+
+    @Test
+    public void testAbortedContextForgotten() throws Exception {
+        cache.invalidateOnCommit(context, "123456789/1", itemId);
+        verify(context).addAfterCommitTask(any());
+        when(context.isValid()).thenReturn(false);
+        resolve("123456789/1");
+        resolve("123456789/1");
+        assertEquals(1, loads.get());
+    }
+
+    @Test
+    public void testDisabled() throws Exception {
+        HandleCacheServiceImpl disabled = new HandleCacheServiceImpl();
+        disabled.configurationService = mock(ConfigurationService.class);
+        disabled.init();
+        assertFalse(disabled.isEnabled());
+        disabled.resolve(context, "123456789/1", () -> {
+            loads.incrementAndGet();
+            return handle;
+        });
+        disabled.resolve(context, "123456789/1", () -> {
+            loads.incrementAndGet();
+            return handle;
+        });
+        assertEquals(2, loads.get());
+    }
+
+    private HandleTarget resolve(String id) throws Exception {
+        return cache.resolve(context, id, () -> {
+            loads.incrementAndGet();
+            return handle;
+        });
+    }
+
+    private String findHandle(String result) throws Exception {
+        return cache.findHandle(context, itemId, () -> {
+            loads.incrementAndGet();
+            return result;
+        });
+    }
+}
@@ -0,0 +1,71 @@
+/**
+ * The contents of this file are subject to the license and copyright
+ * detailed in the LICENSE and NOTICE files at the root of the source
+ * tree and available online at
+ *
+ * http://www.dspace.org/license/
+ */
+package org.dspace.statistics;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.ArgumentMatchers.anyBoolean;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+import org.apache.solr.client.solrj.SolrClient;
+import org.apache.solr.common.SolrInputDocument;
+import org.junit.Test;
+
+/**
+ * Unit tests for {@link StatisticsEventBuffer}
+ */
+public class StatisticsEventBufferTest {
+
+    private final SolrClient solr = mock(SolrClient.class);
+
+    @Test
+    public void testDocumentsAreWrittenInBatches() throws Exception {
+        StatisticsEventBuffer buffer = new StatisticsEventBuffer(solr, 100, 10, 60000,
+            StatisticsEventBuffer.OverflowPolicy.DROP, 0, false);
+        for (int i = 0; i < 25; i++) {
+            assertTrue(buffer.add(new SolrInputDocument()));
+        }
+        buffer.start();
+        buffer.shutdown(10000);
+
+        assertEquals(25, buffer.getFlushedCount());
+        assertEquals(0, buffer.getDroppedCount());
+        verify(solr, times(3)).add(anyCollection());
+        verify(solr, never()).commit(anyBoolean(), anyBoolean());
+    }
+
+    @Test
+    public void testDocumentsAreDroppedWhenFull() throws Exception {
+        StatisticsEventBuffer buffer = new StatisticsEventBuffer(solr, 2, 10, 60000,
+            StatisticsEventBuffer.OverflowPolicy.DROP, 0, true);
+        assertTrue(buffer.add(new SolrInputDocument()));
+        assertTrue(buffer.add(new SolrInputDocument()));
+        assertFalse(buffer.add(new SolrInputDocument()));
+        assertEquals(1, buffer.getDroppedCount());
+
+        buffer.start();
+        buffer.shutdown(10000);
+        assertEquals(2, buffer.getFlushedCount());
+        verify(solr).commit(false, false);
+    }
+
+    @Test
+    public void testBlockingAddTimesOutWhenFull() {
+        StatisticsEventBuffer buffer = new StatisticsEventBuffer(solr, 1, 10, 60000,
+            StatisticsEventBuffer.OverflowPolicy.BLOCK, 10, false);
+        assertTrue(buffer.add(new SolrInputDocument()));
+        assertFalse(buffer.add(new SolrInputDocument()));
+        assertEquals(1, buffer.getDroppedCount());
+        assertEquals(1, buffer.size());
+    }
+}
@@ -120,6 +120,57 @@ public class IPTableTest {
         assertTrue("IP within an add()ed range should match", contains);
     }
 
+    /**
+     * Test of contains method with CIDR blocks and ranges across subnets.
+     * @throws java.lang.Exception passed through.
+     */
+    @Test
+    public void testContainsBlocks()
+            throws Exception {
+        IPTable instance = new IPTable();
+        instance.add("10.1.0.0/16");
+        instance.add("192.168.1.250-192.168.2.5");
+
+        assertTrue(instance.contains("10.1.255.255"));
+        assertFalse(instance.contains("10.2.0.0"));
+        assertTrue(instance.contains("192.168.1.250"));
+        assertTrue(instance.contains("192.168.2.0"));
+        assertTrue(instance.contains("192.168.2.5"));
+        assertFalse(instance.contains("192.168.1.249"));
+        assertFalse(instance.contains("192.168.2.6"));
+
+        Set<String> ipSet = instance.toSet();
+        assertEquals(256 + 12, ipSet.size());
+        assertTrue(ipSet.contains("10.1.7"));
+        assertTrue(ipSet.contains("192.168.1.255"));
+        assertTrue(ipSet.contains("192.168.2.0"));
+    }
+
+    /**
+     * Test of contains method with IPv6 addresses.
+     * @throws java.lang.Exception passed through.
+     */
+    @Test
+    public void testContainsIPv6()
+            throws Exception {
+        IPTable instance = new IPTable();
+        instance.add("2001:db8::/32");
+        instance.add("fec0:0:0:1::2");
+        instance.add("192.168.1");
+
+        assertTrue(instance.contains("2001:db8:1::1"));
+        assertFalse(instance.contains("2001:db9::1"));
+        assertTrue(instance.contains("fec0::1:0:0:0:2"));
+        assertFalse(instance.contains("fec0:0:0:1::3"));
+        // IPv4-mapped addresses are IPv4 addresses
+        assertTrue(instance.contains("::ffff:192.168.1.7"));
+
+        Set<String> ipSet = instance.toSet();
+        assertEquals(3, ipSet.size());
+        assertTrue(ipSet.contains("2001:db8::/32"));
+        assertTrue(ipSet.contains("fec0:0:0:1::2"));
+    }
+
     /**
      * Test of isEmpty method, of class IPTable.
      * @throws java.lang.Exception passed through.
@@ -0,0 +1,69 @@
+/**
+ * The contents of this file are subject to the license and copyright
+ * detailed in the LICENSE and NOTICE files at the root of the source
+ * tree and available online at
+ *
+ * http://www.dspace.org/license/
+ */
+package org.dspace.statistics.util;
+
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Arrays;
+import java.util.Collections;
+
+import org.junit.Test;
+
+public class MultiPatternMatcherTest {
+
+    private final MultiPatternMatcher matcher = new MultiPatternMatcher(Arrays.asList(
+        "bot", "spider", "crawl", "^Buck\\/[0-9]", "^.?$", "[^a]fish", "aria2\\/\\d", "API[\\+\\s]scraper",
+        "Mozilla\\/5\\.0 \\(compatible; Yahoo", "(a)\\1b", "invalid[", "ABD", "BCE"));
+
+    @Test
+    public void testWords() {
+        assertTrue(matcher.matches("msnbot is watching you"));
+        assertTrue(matcher.matches("Baiduspider"));
+        assertTrue(matcher.matches("crawler"));
+        assertFalse(matcher.matches("Firefox"));
+        assertFalse(matcher.matches("Bot"));
+    }
+
+    @Test
+    public void testOverlappingWords() {
+        // "ABD" fails at "C", the automaton must go on with "BC" rather than start over
+        assertTrue(matcher.matches("xABCE"));
+        assertTrue(matcher.matches("xABD"));
+        assertFalse(matcher.matches("ABxBCx"));
+    }
+
+    @Test
+    public void testEscapedWords() {
+        assertTrue(matcher.matches("Mozilla/5.0 (compatible; Yahoo! Slurp)"));
+        assertFalse(matcher.matches("Mozilla/5x0 (compatible; Yahoo! Slurp)"));
+    }
+
+    @Test
+    public void testRegularExpressions() {
+        assertTrue(matcher.matches("Buck/2.2"));
+        assertFalse(matcher.matches("Mozilla Buck/2.2"));
+        assertTrue(matcher.matches("x"));
+        assertTrue(matcher.matches(""));
+        assertTrue(matcher.matches("swordfish"));
+        assertFalse(matcher.matches("afish"));
+        assertTrue(matcher.matches("aria2/1.36"));
+        assertTrue(matcher.matches("API scraper"));
+        assertTrue(matcher.matches("API+scraper"));
+        // back references are matched on their own
+        assertTrue(matcher.matches("xaab"));
+        assertFalse(matcher.matches("xabb"));
+    }
+
+    @Test
+    public void testNoPatterns() {
+        MultiPatternMatcher empty = new MultiPatternMatcher(Collections.emptyList());
+        assertFalse(empty.matches("bot"));
+        assertFalse(empty.matches(null));
+    }
+}
@@ -0,0 +1,83 @@
+/**
+ * The contents of this file are subject to the license and copyright
+ * detailed in the LICENSE and NOTICE files at the root of the source
+ * tree and available online at
+ *
+ * http://www.dspace.org/license/
+ */
+package org.dspace.storage.bitstore;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.fail;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+
+import org.apache.commons.io.IOUtils;
+import org.dspace.content.Bitstream;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+/**
+ * Unit tests for the ranged reads of {@link DSBitStoreService}
+ */
+public class DSBitStoreServiceTest {
+
+    @Rule
+    public final TemporaryFolder folder = new TemporaryFolder();
+
+    private DSBitStoreService store;
+    private Bitstream bitstream;
+
+    @Before
+    public void setUp() throws Exception {
+        store = new DSBitStoreService();
+        store.setBaseDir(folder.getRoot());
+
+        bitstream = mock(Bitstream.class);
+        when(bitstream.getInternalId()).thenReturn("12345678901234567890");
+        store.put(bitstream, new ByteArrayInputStream("0123456789".getBytes(StandardCharsets.UTF_8)));
+    }
+
+    @Test
+    public void testRangeStartsAtOffset() throws Exception {
+        assertContent("456789", store.get(bitstream, 4, -1));
+    }
+
+    @Test
+    public void testRangeIsBoundedByLength() throws Exception {
+        assertContent("123", store.get(bitstream, 1, 3));
+        assertContent("", store.get(bitstream, 1, 0));
+        // a length past the end of the file stops at the end of the file
+        assertContent("89", store.get(bitstream, 8, 10));
+    }
+
+    @Test
+    public void testFullRange() throws Exception {
+        assertContent("0123456789", store.get(bitstream, 0, -1));
+    }
+
+    @Test
+    public void testMissingFile() throws Exception {
+        Bitstream missing = mock(Bitstream.class);
+        when(missing.getInternalId()).thenReturn("98765432109876543210");
+        try {
+            store.get(missing, 1, 3);
+            fail("Expected an IOException");
+        } catch (IOException e) {
+            // expected
+        }
+    }
+
+    private static void assertContent(String expected, InputStream in) throws IOException {
+        try (InputStream content = in) {
+            assertArrayEquals(expected.getBytes(StandardCharsets.UTF_8), IOUtils.toByteArray(content));
+        }
+    }
+}
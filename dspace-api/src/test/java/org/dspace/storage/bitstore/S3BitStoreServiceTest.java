@@ -0,0 +1,204 @@
+/**
+ * The contents of this file are subject to the license and copyright
+ * detailed in the LICENSE and NOTICE files at the root of the source
+ * tree and available online at
+ *
+ * http://www.dspace.org/license/
+ */
+package org.dspace.storage.bitstore;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.fail;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.security.MessageDigest;
+import java.util.Random;
+
+import com.amazonaws.AmazonClientException;
+import com.amazonaws.services.s3.AmazonS3;
+import com.amazonaws.services.s3.model.AbortMultipartUploadRequest;
+import com.amazonaws.services.s3.model.CompleteMultipartUploadRequest;
+import com.amazonaws.services.s3.model.GetObjectRequest;
+import com.amazonaws.services.s3.model.InitiateMultipartUploadRequest;
+import com.amazonaws.services.s3.model.InitiateMultipartUploadResult;
+import com.amazonaws.services.s3.model.PutObjectRequest;
+import com.amazonaws.services.s3.model.S3Object;
+import com.amazonaws.services.s3.model.UploadPartRequest;
+import com.amazonaws.services.s3.model.UploadPartResult;
+import org.dspace.content.Bitstream;
+import org.dspace.core.Utils;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.ArgumentCaptor;
+
+/**
+ * Unit tests for the uploads and ranged reads of {@link S3BitStoreService}, using a mocked S3 client.
+ */
+public class S3BitStoreServiceTest {
+
+    private static final int PART_SIZE = 5 * 1024 * 1024;
+
+    private AmazonS3 s3;
+    private S3BitStoreService store;
+    private Bitstream bitstream;
+
+    @Before
+    public void setUp() throws Exception {
+        s3 = mock(AmazonS3.class);
+        store = new S3BitStoreService(s3);
+        store.setBucketName("test-bucket");
+        store.setMultipartPartSize(PART_SIZE);
+        store.setMultipartThreads(2);
+        store.init();
+
+        bitstream = mock(Bitstream.class);
+        when(bitstream.getInternalId()).thenReturn("1234");
+    }
+
+    @Test
+    public void testSmallStreamIsStoredWithSingleRequest() throws Exception {
+        byte[] data = randomBytes(1000);
+        store.put(bitstream, new ByteArrayInputStream(data));
+
+        ArgumentCaptor<PutObjectRequest> request = ArgumentCaptor.forClass(PutObjectRequest.class);
+        verify(s3).putObject(request.capture());
+        assertEquals("1234", request.getValue().getKey());
+        assertEquals(1000, request.getValue().getMetadata().getContentLength());
+        verify(s3, never()).initiateMultipartUpload(any());
+        verify(bitstream).setSizeBytes(1000);
+        verify(bitstream).setChecksum(md5(data));
+    }
+
+    @Test
+    public void testLargeStreamIsStoredInParts() throws Exception {
+        InitiateMultipartUploadResult initiated = new InitiateMultipartUploadResult();
+        initiated.setUploadId("upload");
+        when(s3.initiateMultipartUpload(any(InitiateMultipartUploadRequest.class))).thenReturn(initiated);
+        when(s3.uploadPart(any(UploadPartRequest.class))).thenAnswer(invocation -> {
+            UploadPartRequest request = invocation.getArgument(0);
+            UploadPartResult result = new UploadPartResult();
+            result.setPartNumber(request.getPartNumber());
+            result.setETag("etag" + request.getPartNumber());
+            return result;
+        });
+
+        byte[] data = randomBytes(2 * PART_SIZE + 1000);
+        store.put(bitstream, new ByteArrayInputStream(data));
+
+        ArgumentCaptor<UploadPartRequest> parts = ArgumentCaptor.forClass(UploadPartRequest.class);
+        verify(s3, times(3)).uploadPart(parts.capture());
+        long total = parts.getAllValues().stream().mapToLong(UploadPartRequest::getPartSize).sum();
+        assertEquals(data.length, total);
+
+        ArgumentCaptor<CompleteMultipartUploadRequest> complete =
+            ArgumentCaptor.forClass(CompleteMultipartUploadRequest.class);
+        verify(s3).completeMultipartUpload(complete.capture());
+        assertEquals(3, complete.getValue().getPartETags().size());
+        assertEquals("etag1", complete.getValue().getPartETags().get(0).getETag());
+        verify(s3, never()).putObject(any(PutObjectRequest.class));
+        verify(bitstream).setSizeBytes(data.length);
+        verify(bitstream).setChecksum(md5(data));
+    }
+
+    @Test
+    public void testFailedPartAbortsUpload() throws Exception {
+        InitiateMultipartUploadResult initiated = new InitiateMultipartUploadResult();
+        initiated.setUploadId("upload");
+        when(s3.initiateMultipartUpload(any(InitiateMultipartUploadRequest.class))).thenReturn(initiated);
+        when(s3.uploadPart(any(UploadPartRequest.class))).thenThrow(new AmazonClientException("failed"));
+
+        try {
+            store.put(bitstream, new ByteArrayInputStream(randomBytes(PART_SIZE + 1)));
+            fail("Expected an IOException");
+        } catch (IOException e) {
+            // expected
+        }
+        verify(s3).abortMultipartUpload(any(AbortMultipartUploadRequest.class));
+        verify(s3, never()).completeMultipartUpload(any());
+    }
+
+    @Test
+    public void testStreamOfOnePartIsStoredInParts() throws Exception {
+        InitiateMultipartUploadResult initiated = new InitiateMultipartUploadResult();
+        initiated.setUploadId("upload");
+        when(s3.initiateMultipartUpload(any(InitiateMultipartUploadRequest.class))).thenReturn(initiated);
+        when(s3.uploadPart(any(UploadPartRequest.class))).thenReturn(new UploadPartResult());
+
+        byte[] data = randomBytes(PART_SIZE);
+        store.put(bitstream, new ByteArrayInputStream(data));
+
+        ArgumentCaptor<UploadPartRequest> parts = ArgumentCaptor.forClass(UploadPartRequest.class);
+        verify(s3).uploadPart(parts.capture());
+        assertEquals(PART_SIZE, parts.getValue().getPartSize());
+        verify(bitstream).setChecksum(md5(data));
+    }
+
+    @Test
+    public void testRangeIsRequestedFromOffsetToEnd() throws Exception {
+        GetObjectRequest request = getRange(4, -1);
+        assertEquals("test-bucket", request.getBucketName());
+        assertEquals("1234", request.getKey());
+        // an open-ended range is only sent when the caller reads until the end of the object
+        assertArrayEquals(new long[] {4, Long.MAX_VALUE - 1}, request.getRange());
+    }
+
+    @Test
+    public void testRangeIsBoundedByLength() throws Exception {
+        assertArrayEquals(new long[] {1, 3}, getRange(1, 3).getRange());
+    }
+
+    @Test
+    public void testEmptyRangeIsNotRequested() throws Exception {
+        try (InputStream in = store.get(bitstream, 4, 0)) {
+            assertEquals(-1, in.read());
+        }
+        verify(s3, never()).getObject(any(GetObjectRequest.class));
+    }
+
+    @Test
+    public void testClientDefaultsToGlobalEndpoint() {
+        S3BitStoreService unconfigured = new S3BitStoreService();
+        unconfigured.setAwsAccessKey("key");
+        unconfigured.setAwsSecretKey("secret");
+        assertEquals("us-east-1", unconfigured.buildClient().getRegionName());
+
+        unconfigured.setAwsRegionName("eu-west-1");
+        assertEquals("eu-west-1", unconfigured.buildClient().getRegionName());
+    }
+
+    /**
+     * Read a range of the bitstream from the mocked client
+     *
+     * @return the request sent to S3
+     */
+    private GetObjectRequest getRange(long offset, long length) throws IOException {
+        S3Object object = new S3Object();
+        object.setObjectContent(new ByteArrayInputStream(new byte[0]));
+        when(s3.getObject(any(GetObjectRequest.class))).thenReturn(object);
+
+        store.get(bitstream, offset, length).close();
+
+        ArgumentCaptor<GetObjectRequest> request = ArgumentCaptor.forClass(GetObjectRequest.class);
+        verify(s3).getObject(request.capture());
+        return request.getValue();
+    }
+
+    private static byte[] randomBytes(int length) {
+        byte[] data = new byte[length];
+        new Random(length).nextBytes(data);
+        return data;
+    }
+
+    private static String md5(byte[] data) throws Exception {
+        return Utils.toHex(MessageDigest.getInstance("MD5").digest(data));
+    }
+}
@@ -0,0 +1,267 @@
+/**
+ * The contents of this file are subject to the license and copyright
+ * detailed in the LICENSE and NOTICE files at the root of the source
+ * tree and available online at
+ *
+ * http://www.dspace.org/license/
+ */
+package org.dspace.xoai.app;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.apache.solr.client.solrj.SolrClient;
+import org.apache.solr.client.solrj.SolrServerException;
+import org.apache.solr.common.SolrInputDocument;
+import org.dspace.core.Context;
+import org.dspace.xoai.solr.exceptions.DSpaceSolrIndexerException;
+
+/**
+ * Compiles items into Solr documents on a pool of worker threads and sends the documents to Solr in batches on
+ * another thread, so that reading the items, compiling them and sending them to Solr overlap. A Context can't be
+ * used by several threads at once, so each worker loads the items in its own Context, which it aborts itself when it
+ * stops. The number of items and batches in progress is bounded, to keep the memory consumption low when a stage is
+ * slower than the others.
+ */
+public class IndexingPipeline implements AutoCloseable {
+    private static final Logger log = LogManager.getLogger(IndexingPipeline.class);
+
+    /**
+     * Compiles an item into a Solr document
+     */
+    @FunctionalInterface
+    public interface ItemCompiler {
+        /**
+         * @param context the Context of the worker thread
+         * @param id      the ID of the item
+         * @return the Solr document of the item, or null if it can't be indexed
+         */
+        SolrInputDocument compile(Context context, UUID id);
+    }
+
+    private final SolrClient server;
+    private final int threads;
+    private final int batchSize;
+    private final Supplier<Context> contextFactory;
+    private final ItemCompiler compiler;
+    private final ExecutorService workers;
+    private final ExecutorService sender;
+    private final Semaphore pendingItems;
+    private final Semaphore pendingBatches = new Semaphore(2);
+    private final ThreadLocal<Context> workerContext = new ThreadLocal<>();
+    private final AtomicReference<Exception> solrError = new AtomicReference<>();
+    private final long startNanos = System.nanoTime();
+    private final LongAdder readNanos = new LongAdder();
+    private final LongAdder compileNanos = new LongAdder();
+    private final LongAdder sendNanos = new LongAdder();
+    private final AtomicInteger read = new AtomicInteger();
+    private final AtomicInteger compiled = new AtomicInteger();
+    private final AtomicInteger sent = new AtomicInteger();
+    private List<SolrInputDocument> batch = new ArrayList<>();
+
+    /**
+     * @param server         the Solr server to send the documents to
+     * @param threads        the number of worker threads compiling the items
+     * @param batchSize      the number of documents sent to Solr at once
+     * @param contextFactory creates the Context of each worker thread
+     * @param compiler       compiles an item into a Solr document
+     */
+    public IndexingPipeline(SolrClient server, int threads, int batchSize, Supplier<Context> contextFactory,
+                            ItemCompiler compiler) {
+        this.server = server;
+        this.threads = threads;
+        this.batchSize = batchSize;
+        this.contextFactory = contextFactory;
+        this.compiler = compiler;
+        AtomicInteger threadNumber = new AtomicInteger();
+        this.workers = Executors.newFixedThreadPool(threads, runnable -> {
+            // the Context of a worker is bound to its thread, so it has to be closed by the thread itself
+            return new Thread(() -> {
+                try {
+                    runnable.run();
+                } finally {
+                    closeContext();
+                }
+            }, "oai-import-" + threadNumber.incrementAndGet());
+        });
+        this.sender = Executors.newSingleThreadExecutor(runnable -> new Thread(runnable, "oai-import-solr"));
+        this.pendingItems = new Semaphore(threads * 4);
+    }
+
+    public void recordRead(long nanos) {
+        readNanos.add(nanos);
+        read.incrementAndGet();
+    }
+
+    public boolean hasFailed() {
+        return solrError.get() != null;
+    }
+
+    /**
+     * Queue an item to be compiled, waiting if the workers are too far behind
+     *
+     * @param id the ID of the item
+     * @throws InterruptedException if interrupted while waiting
+     */
+    public void submit(UUID id) throws InterruptedException {
+        pendingItems.acquire();
+        try {
+            workers.execute(() -> {
+                try {
+                    compile(id);
+                } finally {
+                    pendingItems.release();
+                }
+            });
+        } catch (RuntimeException e) {
+            pendingItems.release();
+            throw e;
+        }
+    }
+
+    private void compile(UUID id) {
+        long start = System.nanoTime();
+        SolrInputDocument doc;
+        try {
+            doc = compiler.compile(getContext(), id);
+        } catch (RuntimeException ex) {
+            log.error("Unable to index item " + id + ": " + ex.getMessage(), ex);
+            return;
+        }
+        if (doc != null) {
+            compileNanos.add(System.nanoTime() - start);
+            compiled.incrementAndGet();
+            try {
+                add(doc);
+            } catch (InterruptedException e) {
+                // the pipeline is being closed
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    private Context getContext() {
+        Context context = workerContext.get();
+        if (context == null) {
+            context = contextFactory.get();
+            workerContext.set(context);
+        }
+        return context;
+    }
+
+    private void closeContext() {
+        Context context = workerContext.get();
+        if (context != null && context.isValid()) {
+            context.abort();
+        }
+        workerContext.remove();
+    }
+
+    private void add(SolrInputDocument doc) throws InterruptedException {
+        List<SolrInputDocument> full = null;
+        synchronized (this) {
+            batch.add(doc);
+            if (batch.size() >= batchSize) {
+                full = batch;
+                batch = new ArrayList<>();
+            }
+        }
+        if (full != null) {
+            send(full);
+        }
+    }
+
+    /**
+     * Send a batch of documents to Solr asynchronously, waiting if Solr is too far behind
+     */
+    private void send(List<SolrInputDocument> documents) throws InterruptedException {
+        pendingBatches.acquire();
+        try {
+            sender.execute(() -> {
+                long start = System.nanoTime();
+                try {
+                    server.add(documents);
+                    sendNanos.add(System.nanoTime() - start);
+                    sent.addAndGet(documents.size());
+                } catch (SolrServerException | IOException | RuntimeException ex) {
+                    log.error("Unable to send " + documents.size() + " documents to Solr: " + ex.getMessage(), ex);
+                    solrError.compareAndSet(null, ex);
+                } finally {
+                    pendingBatches.release();
+                }
+            });
+        } catch (RuntimeException e) {
+            pendingBatches.release();
+            throw e;
+        }
+    }
+
+    /**
+     * Wait for all the queued items to be compiled and sent to Solr
+     *
+     * @throws InterruptedException       if interrupted while waiting
+     * @throws DSpaceSolrIndexerException if a batch couldn't be sent to Solr
+     */
+    public void finish() throws InterruptedException, DSpaceSolrIndexerException {
+        workers.shutdown();
+        workers.awaitTermination(Long.MAX_VALUE, TimeUnit.NANOSECONDS);
+        List<SolrInputDocument> last;
+        synchronized (this) {
+            last = batch;
+            batch = new ArrayList<>();
+        }
+        if (!last.isEmpty()) {
+            send(last);
+        }
+        sender.shutdown();
+        sender.awaitTermination(Long.MAX_VALUE, TimeUnit.NANOSECONDS);
+        Exception error = solrError.get();
+        if (error != null) {
+            throw new DSpaceSolrIndexerException(error.getMessage(), error);
+        }
+    }
+
+    public void printStatistics() {
+        double elapsed = (System.nanoTime() - startNanos) / 1e9;
+        System.out.println(String.format("Read %d items from the database: %.1f items/s", read.get(),
+                                         throughput(read.get(), readNanos.sum())));
+        System.out.println(String.format("Compiled %d items on %d threads: %.1f items/s per thread", compiled.get(),
+                                         threads, throughput(compiled.get(), compileNanos.sum())));
+        System.out.println(String.format("Sent %d documents to Solr: %.1f documents/s", sent.get(),
+                                         throughput(sent.get(), sendNanos.sum())));
+        System.out.println(String.format("Indexed %d items in %.1f s: %.1f items/s", sent.get(), elapsed,
+                                         elapsed > 0 ? sent.get() / elapsed : 0));
+    }
+
+    private double throughput(int count, long nanos) {
+        return nanos > 0 ? count / (nanos / 1e9) : 0;
+    }
+
+    /**
+     * Stop the pipeline, dropping the items and batches not processed yet. The workers waiting to send a batch are
+     * interrupted, and the permits of the dropped items and batches are given back, so that no thread waits for
+     * them forever. Each worker aborts its Context on its own thread once its current item is done.
+     */
+    @Override
+    public void close() {
+        pendingItems.release(workers.shutdownNow().size());
+        pendingBatches.release(sender.shutdownNow().size());
+        try {
+            workers.awaitTermination(1, TimeUnit.MINUTES);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -34,7 +34,6 @@ import org.apache.commons.cli.DefaultParser;
 import org.apache.commons.cli.Options;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
-import org.apache.solr.client.solrj.SolrClient;
 import org.apache.solr.client.solrj.SolrQuery;
 import org.apache.solr.client.solrj.SolrQuery.ORDER;
 import org.apache.solr.client.solrj.SolrServerException;
@@ -63,6 +62,7 @@ import org.dspace.xoai.services.api.CollectionsService;
 import org.dspace.xoai.services.api.cache.XOAICacheService;
 import org.dspace.xoai.services.api.cache.XOAIItemCacheService;
 import org.dspace.xoai.services.api.cache.XOAILastCompilationCacheService;
+import org.dspace.xoai.services.api.cache.XOAIRecordCacheService;
 import org.dspace.xoai.services.api.solr.SolrServerResolver;
 import org.dspace.xoai.solr.DSpaceSolrSearch;
 import org.dspace.xoai.solr.exceptions.DSpaceSolrException;
@@ -89,6 +89,8 @@ public class XOAI {
     @Autowired
     private XOAIItemCacheService xoaiItemCacheService;
     @Autowired
+    private XOAIRecordCacheService xoaiRecordCacheService;
+    @Autowired
     private CollectionsService collectionsService;
 
     private final AuthorizeService authorizeService;
@@ -99,7 +101,7 @@ public class XOAI {
 
     private List<XOAIExtensionItemCompilePlugin> extensionPlugins;
 
-    private List<String> getFileFormats(Item item) {
+    private List<String> getFileFormats(Context context, Item item) {
         List<String> formats = new ArrayList<>();
         try {
             for (Bundle b : itemService.getBundles(item, "ORIGINAL")) {
@@ -287,49 +289,80 @@ public class XOAI {
         }
     }
 
+    /**
+     * Index the items of an iterator. The items are read from the database by the calling thread and compiled into
+     * Solr documents by an {@link IndexingPipeline}, which sends them to Solr in batches. Solr is committed once, at
+     * the end of the import.
+     *
+     * @param iterator the items to index
+     * @return the number of items read
+     * @throws DSpaceSolrIndexerException if the documents couldn't be sent to Solr
+     */
     private int index(Iterator<Item> iterator)
         throws DSpaceSolrIndexerException {
-        try {
-            int i = 0;
-            int batchSize = configurationService.getIntProperty("oai.import.batch.size", 1000);
-            SolrClient server = solrServerResolver.getServer();
-            ArrayList<SolrInputDocument> list = new ArrayList<>();
-            while (iterator.hasNext()) {
+        int i = 0;
+        int batchSize = configurationService.getIntProperty("oai.import.batch.size", 1000);
+        int threads = Math.max(1, configurationService.getIntProperty("oai.import.threads", 4));
+        try (IndexingPipeline pipeline = new IndexingPipeline(solrServerResolver.getServer(), threads, batchSize,
+            () -> new Context(Context.Mode.READ_ONLY), this::compile)) {
+            while (iterator.hasNext() && !pipeline.hasFailed()) {
+                long start = System.nanoTime();
+                Item item = iterator.next();
+                UUID id = item.getID();
+                String handle = item.getHandle();
                 try {
-                    Item item = iterator.next();
-                    if (item.getHandle() == null) {
-                        log.warn("Skipped item without handle: " + item.getID());
-                    } else {
-                        list.add(this.index(item));
-                    }
-                    //Uncache the item to keep memory consumption low
+                    //Uncache the item to keep memory consumption low, the workers load it in their own Context
                     context.uncacheEntity(item);
-
-                } catch (SQLException | IOException | XMLStreamException | WritingXmlException ex) {
+                } catch (SQLException ex) {
                     log.error(ex.getMessage(), ex);
                 }
-                i++;
-                if (i % 1000 == 0 && batchSize != 1000) {
-                    System.out.println(i + " items imported so far...");
+                pipeline.recordRead(System.nanoTime() - start);
+
+                if (handle == null) {
+                    log.warn("Skipped item without handle: " + id);
+                } else {
+                    pipeline.submit(id);
                 }
-                if (i % batchSize == 0) {
+                i++;
+                if (i % 1000 == 0) {
                     System.out.println(i + " items imported so far...");
-                    server.add(list);
-                    server.commit();
-                    list.clear();
                 }
             }
+            pipeline.finish();
             System.out.println("Total: " + i + " items");
-            if (i > 0) {
-                if (!list.isEmpty()) {
-                    server.add(list);
-                }
-                server.commit(true, true);
-                list.clear();
-            }
+            pipeline.printStatistics();
             return i;
-        } catch (SolrServerException | IOException ex) {
+        } catch (SolrServerException ex) {
             throw new DSpaceSolrIndexerException(ex.getMessage(), ex);
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new DSpaceSolrIndexerException("Interrupted while indexing", ex);
+        }
+    }
+
+    /**
+     * Compile an item into a Solr document, in the Context of an {@link IndexingPipeline} worker thread
+     *
+     * @param context the Context of the worker thread
+     * @param id      the ID of the item
+     * @return the Solr document, or null if the item doesn't exist or couldn't be compiled
+     */
+    private SolrInputDocument compile(Context context, UUID id) {
+        try {
+            Item item = itemService.find(context, id);
+            if (item == null) {
+                return null;
+            }
+            SolrInputDocument doc = index(context, item);
+            if (xoaiRecordCacheService.isActive()) {
+                // the records made from the previous metadata of the item are outdated
+                xoaiRecordCacheService.deleteIfChanged(item.getHandle(), (String) doc.getFieldValue("item.compile"));
+            }
+            context.uncacheEntity(item);
+            return doc;
+        } catch (SQLException | IOException | XMLStreamException | WritingXmlException ex) {
+            log.error("Unable to index item " + id + ": " + ex.getMessage(), ex);
+            return null;
         }
     }
 
@@ -338,12 +371,14 @@ public class XOAI {
      * the OAI deleted status (policy start and end dates for all anonymous READ
      * policies and the standard last modification date)
      *
+     * @param context
+     *            The relevant DSpace Context.
      * @param item
      *            Item
      * @return date
      * @throws SQLException
      */
-    private Date getMostRecentModificationDate(Item item) throws SQLException {
+    private Date getMostRecentModificationDate(Context context, Item item) throws SQLException {
         List<Date> dates = new LinkedList<>();
         List<ResourcePolicy> policies = authorizeService.getPoliciesActionFilter(context, item, Constants.READ);
         for (ResourcePolicy policy : policies) {
@@ -369,7 +404,7 @@ public class XOAI {
         return lastChange;
     }
 
-    private SolrInputDocument index(Item item)
+    private SolrInputDocument index(Context context, Item item)
             throws SQLException, IOException, XMLStreamException, WritingXmlException {
         SolrInputDocument doc = new SolrInputDocument();
         doc.addField("item.id", item.getID().toString());
@@ -377,7 +412,7 @@ public class XOAI {
         String handle = item.getHandle();
         doc.addField("item.handle", handle);
 
-        boolean isEmbargoed = !this.isPublic(item);
+        boolean isEmbargoed = !this.isPublic(context, item);
         boolean isCurrentlyVisible = this.checkIfVisibleInOAI(item);
         boolean isIndexed = this.checkIfIndexed(item);
 
@@ -401,7 +436,7 @@ public class XOAI {
         // if the visibility of the item will change in the future due to an
         // embargo, mark it as such.
 
-        doc.addField("item.willChangeStatus", willChangeStatus(item));
+        doc.addField("item.willChangeStatus", willChangeStatus(context, item));
 
         /*
          * Mark an item as deleted not only if it is withdrawn, but also if it
@@ -424,7 +459,7 @@ public class XOAI {
          * most recent of those which have already passed.
          */
         doc.addField("item.lastmodified", SolrUtils.getDateFormatter()
-                .format(this.getMostRecentModificationDate(item)));
+                .format(this.getMostRecentModificationDate(context, item)));
 
         if (item.getSubmitter() != null) {
             doc.addField("item.submitter", item.getSubmitter().getEmail());
@@ -451,7 +486,7 @@ public class XOAI {
             }
         }
 
-        for (String f : getFileFormats(item)) {
+        for (String f : getFileFormats(context, item)) {
             doc.addField("metadata.dc.format.mimetype", f);
         }
 
@@ -483,7 +518,7 @@ public class XOAI {
         return doc;
     }
 
-    private boolean willChangeStatus(Item item) throws SQLException {
+    private boolean willChangeStatus(Context context, Item item) throws SQLException {
         List<ResourcePolicy> policies = authorizeService.getPoliciesActionFilter(context, item, Constants.READ);
         for (ResourcePolicy policy : policies) {
             if ((policy.getGroup() != null) && (policy.getGroup().getName().equals("Anonymous"))) {
@@ -499,7 +534,7 @@ public class XOAI {
         return false;
     }
 
-    private boolean isPublic(Item item) {
+    private boolean isPublic(Context context, Item item) {
         boolean pub = false;
         try {
             // Check if READ access allowed on this Item
@@ -564,6 +599,7 @@ public class XOAI {
 
         XOAICacheService cacheService = applicationContext.getBean(XOAICacheService.class);
         XOAIItemCacheService itemCacheService = applicationContext.getBean(XOAIItemCacheService.class);
+        XOAIRecordCacheService recordCacheService = applicationContext.getBean(XOAIRecordCacheService.class);
 
         Context ctx = null;
 
@@ -620,6 +656,7 @@ public class XOAI {
                     }
                 } else if (COMMAND_CLEAN_CACHE.equals(command)) {
                     cleanCache(itemCacheService, cacheService);
+                    cleanRecordCache(recordCacheService);
                 } else if (COMMAND_COMPILE_ITEMS.equals(command)) {
 
                     ctx = new Context();
@@ -653,6 +690,11 @@ public class XOAI {
         }
     }
 
+    private static void cleanRecordCache(XOAIRecordCacheService recordCacheService) throws IOException {
+        System.out.println("Purging cached OAI records.");
+        recordCacheService.deleteAll();
+    }
+
     private static void cleanCompiledItems(XOAIItemCacheService itemCacheService) throws IOException {
         System.out.println("Purging compiled items");
         itemCacheService.deleteAll();
@@ -0,0 +1,47 @@
+/**
+ * The contents of this file are subject to the license and copyright
+ * detailed in the LICENSE and NOTICE files at the root of the source
+ * tree and available online at
+ *
+ * http://www.dspace.org/license/
+ */
+package org.dspace.xoai.services.api.cache;
+
+import java.io.IOException;
+
+/**
+ * Cache of the disseminated records: the output of a metadata format (or context) transformation of the compiled
+ * metadata of an item. Entries are stored per item, so that the records of an item can be invalidated when it
+ * changes, and keyed by the content of the transformed metadata, so that an outdated record is never returned.
+ */
+public interface XOAIRecordCacheService {
+    boolean isActive();
+
+    /**
+     * @param handle the handle of the item
+     * @param format the name of the transformation
+     * @param key    the key of the transformed metadata
+     * @return the cached record, or null if it isn't cached
+     */
+    byte[] get(String handle, String format, String key) throws IOException;
+
+    void put(String handle, String format, String key, byte[] record) throws IOException;
+
+    /**
+     * Delete all the cached records of an item
+     *
+     * @param handle the handle of the item
+     */
+    void delete(String handle);
+
+    /**
+     * Delete the cached records of an item if its compiled metadata changed since the previous call for this item,
+     * keeping the records of an unchanged item
+     *
+     * @param handle   the handle of the item
+     * @param metadata the compiled metadata of the item
+     */
+    void deleteIfChanged(String handle, String metadata);
+
+    void deleteAll() throws IOException;
+}
@@ -0,0 +1,134 @@
+/**
+ * The contents of this file are subject to the license and copyright
+ * detailed in the LICENSE and NOTICE files at the root of the source
+ * tree and available online at
+ *
+ * http://www.dspace.org/license/
+ */
+package org.dspace.xoai.services.impl.cache;
+
+import static org.apache.commons.io.FileUtils.deleteDirectory;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.dspace.core.Utils;
+import org.dspace.services.ConfigurationService;
+import org.dspace.services.factory.DSpaceServicesFactory;
+import org.dspace.xoai.services.api.cache.XOAIRecordCacheService;
+
+/**
+ * Stores the disseminated records in the OAI cache directory, in one directory per item
+ * (records/&lt;handle&gt;/&lt;format&gt;-&lt;key&gt;), next to a digest of the compiled metadata they were made from,
+ * which tells whether they have to be deleted when the item is compiled again. The records are written to a
+ * temporary file first, so that concurrent requests never read a partial record.
+ */
+public class DSpaceXOAIRecordCacheService implements XOAIRecordCacheService {
+    private static final Logger log = LogManager.getLogger(DSpaceXOAIRecordCacheService.class);
+
+    private static final String RECORD_DIR = File.separator + "records";
+
+    // the digest of the compiled metadata the records were made from; the format names can't contain a dot
+    private static final String METADATA_DIGEST = "metadata.sha256";
+
+    private final ConfigurationService configurationService = DSpaceServicesFactory.getInstance()
+                                                                                   .getConfigurationService();
+
+    private String baseDir;
+
+    private String getBaseDir() {
+        if (baseDir == null) {
+            baseDir = configurationService.getProperty("oai.cache.dir") + RECORD_DIR;
+        }
+        return baseDir;
+    }
+
+    private File getItemDir(String handle) {
+        return new File(getBaseDir(), handle.replace('/', '_'));
+    }
+
+    private File getRecordFile(String handle, String format, String key) {
+        return new File(getItemDir(handle), format + "-" + key);
+    }
+
+    @Override
+    public boolean isActive() {
+        return configurationService.getBooleanProperty("oai.cache.records.enabled", true);
+    }
+
+    @Override
+    public byte[] get(String handle, String format, String key) throws IOException {
+        try {
+            return Files.readAllBytes(getRecordFile(handle, format, key).toPath());
+        } catch (NoSuchFileException e) {
+            return null;
+        }
+    }
+
+    @Override
+    public void put(String handle, String format, String key, byte[] record) throws IOException {
+        put(getItemDir(handle), format + "-" + key, record);
+    }
+
+    private void put(File dir, String name, byte[] content) throws IOException {
+        if (!dir.exists()) {
+            dir.mkdirs();
+        }
+        Path temp = Files.createTempFile(dir.toPath(), name, ".tmp");
+        try {
+            Files.write(temp, content);
+            Files.move(temp, new File(dir, name).toPath(), StandardCopyOption.REPLACE_EXISTING,
+                       StandardCopyOption.ATOMIC_MOVE);
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+    }
+
+    @Override
+    public void delete(String handle) {
+        try {
+            deleteDirectory(getItemDir(handle));
+        } catch (IOException e) {
+            log.warn("Unable to delete the cached OAI records of item " + handle, e);
+        }
+    }
+
+    @Override
+    public void deleteIfChanged(String handle, String metadata) {
+        File digestFile = new File(getItemDir(handle), METADATA_DIGEST);
+        String digest = digest(metadata);
+        try {
+            if (digestFile.exists()
+                && digest.equals(new String(Files.readAllBytes(digestFile.toPath()), StandardCharsets.UTF_8))) {
+                return;
+            }
+            delete(handle);
+            put(digestFile.getParentFile(), METADATA_DIGEST, digest.getBytes(StandardCharsets.UTF_8));
+        } catch (IOException e) {
+            log.warn("Unable to update the cached OAI records of item " + handle, e);
+        }
+    }
+
+    private String digest(String metadata) {
+        try {
+            return Utils.toHex(MessageDigest.getInstance("SHA-256")
+                                            .digest(metadata.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    @Override
+    public void deleteAll() throws IOException {
+        deleteDirectory(new File(getBaseDir()));
+    }
+}
@@ -0,0 +1,102 @@
+/**
+ * The contents of this file are subject to the license and copyright
+ * detailed in the LICENSE and NOTICE files at the root of the source
+ * tree and available online at
+ *
+ * http://www.dspace.org/license/
+ */
+package org.dspace.xoai.services.impl.cache;
+
+import java.sql.SQLException;
+import java.util.HashSet;
+import java.util.Set;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.dspace.content.Bitstream;
+import org.dspace.content.Bundle;
+import org.dspace.content.DSpaceObject;
+import org.dspace.content.Item;
+import org.dspace.core.Constants;
+import org.dspace.core.Context;
+import org.dspace.event.Consumer;
+import org.dspace.event.Event;
+import org.dspace.xoai.services.api.cache.XOAIRecordCacheService;
+
+/**
+ * This consumer removes the cached OAI records of the items which have been modified, or whose bundles or
+ * bitstreams have been modified, instead of waiting for the next "oai import" to replace them.
+ */
+public class XOAIRecordCacheConsumer implements Consumer {
+
+    private static final Logger log = LogManager.getLogger(XOAIRecordCacheConsumer.class);
+
+    private XOAIRecordCacheService recordCacheService;
+
+    // Collects the handles of the modified items
+    private final Set<String> handles = new HashSet<>();
+
+    @Override
+    public void initialize() throws Exception {
+        recordCacheService = new DSpaceXOAIRecordCacheService();
+    }
+
+    @Override
+    public void consume(Context ctx, Event event) throws Exception {
+        int st = event.getSubjectType();
+        if (st == Constants.ITEM && event.getEventType() == Event.DELETE) {
+            // the handle of a deleted item is sent as detail
+            if (event.getDetail() != null) {
+                handles.add(event.getDetail());
+            }
+            return;
+        }
+
+        DSpaceObject subject = event.getSubject(ctx);
+        if (subject == null) {
+            return;
+        }
+        switch (st) {
+            case Constants.ITEM:
+                addHandle((Item) subject);
+                break;
+            case Constants.BUNDLE:
+                addHandles((Bundle) subject);
+                break;
+            case Constants.BITSTREAM:
+                for (Bundle bundle : ((Bitstream) subject).getBundles()) {
+                    addHandles(bundle);
+                }
+                break;
+            default:
+                log.warn("XOAIRecordCacheConsumer should not have been given this kind of subject in an event, "
+                             + "skipping: " + event);
+        }
+    }
+
+    private void addHandles(Bundle bundle) {
+        for (Item item : bundle.getItems()) {
+            addHandle(item);
+        }
+    }
+
+    private void addHandle(Item item) {
+        if (item.getHandle() != null) {
+            handles.add(item.getHandle());
+        }
+    }
+
+    @Override
+    public void end(Context ctx) throws Exception {
+        if (recordCacheService.isActive()) {
+            for (String handle : handles) {
+                recordCacheService.delete(handle);
+            }
+        }
+        handles.clear();
+    }
+
+    @Override
+    public void finish(Context ctx) throws SQLException {
+    }
+}
@@ -0,0 +1,225 @@
+/**
+ * The contents of this file are subject to the license and copyright
+ * detailed in the LICENSE and NOTICE files at the root of the source
+ * tree and available online at
+ *
+ * http://www.dspace.org/license/
+ */
+package org.dspace.xoai.services.impl.resources;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Map;
+import java.util.Properties;
+import java.util.TreeMap;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import javax.xml.transform.ErrorListener;
+import javax.xml.transform.OutputKeys;
+import javax.xml.transform.Result;
+import javax.xml.transform.Source;
+import javax.xml.transform.Transformer;
+import javax.xml.transform.TransformerException;
+import javax.xml.transform.URIResolver;
+import javax.xml.transform.stream.StreamResult;
+import javax.xml.transform.stream.StreamSource;
+
+import org.apache.commons.io.IOUtils;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.dspace.core.Utils;
+import org.dspace.xoai.services.api.cache.XOAIRecordCacheService;
+
+/**
+ * Transformer of item metadata which caches its output in the {@link XOAIRecordCacheService}, so that the records
+ * of an item don't have to be transformed again for every OAI-PMH request. The records are cached by the handle of
+ * the item, found in the compiled metadata, and keyed by a digest of the transformed metadata, of the parameters of
+ * the transformation and of the version of the XSLT file, so that a changed item or stylesheet is transformed again.
+ * <p>
+ * Only streamed transformations can be cached; any other transformation is delegated as is.
+ */
+public class CachingTransformer extends Transformer {
+    private static final Logger log = LogManager.getLogger(CachingTransformer.class);
+
+    // the handle field of the "others" element added by ItemUtils.retrieveMetadata
+    private static final Pattern HANDLE = Pattern.compile(
+        "<(?:\\w+:)?field name=\"handle\">([^<]+)</(?:\\w+:)?field>");
+
+    private final Transformer transformer;
+    private final String format;
+    private final long version;
+    private final XOAIRecordCacheService recordCacheService;
+    private final Map<String, String> settings = new TreeMap<>();
+
+    /**
+     * @param transformer        the XSLT transformer
+     * @param format             the name of the transformation, used to store its records
+     * @param version            the version of the XSLT file and of the stylesheets it imports, see
+     *                           {@link DSpaceResourceResolver#getVersion(java.io.File)}
+     * @param recordCacheService the cache of the records
+     */
+    public CachingTransformer(Transformer transformer, String format, long version,
+                              XOAIRecordCacheService recordCacheService) {
+        this.transformer = transformer;
+        this.format = format;
+        this.version = version;
+        this.recordCacheService = recordCacheService;
+    }
+
+    @Override
+    public void transform(Source source, Result result) throws TransformerException {
+        if (!(source instanceof StreamSource) || ((StreamSource) source).getInputStream() == null
+            || !isStreamed(result)) {
+            transformer.transform(source, result);
+            return;
+        }
+
+        byte[] input;
+        try (InputStream in = ((StreamSource) source).getInputStream()) {
+            input = IOUtils.toByteArray(in);
+        } catch (IOException e) {
+            throw new TransformerException(e);
+        }
+        String handle = getHandle(input);
+        if (handle == null) {
+            transformer.transform(copy(source, input), result);
+            return;
+        }
+
+        String key = getKey(input);
+        byte[] record = null;
+        try {
+            record = recordCacheService.get(handle, format, key);
+        } catch (IOException e) {
+            log.warn("Unable to read the cached " + format + " record of item " + handle, e);
+        }
+        if (record == null) {
+            ByteArrayOutputStream out = new ByteArrayOutputStream();
+            transformer.transform(copy(source, input), new StreamResult(out));
+            record = out.toByteArray();
+            try {
+                recordCacheService.put(handle, format, key, record);
+            } catch (IOException e) {
+                log.warn("Unable to cache the " + format + " record of item " + handle, e);
+            }
+        }
+        write(record, (StreamResult) result);
+    }
+
+    private boolean isStreamed(Result result) {
+        return result instanceof StreamResult
+            && (((StreamResult) result).getOutputStream() != null || ((StreamResult) result).getWriter() != null);
+    }
+
+    private Source copy(Source source, byte[] input) {
+        return new StreamSource(new ByteArrayInputStream(input), source.getSystemId());
+    }
+
+    private String getHandle(byte[] input) {
+        Matcher matcher = HANDLE.matcher(new String(input, StandardCharsets.UTF_8));
+        return matcher.find() ? matcher.group(1).trim() : null;
+    }
+
+    private String getKey(byte[] input) throws TransformerException {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            digest.update(input);
+            for (Map.Entry<String, String> setting : settings.entrySet()) {
+                digest.update((setting.getKey() + "=" + setting.getValue() + "\n").getBytes(StandardCharsets.UTF_8));
+            }
+            return Long.toHexString(version) + "-" + Utils.toHex(digest.digest());
+        } catch (NoSuchAlgorithmException e) {
+            throw new TransformerException(e);
+        }
+    }
+
+    private void write(byte[] record, StreamResult result) throws TransformerException {
+        try {
+            if (result.getOutputStream() != null) {
+                result.getOutputStream().write(record);
+            } else {
+                String encoding = transformer.getOutputProperty(OutputKeys.ENCODING);
+                Charset charset = encoding != null ? Charset.forName(encoding) : StandardCharsets.UTF_8;
+                result.getWriter().write(new String(record, charset));
+            }
+        } catch (IOException e) {
+            throw new TransformerException(e);
+        }
+    }
+
+    @Override
+    public void setParameter(String name, Object value) {
+        settings.put("parameter." + name, String.valueOf(value));
+        transformer.setParameter(name, value);
+    }
+
+    @Override
+    public Object getParameter(String name) {
+        return transformer.getParameter(name);
+    }
+
+    @Override
+    public void clearParameters() {
+        settings.keySet().removeIf(name -> name.startsWith("parameter."));
+        transformer.clearParameters();
+    }
+
+    @Override
+    public void setURIResolver(URIResolver resolver) {
+        transformer.setURIResolver(resolver);
+    }
+
+    @Override
+    public URIResolver getURIResolver() {
+        return transformer.getURIResolver();
+    }
+
+    @Override
+    public void setOutputProperties(Properties oformat) {
+        settings.keySet().removeIf(name -> name.startsWith("output."));
+        if (oformat != null) {
+            for (String name : oformat.stringPropertyNames()) {
+                settings.put("output." + name, oformat.getProperty(name));
+            }
+        }
+        transformer.setOutputProperties(oformat);
+    }
+
+    @Override
+    public Properties getOutputProperties() {
+        return transformer.getOutputProperties();
+    }
+
+    @Override
+    public void setOutputProperty(String name, String value) {
+        settings.put("output." + name, value);
+        transformer.setOutputProperty(name, value);
+    }
+
+    @Override
+    public String getOutputProperty(String name) {
+        return transformer.getOutputProperty(name);
+    }
+
+    @Override
+    public void setErrorListener(ErrorListener listener) {
+        transformer.setErrorListener(listener);
+    }
+
+    @Override
+    public ErrorListener getErrorListener() {
+        return transformer.getErrorListener();
+    }
+
+    @Override
+    public void reset() {
+        settings.clear();
+        transformer.reset();
+    }
+}
@@ -11,6 +11,12 @@ import java.io.File;
 import java.io.FileInputStream;
 import java.io.IOException;
 import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
 import javax.xml.transform.Source;
 import javax.xml.transform.Transformer;
 import javax.xml.transform.TransformerConfigurationException;
@@ -18,15 +24,24 @@ import javax.xml.transform.TransformerFactory;
 import javax.xml.transform.stream.StreamSource;
 
 import com.lyncode.xoai.dataprovider.services.api.ResourceResolver;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
 import org.dspace.services.ConfigurationService;
 import org.dspace.services.factory.DSpaceServicesFactory;
+import org.dspace.xoai.services.api.cache.XOAIRecordCacheService;
+import org.dspace.xoai.services.impl.cache.DSpaceXOAIRecordCacheService;
 
 public class DSpaceResourceResolver implements ResourceResolver {
     // Requires usage of Saxon as OAI-PMH uses some XSLT 2 functions
     private static final TransformerFactory transformerFactory = TransformerFactory
             .newInstance("net.sf.saxon.TransformerFactoryImpl", null);
+    private static final Logger log = LogManager.getLogger(DSpaceResourceResolver.class);
+
+    // e.g. <xsl:import href="utils.xsl"/>
+    private static final Pattern IMPORT = Pattern.compile("<xsl:(?:import|include)\\s[^>]*href=\"([^\"]+)\"");
 
     private final String basePath;
+    private final XOAIRecordCacheService recordCacheService = new DSpaceXOAIRecordCacheService();
 
     public DSpaceResourceResolver() {
         ConfigurationService configurationService
@@ -49,6 +64,42 @@ public class DSpaceResourceResolver implements ResourceResolver {
         // XSLT-files (like <xsl:import href="utils.xsl"/>)
         String systemId = basePath + "/" + path;
         mySrc.setSystemId(systemId);
-        return transformerFactory.newTransformer(mySrc);
+        Transformer transformer = transformerFactory.newTransformer(mySrc);
+        if (recordCacheService.isActive()) {
+            // cache the records produced by the stylesheet, e.g. "metadataFormats_oai_dc" for the oai_dc format
+            String format = path.replaceAll("\\.xslt?$", "").replaceAll("[^A-Za-z0-9_-]", "_");
+            long version = getVersion(new File(basePath, path));
+            return new CachingTransformer(transformer, format, version, recordCacheService);
+        }
+        return transformer;
+    }
+
+    /**
+     * Get the version of a stylesheet, which changes whenever the stylesheet or one of the stylesheets it imports or
+     * includes (directly or not) is modified.
+     *
+     * @param stylesheet the XSLT file
+     * @return a combination of the last modification times of the stylesheets
+     */
+    public static long getVersion(File stylesheet) {
+        return getVersion(stylesheet, new HashSet<>());
+    }
+
+    private static long getVersion(File stylesheet, Set<File> visited) {
+        if (!visited.add(stylesheet.getAbsoluteFile())) {
+            return 0;
+        }
+        long version = stylesheet.lastModified();
+        try {
+            Matcher matcher = IMPORT.matcher(new String(Files.readAllBytes(stylesheet.toPath()),
+                                                        StandardCharsets.UTF_8));
+            while (matcher.find()) {
+                File imported = new File(stylesheet.getParentFile(), matcher.group(1));
+                version = 31 * version + getVersion(imported, visited);
+            }
+        } catch (IOException e) {
+            log.warn("Unable to read the stylesheets imported by " + stylesheet, e);
+        }
+        return version;
     }
 }
@@ -0,0 +1,189 @@
+/**
+ * The contents of this file are subject to the license and copyright
+ * detailed in the LICENSE and NOTICE files at the root of the source
+ * tree and available online at
+ *
+ * http://www.dspace.org/license/
+ */
+package org.dspace.xoai.tests.unit.app;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+
+import org.apache.solr.client.solrj.SolrClient;
+import org.apache.solr.client.solrj.SolrServerException;
+import org.apache.solr.common.SolrInputDocument;
+import org.dspace.core.Context;
+import org.dspace.xoai.app.IndexingPipeline;
+import org.dspace.xoai.solr.exceptions.DSpaceSolrIndexerException;
+import org.junit.Before;
+import org.junit.Test;
+
+public class IndexingPipelineTest {
+    private static final long TIMEOUT = 10000;
+
+    private final SolrClient server = mock(SolrClient.class);
+    private final List<Collection<SolrInputDocument>> batches = new CopyOnWriteArrayList<>();
+    private final Map<Context, String> openedBy = new ConcurrentHashMap<>();
+    private final Map<Context, String> abortedBy = new ConcurrentHashMap<>();
+
+    @Before
+    public void setUp() throws Exception {
+        doAnswer(invocation -> {
+            batches.add(new ArrayList<>(invocation.getArgument(0)));
+            return null;
+        }).when(server).add(anyCollection());
+    }
+
+    @Test
+    public void testItemsAreCompiledAndSentInBatches() throws Exception {
+        Set<String> ids = new HashSet<>();
+        try (IndexingPipeline pipeline = new IndexingPipeline(server, 2, 3, this::newContext, this::document)) {
+            for (int i = 0; i < 10; i++) {
+                UUID id = UUID.randomUUID();
+                ids.add(id.toString());
+                pipeline.submit(id);
+            }
+            pipeline.finish();
+        }
+
+        Set<String> sent = new HashSet<>();
+        for (Collection<SolrInputDocument> batch : batches) {
+            assertTrue(batch.size() <= 3);
+            for (SolrInputDocument document : batch) {
+                sent.add((String) document.getFieldValue("item.id"));
+            }
+        }
+        assertEquals(ids, sent);
+        assertEquals(4, batches.size());
+        assertContextsAbortedByTheirWorkers();
+    }
+
+    @Test
+    public void testFailedItemIsSkipped() throws Exception {
+        UUID failing = UUID.randomUUID();
+        try (IndexingPipeline pipeline = new IndexingPipeline(server, 2, 10, this::newContext, (context, id) -> {
+            if (id.equals(failing)) {
+                throw new IllegalStateException("Unable to compile");
+            }
+            return document(context, id);
+        })) {
+            pipeline.submit(UUID.randomUUID());
+            pipeline.submit(failing);
+            pipeline.submit(UUID.randomUUID());
+            pipeline.finish();
+            assertFalse(pipeline.hasFailed());
+        }
+
+        assertEquals(1, batches.size());
+        assertEquals(2, batches.get(0).size());
+    }
+
+    @Test
+    public void testSolrFailureFailsTheImport() throws Exception {
+        doAnswer(invocation -> {
+            throw new SolrServerException("Solr is down");
+        }).when(server).add(anyCollection());
+
+        try (IndexingPipeline pipeline = new IndexingPipeline(server, 1, 1, this::newContext, this::document)) {
+            pipeline.submit(UUID.randomUUID());
+            try {
+                pipeline.finish();
+                fail("The failure to send the documents should be reported");
+            } catch (DSpaceSolrIndexerException e) {
+                assertTrue(pipeline.hasFailed());
+            }
+        }
+        assertContextsAbortedByTheirWorkers();
+    }
+
+    @Test(timeout = TIMEOUT)
+    public void testCloseStopsWorkersWaitingForSolr() throws Exception {
+        // Solr doesn't answer (and, like a blocking socket, ignores interrupts), so the worker ends up waiting to
+        // send its third batch while the second one is queued
+        CountDownLatch solr = new CountDownLatch(1);
+        doAnswer(invocation -> {
+            boolean interrupted = false;
+            while (solr.getCount() > 0) {
+                try {
+                    solr.await();
+                } catch (InterruptedException e) {
+                    interrupted = true;
+                }
+            }
+            if (interrupted) {
+                throw new IOException("Interrupted");
+            }
+            return null;
+        }).when(server).add(anyCollection());
+        CountDownLatch compiled = new CountDownLatch(3);
+
+        try {
+            try (IndexingPipeline pipeline = new IndexingPipeline(server, 1, 1, this::newContext, (context, id) -> {
+                compiled.countDown();
+                return document(context, id);
+            })) {
+                for (int i = 0; i < 3; i++) {
+                    pipeline.submit(UUID.randomUUID());
+                }
+                compiled.await();
+            }
+
+            // the worker stopped instead of waiting for the permit of the dropped batch
+            assertContextsAbortedByTheirWorkers();
+        } finally {
+            solr.countDown();
+        }
+    }
+
+    private Context newContext() {
+        Context context = mock(Context.class);
+        when(context.isValid()).thenReturn(true);
+        doAnswer(invocation -> {
+            abortedBy.put(context, Thread.currentThread().getName());
+            return null;
+        }).when(context).abort();
+        openedBy.put(context, Thread.currentThread().getName());
+        return context;
+    }
+
+    private SolrInputDocument document(Context context, UUID id) {
+        // the item is compiled with the context of the worker thread
+        assertEquals(Thread.currentThread().getName(), openedBy.get(context));
+        SolrInputDocument document = new SolrInputDocument();
+        document.addField("item.id", id.toString());
+        return document;
+    }
+
+    /**
+     * Each worker thread has its own context, which it aborts itself once it stops
+     */
+    private void assertContextsAbortedByTheirWorkers() {
+        assertFalse(openedBy.isEmpty());
+        for (Map.Entry<Context, String> context : openedBy.entrySet()) {
+            verify(context.getKey(), timeout(TIMEOUT)).abort();
+            assertTrue(context.getValue().startsWith("oai-import-"));
+            assertEquals(context.getValue(), abortedBy.get(context.getKey()));
+        }
+    }
+}
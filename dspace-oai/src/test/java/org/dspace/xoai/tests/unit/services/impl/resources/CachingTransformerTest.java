@@ -0,0 +1,125 @@
+/**
+ * The contents of this file are subject to the license and copyright
+ * detailed in the LICENSE and NOTICE files at the root of the source
+ * tree and available online at
+ *
+ * http://www.dspace.org/license/
+ */
+package org.dspace.xoai.tests.unit.services.impl.resources;
+
+import static org.junit.Assert.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.Map;
+import javax.xml.transform.Result;
+import javax.xml.transform.Source;
+import javax.xml.transform.Transformer;
+import javax.xml.transform.stream.StreamResult;
+import javax.xml.transform.stream.StreamSource;
+
+import org.apache.commons.io.IOUtils;
+import org.dspace.xoai.services.api.cache.XOAIRecordCacheService;
+import org.dspace.xoai.services.impl.resources.CachingTransformer;
+import org.junit.Before;
+import org.junit.Test;
+
+public class CachingTransformerTest {
+    private static final String METADATA = "<metadata><element name=\"others\">"
+        + "<field name=\"handle\">123456789/%d</field><field name=\"title\">%s</field></element></metadata>";
+
+    private final Map<String, byte[]> records = new HashMap<>();
+    private Transformer transformer;
+    private CachingTransformer cachingTransformer;
+
+    @Before
+    public void setUp() throws Exception {
+        transformer = mock(Transformer.class);
+        // "transforms" the metadata by wrapping it
+        doAnswer(invocation -> {
+            Source source = invocation.getArgument(0);
+            Result result = invocation.getArgument(1);
+            String input = IOUtils.toString(((StreamSource) source).getInputStream(), StandardCharsets.UTF_8);
+            ((StreamResult) result).getOutputStream().write(("<record>" + input + "</record>")
+                                                                .getBytes(StandardCharsets.UTF_8));
+            return null;
+        }).when(transformer).transform(any(), any());
+        cachingTransformer = new CachingTransformer(transformer, "oai_dc", 1, new MapRecordCacheService());
+    }
+
+    @Test
+    public void testRecordIsTransformedOnce() throws Exception {
+        String first = transform(1, "title");
+        String second = transform(1, "title");
+
+        assertEquals(first, second);
+        assertEquals("<record>" + String.format(METADATA, 1, "title") + "</record>", second);
+        verify(transformer, times(1)).transform(any(), any());
+        assertEquals(1, records.size());
+    }
+
+    @Test
+    public void testChangedRecordIsTransformedAgain() throws Exception {
+        transform(1, "title");
+        String changed = transform(1, "new title");
+        transform(2, "title");
+
+        assertEquals("<record>" + String.format(METADATA, 1, "new title") + "</record>", changed);
+        verify(transformer, times(3)).transform(any(), any());
+    }
+
+    @Test
+    public void testParametersArePartOfTheKey() throws Exception {
+        transform(1, "title");
+        cachingTransformer.setParameter("lang", "en");
+        transform(1, "title");
+
+        verify(transformer, times(2)).transform(any(), any());
+    }
+
+    private String transform(int id, String title) throws Exception {
+        byte[] input = String.format(METADATA, id, title).getBytes(StandardCharsets.UTF_8);
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        cachingTransformer.transform(new StreamSource(new ByteArrayInputStream(input)), new StreamResult(out));
+        return out.toString(StandardCharsets.UTF_8.name());
+    }
+
+    private class MapRecordCacheService implements XOAIRecordCacheService {
+        @Override
+        public boolean isActive() {
+            return true;
+        }
+
+        @Override
+        public byte[] get(String handle, String format, String key) {
+            return records.get(handle + "/" + format + "/" + key);
+        }
+
+        @Override
+        public void put(String handle, String format, String key, byte[] record) {
+            records.put(handle + "/" + format + "/" + key, record);
+        }
+
+        @Override
+        public void delete(String handle) {
+            records.keySet().removeIf(key -> key.startsWith(handle + "/"));
+        }
+
+        @Override
+        public void deleteIfChanged(String handle, String metadata) {
+            delete(handle);
+        }
+
+        @Override
+        public void deleteAll() {
+            records.clear();
+        }
+    }
+}
@@ -0,0 +1,64 @@
+/**
+ * The contents of this file are subject to the license and copyright
+ * detailed in the LICENSE and NOTICE files at the root of the source
+ * tree and available online at
+ *
+ * http://www.dspace.org/license/
+ */
+package org.dspace.xoai.tests.unit.services.impl.resources;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+
+import org.dspace.xoai.services.impl.resources.DSpaceResourceResolver;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+public class DSpaceResourceResolverTest {
+    private static final String STYLESHEET = "<xsl:stylesheet version=\"1.0\" "
+        + "xmlns:xsl=\"http://www.w3.org/1999/XSL/Transform\">%s</xsl:stylesheet>";
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    @Test
+    public void testVersionChangesWithImportedStylesheets() throws Exception {
+        File format = stylesheet("format.xsl", "<xsl:import href=\"utils/utils.xsl\"/>", 1000);
+        File utils = stylesheet("utils/utils.xsl", "<xsl:include  href=\"common.xsl\" />", 1000);
+        File common = stylesheet("utils/common.xsl", "", 1000);
+        long version = DSpaceResourceResolver.getVersion(format);
+        assertEquals(version, DSpaceResourceResolver.getVersion(format));
+
+        common.setLastModified(2000);
+        long changed = DSpaceResourceResolver.getVersion(format);
+        assertNotEquals(version, changed);
+
+        // going back to an older file is a change too
+        utils.setLastModified(0);
+        assertNotEquals(changed, DSpaceResourceResolver.getVersion(format));
+    }
+
+    @Test
+    public void testCyclicImports() throws Exception {
+        File first = stylesheet("first.xsl", "<xsl:import href=\"second.xsl\"/>", 1000);
+        File second = stylesheet("second.xsl", "<xsl:import href=\"first.xsl\"/>", 1000);
+        long version = DSpaceResourceResolver.getVersion(first);
+
+        second.setLastModified(2000);
+        assertNotEquals(version, DSpaceResourceResolver.getVersion(first));
+    }
+
+    private File stylesheet(String path, String content, long lastModified) throws IOException {
+        File file = new File(folder.getRoot(), path);
+        file.getParentFile().mkdirs();
+        Files.write(file.toPath(), String.format(STYLESHEET, content).getBytes(StandardCharsets.UTF_8));
+        file.setLastModified(lastModified);
+        return file;
+    }
+}
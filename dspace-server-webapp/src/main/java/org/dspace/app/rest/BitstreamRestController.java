@@ -12,6 +12,8 @@ import static org.dspace.app.rest.utils.RegexUtils.REGEX_REQUESTMAPPING_IDENTIFI
 import static org.springframework.web.bind.annotation.RequestMethod.PUT;
 
 import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.sql.SQLException;
 import java.util.List;
 import java.util.UUID;
@@ -43,6 +45,8 @@ import org.dspace.usage.UsageEvent;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.data.rest.webmvc.ResourceNotFoundException;
 import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpRange;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PostAuthorize;
 import org.springframework.security.access.prepost.PreAuthorize;
@@ -77,6 +81,12 @@ public class BitstreamRestController {
     //Most file systems are configured to use block sizes of 4096 or 8192 and our buffer should be a multiple of that.
     private static final int BUFFER_SIZE = 4096 * 10;
 
+    // Request attributes of the (Tomcat) servlet container's sendfile support
+    private static final String SENDFILE_SUPPORT = "org.apache.tomcat.sendfile.support";
+    private static final String SENDFILE_FILENAME = "org.apache.tomcat.sendfile.filename";
+    private static final String SENDFILE_START = "org.apache.tomcat.sendfile.start";
+    private static final String SENDFILE_END = "org.apache.tomcat.sendfile.end";
+
     @Autowired
     private BitstreamService bitstreamService;
 
@@ -155,6 +165,21 @@ public class BitstreamRestController {
             org.dspace.app.rest.utils.BitstreamResource bitstreamResource =
                 new org.dspace.app.rest.utils.BitstreamResource(
                     name, uuid, currentUser != null ? currentUser.getID() : null, citationEnabledForBitstream);
+            String rangeHeader = request.getHeader(HttpHeaders.RANGE);
+            if (StringUtils.isNotBlank(rangeHeader)) {
+                try {
+                    bitstreamResource.setRanges(HttpRange.parseRanges(rangeHeader));
+                } catch (IllegalArgumentException e) {
+                    // invalid range, Spring produces the error response
+                }
+            }
+
+            // HEAD requests have no body, the container would send the whole file anyway
+            Path localPath = null;
+            if (!citationEnabledForBitstream && !RequestMethod.HEAD.name().equals(request.getMethod())
+                && configurationService.getBooleanProperty("webui.content.sendfile.enabled", true)) {
+                localPath = bitstreamService.getLocalPath(context, bit);
+            }
 
             //We have all the data we need, close the connection to the database so that it doesn't stay open during
             //download/streaming
@@ -163,6 +188,12 @@ public class BitstreamRestController {
             //Send the data
             if (httpHeadersInitializer.isValid()) {
                 HttpHeaders httpHeaders = httpHeadersInitializer.initialiseHeaders();
+                if (httpHeaders != null && localPath != null) {
+                    ResponseEntity sendFileResponse = sendFile(request, httpHeaders, localPath);
+                    if (sendFileResponse != null) {
+                        return sendFileResponse;
+                    }
+                }
                 return ResponseEntity.ok().headers(httpHeaders).body(bitstreamResource);
             }
 
@@ -175,6 +206,55 @@ public class BitstreamRestController {
         return null;
     }
 
+    /**
+     * Let the servlet container send the file directly from the local file system using its sendfile support
+     * (e.g. Tomcat with the NIO connector), so the content is copied by the kernel instead of through the JVM
+     * heap. Only GET requests for the full file or a single byte range are sent this way; conditional headers have
+     * already been
+     * checked by {@link HttpHeadersInitializer#isValid()}.
+     *
+     * @param request     the current request
+     * @param httpHeaders the headers of the response
+     * @param path        the local file holding the bitstream
+     * @return the (body-less) response, or null if the file cannot be sent this way and should be streamed
+     * @throws IOException if the file cannot be read
+     */
+    private ResponseEntity sendFile(HttpServletRequest request, HttpHeaders httpHeaders, Path path)
+        throws IOException {
+        if (!Boolean.TRUE.equals(request.getAttribute(SENDFILE_SUPPORT))
+            || StringUtils.isNotBlank(request.getHeader(HttpHeaders.IF_RANGE))) {
+            return null;
+        }
+        long length = Files.size(path);
+        long start = 0;
+        long end = length - 1;
+        HttpStatus status = HttpStatus.OK;
+
+        String rangeHeader = request.getHeader(HttpHeaders.RANGE);
+        if (StringUtils.isNotBlank(rangeHeader)) {
+            try {
+                List<HttpRange> ranges = HttpRange.parseRanges(rangeHeader);
+                if (ranges.size() != 1 || length == 0) {
+                    // multipart/byteranges responses are left to Spring
+                    return null;
+                }
+                start = ranges.get(0).getRangeStart(length);
+                end = ranges.get(0).getRangeEnd(length);
+            } catch (IllegalArgumentException e) {
+                // invalid or unsatisfiable range, let Spring produce the error response
+                return null;
+            }
+            httpHeaders.set(HttpHeaders.CONTENT_RANGE, "bytes " + start + "-" + end + "/" + length);
+            status = HttpStatus.PARTIAL_CONTENT;
+        }
+
+        httpHeaders.setContentLength(end - start + 1);
+        request.setAttribute(SENDFILE_FILENAME, path.toAbsolutePath().toString());
+        request.setAttribute(SENDFILE_START, start);
+        request.setAttribute(SENDFILE_END, end + 1);
+        return ResponseEntity.status(status).headers(httpHeaders).build();
+    }
+
     private String getBitstreamName(Bitstream bit, BitstreamFormat format) {
         String name = bit.getName();
         if (name == null) {
@@ -8,6 +8,8 @@
 package org.dspace.app.rest.authorization;
 
 import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
 
 import org.dspace.app.rest.model.BaseObjectRest;
 import org.dspace.app.rest.model.RestAddressableModel;
@@ -35,6 +37,28 @@ public interface AuthorizationFeature {
      */
     boolean isAuthorized(Context context, BaseObjectRest object) throws SQLException;
 
+    /**
+     * Check the feature for several objects at once, e.g. a whole page of objects. The default implementation calls
+     * {@link #isAuthorized(Context, BaseObjectRest)} for each object, features which can check many objects with less
+     * queries should override it.
+     *
+     * @param context
+     *            the DSpace Context
+     * @param objects
+     *            the objects target by the feature, all of a supported type (MUST be NOT null)
+     * @return the objects for which the user associated with the context has access to the feature, in the order of
+     *         the given list
+     */
+    default List<BaseObjectRest> findAuthorized(Context context, List<BaseObjectRest> objects) throws SQLException {
+        List<BaseObjectRest> authorized = new ArrayList<>();
+        for (BaseObjectRest object : objects) {
+            if (isAuthorized(context, object)) {
+                authorized.add(object);
+            }
+        }
+        return authorized;
+    }
+
     /**
      * Return the name of the feature
      * 
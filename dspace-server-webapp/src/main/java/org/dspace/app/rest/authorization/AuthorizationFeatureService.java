@@ -36,6 +36,24 @@ public interface AuthorizationFeatureService {
      */
     boolean isAuthorized(Context context, AuthorizationFeature feature, BaseObjectRest object) throws SQLException;
 
+    /**
+     * Check if the eperson in the provided context, or the anonymous user if not loggedin, has access to the requested
+     * feature for each of the requested objects, using {@link AuthorizationFeature#findAuthorized(Context, List)} so
+     * that features can check a whole page of objects at once
+     *
+     * @param context
+     *            the DSpace Context
+     * @param feature
+     *            the Authorization Feature to check
+     * @param objects
+     *            the objects target by the feature. Null objects and objects of an unsupported type are never
+     *            authorized
+     * @return the objects for which the user associated with the context has access to the feature, in the order of
+     *         the given list
+     */
+    List<BaseObjectRest> findAuthorized(Context context, AuthorizationFeature feature, List<BaseObjectRest> objects)
+        throws SQLException;
+
     /**
      * Get all the authorization features defined in the system
      *
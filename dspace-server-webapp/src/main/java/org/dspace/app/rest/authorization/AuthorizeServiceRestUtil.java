@@ -8,7 +8,11 @@
 package org.dspace.app.rest.authorization;
 
 import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
 import java.util.Objects;
+import java.util.Set;
 
 import org.dspace.app.rest.model.BaseObjectRest;
 import org.dspace.app.rest.security.DSpaceRestPermission;
@@ -48,12 +52,61 @@ public class AuthorizeServiceRestUtil {
                                           DSpaceRestPermission dSpaceRestPermission)
         throws SQLException {
 
-        DSpaceObject dSpaceObject = (DSpaceObject)utils.getDSpaceAPIObjectFromRest(context, object);
+        DSpaceObject dSpaceObject = getDSpaceObject(context, object, dSpaceRestPermission);
         if (dSpaceObject == null) {
             return false;
         }
 
-        EPerson ePerson = context.getCurrentUser();
+        return authorizeService.authorizeActionBoolean(context, context.getCurrentUser(), dSpaceObject,
+            dSpaceRestPermission.getDspaceApiActionId(), true);
+    }
+
+    /**
+     * Checks the given action on several rest objects at once, resolving the policies of all objects with a few
+     * queries (see {@link AuthorizeService#filterAuthorized(Context, EPerson, List, int, boolean)}).
+     *
+     * @param context               DSpace context
+     * @param objects               The Rest objects to test the action against
+     * @param dSpaceRestPermission  The permission to check
+     * @return The objects on which the action is allowed by the logged in ePerson, in the order of the given list
+     * @throws SQLException
+     */
+    public List<BaseObjectRest> filterAuthorized(Context context, List<BaseObjectRest> objects,
+                                                 DSpaceRestPermission dSpaceRestPermission)
+        throws SQLException {
+
+        List<BaseObjectRest> candidates = new ArrayList<>();
+        List<DSpaceObject> dSpaceObjects = new ArrayList<>();
+        for (BaseObjectRest object : objects) {
+            DSpaceObject dSpaceObject = getDSpaceObject(context, object, dSpaceRestPermission);
+            if (dSpaceObject != null) {
+                candidates.add(object);
+                dSpaceObjects.add(dSpaceObject);
+            }
+        }
+
+        Set<DSpaceObject> authorized = new HashSet<>(authorizeService.filterAuthorized(context,
+            context.getCurrentUser(), dSpaceObjects, dSpaceRestPermission.getDspaceApiActionId(), true));
+        List<BaseObjectRest> result = new ArrayList<>();
+        for (int i = 0; i < candidates.size(); i++) {
+            if (authorized.contains(dSpaceObjects.get(i))) {
+                result.add(candidates.get(i));
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Get the DSpace object of a rest object on which the given permission can be evaluated
+     *
+     * @return the DSpace object, or null if it doesn't exist or the permission can't be granted on it
+     */
+    private DSpaceObject getDSpaceObject(Context context, BaseObjectRest object,
+                                         DSpaceRestPermission dSpaceRestPermission) throws SQLException {
+        DSpaceObject dSpaceObject = (DSpaceObject)utils.getDSpaceAPIObjectFromRest(context, object);
+        if (dSpaceObject == null) {
+            return null;
+        }
 
         // If the item is still inprogress we can process here only the READ permission.
         // Other actions need to be evaluated against the wrapper object (workspace or workflow item)
@@ -61,11 +114,9 @@ public class AuthorizeServiceRestUtil {
             Item item = (Item) dSpaceObject;
             if (!DSpaceRestPermission.READ.equals(dSpaceRestPermission)
                 && (itemService.isInProgressSubmission(context, item) || Objects.nonNull(item.getTemplateItemOf()))) {
-                return false;
+                return null;
             }
         }
-
-        return authorizeService.authorizeActionBoolean(context, ePerson, dSpaceObject,
-            dSpaceRestPermission.getDspaceApiActionId(), true);
+        return dSpaceObject;
     }
 }
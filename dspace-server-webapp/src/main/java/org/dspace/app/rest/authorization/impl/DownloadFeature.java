@@ -8,6 +8,8 @@
 package org.dspace.app.rest.authorization.impl;
 
 import java.sql.SQLException;
+import java.util.List;
+import java.util.stream.Collectors;
 
 import org.dspace.app.rest.authorization.AuthorizationFeature;
 import org.dspace.app.rest.authorization.AuthorizationFeatureDocumentation;
@@ -42,6 +44,14 @@ public class DownloadFeature implements AuthorizationFeature {
         return false;
     }
 
+    @Override
+    public List<BaseObjectRest> findAuthorized(Context context, List<BaseObjectRest> objects) throws SQLException {
+        List<BaseObjectRest> bitstreams = objects.stream()
+                                                 .filter(object -> object instanceof BitstreamRest)
+                                                 .collect(Collectors.toList());
+        return authorizeServiceRestUtil.filterAuthorized(context, bitstreams, DSpaceRestPermission.READ);
+    }
+
     @Override
     public String[] getSupportedTypes() {
         return new String[]{
@@ -8,6 +8,8 @@
 package org.dspace.app.rest.authorization.impl;
 
 import java.sql.SQLException;
+import java.util.List;
+import java.util.stream.Collectors;
 
 import org.dspace.app.rest.authorization.AuthorizationFeature;
 import org.dspace.app.rest.authorization.AuthorizationFeatureDocumentation;
@@ -41,16 +43,27 @@ public class EditMetadataFeature implements AuthorizationFeature {
 
     @Override
     public boolean isAuthorized(Context context, BaseObjectRest object) throws SQLException {
-        if (object instanceof CommunityRest
+        if (isEditable(object)) {
+            return authorizeServiceRestUtil.authorizeActionBoolean(context, object, DSpaceRestPermission.WRITE);
+        }
+        return false;
+    }
+
+    @Override
+    public List<BaseObjectRest> findAuthorized(Context context, List<BaseObjectRest> objects) throws SQLException {
+        List<BaseObjectRest> editable = objects.stream()
+                                               .filter(this::isEditable)
+                                               .collect(Collectors.toList());
+        return authorizeServiceRestUtil.filterAuthorized(context, editable, DSpaceRestPermission.WRITE);
+    }
+
+    private boolean isEditable(BaseObjectRest object) {
+        return object instanceof CommunityRest
                 || object instanceof CollectionRest
                 || object instanceof ItemRest
                 || object instanceof BundleRest
                 || object instanceof BitstreamRest
-                || object instanceof SiteRest
-        ) {
-            return authorizeServiceRestUtil.authorizeActionBoolean(context, object, DSpaceRestPermission.WRITE);
-        }
-        return false;
+                || object instanceof SiteRest;
     }
 
     @Override
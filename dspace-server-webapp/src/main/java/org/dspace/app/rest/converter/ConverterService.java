@@ -11,7 +11,9 @@ import java.lang.annotation.Annotation;
 import java.lang.reflect.Constructor;
 import java.lang.reflect.InvocationTargetException;
 import java.lang.reflect.Method;
+import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
@@ -202,6 +204,7 @@ public class ConverterService {
      * @throws ClassCastException if the converter's return type is not compatible with the inferred return type.
      */
     public <M, R> Page<R> toRestPage(List<M> modelObjects, Pageable pageable, Projection projection) {
+        prefetch(modelObjects, projection);
         List<R> transformedList = new LinkedList<>();
         for (M modelObject : modelObjects) {
             R transformedObject = toRest(modelObject, projection);
@@ -229,6 +232,7 @@ public class ConverterService {
      * @return the page.
      */
     public <M, R> Page<R> toRestPage(List<M> modelObjects, Pageable pageable, long total, Projection projection) {
+        prefetch(modelObjects, projection);
         List<R> transformedList = new LinkedList<>();
         for (M modelObject : modelObjects) {
             R transformedObject = toRest(modelObject, projection);
@@ -243,6 +247,31 @@ public class ConverterService {
     }
 
 
+    /**
+     * Prepares the conversion of a list of model objects with the given projection, by calling
+     * {@link DSpaceConverter#prefetch(List, Projection)} once for all objects handled by the same converter, so that
+     * what their conversion needs is loaded with a few queries for the whole list, rather than object by object.
+     * The page conversion methods call it before converting the objects; it should be called as well by any other
+     * code converting a list of objects with {@link #toRest(Object, Projection)}.
+     *
+     * @param modelObjects the model objects about to be converted.
+     * @param projection the projection which is going to be used.
+     * @throws IllegalArgumentException if there is no compatible converter.
+     */
+    public void prefetch(List<?> modelObjects, Projection projection) {
+        Map<DSpaceConverter, List<Object>> objectsByConverter = new LinkedHashMap<>();
+        for (Object modelObject : modelObjects) {
+            if (modelObject != null) {
+                DSpaceConverter converter = requireConverter(modelObject.getClass());
+                objectsByConverter.computeIfAbsent(converter, key -> new ArrayList<>())
+                                  .add(projection.transformModel(modelObject));
+            }
+        }
+        for (Map.Entry<DSpaceConverter, List<Object>> entry : objectsByConverter.entrySet()) {
+            entry.getKey().prefetch(entry.getValue(), projection);
+        }
+    }
+
     /**
      * Gets the converter supporting the given class as input.
      *
@@ -7,6 +7,8 @@
  */
 package org.dspace.app.rest.converter;
 
+import java.util.List;
+
 import org.dspace.app.rest.projection.Projection;
 
 /**
@@ -27,6 +29,18 @@ public interface DSpaceConverter<M, R> {
      */
     R convert(M modelObject, Projection projection);
 
+    /**
+     * Prepare the conversion of several model objects with a given projection (e.g. the objects of a page), by
+     * loading whatever their conversion and the embeds of the projection are going to need (lazily loaded
+     * associations, authorizations...) with a few queries for all objects. It is called by the
+     * {@link ConverterService} before the objects are converted one by one. Does nothing by default.
+     *
+     * @param modelObjects the DSpace API model objects about to be converted.
+     * @param projection the projection which is going to be applied.
+     */
+    default void prefetch(List<? extends M> modelObjects, Projection projection) {
+    }
+
     /**
      * For what DSpace API model class does this converter convert?
      * @return Class of model objects represented.
@@ -21,6 +21,7 @@ import org.dspace.authorize.service.AuthorizeService;
 import org.dspace.content.DSpaceObject;
 import org.dspace.content.MetadataField;
 import org.dspace.content.MetadataValue;
+import org.dspace.core.Constants;
 import org.dspace.core.Context;
 import org.dspace.services.RequestService;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -72,6 +73,35 @@ public abstract class DSpaceObjectConverter<M extends DSpaceObject, R extends or
 
     protected abstract R newInstance();
 
+    /**
+     * Checks the READ authorization of the current user on all objects at once, so that the checks of each object
+     * during its conversion are answered by the authorization cache of the context.
+     */
+    @Override
+    public void prefetch(List<? extends M> modelObjects, Projection projection) {
+        Context context = ContextUtil.obtainCurrentRequestContext();
+        if (context != null) {
+            try {
+                prefetchReadAuthorizations(context, modelObjects);
+            } catch (SQLException e) {
+                log.error("Error prefetching the authorizations of " + modelObjects.size() + " objects", e);
+            }
+        }
+    }
+
+    /**
+     * Check the READ authorization of the current user on several objects with a few queries, storing the results
+     * in the authorization cache of the context
+     * @param context   The context
+     * @param dsos      The objects
+     * @throws SQLException if database error
+     */
+    protected void prefetchReadAuthorizations(Context context, List<? extends DSpaceObject> dsos)
+        throws SQLException {
+        authorizeService.filterAuthorized(context, context.getCurrentUser(), new ArrayList<DSpaceObject>(dsos),
+                                          Constants.READ, true);
+    }
+
 
     /**
      * Retrieves the metadata list filtered according to the hidden metadata configuration
@@ -9,9 +9,11 @@ package org.dspace.app.rest.converter;
 
 import java.sql.SQLException;
 import java.util.ArrayList;
+import java.util.LinkedHashSet;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.Objects;
+import java.util.Set;
 
 import org.apache.commons.collections4.CollectionUtils;
 import org.apache.commons.lang3.StringUtils;
@@ -19,6 +21,9 @@ import org.apache.logging.log4j.Logger;
 import org.dspace.app.rest.model.ItemRest;
 import org.dspace.app.rest.model.MetadataValueList;
 import org.dspace.app.rest.projection.Projection;
+import org.dspace.app.rest.utils.ContextUtil;
+import org.dspace.content.Bundle;
+import org.dspace.content.DSpaceObject;
 import org.dspace.content.Item;
 import org.dspace.content.MetadataField;
 import org.dspace.content.MetadataValue;
@@ -61,6 +66,39 @@ public class ItemConverter
         return item;
     }
 
+    /**
+     * Loads the metadata and handles of all items with a few queries, and their owning collections, bundles and
+     * bitstreams as well (along with the READ authorizations on them) when the projection may embed them.
+     */
+    @Override
+    public void prefetch(List<? extends Item> modelObjects, Projection projection) {
+        super.prefetch(modelObjects, projection);
+        Context context = ContextUtil.obtainCurrentRequestContext();
+        if (context == null) {
+            return;
+        }
+        boolean withBundles = !Projection.DEFAULT.getName().equals(projection.getName());
+        List<Item> items = new ArrayList<>(modelObjects);
+        try {
+            itemService.prefetch(context, items, withBundles);
+            if (withBundles) {
+                Set<DSpaceObject> dsos = new LinkedHashSet<>();
+                for (Item item : items) {
+                    if (item.getOwningCollection() != null) {
+                        dsos.add(item.getOwningCollection());
+                    }
+                    for (Bundle bundle : item.getBundles()) {
+                        dsos.add(bundle);
+                        dsos.addAll(bundle.getBitstreams());
+                    }
+                }
+                prefetchReadAuthorizations(context, new ArrayList<>(dsos));
+            }
+        } catch (SQLException e) {
+            log.error("Error prefetching the content of " + items.size() + " items", e);
+        }
+    }
+
     /**
      * Retrieves the metadata list filtered according to the hidden metadata configuration
      * When the context is null, it will return the metadatalist as for an anonymous user
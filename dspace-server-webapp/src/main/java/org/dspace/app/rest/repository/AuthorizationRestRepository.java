@@ -13,7 +13,13 @@ import static org.apache.commons.lang3.StringUtils.isNotBlank;
 
 import java.sql.SQLException;
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
 import java.util.UUID;
 import java.util.stream.Collectors;
 
@@ -206,7 +212,7 @@ public class AuthorizationRestRepository extends DSpaceRestRepository<Authorizat
     private List<Authorization> findAuthorizationsByUUIDList(
         Context context,
         String type, List<String> uuidList, EPerson user,
-        List<String> featureNames) {
+        List<String> featureNames) throws SQLException {
 
         if (featureNames.isEmpty()) {
             return new ArrayList<>();
@@ -216,17 +222,32 @@ public class AuthorizationRestRepository extends DSpaceRestRepository<Authorizat
 
         List<BaseObjectRest> objects = uuidList.stream()
             .map(uuid -> utils.getBaseObjectRestFromTypeAndUUID(context, type, uuid))
+            .filter(Objects::nonNull)
             .collect(Collectors.toList());
 
-        objects.forEach(object ->
-            featureNames.forEach(featureName -> {
-                try {
+        // check each feature for the whole list of objects at once, so that features can use bulk queries
+        Map<String, Set<BaseObjectRest>> authorizedObjects = new HashMap<>();
+        for (String featureName : featureNames) {
+            if (isNotBlank(featureName) && !authorizedObjects.containsKey(featureName)) {
+                Set<BaseObjectRest> authorized = Collections.newSetFromMap(new IdentityHashMap<>());
+                authorized.addAll(authorizationFeatureService.findAuthorized(context,
+                    authorizationFeatureService.find(featureName), objects));
+                authorizedObjects.put(featureName, authorized);
+            }
+        }
+
+        for (BaseObjectRest object : objects) {
+            for (String featureName : featureNames) {
+                if (isNotBlank(featureName)) {
+                    if (authorizedObjects.get(featureName).contains(object)) {
+                        authorizations.add(
+                            new Authorization(user, authorizationFeatureService.find(featureName), object));
+                    }
+                } else {
                     authorizations.addAll(authorizationsForObject(context, user, featureName, object));
-                } catch (Exception ex) {
-                    log.error("An error occurred during authorizations check");
-                    throw new RuntimeException(ex);
                 }
-            }));
+            }
+        }
         return authorizations;
     }
 
@@ -52,7 +52,7 @@ public class ItemRelationshipLinkRepository extends AbstractDSpaceRestRepository
             if (item == null) {
                 throw new ResourceNotFoundException("No such item: " + itemId);
             }
-            int total = relationshipService.countByItem(context, item);
+            int total = relationshipService.countByItem(context, item, true);
             Pageable pageable = utils.getPageable(optionalPageable);
             List<Relationship> relationships = relationshipService.findByItem(context, item,
                     pageable.getPageSize(), Math.toIntExact(pageable.getOffset()), true);
@@ -7,12 +7,20 @@
  */
 package org.dspace.app.rest.security.jwt;
 
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
 import java.sql.SQLException;
 import java.text.ParseException;
 import java.util.Date;
 import java.util.List;
+import java.util.Objects;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import javax.annotation.PostConstruct;
 import javax.servlet.http.HttpServletRequest;
 
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
 import com.nimbusds.jose.CompressionAlgorithm;
 import com.nimbusds.jose.EncryptionMethod;
 import com.nimbusds.jose.JOSEException;
@@ -32,6 +40,7 @@ import com.nimbusds.jwt.JWTClaimsSet;
 import com.nimbusds.jwt.SignedJWT;
 import com.nimbusds.jwt.util.DateUtils;
 import org.apache.commons.codec.binary.Base64;
+import org.apache.commons.codec.digest.DigestUtils;
 import org.apache.commons.lang3.StringUtils;
 import org.dspace.authorize.AuthorizeException;
 import org.dspace.core.Context;
@@ -79,6 +88,31 @@ public abstract class JWTTokenHandler {
     private String generatedJwtKey;
     private String generatedEncryptionKey;
 
+    /**
+     * Tokens which were recently verified, by SHA-256 digest of the token. Null if caching is disabled.
+     */
+    private Cache<String, VerifiedToken> verifiedTokens;
+
+    /**
+     * Set up the cache of verified tokens, if it is enabled for this type of token
+     */
+    @PostConstruct
+    public void init() {
+        String sizeKey = getCacheSizeConfigurationKey();
+        String expirationKey = getCacheExpirationConfigurationKey();
+        if (sizeKey == null || expirationKey == null) {
+            return;
+        }
+        long size = configurationService.getLongProperty(sizeKey, 10000);
+        long expiration = configurationService.getLongProperty(expirationKey, 300000);
+        if (size > 0 && expiration > 0) {
+            verifiedTokens = CacheBuilder.newBuilder()
+                                         .maximumSize(size)
+                                         .expireAfterWrite(expiration, TimeUnit.MILLISECONDS)
+                                         .build();
+        }
+    }
+
     /**
      * Get the configuration property key for the token secret.
      * @return the configuration property key
@@ -109,6 +143,22 @@ public abstract class JWTTokenHandler {
      */
     protected abstract String getCompressionEnabledConfigurationKey();
 
+    /**
+     * Get the configuration property key for the maximum number of verified tokens to cache.
+     * @return the configuration property key, or null if verified tokens are never cached
+     */
+    protected String getCacheSizeConfigurationKey() {
+        return null;
+    }
+
+    /**
+     * Get the configuration property key for the time (in milliseconds) a verified token is cached.
+     * @return the configuration property key, or null if verified tokens are never cached
+     */
+    protected String getCacheExpirationConfigurationKey() {
+        return null;
+    }
+
     /**
      * Retrieve EPerson from a JSON Web Token (JWT)
      *
@@ -125,6 +175,17 @@ public abstract class JWTTokenHandler {
         if (StringUtils.isBlank(token)) {
             return null;
         }
+        // a recently verified token only needs checking against the current state of its EPerson
+        String digest = verifiedTokens != null ? DigestUtils.sha256Hex(token) : null;
+        VerifiedToken verifiedToken = digest != null ? verifiedTokens.getIfPresent(digest) : null;
+        if (verifiedToken != null) {
+            EPerson ePerson = getEPerson(context, verifiedToken.claimsSet);
+            if (verifiedToken.isValidFor(ePerson, buildVerificationKey(ePerson))) {
+                parseClaims(context, request, verifiedToken.claimsSet);
+                return ePerson;
+            }
+            verifiedTokens.invalidate(digest);
+        }
         // parse/decrypt the token
         SignedJWT signedJWT = getSignedJWT(token);
         // get the claims set from the parsed token
@@ -137,8 +198,10 @@ public abstract class JWTTokenHandler {
 
             log.debug("Received valid token for username: " + ePerson.getEmail());
 
-            for (JWTClaimProvider jwtClaimProvider : jwtClaimProviders) {
-                jwtClaimProvider.parseClaim(context, request, jwtClaimsSet);
+            parseClaims(context, request, jwtClaimsSet);
+            if (digest != null) {
+                verifiedTokens.put(digest, new VerifiedToken(ePerson.getID(), jwtClaimsSet,
+                                                             buildVerificationKey(ePerson)));
             }
 
             return ePerson;
@@ -197,6 +260,7 @@ public abstract class JWTTokenHandler {
             EPerson ePerson = parseEPersonFromToken(token, request, context);
             if (ePerson != null) {
                 ePerson.setSessionSalt("");
+                invalidateCachedTokens(ePerson);
             }
 
         }
@@ -322,6 +386,47 @@ public abstract class JWTTokenHandler {
         return ePersonClaimProvider.getEPerson(context, jwtClaimsSet);
     }
 
+    /**
+     * Let all claim providers set up the current Context from the given (valid) JWT claims set
+     * @param context current Context
+     * @param request current request
+     * @param jwtClaimsSet JWT claims set
+     * @throws SQLException
+     */
+    private void parseClaims(Context context, HttpServletRequest request, JWTClaimsSet jwtClaimsSet)
+        throws SQLException {
+        for (JWTClaimProvider jwtClaimProvider : jwtClaimProviders) {
+            jwtClaimProvider.parseClaim(context, request, jwtClaimsSet);
+        }
+    }
+
+    /**
+     * Digest the keys a token of the given EPerson is verified with, so that a cached token is no longer accepted
+     * once its EPerson's session salt or the server keys change.
+     * @param ePerson EPerson of the token
+     * @return SHA-256 digest of the keys, or null if there is no EPerson
+     */
+    private byte[] buildVerificationKey(EPerson ePerson) {
+        if (ePerson == null) {
+            return null;
+        }
+        String key = buildSigningKey(ePerson);
+        if (isEncryptionEnabled()) {
+            key += new String(getEncryptionKey(), StandardCharsets.UTF_8);
+        }
+        return DigestUtils.sha256(key);
+    }
+
+    /**
+     * Remove all cached tokens of the given EPerson
+     * @param ePerson EPerson whose session changed
+     */
+    private void invalidateCachedTokens(EPerson ePerson) {
+        if (verifiedTokens != null) {
+            verifiedTokens.asMap().values().removeIf(verified -> Objects.equals(verified.ePersonId, ePerson.getID()));
+        }
+    }
+
     /**
      * Create a signed JWT from the given EPerson and claims set.
      * @param request current request
@@ -413,6 +518,7 @@ public abstract class JWTTokenHandler {
                 log.debug("Regenerating auth token as session salt was either empty or expired..");
                 ePerson.setSessionSalt(generateRandomKey());
                 ePersonService.update(context, ePerson);
+                invalidateCachedTokens(ePerson);
             }
 
         } catch (AuthorizeException e) {
@@ -433,4 +539,33 @@ public abstract class JWTTokenHandler {
         byte[] secretKey = bytesKeyGenerator.generateKey();
         return Base64.encodeBase64String(secretKey);
     }
+
+    /**
+     * A token whose signature was verified, with the claims it holds
+     */
+    private static class VerifiedToken {
+        private final UUID ePersonId;
+        private final JWTClaimsSet claimsSet;
+        private final byte[] verificationKey;
+
+        VerifiedToken(UUID ePersonId, JWTClaimsSet claimsSet, byte[] verificationKey) {
+            this.ePersonId = ePersonId;
+            this.claimsSet = claimsSet;
+            this.verificationKey = verificationKey;
+        }
+
+        /**
+         * The token is still valid if its EPerson still has an active session with the same keys, and it has not
+         * expired (without any clock skew, a token about to expire is verified again).
+         */
+        boolean isValidFor(EPerson ePerson, byte[] currentVerificationKey) {
+            Date expirationTime = claimsSet.getExpirationTime();
+            return ePerson != null
+                && StringUtils.isNotBlank(ePerson.getSessionSalt())
+                && Objects.equals(ePersonId, ePerson.getID())
+                && MessageDigest.isEqual(verificationKey, currentVerificationKey)
+                && expirationTime != null
+                && expirationTime.after(new Date());
+        }
+    }
 }
@@ -39,4 +39,14 @@ public class LoginJWTTokenHandler extends JWTTokenHandler {
     protected String getCompressionEnabledConfigurationKey() {
         return "jwt.login.compression.enabled";
     }
+
+    @Override
+    protected String getCacheSizeConfigurationKey() {
+        return "jwt.login.cache.max";
+    }
+
+    @Override
+    protected String getCacheExpirationConfigurationKey() {
+        return "jwt.login.cache.expiration";
+    }
 }
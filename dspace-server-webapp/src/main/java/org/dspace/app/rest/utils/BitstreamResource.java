@@ -11,14 +11,19 @@ import java.io.ByteArrayInputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.sql.SQLException;
+import java.util.Collections;
+import java.util.List;
 import java.util.UUID;
 
 import org.apache.commons.io.IOUtils;
 import org.apache.commons.lang3.tuple.Pair;
 import org.dspace.authorize.AuthorizeException;
+import org.dspace.authorize.factory.AuthorizeServiceFactory;
+import org.dspace.authorize.service.AuthorizeService;
 import org.dspace.content.Bitstream;
 import org.dspace.content.factory.ContentServiceFactory;
 import org.dspace.content.service.BitstreamService;
+import org.dspace.core.Constants;
 import org.dspace.core.Context;
 import org.dspace.disseminate.service.CitationDocumentService;
 import org.dspace.eperson.EPerson;
@@ -26,6 +31,7 @@ import org.dspace.eperson.factory.EPersonServiceFactory;
 import org.dspace.eperson.service.EPersonService;
 import org.dspace.utils.DSpace;
 import org.springframework.core.io.AbstractResource;
+import org.springframework.http.HttpRange;
 
 /**
  * This class acts as a {@link AbstractResource} used by Spring's framework to send the data in a proper and
@@ -40,9 +46,11 @@ public class BitstreamResource extends AbstractResource {
     private UUID currentUserUUID;
     private boolean shouldGenerateCoverPage;
     private byte[] file;
+    private List<HttpRange> ranges = Collections.emptyList();
 
     private BitstreamService bitstreamService = ContentServiceFactory.getInstance().getBitstreamService();
     private EPersonService ePersonService = EPersonServiceFactory.getInstance().getEPersonService();
+    private AuthorizeService authorizeService = AuthorizeServiceFactory.getInstance().getAuthorizeService();
     private CitationDocumentService citationDocumentService =
         new DSpace().getServiceManager()
                     .getServicesByType(CitationDocumentService.class).get(0);
@@ -55,6 +63,16 @@ public class BitstreamResource extends AbstractResource {
         this.shouldGenerateCoverPage = shouldGenerateCoverPage;
     }
 
+    /**
+     * Set the byte ranges requested by the client, so that the content of each range can be read from the asset
+     * store with a ranged read of the length of the range (see RangedBitstreamInputStream)
+     *
+     * @param ranges the ranges of the Range header of the request
+     */
+    public void setRanges(List<HttpRange> ranges) {
+        this.ranges = ranges;
+    }
+
     /**
      * Get Potential cover page by array, this method should only be called when a coverpage should be generated
      * In case of failure the original file will be returned
@@ -93,7 +111,9 @@ public class BitstreamResource extends AbstractResource {
             if (shouldGenerateCoverPage) {
                 out = new ByteArrayInputStream(getCoverpageByteArray(context, bitstream));
             } else {
-                out = bitstreamService.retrieve(context, bitstream);
+                // Authorize now, but only open the bitstream on first use, see RangedBitstreamInputStream
+                authorizeService.authorizeAction(context, bitstream, Constants.READ);
+                out = new RangedBitstreamInputStream(bitstream.getSizeBytes());
             }
 
             this.file = null;
@@ -103,6 +123,89 @@ public class BitstreamResource extends AbstractResource {
         }
     }
 
+    /**
+     * InputStream on the content of a bitstream which is only opened on first read. Spring serves HTTP Range
+     * requests by skipping to the start of each requested range; when such a skip happens before anything was
+     * read, the bitstream is opened at the requested offset using a ranged read on the asset store, so that the
+     * bytes before the range are never read from (or, for S3, transferred out of) the asset store. The read is
+     * bounded by the end of the requested range starting at that offset, if any.
+     */
+    private class RangedBitstreamInputStream extends InputStream {
+
+        private final long size;
+        private long offset = 0;
+        private InputStream in;
+
+        RangedBitstreamInputStream(long size) {
+            this.size = size;
+        }
+
+        private InputStream open() throws IOException {
+            if (in == null) {
+                try (Context context = new Context()) {
+                    context.setCurrentUser(ePersonService.find(context, currentUserUUID));
+                    Bitstream bitstream = bitstreamService.find(context, uuid);
+                    long length = getRangeLength();
+                    if (offset == 0 && length < 0) {
+                        in = bitstreamService.retrieve(context, bitstream);
+                    } else {
+                        in = bitstreamService.retrieve(context, bitstream, offset, length);
+                    }
+                } catch (SQLException | AuthorizeException e) {
+                    throw new IOException(e);
+                }
+            }
+            return in;
+        }
+
+        /**
+         * Get the length of the longest requested range starting at the current offset
+         *
+         * @return the length, or -1 to read until the end of the bitstream
+         */
+        private long getRangeLength() {
+            long length = -1;
+            for (HttpRange range : ranges) {
+                if (range.getRangeStart(size) == offset) {
+                    length = Math.max(length, range.getRangeEnd(size) - offset + 1);
+                }
+            }
+            return length;
+        }
+
+        @Override
+        public long skip(long n) throws IOException {
+            if (in != null) {
+                return in.skip(n);
+            }
+            long skipped = Math.max(0, Math.min(n, size - offset));
+            offset += skipped;
+            return skipped;
+        }
+
+        @Override
+        public int read() throws IOException {
+            return open().read();
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) throws IOException {
+            return open().read(b, off, len);
+        }
+
+        @Override
+        public int available() throws IOException {
+            return in != null ? in.available() : 0;
+        }
+
+        @Override
+        public void close() throws IOException {
+            if (in != null) {
+                in.close();
+            }
+        }
+    }
+
     @Override
     public String getFilename() {
         return name;
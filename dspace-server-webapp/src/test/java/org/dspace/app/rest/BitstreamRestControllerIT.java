@@ -28,6 +28,7 @@ import static org.junit.Assert.assertTrue;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.spy;
 import static org.mockito.Mockito.times;
 import static org.springframework.data.rest.webmvc.RestMediaTypes.TEXT_URI_LIST_VALUE;
@@ -38,6 +39,7 @@ import static org.springframework.test.web.servlet.request.MockMvcRequestBuilder
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 import java.io.ByteArrayInputStream;
@@ -95,6 +97,11 @@ import org.springframework.test.util.ReflectionTestUtils;
  */
 public class BitstreamRestControllerIT extends AbstractControllerIntegrationTest {
 
+    private static final String SENDFILE_SUPPORT = "org.apache.tomcat.sendfile.support";
+    private static final String SENDFILE_FILENAME = "org.apache.tomcat.sendfile.filename";
+    private static final String SENDFILE_START = "org.apache.tomcat.sendfile.start";
+    private static final String SENDFILE_END = "org.apache.tomcat.sendfile.end";
+
     protected SolrLoggerService solrLoggerService = StatisticsServiceFactory.getInstance().getSolrLoggerService();
 
     @Autowired
@@ -302,6 +309,107 @@ public class BitstreamRestControllerIT extends AbstractControllerIntegrationTest
             checkNumberOfStatsRecords(bitstream, 0);
     }
 
+    @Test
+    public void retrieveFullBitstreamWithSendfile() throws Exception {
+        createTextBitstream("0123456789");
+
+        //The container supports sendfile, so it is asked to send the whole file
+        getClient().perform(get("/api/core/bitstreams/" + bitstream.getID() + "/content")
+                                .requestAttr(SENDFILE_SUPPORT, true))
+                   .andExpect(status().isOk())
+                   .andExpect(header().longValue("Content-Length", 10))
+                   .andExpect(header().string("ETag", "\"" + bitstream.getChecksum() + "\""))
+                   .andExpect(request().attribute(SENDFILE_FILENAME, not(nullValue())))
+                   .andExpect(request().attribute(SENDFILE_START, 0L))
+                   .andExpect(request().attribute(SENDFILE_END, 10L))
+                   //The body is written by the container
+                   .andExpect(content().bytes(new byte[0]));
+    }
+
+    @Test
+    public void headBitstreamWithSendfile() throws Exception {
+        createTextBitstream("0123456789");
+
+        //A HEAD request has no body, so the container must not be asked to send the file
+        getClient().perform(head("/api/core/bitstreams/" + bitstream.getID() + "/content")
+                                .requestAttr(SENDFILE_SUPPORT, true))
+                   .andExpect(status().isOk())
+                   .andExpect(request().attribute(SENDFILE_FILENAME, nullValue()))
+                   .andExpect(content().bytes(new byte[0]));
+    }
+
+    @Test
+    public void retrieveRangeBitstreamWithSendfile() throws Exception {
+        createTextBitstream("0123456789");
+
+        //The container is asked to send only the requested range
+        getClient().perform(get("/api/core/bitstreams/" + bitstream.getID() + "/content")
+                                .requestAttr(SENDFILE_SUPPORT, true)
+                                .header("Range", "bytes=1-3"))
+                   .andExpect(status().is(206))
+                   .andExpect(header().longValue("Content-Length", 3))
+                   .andExpect(header().string("Content-Range", "bytes 1-3/10"))
+                   .andExpect(request().attribute(SENDFILE_FILENAME, not(nullValue())))
+                   .andExpect(request().attribute(SENDFILE_START, 1L))
+                   .andExpect(request().attribute(SENDFILE_END, 4L));
+
+        //Several ranges are still streamed by Spring
+        getClient().perform(get("/api/core/bitstreams/" + bitstream.getID() + "/content")
+                                .requestAttr(SENDFILE_SUPPORT, true)
+                                .header("Range", "bytes=1-3,5-6"))
+                   .andExpect(status().is(206))
+                   .andExpect(request().attribute(SENDFILE_FILENAME, nullValue()));
+    }
+
+    @Test
+    public void retrieveRangeBitstreamReadsOnlyTheRange() throws Exception {
+        createTextBitstream("0123456789");
+
+        var bitstreamStorageService = StorageServiceFactory.getInstance().getBitstreamStorageService();
+        var bitstreamStorageServiceSpy = spy(bitstreamStorageService);
+        ReflectionTestUtils.setField(bitstreamService, "bitstreamStorageService", bitstreamStorageServiceSpy);
+        try {
+            //The range is read from its offset, for the length of the range
+            getClient().perform(get("/api/core/bitstreams/" + bitstream.getID() + "/content")
+                                    .header("Range", "bytes=4-6"))
+                       .andExpect(status().is(206))
+                       .andExpect(content().bytes("456".getBytes()));
+
+            Mockito.verify(bitstreamStorageServiceSpy).retrieve(any(), eq(bitstream), eq(4L), eq(3L));
+
+            //Each of several ranges is read on its own
+            getClient().perform(get("/api/core/bitstreams/" + bitstream.getID() + "/content")
+                                    .header("Range", "bytes=1-2,7-"))
+                       .andExpect(status().is(206));
+
+            Mockito.verify(bitstreamStorageServiceSpy).retrieve(any(), eq(bitstream), eq(1L), eq(2L));
+            Mockito.verify(bitstreamStorageServiceSpy).retrieve(any(), eq(bitstream), eq(7L), eq(3L));
+            //The bitstream is never read from its start
+            Mockito.verify(bitstreamStorageServiceSpy, never()).retrieve(any(), eq(bitstream));
+        } finally {
+            ReflectionTestUtils.setField(bitstreamService, "bitstreamStorageService", bitstreamStorageService);
+        }
+    }
+
+    private void createTextBitstream(String bitstreamContent) throws Exception {
+        context.turnOffAuthorisationSystem();
+        parentCommunity = CommunityBuilder.createCommunity(context)
+                                          .withName("Parent Community")
+                                          .build();
+        Collection col1 = CollectionBuilder.createCollection(context, parentCommunity).withName("Collection 1").build();
+        try (InputStream is = IOUtils.toInputStream(bitstreamContent, CharEncoding.UTF_8)) {
+            Item publicItem1 = ItemBuilder.createItem(context, col1)
+                                          .withTitle("Public item 1")
+                                          .build();
+            bitstream = BitstreamBuilder
+                .createBitstream(context, publicItem1, is)
+                .withName("Test bitstream")
+                .withMimeType("text/plain")
+                .build();
+        }
+        context.restoreAuthSystemState();
+    }
+
     @Test
     public void testBitstreamName() throws Exception {
 
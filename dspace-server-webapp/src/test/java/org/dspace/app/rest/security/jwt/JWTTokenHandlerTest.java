@@ -9,6 +9,8 @@ package org.dspace.app.rest.security.jwt;
 
 import static org.junit.Assert.assertEquals;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 import java.text.ParseException;
@@ -152,4 +154,25 @@ public class JWTTokenHandlerTest {
         assertEquals(null, parsed);
     }
 
+    @Test
+    public void testCachedToken() throws Exception {
+        when(configurationService.getLongProperty("jwt.login.cache.max", 10000)).thenReturn(10000L);
+        when(configurationService.getLongProperty("jwt.login.cache.expiration", 300000)).thenReturn(300000L);
+        when(configurationService.getLongProperty("jwt.login.token.expiration", 1800000)).thenReturn(1800000L);
+        when(ePersonClaimProvider.getEPerson(any(Context.class), any(JWTClaimsSet.class))).thenReturn(ePerson);
+        loginJWTTokenHandler.init();
+        Date previous = new Date(System.currentTimeMillis() - 10000000000L);
+        String token = loginJWTTokenHandler
+            .createTokenForEPerson(context, new MockHttpServletRequest(), previous);
+
+        assertEquals(ePerson, loginJWTTokenHandler.parseEPersonFromToken(token, httpServletRequest, context));
+        assertEquals(ePerson, loginJWTTokenHandler.parseEPersonFromToken(token, httpServletRequest, context));
+        // the token was only verified the first time
+        verify(loginJWTTokenHandler, times(1)).isValidToken(any(), any(), any(), any());
+
+        // a new session salt makes the cached token invalid
+        when(ePerson.getSessionSalt()).thenReturn("12345678901234567890123456789012");
+        assertEquals(null, loginJWTTokenHandler.parseEPersonFromToken(token, httpServletRequest, context));
+    }
+
 }